@@ -2,11 +2,13 @@ package com.backend.tasks;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
 
-import javax.sql.DataSource;
+import com.backend.tasks.jdbc.MonitoredDataSource;
 
 @SpringBootApplication(scanBasePackages = "com.backend.tasks")
 public class Application {
@@ -15,12 +17,15 @@ public class Application {
     }
 
     @Bean
-    public DataSource dataSource() {
-        return new EmbeddedDatabaseBuilder()
+    public MonitoredDataSource dataSource(@Value("${metrics.queries.enabled:false}") boolean enabled,
+            @Value("${metrics.queries.slow-threshold-ms:100}") long slowQueryThresholdMillis,
+            @Value("${metrics.queries.log-parameter-values:false}") boolean parameterValuesLogged) {
+        final EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
                 .generateUniqueName(true)
                 .setType(EmbeddedDatabaseType.H2)
                 .setScriptEncoding("UTF-8")
                 .ignoreFailedDrops(true)
                 .build();
+        return new MonitoredDataSource(database, enabled, slowQueryThresholdMillis, parameterValuesLogged);
     }
 }
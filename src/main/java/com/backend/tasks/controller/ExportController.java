@@ -0,0 +1,63 @@
+package com.backend.tasks.controller;
+
+import java.net.URI;
+
+import javax.validation.constraints.NotNull;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.backend.tasks.model.Export;
+import com.backend.tasks.service.export.ExportService;
+
+@RestController
+@RequestMapping(path = "/exports")
+public class ExportController {
+
+    @Autowired
+    ExportService exportService;
+
+    /**
+     * Post to /exports endpoint should start export of all organizations with
+     * their users into compressed NDJSON segments. Response status should be 202
+     * with location of the export status, 409 while the maximal number of
+     * exports is running.
+     */
+    @PostMapping
+    public ResponseEntity<?> create() {
+        final Export result;
+        try {
+            result = exportService.start();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        final URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{exportId}")
+                .buildAndExpand(result.getId())
+                .toUri();
+        return ResponseEntity.accepted()
+                .location(location)
+                .body(result);
+    }
+
+    /**
+     * Get to /exports/{exportId} endpoint should return progress of the export
+     * with id=exportId.
+     */
+    @GetMapping("/{exportId}")
+    public ResponseEntity<?> get(@PathVariable(value = "exportId") @NotNull String exportId) {
+        try {
+            final Export result = exportService.getStatus(exportId);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.backend.tasks.controller;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resolves the <code>fields=</code> request parameter into a sparse fieldset
+ */
+final class Fieldsets {
+
+    private Fieldsets() {
+    }
+
+    /**
+     * @return requested fields ordered as in <code>allowed</code> or
+     *         <code>null</code> when nothing or any unknown field was requested
+     */
+    static Set<String> resolve(List<String> requested, Set<String> allowed) {
+        if (requested.isEmpty() || !allowed.containsAll(requested))
+            return null;
+
+        final Set<String> result = new LinkedHashSet<>(allowed);
+        result.retainAll(requested);
+        return result;
+    }
+}
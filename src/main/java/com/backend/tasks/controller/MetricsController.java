@@ -0,0 +1,52 @@
+package com.backend.tasks.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.backend.tasks.model.QueryMetrics;
+import com.backend.tasks.service.metrics.QueryMetricsService;
+
+@RestController
+@RequestMapping(path = "/metrics")
+public class MetricsController {
+
+    @Autowired
+    QueryMetricsService queryMetricsService;
+
+    /**
+     * Get to /metrics/queries endpoint should return statement, per-query and
+     * per-entity counts and times collected since the statistics were enabled or
+     * reset.
+     */
+    @GetMapping("/queries")
+    public ResponseEntity<?> queries() {
+        final QueryMetrics result = queryMetricsService.getMetrics();
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Put to /metrics/queries?enabled=true endpoint should switch collection of
+     * the statistics and logging of slow queries and return the statistics.
+     */
+    @PutMapping("/queries")
+    public ResponseEntity<?> switchQueries(@RequestParam(value = "enabled") boolean enabled) {
+        final QueryMetrics result = queryMetricsService.setEnabled(enabled);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Delete to /metrics/queries endpoint should drop the collected statistics.
+     * Response status should be 204.
+     */
+    @DeleteMapping("/queries")
+    public ResponseEntity<?> resetQueries() {
+        queryMetricsService.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,5 +1,10 @@
 package com.backend.tasks.controller;
 
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import javax.validation.constraints.NotNull;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,18 +17,28 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.backend.tasks.model.Organization;
+import com.backend.tasks.model.OrganizationDeletion;
+import com.backend.tasks.model.OrganizationStats;
+import com.backend.tasks.service.org.OrganizationPurgeService;
 import com.backend.tasks.service.org.OrganizationService;
 
 @RestController
 @RequestMapping(path = "/orgs")
 public class OrganizationController {
 
+    static final int MAX_LIMIT = 1000;
+
     @Autowired
     OrganizationService organizationService;
 
+    @Autowired
+    OrganizationPurgeService organizationPurgeService;
+
     /**
      * Post to /orgs endpoint should create and return organization. Response status
      * should be 201.
@@ -52,11 +67,21 @@ public class OrganizationController {
 
     /**
      * Get to /orgs/{orgId} endpoint should fetch and return organization with
-     * id=orgId.
+     * id=orgId. When fields=a,b parameter is passed only the listed attributes
+     * should be selected and returned. Response status should be 400 when unknown
+     * field is requested.
      */
     @GetMapping("/{orgId}")
-    public ResponseEntity<?> get(@PathVariable(value = "orgId") @NotNull Long orgId) {
+    public ResponseEntity<?> get(@PathVariable(value = "orgId") @NotNull Long orgId,
+            @RequestParam(value = "fields", required = false) List<String> fields) {
+        final Set<String> selected = fields == null ? null : Fieldsets.resolve(fields, Organization.FIELDS);
+        if (fields != null && selected == null)
+            return ResponseEntity.badRequest().build();
         try {
+            if (selected != null) {
+                final Map<String, Object> result = organizationService.getSingle(orgId, selected);
+                return ResponseEntity.ok(result);
+            }
             final Organization result = organizationService.getSingle(orgId);
             return ResponseEntity.ok(result);
         } catch (IllegalArgumentException e) {
@@ -66,13 +91,19 @@ public class OrganizationController {
 
     /**
      * Delete to /orgs/{orgId} endpoint should delete organization with id=orgId.
-     * Response status should be 204.
+     * Users of the organization are purged in background. Response status should
+     * be 202 with location of the deletion status.
      */
     @DeleteMapping("/{orgId}")
     public ResponseEntity<?> delete(@PathVariable(value = "orgId") @NotNull Long orgId) {
         try {
             organizationService.delete(orgId);
-            return ResponseEntity.status(HttpStatus.NO_CONTENT)
+            final URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/deletion")
+                    .build()
+                    .toUri();
+            return ResponseEntity.accepted()
+                    .location(location)
                     .build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
@@ -80,10 +111,64 @@ public class OrganizationController {
     }
 
     /**
-     * Get to /orgs endpoint should return list of all organizations
+     * Get to /orgs/{orgId}/deletion endpoint should return progress of the
+     * organization deletion. Response status should be 404 when no deletion of
+     * the organization is known.
+     */
+    @GetMapping("/{orgId}/deletion")
+    public ResponseEntity<?> deletion(@PathVariable(value = "orgId") @NotNull Long orgId) {
+        try {
+            final OrganizationDeletion result = organizationPurgeService.getStatus(orgId);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Get to /orgs/{orgId}/stats endpoint should return statistics of the
+     * organization with id=orgId, e.g. the count of its users, without scanning
+     * the users. Response status should be 404 when the organization not exists.
+     */
+    @GetMapping("/{orgId}/stats")
+    public ResponseEntity<?> stats(@PathVariable(value = "orgId") @NotNull Long orgId) {
+        try {
+            final OrganizationStats result = organizationService.getStats(orgId);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Get to /orgs?sort=user_count&limit=N endpoint should return up to N
+     * organizations with the most users first, from the maintained counts.
+     * Response status should be 400 when another sort is requested or limit is
+     * out of 1..MAX_LIMIT range.
+     */
+    @GetMapping(params = "sort")
+    public ResponseEntity<?> largest(@RequestParam(value = "sort") String sort,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (!"user_count".equals(sort) || limit < 1 || limit > MAX_LIMIT)
+            return ResponseEntity.badRequest().build();
+        final List<Organization> result = organizationService.getLargest(limit);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Get to /orgs endpoint should return list of all organizations. When
+     * fields=a,b parameter is passed only the listed attributes should be selected
+     * and returned. Response status should be 400 when unknown field is requested.
      */
     @GetMapping
-    public ResponseEntity<?> all() {
+    public ResponseEntity<?> all(@RequestParam(value = "fields", required = false) List<String> fields) {
+        final Set<String> selected = fields == null ? null : Fieldsets.resolve(fields, Organization.FIELDS);
+        if (fields != null && selected == null)
+            return ResponseEntity.badRequest().build();
+        if (selected != null) {
+            final Iterable<Map<String, Object>> result = organizationService.getAll(selected);
+            return ResponseEntity.ok(result);
+        }
         final Iterable<Organization> result = organizationService.getAll();
         return ResponseEntity.ok(result);
     }
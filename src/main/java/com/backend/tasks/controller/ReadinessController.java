@@ -0,0 +1,29 @@
+package com.backend.tasks.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.backend.tasks.model.Readiness;
+import com.backend.tasks.service.warmup.WarmUpService;
+
+@RestController
+public class ReadinessController {
+
+    @Autowired
+    WarmUpService warmUpService;
+
+    /**
+     * Get to /ready endpoint should return the readiness with status 200 when
+     * the application is ready to take traffic and with status 503 while it
+     * warms up.
+     */
+    @GetMapping("/ready")
+    public ResponseEntity<?> ready() {
+        final Readiness result = warmUpService.getReadiness();
+        return ResponseEntity.status(result.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(result);
+    }
+}
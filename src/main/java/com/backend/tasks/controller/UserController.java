@@ -1,9 +1,22 @@
 package com.backend.tasks.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import javax.validation.constraints.NotNull;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,26 +24,64 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.backend.tasks.model.ChangeFeed;
 import com.backend.tasks.model.User;
+import com.backend.tasks.model.UserImport;
+import com.backend.tasks.model.UserLookup;
+import com.backend.tasks.service.change.ChangeLogService;
+import com.backend.tasks.service.change.ChangeStreamService;
+import com.backend.tasks.service.user.PasswordHashingService;
+import com.backend.tasks.service.user.UserImportService;
 import com.backend.tasks.service.user.UserService;
+import com.backend.tasks.service.user.UserVerificationService;
 
 @RestController
 @RequestMapping("/orgs/{orgId}/users")
 public class UserController {
 
+    static final int MAX_IDS = 1000;
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    static final int MAX_CHANGES = 1000;
+
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     @Autowired
     UserService userService;
 
+    @Autowired
+    ChangeLogService changeLogService;
+
+    @Autowired
+    ChangeStreamService changeStreamService;
+
+    @Autowired
+    UserImportService userImportService;
+
+    @Autowired
+    PasswordHashingService passwordHashingService;
+
+    @Autowired
+    UserVerificationService userVerificationService;
+
     /**
      * Post to /orgs/{orgId}/users endpoint should create and return user for
-     * organization with id=orgId. Response status should be 201.
+     * organization with id=orgId. Response status should be 201. The password is
+     * hashed before it's stored and never returned.
      */
     @PostMapping
     public ResponseEntity<?> create(@PathVariable(value = "orgId") @NotNull Long orgId,
             @RequestBody @NotNull User user) {
+        user.setPassword(passwordHashingService.hash(user.getPassword()));
         try {
             final User result = userService.create(orgId, user);
             return ResponseEntity.status(HttpStatus.CREATED)
@@ -40,14 +91,38 @@ public class UserController {
         }
     }
 
+    /**
+     * Post to /orgs/{orgId}/users/import endpoint with text/csv or
+     * application/x-ndjson body should create users for organization with
+     * id=orgId while the body is read. Response status should be 200 with counts
+     * of imported and rejected rows and the first rejected rows.
+     */
+    @PostMapping(path = "/import", consumes = { TEXT_CSV_VALUE, APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<?> importUsers(@PathVariable(value = "orgId") @NotNull Long orgId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        final UserImportService.Format format = MediaType.valueOf(TEXT_CSV_VALUE).includes(contentType)
+                ? UserImportService.Format.CSV
+                : UserImportService.Format.NDJSON;
+        final Charset charset = contentType.getCharset() == null ? StandardCharsets.UTF_8 : contentType.getCharset();
+        try (Reader reader = new InputStreamReader(body, charset)) {
+            final UserImport result = userImportService.importUsers(orgId, reader, format);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     /**
      * Put to /orgs/{orgId}/users/{userId} endpoint should update, save and return
-     * user with id=userId for organization with id=orgId.
+     * user with id=userId for organization with id=orgId. The password is kept
+     * when it's not passed.
      */
     @PutMapping("/{userId}")
     public ResponseEntity<?> update(@PathVariable(value = "orgId") @NotNull Long orgId,
             @PathVariable(value = "userId") @NotNull Long userId,
             @RequestBody @NotNull User user) {
+        user.setPassword(passwordHashingService.hash(user.getPassword()));
         try {
             final User result = userService.update(orgId, userId, user);
             return ResponseEntity.ok(result);
@@ -56,14 +131,45 @@ public class UserController {
         }
     }
 
+    /**
+     * Post to /orgs/{orgId}/users/{userId}/verify endpoint with the password
+     * attribute should check it against the stored password of user with
+     * id=userId for organization with id=orgId and return the verified
+     * attribute. Response status should be 400 when password isn't passed.
+     */
+    @PostMapping("/{userId}/verify")
+    public ResponseEntity<?> verify(@PathVariable(value = "orgId") @NotNull Long orgId,
+            @PathVariable(value = "userId") @NotNull Long userId,
+            @RequestBody @NotNull Map<String, String> credentials) {
+        final String password = credentials.get("password");
+        if (password == null)
+            return ResponseEntity.badRequest().build();
+        try {
+            final boolean result = userVerificationService.verify(orgId, userId, password);
+            return ResponseEntity.ok(Collections.singletonMap("verified", result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     /**
      * Get to /orgs/{orgId}/users/{userId} endpoint should fetch and return user
-     * with id=userId for organization with id=orgId.
+     * with id=userId for organization with id=orgId. When fields=a,b parameter is
+     * passed only the listed attributes should be selected and returned. Response
+     * status should be 400 when unknown field is requested.
      */
     @GetMapping("/{userId}")
     public ResponseEntity<?> get(@PathVariable(value = "orgId") @NotNull Long orgId,
-            @PathVariable(value = "userId") @NotNull Long userId) {
+            @PathVariable(value = "userId") @NotNull Long userId,
+            @RequestParam(value = "fields", required = false) List<String> fields) {
+        final Set<String> selected = fields == null ? null : Fieldsets.resolve(fields, User.FIELDS);
+        if (fields != null && selected == null)
+            return ResponseEntity.badRequest().build();
         try {
+            if (selected != null) {
+                final Map<String, Object> result = userService.getSingle(orgId, userId, selected);
+                return ResponseEntity.ok(result);
+            }
             final User result = userService.getSingle(orgId, userId);
             return ResponseEntity.ok(result);
         } catch (IllegalArgumentException e) {
@@ -89,15 +195,114 @@ public class UserController {
 
     /**
      * Get to /orgs/{orgId}/users endpoint should return list of all users for
-     * organization with id=orgId
+     * organization with id=orgId. When fields=a,b parameter is passed only the
+     * listed attributes should be selected and returned. Response status should
+     * be 400 when unknown field is requested.
      */
     @GetMapping
-    public ResponseEntity<?> all(@PathVariable(value = "orgId") @NotNull Long orgId) {
+    public ResponseEntity<?> all(@PathVariable(value = "orgId") @NotNull Long orgId,
+            @RequestParam(value = "fields", required = false) List<String> fields) {
+        final Set<String> selected = fields == null ? null : Fieldsets.resolve(fields, User.FIELDS);
+        if (fields != null && selected == null)
+            return ResponseEntity.badRequest().build();
         try {
+            if (selected != null) {
+                final Iterable<Map<String, Object>> result = userService.getAll(orgId, selected);
+                return ResponseEntity.ok(result);
+            }
             final Iterable<User> result = userService.getAll(orgId);
             return ResponseEntity.ok(result);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
     }
+
+    /**
+     * Get to /orgs/{orgId}/users?username_prefix=abc endpoint should return a page
+     * of users of organization with id=orgId whose username starts with given
+     * prefix ignoring case, ordered by username. Response status should be 400
+     * when page is negative or size is out of 1..MAX_PAGE_SIZE range.
+     */
+    @GetMapping(params = { "username_prefix", "!ids" })
+    public ResponseEntity<?> search(@PathVariable(value = "orgId") @NotNull Long orgId,
+            @RequestParam(value = "username_prefix") String usernamePrefix,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE)
+            return ResponseEntity.badRequest().build();
+        try {
+            final List<User> result = userService.search(orgId, usernamePrefix, page, size);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Get to /orgs/{orgId}/users?ids=1,2,3 endpoint should return users with
+     * given ids for organization with id=orgId in the requested order along with
+     * the ids which weren't found. Response status should be 400 when more than
+     * MAX_IDS ids are requested.
+     */
+    @GetMapping(params = { "ids", "!username_prefix" })
+    public ResponseEntity<?> multiple(@PathVariable(value = "orgId") @NotNull Long orgId,
+            @RequestParam(value = "ids") List<Long> userIds) {
+        if (userIds.size() > MAX_IDS)
+            return ResponseEntity.badRequest().build();
+        try {
+            final UserLookup result = userService.getMultiple(orgId, userIds);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Get to /orgs/{orgId}/users with both ids and username_prefix parameters
+     * should be rejected, the lookups can't be combined. Response status should
+     * be 400.
+     */
+    @GetMapping(params = { "ids", "username_prefix" })
+    public ResponseEntity<?> multipleAndSearch() {
+        return ResponseEntity.badRequest().build();
+    }
+
+    /**
+     * Get to /orgs/{orgId}/users/changes?since=token endpoint should return
+     * creates, updates and deletes of users and of the organization with id=orgId
+     * committed after the token, oldest first. The returned next token should be
+     * passed as since to continue. Response status should be 400 when since is
+     * negative or limit is out of 1..MAX_CHANGES range, 404 when the
+     * organization doesn't exist.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<?> changes(@PathVariable(value = "orgId") @NotNull Long orgId,
+            @RequestParam(value = "since", defaultValue = "0") long since,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        if (since < 0 || limit < 1 || limit > MAX_CHANGES)
+            return ResponseEntity.badRequest().build();
+        try {
+            final ChangeFeed result = changeLogService.getSince(orgId, since, limit);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Get to /orgs/{orgId}/users/stream endpoint should push creates, updates and
+     * deletes of users of organization with id=orgId as Server-Sent Events once
+     * they are committed. Event id is the change sequence number which could be
+     * passed as since to /orgs/{orgId}/users/changes to catch up after a
+     * disconnect. Response status should be 404 when the organization doesn't
+     * exist.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@PathVariable(value = "orgId") @NotNull Long orgId) {
+        try {
+            return ResponseEntity.ok(changeStreamService.subscribe(orgId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 }
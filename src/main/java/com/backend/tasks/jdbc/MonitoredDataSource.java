@@ -0,0 +1,231 @@
+package com.backend.tasks.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+/**
+ * Times the statements executed over its connections and logs those slower
+ * than the threshold along with types of their bind parameters. The values are
+ * logged only when it's asked for, as they could be secrets. Added listeners are
+ * notified of every statement. While it's disabled and there are no listeners
+ * the connections of the target are returned as is, so it costs nothing. A
+ * connection keeps being monitored until it's closed
+ */
+public class MonitoredDataSource extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitoredDataSource.class);
+
+    private static final int MAX_LOGGED_VALUE_LENGTH = 100;
+
+    private volatile boolean enabled;
+
+    private volatile long slowQueryThresholdNanos;
+
+    private final boolean parameterValuesLogged;
+
+    private final List<StatementListener> listeners = new CopyOnWriteArrayList<>();
+
+    public MonitoredDataSource(DataSource targetDataSource, boolean enabled, long slowQueryThresholdMillis) {
+        this(targetDataSource, enabled, slowQueryThresholdMillis, false);
+    }
+
+    public MonitoredDataSource(DataSource targetDataSource, boolean enabled, long slowQueryThresholdMillis,
+            boolean parameterValuesLogged) {
+        super(targetDataSource);
+        this.enabled = enabled;
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMillis);
+        this.parameterValuesLogged = parameterValuesLogged;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getSlowQueryThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowQueryThresholdNanos);
+    }
+
+    public void addListener(StatementListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(StatementListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Shuts the target down when it's an embedded database, it's called once the
+     * context is closed
+     */
+    public void shutdown() {
+        if (getTargetDataSource() instanceof EmbeddedDatabase)
+            ((EmbeddedDatabase) getTargetDataSource()).shutdown();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return monitor(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return monitor(super.getConnection(username, password));
+    }
+
+    // PRIVATE
+
+    private Connection monitor(Connection connection) {
+        if (!enabled && listeners.isEmpty())
+            return connection;
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static String render(Object value) {
+        if (value == null)
+            return "null";
+        if (value instanceof Number || value instanceof Boolean || value instanceof java.util.Date)
+            return value.toString();
+        if (value instanceof CharSequence) {
+            final String text = value.toString();
+            return text.length() > MAX_LOGGED_VALUE_LENGTH
+                    ? "'" + text.substring(0, MAX_LOGGED_VALUE_LENGTH) + "...'"
+                    : "'" + text + "'";
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    private static String renderType(Object value) {
+        return value == null ? "null" : value.getClass().getSimpleName();
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals"))
+                return proxy == args[0];
+            if (method.getName().equals("hashCode"))
+                return System.identityHashCode(proxy);
+
+            final Object result = MonitoredDataSource.invoke(target, method, args);
+            if (result instanceof Statement) {
+                final Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                        : result instanceof PreparedStatement ? PreparedStatement.class
+                                : Statement.class;
+                final String sql = type == Statement.class ? null : (String) args[0];
+                return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type },
+                        new StatementHandler((Statement) result, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+
+        // null for plain statements, their SQL is passed on execution
+        private final String sql;
+
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+
+        private int batched;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final String name = method.getName();
+            if (name.equals("equals"))
+                return proxy == args[0];
+            if (name.equals("hashCode"))
+                return System.identityHashCode(proxy);
+            if (name.startsWith("execute"))
+                return execute(method, args);
+
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer)
+                parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            else if (name.equals("clearParameters"))
+                parameters.clear();
+            else if (name.equals("addBatch"))
+                batched++;
+            else if (name.equals("clearBatch"))
+                batched = 0;
+            return MonitoredDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            final long start = System.nanoTime();
+            try {
+                return MonitoredDataSource.invoke(target, method, args);
+            } finally {
+                final long elapsed = System.nanoTime() - start;
+                final String statementSql = sql != null ? sql
+                        : args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : "?";
+                for (StatementListener listener : listeners)
+                    listener.executed(statementSql, elapsed);
+                if (enabled && elapsed >= slowQueryThresholdNanos) {
+                    log.warn("Slow query took {} ms: {} {}", TimeUnit.NANOSECONDS.toMillis(elapsed), statementSql,
+                            describeParameters(method));
+                }
+                if (method.getName().equals("executeBatch") || method.getName().equals("executeLargeBatch"))
+                    batched = 0;
+            }
+        }
+
+        private String describeParameters(Method method) {
+            if (method.getName().equals("executeBatch") || method.getName().equals("executeLargeBatch"))
+                return "[batch of " + batched + "]";
+            final StringBuilder result = new StringBuilder("[");
+            for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+                if (result.length() > 1)
+                    result.append(", ");
+                result.append(parameter.getKey()).append('=').append(parameterValuesLogged
+                        ? render(parameter.getValue())
+                        : renderType(parameter.getValue()));
+            }
+            return result.append(']').toString();
+        }
+    }
+}
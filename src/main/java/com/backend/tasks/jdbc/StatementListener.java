@@ -0,0 +1,16 @@
+package com.backend.tasks.jdbc;
+
+/**
+ * Notified of every statement executed over the connections of
+ * {@link MonitoredDataSource} obtained while the listener is added
+ */
+public interface StatementListener {
+
+    /**
+     * @param sql
+     *            executed SQL, <code>?</code> when it's unknown
+     * @param elapsedNanos
+     *            execution time
+     */
+    void executed(String sql, long elapsedNanos);
+}
@@ -0,0 +1,157 @@
+package com.backend.tasks.model;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * Entry of the change log. Sequence numbers are assigned in the commit order so
+ * the log could be read incrementally
+ */
+@Entity
+@Table(name = "change_log", indexes = @Index(name = "change_log_org_sequence_idx", columnList = "org_id, sequence"))
+public class Change implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Subject {
+        ORGANIZATION, USER
+    }
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long sequence;
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    @Column(name = "org_id", nullable = false)
+    private Long organizationId;
+
+    public Long getOrganizationId() {
+        return organizationId;
+    }
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Subject subject;
+
+    public Subject getSubject() {
+        return subject;
+    }
+
+    @Column(nullable = false)
+    private Long subjectId;
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    public Type getType() {
+        return type;
+    }
+
+    // CONSTRUCTORS
+
+    @Deprecated // for JPA needs
+    protected Change() {
+    }
+
+    private Change(Long sequence, Long organizationId, Subject subject, Long subjectId, Type type) {
+        this.sequence = sequence;
+        this.organizationId = organizationId;
+        this.subject = subject;
+        this.subjectId = subjectId;
+        this.type = type;
+    }
+
+    // STATIC
+
+    public static Change of(Long sequence, Long organizationId, Subject subject, Long subjectId, Type type) {
+        return new Change(sequence, organizationId, subject, subjectId, type);
+    }
+
+    public static Change of(Long organizationId, Subject subject, Long subjectId, Type type) {
+        return of(null, organizationId, subject, subjectId, type);
+    }
+
+    // hC/eq/toSt
+
+    @Override
+    public int hashCode() {
+        final int prime = 43;
+        int result = 1;
+        result = prime * result + ((sequence == null) ? 0 : sequence.hashCode());
+        result = prime * result + ((organizationId == null) ? 0 : organizationId.hashCode());
+        result = prime * result + ((subject == null) ? 0 : subject.hashCode());
+        result = prime * result + ((subjectId == null) ? 0 : subjectId.hashCode());
+        result = prime * result + ((type == null) ? 0 : type.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (!(obj instanceof Change))
+            return false;
+
+        final Change other = (Change) obj;
+
+        // sequence
+        if (sequence == null) {
+            if (other.sequence != null)
+                return false;
+        } else if (!sequence.equals(other.sequence))
+            return false;
+
+        // organizationId
+        if (organizationId == null) {
+            if (other.organizationId != null)
+                return false;
+        } else if (!organizationId.equals(other.organizationId))
+            return false;
+
+        // subject
+        if (subject != other.subject)
+            return false;
+
+        // subjectId
+        if (subjectId == null) {
+            if (other.subjectId != null)
+                return false;
+        } else if (!subjectId.equals(other.subjectId))
+            return false;
+
+        // type
+        if (type != other.type)
+            return false;
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Change[sequence=%d, organizationId=%d, subject=%s, subjectId=%d, type=%s]",
+                sequence, organizationId, subject, subjectId, type);
+    }
+}
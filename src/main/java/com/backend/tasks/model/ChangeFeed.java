@@ -0,0 +1,81 @@
+package com.backend.tasks.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page of the change log. The <code>next</code> token should be passed as
+ * <code>since</code> to fetch the following changes
+ */
+public final class ChangeFeed {
+
+    private final List<Change> changes;
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    private final String next;
+
+    public String getNext() {
+        return next;
+    }
+
+    // CONSTRUCTORS
+
+    private ChangeFeed(List<Change> changes, String next) {
+        this.changes = changes;
+        this.next = next;
+    }
+
+    // STATIC
+
+    public static ChangeFeed of(List<Change> changes, long since) {
+        final long last = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSequence();
+        return new ChangeFeed(Collections.unmodifiableList(changes), String.valueOf(last));
+    }
+
+    // hC/eq/toSt
+
+    @Override
+    public int hashCode() {
+        final int prime = 47;
+        int result = 1;
+        result = prime * result + ((changes == null) ? 0 : changes.hashCode());
+        result = prime * result + ((next == null) ? 0 : next.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (!(obj instanceof ChangeFeed))
+            return false;
+
+        final ChangeFeed other = (ChangeFeed) obj;
+
+        // changes
+        if (changes == null) {
+            if (other.changes != null)
+                return false;
+        } else if (!changes.equals(other.changes))
+            return false;
+
+        // next
+        if (next == null) {
+            if (other.next != null)
+                return false;
+        } else if (!next.equals(other.next))
+            return false;
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ChangeFeed[changes=%s, next='%s']", changes, next);
+    }
+}
@@ -0,0 +1,137 @@
+package com.backend.tasks.model;
+
+/**
+ * Progress of the full dataset export. Organizations are partitioned by ID
+ * range and every partition is written to its own compressed NDJSON segment
+ * in the export directory
+ */
+public final class Export {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+
+    public String getId() {
+        return id;
+    }
+
+    private final Status status;
+
+    public Status getStatus() {
+        return status;
+    }
+
+    private final String directory;
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    private final int partitions;
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    private final int completedPartitions;
+
+    public int getCompletedPartitions() {
+        return completedPartitions;
+    }
+
+    private final long organizations;
+
+    public long getOrganizations() {
+        return organizations;
+    }
+
+    private final long users;
+
+    public long getUsers() {
+        return users;
+    }
+
+    // CONSTRUCTORS
+
+    private Export(String id, Status status, String directory, int partitions, int completedPartitions,
+            long organizations, long users) {
+        this.id = id;
+        this.status = status;
+        this.directory = directory;
+        this.partitions = partitions;
+        this.completedPartitions = completedPartitions;
+        this.organizations = organizations;
+        this.users = users;
+    }
+
+    // STATIC
+
+    public static Export of(String id, Status status, String directory, int partitions, int completedPartitions,
+            long organizations, long users) {
+        return new Export(id, status, directory, partitions, completedPartitions, organizations, users);
+    }
+
+    // hC/eq/toSt
+
+    @Override
+    public int hashCode() {
+        final int prime = 59;
+        int result = 1;
+        result = prime * result + ((id == null) ? 0 : id.hashCode());
+        result = prime * result + ((status == null) ? 0 : status.hashCode());
+        result = prime * result + ((directory == null) ? 0 : directory.hashCode());
+        result = prime * result + partitions;
+        result = prime * result + completedPartitions;
+        result = prime * result + (int) (organizations ^ (organizations >>> 32));
+        result = prime * result + (int) (users ^ (users >>> 32));
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (!(obj instanceof Export))
+            return false;
+
+        final Export other = (Export) obj;
+
+        // id
+        if (id == null) {
+            if (other.id != null)
+                return false;
+        } else if (!id.equals(other.id))
+            return false;
+
+        // status
+        if (status != other.status)
+            return false;
+
+        // directory
+        if (directory == null) {
+            if (other.directory != null)
+                return false;
+        } else if (!directory.equals(other.directory))
+            return false;
+
+        // counters
+        if (partitions != other.partitions
+                || completedPartitions != other.completedPartitions
+                || organizations != other.organizations
+                || users != other.users)
+            return false;
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Export[id='%s', status=%s, directory='%s', partitions=%d, completedPartitions=%d,"
+                + " organizations=%d, users=%d]", id, status, directory, partitions, completedPartitions,
+                organizations, users);
+    }
+}
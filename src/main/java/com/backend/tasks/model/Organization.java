@@ -1,25 +1,40 @@
 package com.backend.tasks.model;
 
 import java.io.Serializable;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import javax.persistence.Basic;
-import javax.persistence.CascadeType;
+import javax.persistence.Column;
 import javax.persistence.Entity;
-import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import javax.persistence.OneToMany;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Where;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
+// matches the order of the largest Organizations, so they're read from the index without sorting
+@Table(indexes = @Index(name = "organization_user_count_idx", columnList = "user_count desc, id"))
+@Where(clause = "deleted = false")
 public class Organization implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Attributes which could be requested as a sparse fieldset
+     */
+    public static final Set<String> FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(
+            Arrays.asList("id", "name")));
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
 
@@ -44,15 +59,34 @@ public class Organization implements Serializable {
         this.name = name;
     }
 
-    @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL, mappedBy = "organization", orphanRemoval = false)
+    /**
+     * Organization marked as deleted is hidden from the queries while its Users
+     * are purged in background. Updated by the bulk statements only
+     */
+    @Column(nullable = false, updatable = false)
     @JsonIgnore
-    private Set<User> users;
+    private boolean deleted;
 
-    public Set<User> getUsers() {
-        return users;
+    public boolean isDeleted() {
+        return deleted;
     }
 
-    // no setUsers is required
+    /**
+     * Count of the attached Users. It's never taken from the requests, the
+     * User writes adjust it by the bulk statements in their transactions
+     */
+    @Column(name = "user_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long userCount;
+
+    public long getUserCount() {
+        return userCount;
+    }
+
+    public void setUserCount(long userCount) {
+        this.userCount = userCount;
+    }
 
     // CONSTRUCTORS
 
@@ -63,7 +97,6 @@ public class Organization implements Serializable {
     private Organization(Long id, String name) {
         this.id = id;
         this.name = name;
-        this.users = new HashSet<>();
     }
 
     // STATIC
@@ -0,0 +1,95 @@
+package com.backend.tasks.model;
+
+/**
+ * Progress of the Organization removal. The Organization is hidden right away,
+ * its Users are purged in background chunks
+ */
+public final class OrganizationDeletion {
+
+    public enum Status {
+        PENDING, IN_PROGRESS, COMPLETED, FAILED
+    }
+
+    private final Long organizationId;
+
+    public Long getOrganizationId() {
+        return organizationId;
+    }
+
+    private final Status status;
+
+    public Status getStatus() {
+        return status;
+    }
+
+    private final long purgedUsers;
+
+    public long getPurgedUsers() {
+        return purgedUsers;
+    }
+
+    // CONSTRUCTORS
+
+    private OrganizationDeletion(Long organizationId, Status status, long purgedUsers) {
+        this.organizationId = organizationId;
+        this.status = status;
+        this.purgedUsers = purgedUsers;
+    }
+
+    // STATIC
+
+    public static OrganizationDeletion of(Long organizationId, Status status, long purgedUsers) {
+        return new OrganizationDeletion(organizationId, status, purgedUsers);
+    }
+
+    public static OrganizationDeletion pending(Long organizationId) {
+        return of(organizationId, Status.PENDING, 0L);
+    }
+
+    // hC/eq/toSt
+
+    @Override
+    public int hashCode() {
+        final int prime = 43;
+        int result = 1;
+        result = prime * result + ((organizationId == null) ? 0 : organizationId.hashCode());
+        result = prime * result + ((status == null) ? 0 : status.hashCode());
+        result = prime * result + (int) (purgedUsers ^ (purgedUsers >>> 32));
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (!(obj instanceof OrganizationDeletion))
+            return false;
+
+        final OrganizationDeletion other = (OrganizationDeletion) obj;
+
+        // organizationId
+        if (organizationId == null) {
+            if (other.organizationId != null)
+                return false;
+        } else if (!organizationId.equals(other.organizationId))
+            return false;
+
+        // status
+        if (status != other.status)
+            return false;
+
+        // purgedUsers
+        if (purgedUsers != other.purgedUsers)
+            return false;
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OrganizationDeletion[organizationId=%d, status=%s, purgedUsers=%d]", organizationId,
+                status, purgedUsers);
+    }
+}
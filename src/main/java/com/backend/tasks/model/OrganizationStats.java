@@ -0,0 +1,74 @@
+package com.backend.tasks.model;
+
+/**
+ * Statistics of an Organization read from its maintained counters, so no
+ * User rows are scanned
+ */
+public final class OrganizationStats {
+
+    private final Long organizationId;
+
+    public Long getOrganizationId() {
+        return organizationId;
+    }
+
+    private final long userCount;
+
+    public long getUserCount() {
+        return userCount;
+    }
+
+    // CONSTRUCTORS
+
+    private OrganizationStats(Long organizationId, long userCount) {
+        this.organizationId = organizationId;
+        this.userCount = userCount;
+    }
+
+    // STATIC
+
+    public static OrganizationStats of(Long organizationId, long userCount) {
+        return new OrganizationStats(organizationId, userCount);
+    }
+
+    // hC/eq/toSt
+
+    @Override
+    public int hashCode() {
+        final int prime = 59;
+        int result = 1;
+        result = prime * result + ((organizationId == null) ? 0 : organizationId.hashCode());
+        result = prime * result + (int) (userCount ^ (userCount >>> 32));
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (!(obj instanceof OrganizationStats))
+            return false;
+
+        final OrganizationStats other = (OrganizationStats) obj;
+
+        // organizationId
+        if (organizationId == null) {
+            if (other.organizationId != null)
+                return false;
+        } else if (!organizationId.equals(other.organizationId))
+            return false;
+
+        // userCount
+        if (userCount != other.userCount)
+            return false;
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("OrganizationStats[organizationId=%d, userCount=%d]", organizationId, userCount);
+    }
+}
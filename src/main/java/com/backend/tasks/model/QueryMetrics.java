@@ -0,0 +1,339 @@
+package com.backend.tasks.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Snapshot of the Hibernate statistics collected since they were enabled or
+ * reset. Contains totals, per-query execution counts and times and per-entity
+ * load and fetch counts
+ */
+public final class QueryMetrics {
+
+    /**
+     * Executions of a single HQL or SQL query
+     */
+    public static final class Query {
+
+        private final String query;
+
+        public String getQuery() {
+            return query;
+        }
+
+        private final long executions;
+
+        public long getExecutions() {
+            return executions;
+        }
+
+        private final long rows;
+
+        public long getRows() {
+            return rows;
+        }
+
+        private final long avgMillis;
+
+        public long getAvgMillis() {
+            return avgMillis;
+        }
+
+        private final long maxMillis;
+
+        public long getMaxMillis() {
+            return maxMillis;
+        }
+
+        // CONSTRUCTORS
+
+        private Query(String query, long executions, long rows, long avgMillis, long maxMillis) {
+            this.query = query;
+            this.executions = executions;
+            this.rows = rows;
+            this.avgMillis = avgMillis;
+            this.maxMillis = maxMillis;
+        }
+
+        // STATIC
+
+        public static Query of(String query, long executions, long rows, long avgMillis, long maxMillis) {
+            return new Query(query, executions, rows, avgMillis, maxMillis);
+        }
+
+        // hC/eq/toSt
+
+        @Override
+        public int hashCode() {
+            final int prime = 59;
+            int result = 1;
+            result = prime * result + ((query == null) ? 0 : query.hashCode());
+            result = prime * result + (int) (executions ^ (executions >>> 32));
+            result = prime * result + (int) (rows ^ (rows >>> 32));
+            result = prime * result + (int) (avgMillis ^ (avgMillis >>> 32));
+            result = prime * result + (int) (maxMillis ^ (maxMillis >>> 32));
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null)
+                return false;
+            if (!(obj instanceof Query))
+                return false;
+
+            final Query other = (Query) obj;
+
+            // query
+            if (query == null) {
+                if (other.query != null)
+                    return false;
+            } else if (!query.equals(other.query))
+                return false;
+
+            // executions
+            if (executions != other.executions)
+                return false;
+
+            // rows
+            if (rows != other.rows)
+                return false;
+
+            // avgMillis
+            if (avgMillis != other.avgMillis)
+                return false;
+
+            // maxMillis
+            if (maxMillis != other.maxMillis)
+                return false;
+
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Query[query='%s', executions=%d, rows=%d, avgMillis=%d, maxMillis=%d]", query,
+                    executions, rows, avgMillis, maxMillis);
+        }
+    }
+
+    /**
+     * Loads and fetches of a single entity
+     */
+    public static final class Entity {
+
+        private final String name;
+
+        public String getName() {
+            return name;
+        }
+
+        private final long loads;
+
+        public long getLoads() {
+            return loads;
+        }
+
+        private final long fetches;
+
+        public long getFetches() {
+            return fetches;
+        }
+
+        // CONSTRUCTORS
+
+        private Entity(String name, long loads, long fetches) {
+            this.name = name;
+            this.loads = loads;
+            this.fetches = fetches;
+        }
+
+        // STATIC
+
+        public static Entity of(String name, long loads, long fetches) {
+            return new Entity(name, loads, fetches);
+        }
+
+        // hC/eq/toSt
+
+        @Override
+        public int hashCode() {
+            final int prime = 61;
+            int result = 1;
+            result = prime * result + ((name == null) ? 0 : name.hashCode());
+            result = prime * result + (int) (loads ^ (loads >>> 32));
+            result = prime * result + (int) (fetches ^ (fetches >>> 32));
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null)
+                return false;
+            if (!(obj instanceof Entity))
+                return false;
+
+            final Entity other = (Entity) obj;
+
+            // name
+            if (name == null) {
+                if (other.name != null)
+                    return false;
+            } else if (!name.equals(other.name))
+                return false;
+
+            // loads
+            if (loads != other.loads)
+                return false;
+
+            // fetches
+            if (fetches != other.fetches)
+                return false;
+
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Entity[name='%s', loads=%d, fetches=%d]", name, loads, fetches);
+        }
+    }
+
+    private final boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private final long slowQueryThresholdMillis;
+
+    public long getSlowQueryThresholdMillis() {
+        return slowQueryThresholdMillis;
+    }
+
+    private final long statements;
+
+    public long getStatements() {
+        return statements;
+    }
+
+    private final long entityLoads;
+
+    public long getEntityLoads() {
+        return entityLoads;
+    }
+
+    private final long entityFetches;
+
+    public long getEntityFetches() {
+        return entityFetches;
+    }
+
+    private final List<Query> queries;
+
+    public List<Query> getQueries() {
+        return queries;
+    }
+
+    private final List<Entity> entities;
+
+    public List<Entity> getEntities() {
+        return entities;
+    }
+
+    // CONSTRUCTORS
+
+    private QueryMetrics(boolean enabled, long slowQueryThresholdMillis, long statements, long entityLoads,
+            long entityFetches, List<Query> queries, List<Entity> entities) {
+        this.enabled = enabled;
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+        this.statements = statements;
+        this.entityLoads = entityLoads;
+        this.entityFetches = entityFetches;
+        this.queries = queries;
+        this.entities = entities;
+    }
+
+    // STATIC
+
+    public static QueryMetrics of(boolean enabled, long slowQueryThresholdMillis, long statements,
+            long entityLoads, long entityFetches, List<Query> queries, List<Entity> entities) {
+        return new QueryMetrics(enabled, slowQueryThresholdMillis, statements, entityLoads, entityFetches,
+                Collections.unmodifiableList(queries), Collections.unmodifiableList(entities));
+    }
+
+    // hC/eq/toSt
+
+    @Override
+    public int hashCode() {
+        final int prime = 67;
+        int result = 1;
+        result = prime * result + (enabled ? 1231 : 1237);
+        result = prime * result + (int) (slowQueryThresholdMillis ^ (slowQueryThresholdMillis >>> 32));
+        result = prime * result + (int) (statements ^ (statements >>> 32));
+        result = prime * result + (int) (entityLoads ^ (entityLoads >>> 32));
+        result = prime * result + (int) (entityFetches ^ (entityFetches >>> 32));
+        result = prime * result + ((queries == null) ? 0 : queries.hashCode());
+        result = prime * result + ((entities == null) ? 0 : entities.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (!(obj instanceof QueryMetrics))
+            return false;
+
+        final QueryMetrics other = (QueryMetrics) obj;
+
+        // enabled
+        if (enabled != other.enabled)
+            return false;
+
+        // slowQueryThresholdMillis
+        if (slowQueryThresholdMillis != other.slowQueryThresholdMillis)
+            return false;
+
+        // statements
+        if (statements != other.statements)
+            return false;
+
+        // entityLoads
+        if (entityLoads != other.entityLoads)
+            return false;
+
+        // entityFetches
+        if (entityFetches != other.entityFetches)
+            return false;
+
+        // queries
+        if (queries == null) {
+            if (other.queries != null)
+                return false;
+        } else if (!queries.equals(other.queries))
+            return false;
+
+        // entities
+        if (entities == null) {
+            if (other.entities != null)
+                return false;
+        } else if (!entities.equals(other.entities))
+            return false;
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("QueryMetrics[enabled=%s, slowQueryThresholdMillis=%d, statements=%d, entityLoads=%d,"
+                + " entityFetches=%d, queries=%s, entities=%s]", enabled, slowQueryThresholdMillis, statements,
+                entityLoads, entityFetches, queries, entities);
+    }
+}
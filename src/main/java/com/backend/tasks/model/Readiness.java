@@ -0,0 +1,100 @@
+package com.backend.tasks.model;
+
+/**
+ * Readiness of the application to take traffic. With the warm-up enabled it
+ * becomes ready once the warm-up round times are steady
+ */
+public final class Readiness {
+
+    public enum Status {
+        WARMING_UP, READY
+    }
+
+    private final Status status;
+
+    public Status getStatus() {
+        return status;
+    }
+
+    private final int warmUpRounds;
+
+    public int getWarmUpRounds() {
+        return warmUpRounds;
+    }
+
+    private final long lastRoundMicros;
+
+    public long getLastRoundMicros() {
+        return lastRoundMicros;
+    }
+
+    // CONSTRUCTORS
+
+    private Readiness(Status status, int warmUpRounds, long lastRoundMicros) {
+        this.status = status;
+        this.warmUpRounds = warmUpRounds;
+        this.lastRoundMicros = lastRoundMicros;
+    }
+
+    // STATIC
+
+    public static Readiness of(Status status, int warmUpRounds, long lastRoundMicros) {
+        return new Readiness(status, warmUpRounds, lastRoundMicros);
+    }
+
+    public static Readiness warmingUp() {
+        return of(Status.WARMING_UP, 0, 0L);
+    }
+
+    public static Readiness ready() {
+        return of(Status.READY, 0, 0L);
+    }
+
+    public boolean isReady() {
+        return status == Status.READY;
+    }
+
+    // hC/eq/toSt
+
+    @Override
+    public int hashCode() {
+        final int prime = 47;
+        int result = 1;
+        result = prime * result + ((status == null) ? 0 : status.hashCode());
+        result = prime * result + warmUpRounds;
+        result = prime * result + (int) (lastRoundMicros ^ (lastRoundMicros >>> 32));
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (!(obj instanceof Readiness))
+            return false;
+
+        final Readiness other = (Readiness) obj;
+
+        // status
+        if (status != other.status)
+            return false;
+
+        // warmUpRounds
+        if (warmUpRounds != other.warmUpRounds)
+            return false;
+
+        // lastRoundMicros
+        if (lastRoundMicros != other.lastRoundMicros)
+            return false;
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Readiness[status=%s, warmUpRounds=%d, lastRoundMicros=%d]", status, warmUpRounds,
+                lastRoundMicros);
+    }
+}
@@ -0,0 +1,99 @@
+package com.backend.tasks.model;
+
+/**
+ * Binary image of all Organization and User rows written to or restored from
+ * a file
+ */
+public final class Snapshot {
+
+    private final String path;
+
+    public String getPath() {
+        return path;
+    }
+
+    private final long organizations;
+
+    public long getOrganizations() {
+        return organizations;
+    }
+
+    private final long users;
+
+    public long getUsers() {
+        return users;
+    }
+
+    private final long bytes;
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    // CONSTRUCTORS
+
+    private Snapshot(String path, long organizations, long users, long bytes) {
+        this.path = path;
+        this.organizations = organizations;
+        this.users = users;
+        this.bytes = bytes;
+    }
+
+    // STATIC
+
+    public static Snapshot of(String path, long organizations, long users, long bytes) {
+        return new Snapshot(path, organizations, users, bytes);
+    }
+
+    // hC/eq/toSt
+
+    @Override
+    public int hashCode() {
+        final int prime = 53;
+        int result = 1;
+        result = prime * result + ((path == null) ? 0 : path.hashCode());
+        result = prime * result + (int) (organizations ^ (organizations >>> 32));
+        result = prime * result + (int) (users ^ (users >>> 32));
+        result = prime * result + (int) (bytes ^ (bytes >>> 32));
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (!(obj instanceof Snapshot))
+            return false;
+
+        final Snapshot other = (Snapshot) obj;
+
+        // path
+        if (path == null) {
+            if (other.path != null)
+                return false;
+        } else if (!path.equals(other.path))
+            return false;
+
+        // organizations
+        if (organizations != other.organizations)
+            return false;
+
+        // users
+        if (users != other.users)
+            return false;
+
+        // bytes
+        if (bytes != other.bytes)
+            return false;
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Snapshot[path=%s, organizations=%d, users=%d, bytes=%d]", path, organizations, users,
+                bytes);
+    }
+}
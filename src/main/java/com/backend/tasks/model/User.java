@@ -1,23 +1,41 @@
 package com.backend.tasks.model;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
 
 import javax.persistence.Basic;
 import javax.persistence.CascadeType;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
+@Table(indexes = @Index(name = "user_org_username_key_idx", columnList = "org_id, username_key"))
 public class User implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Attributes which could be requested as a sparse fieldset
+     */
+    public static final Set<String> FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(
+            Arrays.asList("id", "username")));
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -41,7 +59,30 @@ public class User implements Serializable {
         this.username = username;
     }
 
+    /**
+     * Case-insensitive search key of the username. It's derived from the username
+     * on every write
+     */
+    @Column(name = "username_key")
+    @JsonIgnore
+    private String usernameKey;
+
+    @PrePersist
+    @PreUpdate
+    void updateUsernameKey() {
+        this.usernameKey = usernameKeyOf(username);
+    }
+
+    public static String usernameKeyOf(String username) {
+        return username == null ? null : username.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Hash of the password. It's accepted on writes but never serialized, so
+     * neither it nor the raw password leaves the service
+     */
     @Basic
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     public String getPassword() {
@@ -81,10 +122,7 @@ public class User implements Serializable {
     // STATIC
 
     public static User of(Long id, String username, String password, Organization organization) {
-        final User user = new User(id, username, password, organization);
-        if (organization != null)
-            organization.getUsers().add(user);
-        return user;
+        return new User(id, username, password, organization);
     }
 
     public static User of(Long id, String username, String password) {
@@ -115,7 +153,6 @@ public class User implements Serializable {
         int result = 1;
         result = prime * result + ((id == null) ? 0 : id.hashCode());
         result = prime * result + ((username == null) ? 0 : username.hashCode());
-        result = prime * result + ((password == null) ? 0 : password.hashCode());
         return result;
     }
 
@@ -144,19 +181,12 @@ public class User implements Serializable {
         } else if (!username.equals(other.username))
             return false;
 
-        // password
-        if (password == null) {
-            if (other.password != null)
-                return false;
-        } else if (!password.equals(other.password))
-            return false;
-
         return true;
     }
 
     @Override
     public String toString() {
-        return String.format("User[id=%d, username='%s', password='%s']", id, username, password);
+        return String.format("User[id=%d, username='%s']", id, username);
     }
 
 }
@@ -0,0 +1,162 @@
+package com.backend.tasks.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Report of the bulk User import. Contains counts of imported and rejected rows
+ * and the first rejected rows with the rejection reasons
+ */
+public final class UserImport {
+
+    /**
+     * Rejected row of the imported body
+     */
+    public static final class Rejection {
+
+        private final long line;
+
+        public long getLine() {
+            return line;
+        }
+
+        private final String reason;
+
+        public String getReason() {
+            return reason;
+        }
+
+        // CONSTRUCTORS
+
+        private Rejection(long line, String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+
+        // STATIC
+
+        public static Rejection of(long line, String reason) {
+            return new Rejection(line, reason);
+        }
+
+        // hC/eq/toSt
+
+        @Override
+        public int hashCode() {
+            final int prime = 53;
+            int result = 1;
+            result = prime * result + (int) (line ^ (line >>> 32));
+            result = prime * result + ((reason == null) ? 0 : reason.hashCode());
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null)
+                return false;
+            if (!(obj instanceof Rejection))
+                return false;
+
+            final Rejection other = (Rejection) obj;
+
+            // line
+            if (line != other.line)
+                return false;
+
+            // reason
+            if (reason == null) {
+                if (other.reason != null)
+                    return false;
+            } else if (!reason.equals(other.reason))
+                return false;
+
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Rejection[line=%d, reason='%s']", line, reason);
+        }
+    }
+
+    private final long imported;
+
+    public long getImported() {
+        return imported;
+    }
+
+    private final long rejected;
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    private final List<Rejection> rejections;
+
+    public List<Rejection> getRejections() {
+        return rejections;
+    }
+
+    // CONSTRUCTORS
+
+    private UserImport(long imported, long rejected, List<Rejection> rejections) {
+        this.imported = imported;
+        this.rejected = rejected;
+        this.rejections = rejections;
+    }
+
+    // STATIC
+
+    public static UserImport of(long imported, long rejected, List<Rejection> rejections) {
+        return new UserImport(imported, rejected, Collections.unmodifiableList(rejections));
+    }
+
+    // hC/eq/toSt
+
+    @Override
+    public int hashCode() {
+        final int prime = 47;
+        int result = 1;
+        result = prime * result + (int) (imported ^ (imported >>> 32));
+        result = prime * result + (int) (rejected ^ (rejected >>> 32));
+        result = prime * result + ((rejections == null) ? 0 : rejections.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (!(obj instanceof UserImport))
+            return false;
+
+        final UserImport other = (UserImport) obj;
+
+        // imported
+        if (imported != other.imported)
+            return false;
+
+        // rejected
+        if (rejected != other.rejected)
+            return false;
+
+        // rejections
+        if (rejections == null) {
+            if (other.rejections != null)
+                return false;
+        } else if (!rejections.equals(other.rejections))
+            return false;
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("UserImport[imported=%d, rejected=%d, rejections=%s]", imported, rejected,
+                rejections);
+    }
+}
@@ -0,0 +1,80 @@
+package com.backend.tasks.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of the multi-get lookup. Contains found Users in the requested order
+ * and IDs of the Users which weren't found
+ */
+public final class UserLookup {
+
+    private final List<User> users;
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    private final List<Long> missing;
+
+    public List<Long> getMissing() {
+        return missing;
+    }
+
+    // CONSTRUCTORS
+
+    private UserLookup(List<User> users, List<Long> missing) {
+        this.users = users;
+        this.missing = missing;
+    }
+
+    // STATIC
+
+    public static UserLookup of(List<User> users, List<Long> missing) {
+        return new UserLookup(Collections.unmodifiableList(users), Collections.unmodifiableList(missing));
+    }
+
+    // hC/eq/toSt
+
+    @Override
+    public int hashCode() {
+        final int prime = 41;
+        int result = 1;
+        result = prime * result + ((users == null) ? 0 : users.hashCode());
+        result = prime * result + ((missing == null) ? 0 : missing.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (!(obj instanceof UserLookup))
+            return false;
+
+        final UserLookup other = (UserLookup) obj;
+
+        // users
+        if (users == null) {
+            if (other.users != null)
+                return false;
+        } else if (!users.equals(other.users))
+            return false;
+
+        // missing
+        if (missing == null) {
+            if (other.missing != null)
+                return false;
+        } else if (!missing.equals(other.missing))
+            return false;
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("UserLookup[users=%s, missing=%s]", users, missing);
+    }
+}
@@ -0,0 +1,16 @@
+package com.backend.tasks.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.CrudRepository;
+
+import com.backend.tasks.model.Change;
+
+public interface ChangeRepository extends CrudRepository<Change, Long> {
+
+    List<Change> findByOrganizationIdAndSequenceGreaterThanOrderBySequence(Long organizationId, Long sequence,
+            Pageable pageable);
+
+    void flush();
+}
@@ -0,0 +1,13 @@
+package com.backend.tasks.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface OrganizationProjectionRepository {
+
+    List<Map<String, Object>> findAllFields(Collection<String> fields);
+
+    Optional<Map<String, Object>> findFieldsById(Long id, Collection<String> fields);
+}
@@ -0,0 +1,30 @@
+package com.backend.tasks.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import com.backend.tasks.model.Organization;
+
+class OrganizationProjectionRepositoryImpl implements OrganizationProjectionRepository {
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findAllFields(Collection<String> fields) {
+        return Projections.select(entityManager, Organization.class, fields, null);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(Long id, Collection<String> fields) {
+        return Projections.select(entityManager, Organization.class, fields,
+                (cb, root) -> cb.equal(root.get("id"), id))
+                .stream()
+                .findFirst();
+    }
+}
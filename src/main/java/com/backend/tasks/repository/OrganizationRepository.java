@@ -1,9 +1,57 @@
 package com.backend.tasks.repository;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import com.backend.tasks.model.Organization;
 
-public interface OrganizationRepository extends CrudRepository<Organization, Long> {
+public interface OrganizationRepository extends CrudRepository<Organization, Long>, OrganizationProjectionRepository {
+
+    @Modifying
+    @Query("update Organization o set o.deleted = true where o.id = :id")
+    int markDeleted(@Param("id") Long id);
+
+    /**
+     * Adjusts the count of the attached Users, the row stays locked till the
+     * transaction ends
+     */
+    @Modifying
+    @Query("update Organization o set o.userCount = o.userCount + :delta where o.id = :id")
+    int addUserCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Query("select o.userCount from Organization o where o.id = :id")
+    Optional<Long> findUserCountById(@Param("id") Long id);
+
+    /**
+     * Organizations with the most Users first, read from the indexed counter
+     * so no User rows are touched
+     */
+    @Query("select o from Organization o order by o.userCount desc, o.id")
+    List<Organization> findLargest(Pageable pageable);
+
+    @Query("select o.id from Organization o order by o.userCount desc, o.id")
+    List<Long> findLargestIds(Pageable pageable);
+
+    @Query(value = "select o.id from organization o where o.deleted = true", nativeQuery = true)
+    List<Long> findDeletedIds();
+
+    /**
+     * Counts the rows of the Organization including the one marked as deleted
+     */
+    @Query(value = "select count(*) from organization o where o.id = :id", nativeQuery = true)
+    long countRowsById(@Param("id") Long id);
 
+    /**
+     * Removes the Organization marked as deleted once no Users are left attached
+     */
+    @Modifying
+    @Query(value = "delete from organization o where o.id = :id and o.deleted = true"
+            + " and not exists (select 1 from user u where u.org_id = o.id)", nativeQuery = true)
+    int purgeDeleted(@Param("id") Long id);
 }
@@ -0,0 +1,59 @@
+package com.backend.tasks.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+/**
+ * Builds tuple queries which select only requested entity attributes, so
+ * neither the remaining columns are fetched nor the entity is instantiated
+ */
+final class Projections {
+
+    private Projections() {
+    }
+
+    @FunctionalInterface
+    interface Restriction<T> {
+        Predicate apply(CriteriaBuilder cb, Root<T> root);
+    }
+
+    static <T> List<Map<String, Object>> select(EntityManager entityManager, Class<T> entityClass,
+            Collection<String> fields, Restriction<T> restriction) {
+        Objects.requireNonNull(fields, "fields");
+
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        final Root<T> root = query.from(entityClass);
+
+        final List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields)
+            selections.add(root.get(field).alias(field));
+        query.multiselect(selections);
+
+        if (restriction != null)
+            query.where(restriction.apply(cb, root));
+        query.orderBy(cb.asc(root.get("id")));
+
+        final List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        final List<Map<String, Object>> result = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            final Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields)
+                row.put(field, tuple.get(field));
+            result.add(row);
+        }
+        return result;
+    }
+}
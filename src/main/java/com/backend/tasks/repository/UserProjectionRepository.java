@@ -0,0 +1,14 @@
+package com.backend.tasks.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface UserProjectionRepository {
+
+    List<Map<String, Object>> findFieldsByOrganizationId(Long organizationId, Collection<String> fields);
+
+    Optional<Map<String, Object>> findFieldsByOrganizationIdAndId(Long organizationId, Long id,
+            Collection<String> fields);
+}
@@ -0,0 +1,35 @@
+package com.backend.tasks.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import com.backend.tasks.model.User;
+
+class UserProjectionRepositoryImpl implements UserProjectionRepository {
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsByOrganizationId(Long organizationId, Collection<String> fields) {
+        return Projections.select(entityManager, User.class, fields,
+                (cb, root) -> cb.equal(root.get("organization").get("id"), organizationId));
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsByOrganizationIdAndId(Long organizationId, Long id,
+            Collection<String> fields) {
+        return Projections.select(entityManager, User.class, fields,
+                (cb, root) -> cb.and(
+                        cb.equal(root.get("organization").get("id"), organizationId),
+                        cb.isFalse(root.get("organization").get("deleted")),
+                        cb.equal(root.get("id"), id)))
+                .stream()
+                .findFirst();
+    }
+}
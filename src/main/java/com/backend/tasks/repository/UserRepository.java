@@ -1,8 +1,31 @@
 package com.backend.tasks.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import com.backend.tasks.model.User;
 
-public interface UserRepository extends CrudRepository<User, Long> {
+public interface UserRepository extends CrudRepository<User, Long>, UserProjectionRepository {
+
+    @Query("select u from User u join fetch u.organization o where o.id = :organizationId order by u.id")
+    List<User> findAllByOrganizationId(@Param("organizationId") Long organizationId);
+
+    List<User> findAllByOrganizationIdAndIdIn(Long organizationId, Collection<Long> ids);
+
+    @Query("select u from User u"
+            + " where u.organization.id = :organizationId and u.usernameKey like :pattern escape '\\'"
+            + " order by u.usernameKey, u.id")
+    Slice<User> findByOrganizationIdAndUsernameKeyLike(@Param("organizationId") Long organizationId,
+            @Param("pattern") String pattern, Pageable pageable);
+
+    @Modifying
+    @Query(value = "delete from user where org_id = :organizationId limit :limit", nativeQuery = true)
+    int deleteChunkByOrganizationId(@Param("organizationId") Long organizationId, @Param("limit") int limit);
 }
@@ -0,0 +1,50 @@
+package com.backend.tasks.service.change;
+
+import com.backend.tasks.model.Change;
+import com.backend.tasks.model.ChangeFeed;
+
+public interface ChangeLogService {
+
+    /**
+     * Appends a change to the log. Inside a transaction the change is written
+     * right before the commit, so sequence numbers follow the commit order and
+     * changes of rolled back transactions never appear. Once committed the
+     * change is published as an application event
+     * 
+     * @param organizationId
+     *            ID of the Organization the change belongs to. Must nut be
+     *            <code>null</code>
+     * @param subject
+     *            kind of the changed entity. Must nut be <code>null</code>
+     * @param subjectId
+     *            ID of the changed entity. Must nut be <code>null</code>
+     * @param type
+     *            kind of the change. Must nut be <code>null</code>
+     * 
+     * @throws NullPointerException
+     *             when any of parameter is <code>null</code>
+     */
+    void append(Long organizationId, Change.Subject subject, Long subjectId, Change.Type type);
+
+    /**
+     * Retreives changes of the Organization with given ID committed after the
+     * change with given sequence number
+     * 
+     * @param organizationId
+     *            ID of the Organization. Must nut be <code>null</code>
+     * @param since
+     *            sequence number returned as the <code>next</code> token of the
+     *            previous call or <code>0</code> to read from the beginning
+     * @param limit
+     *            maximal number of changes to be returned. Must be positive
+     * 
+     * @return feed containing changes ordered by the sequence number. Should not
+     *         be <code>null</code> value
+     * 
+     * @throws NullPointerException
+     *             when any of parameter is <code>null</code>
+     * @throws IllegalArgumentException
+     *             when the Organization wasn't found with given ID
+     */
+    ChangeFeed getSince(Long organizationId, long since, int limit);
+}
@@ -0,0 +1,25 @@
+package com.backend.tasks.service.change;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ChangeStreamService {
+
+    /**
+     * Subscribes to the User changes of the Organization with given ID. Every
+     * committed change is pushed as a Server-Sent Event whose id is the change
+     * sequence number, so a dropped subscriber could catch up through
+     * {@link ChangeLogService#getSince(Long, long, int)}. A subscriber which
+     * doesn't keep up with its bounded buffer is disconnected
+     * 
+     * @param organizationId
+     *            ID of the Organization. Must nut be <code>null</code>
+     * 
+     * @return emitter of the subscription. Should not be <code>null</code> value
+     * 
+     * @throws NullPointerException
+     *             when any of parameter is <code>null</code>
+     * @throws IllegalArgumentException
+     *             when the Organization wasn't found with given ID
+     */
+    SseEmitter subscribe(Long organizationId);
+}
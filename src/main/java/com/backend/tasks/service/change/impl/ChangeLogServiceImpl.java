@@ -0,0 +1,138 @@
+package com.backend.tasks.service.change.impl;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.backend.tasks.model.Change;
+import com.backend.tasks.model.ChangeFeed;
+import com.backend.tasks.repository.ChangeRepository;
+import com.backend.tasks.repository.OrganizationRepository;
+import com.backend.tasks.service.change.ChangeLogService;
+
+@Service
+public class ChangeLogServiceImpl implements ChangeLogService {
+
+    static final int COMMIT_ORDER_STRIPES = 64;
+
+    /**
+     * Held from the change log insert until the transaction completes. Sequence
+     * numbers are generated on insert, so without it a reader could pass over a
+     * smaller sequence number which is committed later. The feeds are read per
+     * Organization, so only the transactions changing Organizations of the same
+     * stripe wait for each other, the stripes are taken in the index order
+     */
+    private final Lock[] commitOrderLocks = new Lock[COMMIT_ORDER_STRIPES];
+
+    {
+        for (int i = 0; i < COMMIT_ORDER_STRIPES; i++)
+            commitOrderLocks[i] = new ReentrantLock();
+    }
+
+    private final Object resourceKey = new Object();
+
+    @Autowired
+    ChangeRepository changeRepository;
+
+    @Autowired
+    OrganizationRepository organizationRepository;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void append(Long organizationId, Change.Subject subject, Long subjectId, Change.Type type) {
+        Objects.requireNonNull(organizationId, "organizationId");
+        Objects.requireNonNull(subject, "subject");
+        Objects.requireNonNull(subjectId, "subjectId");
+        Objects.requireNonNull(type, "type");
+
+        final Change change = Change.of(organizationId, subject, subjectId, type);
+
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            eventPublisher.publishEvent(changeRepository.save(change));
+            return;
+        }
+
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(resourceKey);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(resourceKey, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.add(change);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ChangeFeed getSince(Long organizationId, long since, int limit) {
+        Objects.requireNonNull(organizationId, "organizationId");
+        if (!organizationRepository.existsById(organizationId))
+            throw new IllegalArgumentException("Organization not exists");
+
+        final List<Change> changes = changeRepository
+                .findByOrganizationIdAndSequenceGreaterThanOrderBySequence(organizationId, since,
+                        PageRequest.of(0, limit));
+        return ChangeFeed.of(changes, since);
+    }
+
+    // PACKAGE
+
+    static int stripe(long organizationId) {
+        return (int) Math.floorMod(organizationId, (long) COMMIT_ORDER_STRIPES);
+    }
+
+    // PRIVATE
+
+    private class PendingChanges extends TransactionSynchronizationAdapter {
+
+        private final List<Change> changes = new ArrayList<>();
+
+        private final BitSet locked = new BitSet(COMMIT_ORDER_STRIPES);
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // flush the entities first, so no row lock is awaited while holding the
+            // commit order locks
+            changeRepository.flush();
+
+            final BitSet stripes = new BitSet(COMMIT_ORDER_STRIPES);
+            for (Change change : changes)
+                stripes.set(stripe(change.getOrganizationId()));
+            for (int i = stripes.nextSetBit(0); i >= 0; i = stripes.nextSetBit(i + 1)) {
+                commitOrderLocks[i].lock();
+                locked.set(i);
+            }
+
+            changeRepository.saveAll(changes);
+            changeRepository.flush();
+        }
+
+        @Override
+        public void afterCommit() {
+            // published before the commit order locks are released, so the
+            // changes of an Organization are published in the sequence order
+            changes.forEach(eventPublisher::publishEvent);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+            for (int i = locked.nextSetBit(0); i >= 0; i = locked.nextSetBit(i + 1))
+                commitOrderLocks[i].unlock();
+            locked.clear();
+        }
+    }
+}
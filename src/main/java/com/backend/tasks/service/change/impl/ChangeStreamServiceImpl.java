@@ -0,0 +1,178 @@
+package com.backend.tasks.service.change.impl;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.backend.tasks.model.Change;
+import com.backend.tasks.repository.OrganizationRepository;
+import com.backend.tasks.service.change.ChangeStreamService;
+
+@Service
+public class ChangeStreamServiceImpl implements ChangeStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamServiceImpl.class);
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor;
+
+    private final int bufferSize;
+
+    private final long timeoutMillis;
+
+    @Autowired
+    OrganizationRepository organizationRepository;
+
+    public ChangeStreamServiceImpl(@Value("${changes.stream.threads:2}") int threads,
+            @Value("${changes.stream.buffer-size:256}") int bufferSize,
+            @Value("${changes.stream.timeout-ms:1800000}") long timeoutMillis) {
+        this.executor = Executors.newFixedThreadPool(threads, daemonThreadFactory());
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public SseEmitter subscribe(Long organizationId) {
+        Objects.requireNonNull(organizationId, "organizationId");
+
+        // subscribed before the check, so a deletion committed in between closes the stream
+        final SseEmitter emitter = new SseEmitter(timeoutMillis);
+        final Subscriber subscriber = register(organizationId, emitter);
+        if (!organizationRepository.existsById(organizationId)) {
+            subscriber.remove();
+            throw new IllegalArgumentException("Organization not exists");
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public void onChange(Change change) {
+        final Set<Subscriber> organizationSubscribers = subscribers.get(change.getOrganizationId());
+        if (organizationSubscribers == null)
+            return;
+
+        for (Subscriber subscriber : organizationSubscribers) {
+            if (change.getSubject() == Change.Subject.ORGANIZATION && change.getType() == Change.Type.DELETED)
+                subscriber.close();
+            else if (change.getSubject() == Change.Subject.USER)
+                subscriber.offer(change);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        subscribers.values().forEach(organizationSubscribers -> organizationSubscribers.forEach(Subscriber::close));
+    }
+
+    // PACKAGE
+
+    SseEmitter subscribe(Long organizationId, SseEmitter emitter) {
+        register(organizationId, emitter);
+        return emitter;
+    }
+
+    Set<?> getSubscribers(Long organizationId) {
+        return subscribers.getOrDefault(organizationId, Collections.emptySet());
+    }
+
+    // PRIVATE
+
+    private Subscriber register(Long organizationId, SseEmitter emitter) {
+        final Subscriber subscriber = new Subscriber(organizationId, emitter);
+        subscribers.computeIfAbsent(organizationId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        emitter.onCompletion(subscriber::remove);
+        emitter.onTimeout(subscriber::close);
+        return subscriber;
+    }
+
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("change-stream-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private class Subscriber {
+
+        private final Long organizationId;
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<Change> buffer = new ArrayBlockingQueue<>(bufferSize);
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(Long organizationId, SseEmitter emitter) {
+            this.organizationId = organizationId;
+            this.emitter = emitter;
+        }
+
+        void offer(Change change) {
+            if (!buffer.offer(change)) {
+                log.warn("Disconnecting slow change stream subscriber of organization {}", organizationId);
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true))
+                executor.execute(this::drain);
+        }
+
+        void close() {
+            remove();
+            emitter.complete();
+        }
+
+        void remove() {
+            subscribers.computeIfPresent(organizationId, (id, organizationSubscribers) -> {
+                organizationSubscribers.remove(this);
+                return organizationSubscribers.isEmpty() ? null : organizationSubscribers;
+            });
+        }
+
+        private void drain() {
+            do {
+                Change change;
+                while ((change = buffer.poll()) != null) {
+                    try {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(change.getSequence()))
+                                .name(change.getType().name().toLowerCase(Locale.ROOT))
+                                .data(change, MediaType.APPLICATION_JSON));
+                    } catch (IOException e) {
+                        // the client is gone, the request is completed instead of waiting for the timeout
+                        remove();
+                        buffer.clear();
+                        emitter.completeWithError(e);
+                    } catch (IllegalStateException e) {
+                        // already completed
+                        remove();
+                        buffer.clear();
+                    }
+                }
+                draining.set(false);
+            } while (!buffer.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.backend.tasks.service.export;
+
+import com.backend.tasks.model.Export;
+
+public interface ExportService {
+
+    /**
+     * Starts export of all Organizations with their Users. Organizations are
+     * partitioned by ID range and the partitions are streamed in parallel, each
+     * through its own connection, into compressed NDJSON segments. Every line of
+     * a segment is an Organization with its Users. The partitions are read in
+     * separate transactions, so the export isn't a point-in-time view: writes
+     * committed while it runs could be seen by some partitions only
+     * 
+     * @return progress of the started export. Should not be <code>null</code>
+     *         value
+     * 
+     * @throws IllegalStateException
+     *             when the maximal number of exports is already running
+     */
+    Export start();
+
+    /**
+     * Retreives progress of the export with given ID
+     * 
+     * @param exportId
+     *            ID of the export. Must nut be <code>null</code>
+     * 
+     * @return progress of the export. Should not be <code>null</code> value
+     * 
+     * @throws NullPointerException
+     *             when any of parameter is <code>null</code>
+     * @throws IllegalArgumentException
+     *             when no export was found with given ID
+     */
+    Export getStatus(String exportId);
+}
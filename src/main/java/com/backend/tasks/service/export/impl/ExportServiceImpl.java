@@ -0,0 +1,347 @@
+package com.backend.tasks.service.export.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.backend.tasks.model.Export;
+import com.backend.tasks.service.export.ExportService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Keeps the exports in memory, finished ones are removed together with their
+ * segments after the TTL. The segments left by a previous run are removed
+ * once the service is created, since their statuses were lost. At most the
+ * configured number of exports runs at a time
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    private static final String SELECT_RANGE = "select min(o.id), max(o.id) from organization o"
+            + " where o.deleted = false";
+
+    private static final String SELECT_PARTITION = "select o.id, o.name, u.id, u.username"
+            + " from organization o left join user u on u.org_id = o.id"
+            + " where o.deleted = false and o.id between ? and ?"
+            + " order by o.id, u.id";
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentHashMap<String, Job> exports = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor;
+
+    private final int partitions;
+
+    private final int fetchSize;
+
+    private final Path directory;
+
+    private final long ttlNanos;
+
+    private final Semaphore running;
+
+    private final LongSupplier clock;
+
+    @Autowired
+    public ExportServiceImpl(@Value("${exports.threads:0}") int threads,
+            @Value("${exports.partitions:0}") int partitions,
+            @Value("${exports.fetch-size:1000}") int fetchSize,
+            @Value("${exports.directory:${java.io.tmpdir}/exports}") String directory,
+            @Value("${exports.ttl-ms:86400000}") long ttlMillis,
+            @Value("${exports.max-running:1}") int maxRunning) {
+        this(threads, partitions, fetchSize, directory, ttlMillis, maxRunning, System::nanoTime);
+    }
+
+    ExportServiceImpl(int threads, int partitions, int fetchSize, String directory, long ttlMillis,
+            int maxRunning, LongSupplier clock) {
+        final int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = Executors.newFixedThreadPool(parallelism, daemonThreadFactory());
+        this.partitions = partitions > 0 ? partitions : parallelism * 4;
+        this.fetchSize = fetchSize;
+        this.directory = Paths.get(directory);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.running = new Semaphore(maxRunning);
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void removeLeftovers() {
+        if (!Files.isDirectory(directory))
+            return;
+        try (Stream<Path> children = Files.list(directory)) {
+            children.filter(child -> isExportId(child.getFileName().toString()))
+                    .filter(child -> !exports.containsKey(child.getFileName().toString()))
+                    .forEach(ExportServiceImpl::delete);
+        } catch (IOException e) {
+            log.warn("Failed to remove exports left in {}", directory, e);
+        }
+    }
+
+    @Override
+    public Export start() {
+        expireFinished();
+
+        if (!running.tryAcquire())
+            throw new IllegalStateException("Too many running exports");
+
+        final String exportId = UUID.randomUUID().toString();
+        final Path exportDirectory = directory.resolve(exportId);
+        final List<long[]> ranges;
+        try {
+            Files.createDirectories(exportDirectory);
+
+            final long[] range = jdbcTemplate.queryForObject(SELECT_RANGE,
+                    (rs, rowNum) -> rs.getObject(1) == null ? null : new long[] { rs.getLong(1), rs.getLong(2) });
+            ranges = range == null ? new ArrayList<>() : partition(range[0], range[1], partitions);
+        } catch (IOException e) {
+            running.release();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            running.release();
+            throw e;
+        }
+
+        final Job job = new Job(exportId, exportDirectory, ranges.size());
+        exports.put(exportId, job);
+
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[ranges.size()];
+        for (int i = 0; i < ranges.size(); i++) {
+            final int index = i;
+            futures[i] = CompletableFuture.runAsync(() -> exportPartition(job, index, ranges.get(index)), executor);
+        }
+        CompletableFuture.allOf(futures).whenComplete((result, e) -> {
+            // released first, so another export could be started once this one is reported finished
+            running.release();
+            job.finish(e, clock.getAsLong());
+        });
+        return job.snapshot();
+    }
+
+    @Override
+    public Export getStatus(String exportId) {
+        Objects.requireNonNull(exportId, "exportId");
+
+        expireFinished();
+
+        final Job job = exports.get(exportId);
+        if (job == null)
+            throw new IllegalArgumentException("Export not exists");
+        return job.snapshot();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // PACKAGE
+
+    /**
+     * Splits the inclusive ID range into at most given count of contiguous
+     * inclusive ranges of nearly the same length
+     */
+    static List<long[]> partition(long min, long max, int count) {
+        final long length = max - min + 1;
+        final int size = (int) Math.min(count, length);
+        final List<long[]> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final long from = min + length * i / size;
+            final long to = min + length * (i + 1) / size - 1;
+            result.add(new long[] { from, to });
+        }
+        return result;
+    }
+
+    // PRIVATE
+
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("export-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private void expireFinished() {
+        final long now = clock.getAsLong();
+        exports.values().forEach(job -> {
+            if (job.status != Export.Status.RUNNING && now - job.finishedAt >= ttlNanos
+                    && exports.remove(job.id, job))
+                delete(job.directory);
+        });
+    }
+
+    private static boolean isExportId(String name) {
+        try {
+            return UUID.fromString(name).toString().equals(name);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void delete(Path exportDirectory) {
+        try (Stream<Path> paths = Files.walk(exportDirectory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator)
+                Files.deleteIfExists(path);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to remove export {}", exportDirectory, e);
+        }
+    }
+
+    private void exportPartition(Job job, int index, long[] range) {
+        final Path segment = job.directory.resolve(String.format("part-%05d.ndjson.gz", index));
+        try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(segment)),
+                BUFFER_SIZE);
+                JsonGenerator json = JSON.createGenerator(out)) {
+            json.setRootValueSeparator(null);
+
+            final SegmentWriter writer = new SegmentWriter(json, job);
+            jdbcTemplate.query(connection -> {
+                final PreparedStatement statement = connection.prepareStatement(SELECT_PARTITION);
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, range[0]);
+                statement.setLong(2, range[1]);
+                return statement;
+            }, writer);
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        job.completedPartitions.incrementAndGet();
+    }
+
+    /**
+     * Writes rows of the Organization and User join ordered by Organization ID as
+     * one line per Organization, so Users of a single Organization are never
+     * collected in memory
+     */
+    private static class SegmentWriter implements RowCallbackHandler {
+
+        private final JsonGenerator json;
+
+        private final Job job;
+
+        private long organizationId = -1;
+
+        SegmentWriter(JsonGenerator json, Job job) {
+            this.json = json;
+            this.job = job;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                final long rowOrganizationId = rs.getLong(1);
+                if (rowOrganizationId != organizationId) {
+                    finish();
+                    organizationId = rowOrganizationId;
+                    json.writeStartObject();
+                    json.writeNumberField("id", organizationId);
+                    json.writeStringField("name", rs.getString(2));
+                    json.writeArrayFieldStart("users");
+                    job.organizations.incrementAndGet();
+                }
+
+                final long userId = rs.getLong(3);
+                if (rs.wasNull())
+                    return; // organization without users
+
+                json.writeStartObject();
+                json.writeNumberField("id", userId);
+                json.writeStringField("username", rs.getString(4));
+                json.writeEndObject();
+                job.users.incrementAndGet();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            if (organizationId < 0)
+                return;
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeRaw('\n');
+            organizationId = -1;
+        }
+    }
+
+    private static class Job {
+
+        private final String id;
+
+        private final Path directory;
+
+        private final int partitions;
+
+        private final AtomicInteger completedPartitions = new AtomicInteger();
+
+        private final AtomicLong organizations = new AtomicLong();
+
+        private final AtomicLong users = new AtomicLong();
+
+        private volatile long finishedAt;
+
+        private volatile Export.Status status = Export.Status.RUNNING;
+
+        Job(String id, Path directory, int partitions) {
+            this.id = id;
+            this.directory = directory;
+            this.partitions = partitions;
+        }
+
+        void finish(Throwable failure, long now) {
+            if (failure != null)
+                log.error("Export {} failed", id, failure);
+            finishedAt = now;
+            status = failure == null ? Export.Status.COMPLETED : Export.Status.FAILED;
+        }
+
+        Export snapshot() {
+            return Export.of(id, status, directory.toString(), partitions, completedPartitions.get(),
+                    organizations.get(), users.get());
+        }
+    }
+}
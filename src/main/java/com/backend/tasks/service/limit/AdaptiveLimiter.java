@@ -0,0 +1,92 @@
+package com.backend.tasks.service.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit adjusted by additive increase and multiplicative decrease.
+ * While at least half of the limit is in use and calls complete within the
+ * latency threshold, the limit grows by one per limit-worth of calls. Every
+ * call slower than the threshold shrinks the limit by the backoff ratio
+ */
+public class AdaptiveLimiter {
+
+    private final String name;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long latencyThresholdNanos;
+
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // bits of the double limit, so it's adjusted without locking
+    private final AtomicLong limitBits;
+
+    public AdaptiveLimiter(String name, int initialLimit, int minLimit, int maxLimit, long latencyThresholdMillis,
+            double backoffRatio) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(Math.max(minLimit, Math.min(maxLimit,
+                initialLimit))));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return <code>true</code> when the call is admitted, it must be followed by
+     *         {@link #release(long)}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= getLimit())
+                return false;
+            if (inFlight.compareAndSet(current, current + 1))
+                return true;
+        }
+    }
+
+    /**
+     * Completes the admitted call and adjusts the limit by its latency
+     */
+    public void release(long latencyNanos) {
+        final int current = inFlight.getAndDecrement();
+        while (true) {
+            final long bits = limitBits.get();
+            final double limit = Double.longBitsToDouble(bits);
+            final double next;
+            if (latencyNanos > latencyThresholdNanos)
+                next = Math.max(minLimit, limit * backoffRatio);
+            else if (current * 2 >= limit)
+                next = Math.min(maxLimit, limit + 1.0 / limit);
+            else
+                return;
+            if (next == limit || limitBits.compareAndSet(bits, Double.doubleToLongBits(next)))
+                return;
+        }
+    }
+
+    // PRIVATE
+
+    private double limit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+}
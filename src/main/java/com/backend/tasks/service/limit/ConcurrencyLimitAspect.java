@@ -0,0 +1,96 @@
+package com.backend.tasks.service.limit;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Limits concurrent calls of OrganizationService and UserService adaptively and
+ * sheds calls over the limit before any transaction is started. Read-only and
+ * writing calls have separate limits, so a write storm couldn't starve reads. A
+ * call is read-only when the implementation method is
+ * {@link Transactional#readOnly()}
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitAspect {
+
+    // calls made from within an admitted call are admitted with it
+    private static final ThreadLocal<Boolean> ADMITTED = new ThreadLocal<>();
+
+    private final ConcurrentHashMap<Method, Boolean> readOnlyMethods = new ConcurrentHashMap<>();
+
+    private final AdaptiveLimiter readLimiter;
+
+    private final AdaptiveLimiter writeLimiter;
+
+    public ConcurrencyLimitAspect(@Value("${concurrency-limit.read.initial:50}") int readInitial,
+            @Value("${concurrency-limit.read.min:4}") int readMin,
+            @Value("${concurrency-limit.read.max:200}") int readMax,
+            @Value("${concurrency-limit.write.initial:64}") int writeInitial,
+            @Value("${concurrency-limit.write.min:2}") int writeMin,
+            @Value("${concurrency-limit.write.max:100}") int writeMax,
+            @Value("${concurrency-limit.latency-threshold-ms:250}") long latencyThresholdMillis,
+            @Value("${concurrency-limit.backoff-ratio:0.9}") double backoffRatio) {
+        this.readLimiter = new AdaptiveLimiter("read", readInitial, readMin, readMax, latencyThresholdMillis,
+                backoffRatio);
+        this.writeLimiter = new AdaptiveLimiter("write", writeInitial, writeMin, writeMax, latencyThresholdMillis,
+                backoffRatio);
+    }
+
+    @Around("execution(public * com.backend.tasks.service.org.OrganizationService.*(..))"
+            + " || execution(public * com.backend.tasks.service.user.UserService.*(..))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        // calls within a running transaction already hold a connection, shedding them would waste it
+        if (ADMITTED.get() != null || TransactionSynchronizationManager.isActualTransactionActive())
+            return joinPoint.proceed();
+
+        final AdaptiveLimiter limiter = isReadOnly(joinPoint) ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire())
+            throw new ConcurrencyLimitExceededException(limiter.getName());
+
+        final long start = System.nanoTime();
+        ADMITTED.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ADMITTED.remove();
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    public AdaptiveLimiter getReadLimiter() {
+        return readLimiter;
+    }
+
+    public AdaptiveLimiter getWriteLimiter() {
+        return writeLimiter;
+    }
+
+    // PRIVATE
+
+    private boolean isReadOnly(ProceedingJoinPoint joinPoint) {
+        final Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        final Method specificMethod = AopUtils.getMostSpecificMethod(method,
+                AopUtils.getTargetClass(joinPoint.getTarget()));
+        return readOnlyMethods.computeIfAbsent(specificMethod, m -> {
+            final Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(m, Transactional.class);
+            return transactional != null && transactional.readOnly();
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package com.backend.tasks.service.limit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a service call is rejected by the concurrency limit. The request
+ * is shed with 503 instead of being queued
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ConcurrencyLimitExceededException(String limiterName) {
+        super("Concurrency limit of " + limiterName + " calls exceeded");
+    }
+}
@@ -0,0 +1,29 @@
+package com.backend.tasks.service.metrics;
+
+import com.backend.tasks.model.QueryMetrics;
+
+public interface QueryMetricsService {
+
+    /**
+     * Retreives Hibernate statistics collected since they were enabled or reset
+     * 
+     * @return snapshot of the statistics. Should not be <code>null</code> value
+     */
+    QueryMetrics getMetrics();
+
+    /**
+     * Switches collection of Hibernate statistics and logging of slow queries.
+     * Both cost nothing while switched off, collected statistics are kept
+     * 
+     * @param enabled
+     *            <code>true</code> to collect
+     * 
+     * @return snapshot of the statistics. Should not be <code>null</code> value
+     */
+    QueryMetrics setEnabled(boolean enabled);
+
+    /**
+     * Drops the collected Hibernate statistics
+     */
+    void reset();
+}
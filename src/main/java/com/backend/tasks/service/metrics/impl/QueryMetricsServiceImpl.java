@@ -0,0 +1,83 @@
+package com.backend.tasks.service.metrics.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.backend.tasks.jdbc.MonitoredDataSource;
+import com.backend.tasks.model.QueryMetrics;
+import com.backend.tasks.service.metrics.QueryMetricsService;
+
+@Service
+public class QueryMetricsServiceImpl implements QueryMetricsService {
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    MonitoredDataSource dataSource;
+
+    @PostConstruct
+    public void start() {
+        statistics().setStatisticsEnabled(dataSource.isEnabled());
+    }
+
+    @Override
+    public QueryMetrics getMetrics() {
+        final Statistics statistics = statistics();
+
+        final List<QueryMetrics.Query> queries = new ArrayList<>();
+        for (String query : statistics.getQueries()) {
+            final QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+            queries.add(QueryMetrics.Query.of(query,
+                    queryStatistics.getExecutionCount(),
+                    queryStatistics.getExecutionRowCount(),
+                    queryStatistics.getExecutionAvgTime(),
+                    queryStatistics.getExecutionMaxTime()));
+        }
+        queries.sort(Comparator.comparingLong(QueryMetrics.Query::getExecutions).reversed());
+
+        final List<QueryMetrics.Entity> entities = new ArrayList<>();
+        for (String name : statistics.getEntityNames()) {
+            final EntityStatistics entityStatistics = statistics.getEntityStatistics(name);
+            entities.add(QueryMetrics.Entity.of(name, entityStatistics.getLoadCount(),
+                    entityStatistics.getFetchCount()));
+        }
+
+        return QueryMetrics.of(statistics.isStatisticsEnabled(),
+                dataSource.getSlowQueryThresholdMillis(),
+                statistics.getPrepareStatementCount(),
+                statistics.getEntityLoadCount(),
+                statistics.getEntityFetchCount(),
+                queries,
+                entities);
+    }
+
+    @Override
+    public QueryMetrics setEnabled(boolean enabled) {
+        statistics().setStatisticsEnabled(enabled);
+        dataSource.setEnabled(enabled);
+        return getMetrics();
+    }
+
+    @Override
+    public void reset() {
+        statistics().clear();
+    }
+
+    // PRIVATE
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
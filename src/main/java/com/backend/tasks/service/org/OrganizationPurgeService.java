@@ -0,0 +1,23 @@
+package com.backend.tasks.service.org;
+
+import com.backend.tasks.model.OrganizationDeletion;
+
+public interface OrganizationPurgeService {
+
+    /**
+     * Retreives progress of the Organization removal. Users of the removed
+     * Organization are purged in background chunks after the removal is
+     * committed
+     * 
+     * @param organizationId
+     *            ID of the removed Organization. Must nut be <code>null</code>
+     * 
+     * @return progress of the removal. Should not be <code>null</code> value
+     * 
+     * @throws NullPointerException
+     *             when any of parameter is <code>null</code>
+     * @throws IllegalArgumentException
+     *             when no removal of the Organization with given ID is known
+     */
+    OrganizationDeletion getStatus(Long organizationId);
+}
@@ -1,6 +1,11 @@
 package com.backend.tasks.service.org;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import com.backend.tasks.model.Organization;
+import com.backend.tasks.model.OrganizationStats;
 
 public interface OrganizationService {
 
@@ -12,6 +17,38 @@ public interface OrganizationService {
      */
     Iterable<Organization> getAll();
 
+    /**
+     * Retreives requested attributes of all Organizations. Only the requested
+     * columns are selected.
+     * 
+     * @param fields
+     *            names of the Organization attributes to be retreived. Must nut
+     *            be <code>null</code> and must be a subset of
+     *            {@link Organization#FIELDS}
+     * 
+     * @return Iterable containing attribute maps keyed by the field name. Should
+     *         not be <code>null</code> value
+     * 
+     * @throws NullPointerException
+     *             when any of parameter is <code>null</code>
+     */
+    Iterable<Map<String, Object>> getAll(Set<String> fields);
+
+    /**
+     * Retreives Organizations with the most Users first, ties are ordered by ID.
+     * Only the maintained User counts are read, Users aren't touched
+     * 
+     * @param limit
+     *            maximum count of the Organizations. Must be positive
+     * 
+     * @return List containing Organization entities. Should not be
+     *         <code>null</code> value
+     * 
+     * @throws IllegalArgumentException
+     *             when the limit isn't positive
+     */
+    List<Organization> getLargest(int limit);
+
     /**
      * Retreives a single Organization with given ID
      * 
@@ -27,6 +64,44 @@ public interface OrganizationService {
      */
     Organization getSingle(Long organizationId);
 
+    /**
+     * Retreives requested attributes of a single Organization with given ID. Only
+     * the requested columns are selected.
+     * 
+     * @param organizationId
+     *            ID of the Organization. Must nut be <code>null</code>
+     * @param fields
+     *            names of the Organization attributes to be retreived. Must nut
+     *            be <code>null</code> and must be a subset of
+     *            {@link Organization#FIELDS}
+     * 
+     * @return attribute map keyed by the field name. Should not be
+     *         <code>null</code> value
+     * 
+     * @throws NullPointerException
+     *             when any of parameter is <code>null</code>
+     * @throws IllegalArgumentException
+     *             when any of entites wasn't found with given IDs
+     */
+    Map<String, Object> getSingle(Long organizationId, Set<String> fields);
+
+    /**
+     * Retreives statistics of the Organization with given ID. Only the
+     * maintained counters are read, Users aren't scanned
+     * 
+     * @param organizationId
+     *            ID of the Organization. Must nut be <code>null</code>
+     * 
+     * @return statistics of the Organization. Should not be <code>null</code>
+     *         value
+     * 
+     * @throws NullPointerException
+     *             when any of parameter is <code>null</code>
+     * @throws IllegalArgumentException
+     *             when any of entites wasn't found with given IDs
+     */
+    OrganizationStats getStats(Long organizationId);
+
     /**
      * Store new Organization data
      * 
@@ -65,7 +140,10 @@ public interface OrganizationService {
     Organization update(Long orgaizationId, Organization organization);
 
     /**
-     * Remove Organization with given ID. It also removes all Users attached
+     * Remove Organization with given ID. The Organization is marked as deleted
+     * and hidden right away, all Users attached are purged in background once the
+     * removal is committed (see {@link OrganizationPurgeService}). Only the
+     * Organization removal is recorded in the change log
      * 
      * @param organizationId
      *            ID of the Organization. Must nut be <code>null</code>
@@ -0,0 +1,176 @@
+package com.backend.tasks.service.org.impl;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.tasks.model.Change;
+import com.backend.tasks.model.OrganizationDeletion;
+import com.backend.tasks.repository.OrganizationRepository;
+import com.backend.tasks.repository.UserRepository;
+import com.backend.tasks.service.org.OrganizationPurgeService;
+
+/**
+ * Purges the Users of deleted Organizations in background chunks. The
+ * statuses are kept in memory only: finished ones are forgotten after the
+ * TTL and all of them are lost on restart, while the purges left unfinished
+ * are resumed on startup and reported again from PENDING
+ */
+@Service
+public class OrganizationPurgeServiceImpl implements OrganizationPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrganizationPurgeServiceImpl.class);
+
+    /**
+     * Attempts to remove the Organization row while Users keep being attached
+     * to it, before the purge is reported as failed
+     */
+    static final int MAX_REMOVE_ATTEMPTS = 10;
+
+    @Autowired
+    OrganizationRepository organizationRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<Long, OrganizationDeletion> deletions = new ConcurrentHashMap<>();
+
+    // finish times of the completed and failed deletions
+    private final ConcurrentHashMap<Long, Long> finished = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor;
+
+    private final int chunkSize;
+
+    private final long statusTtlNanos;
+
+    private final LongSupplier clock;
+
+    @Autowired
+    public OrganizationPurgeServiceImpl(@Value("${organizations.purge.chunk-size:1000}") int chunkSize,
+            @Value("${organizations.purge.status-ttl-ms:86400000}") long statusTtlMillis) {
+        this(chunkSize, statusTtlMillis, System::nanoTime);
+    }
+
+    OrganizationPurgeServiceImpl(int chunkSize, long statusTtlMillis, LongSupplier clock) {
+        this.executor = Executors.newSingleThreadExecutor(daemonThreadFactory());
+        this.chunkSize = chunkSize;
+        this.statusTtlNanos = TimeUnit.MILLISECONDS.toNanos(statusTtlMillis);
+        this.clock = clock;
+    }
+
+    @Override
+    public OrganizationDeletion getStatus(Long organizationId) {
+        Objects.requireNonNull(organizationId, "organizationId");
+
+        expireFinished();
+
+        final OrganizationDeletion result = deletions.get(organizationId);
+        if (result == null)
+            throw new IllegalArgumentException("Organization deletion not exists");
+        return result;
+    }
+
+    @EventListener
+    public void onChange(Change change) {
+        if (change.getSubject() == Change.Subject.ORGANIZATION && change.getType() == Change.Type.DELETED)
+            schedule(change.getSubjectId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        organizationRepository.findDeletedIds().forEach(this::schedule);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // PACKAGE
+
+    void purge(Long organizationId) {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long purged = 0;
+        int removeAttempts = 0;
+        try {
+            while (true) {
+                final int deleted = transactionTemplate
+                        .execute(status -> userRepository.deleteChunkByOrganizationId(organizationId, chunkSize));
+                purged += deleted;
+                deletions.put(organizationId,
+                        OrganizationDeletion.of(organizationId, OrganizationDeletion.Status.IN_PROGRESS, purged));
+                if (deleted == chunkSize)
+                    continue;
+
+                // fails when a User was attached concurrently, so the next chunk is taken
+                final int removed = transactionTemplate
+                        .execute(status -> organizationRepository.purgeDeleted(organizationId));
+                if (removed > 0 || organizationRepository.countRowsById(organizationId) == 0)
+                    break;
+                if (++removeAttempts == MAX_REMOVE_ATTEMPTS)
+                    throw new IllegalStateException("Organization " + organizationId + " is still referenced");
+            }
+            finish(OrganizationDeletion.of(organizationId, OrganizationDeletion.Status.COMPLETED, purged));
+        } catch (RuntimeException e) {
+            log.error("Failed to purge users of organization {}", organizationId, e);
+            finish(OrganizationDeletion.of(organizationId, OrganizationDeletion.Status.FAILED, purged));
+        }
+    }
+
+    // PRIVATE
+
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("organization-purge-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private void finish(OrganizationDeletion deletion) {
+        finished.put(deletion.getOrganizationId(), clock.getAsLong());
+        deletions.put(deletion.getOrganizationId(), deletion);
+    }
+
+    private void expireFinished() {
+        final long now = clock.getAsLong();
+        finished.forEach((organizationId, finishedAt) -> {
+            if (now - finishedAt >= statusTtlNanos && finished.remove(organizationId, finishedAt))
+                deletions.computeIfPresent(organizationId, (key, deletion) -> isFinished(deletion) ? null : deletion);
+        });
+    }
+
+    private static boolean isFinished(OrganizationDeletion deletion) {
+        return deletion.getStatus() == OrganizationDeletion.Status.COMPLETED
+                || deletion.getStatus() == OrganizationDeletion.Status.FAILED;
+    }
+
+    private void schedule(Long organizationId) {
+        expireFinished();
+        final OrganizationDeletion previous = deletions.putIfAbsent(organizationId,
+                OrganizationDeletion.pending(organizationId));
+        if (previous != null && previous.getStatus() != OrganizationDeletion.Status.FAILED)
+            return; // already scheduled
+        if (previous != null)
+            deletions.put(organizationId, OrganizationDeletion.pending(organizationId));
+        executor.execute(() -> purge(organizationId));
+    }
+}
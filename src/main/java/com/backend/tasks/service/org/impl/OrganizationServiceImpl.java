@@ -1,15 +1,24 @@
 package com.backend.tasks.service.org.impl;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.backend.tasks.model.Change;
 import com.backend.tasks.model.Organization;
+import com.backend.tasks.model.OrganizationStats;
 import com.backend.tasks.repository.OrganizationRepository;
+import com.backend.tasks.service.change.ChangeLogService;
 import com.backend.tasks.service.org.OrganizationService;
+import com.backend.tasks.service.user.impl.UserMembershipIndex;
 
 @Service
 public class OrganizationServiceImpl implements OrganizationService {
@@ -17,12 +26,35 @@ public class OrganizationServiceImpl implements OrganizationService {
     @Autowired
     OrganizationRepository organizationRepository;
 
+    @Autowired
+    ChangeLogService changeLogService;
+
+    @Autowired
+    UserMembershipIndex membershipIndex;
+
     @Override
     @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Iterable<Organization> getAll() {
         return organizationRepository.findAll();
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Iterable<Map<String, Object>> getAll(Set<String> fields) {
+        Objects.requireNonNull(fields);
+
+        return organizationRepository.findAllFields(fields);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Organization> getLargest(int limit) {
+        if (limit < 1)
+            throw new IllegalArgumentException("Limit must be positive");
+
+        return organizationRepository.findLargest(PageRequest.of(0, limit));
+    }
+
     @Override
     @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Organization getSingle(Long orgaizationId) {
@@ -33,6 +65,34 @@ public class OrganizationServiceImpl implements OrganizationService {
         return result;
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<String, Object> getSingle(Long orgaizationId, Set<String> fields) {
+        Objects.requireNonNull(orgaizationId);
+        Objects.requireNonNull(fields);
+
+        final Map<String, Object> result = organizationRepository.findFieldsById(orgaizationId, fields).orElse(null);
+        if (result == null)
+            throw new IllegalArgumentException("Organization not exists");
+        return result;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public OrganizationStats getStats(Long orgaizationId) {
+        Objects.requireNonNull(orgaizationId);
+
+        // a loaded Organization is counted from the index, otherwise from its counter column
+        final OptionalInt indexed = membershipIndex.getCount(orgaizationId);
+        if (indexed.isPresent())
+            return OrganizationStats.of(orgaizationId, indexed.getAsInt());
+
+        final Long userCount = organizationRepository.findUserCountById(orgaizationId).orElse(null);
+        if (userCount == null)
+            throw new IllegalArgumentException("Organization not exists");
+        return OrganizationStats.of(orgaizationId, userCount);
+    }
+
     @Override
     @Transactional(propagation = Propagation.REQUIRED)
     public Organization create(Organization organization) {
@@ -40,7 +100,9 @@ public class OrganizationServiceImpl implements OrganizationService {
 
         if (organization.getId() != null && organizationRepository.existsById(organization.getId()))
             throw new IllegalArgumentException("Organization exists with given id");
-        return organizationRepository.save(organization);
+        final Organization result = organizationRepository.save(organization);
+        changeLogService.append(result.getId(), Change.Subject.ORGANIZATION, result.getId(), Change.Type.CREATED);
+        return result;
     }
 
     @Override
@@ -52,10 +114,13 @@ public class OrganizationServiceImpl implements OrganizationService {
         if (organization.getId() != null && !orgaizationId.equals(organization.getId()))
             throw new IllegalArgumentException("IDs doesn't match");
 
-        getAndCheckFromRepo(orgaizationId); // checks that already exists
+        final Organization origin = getAndCheckFromRepo(orgaizationId); // checks that already exists
 
         organization.setId(orgaizationId);
-        return organizationRepository.save(organization);
+        organization.setUserCount(origin.getUserCount()); // merged, but never written
+        final Organization result = organizationRepository.save(organization);
+        changeLogService.append(orgaizationId, Change.Subject.ORGANIZATION, orgaizationId, Change.Type.UPDATED);
+        return result;
     }
 
     @Override
@@ -63,8 +128,10 @@ public class OrganizationServiceImpl implements OrganizationService {
     public void delete(Long orgaizationId) {
         Objects.requireNonNull(orgaizationId);
 
-        final Organization org = getAndCheckFromRepo(orgaizationId);
-        organizationRepository.delete(org);
+        getAndCheckFromRepo(orgaizationId); // checks that exists and not deleted yet
+
+        organizationRepository.markDeleted(orgaizationId);
+        changeLogService.append(orgaizationId, Change.Subject.ORGANIZATION, orgaizationId, Change.Type.DELETED);
     }
 
     // PRIVATE
@@ -0,0 +1,26 @@
+package com.backend.tasks.service.snapshot;
+
+import com.backend.tasks.model.Snapshot;
+
+public interface SnapshotService {
+
+    /**
+     * Writes all Organizations and Users to the snapshot file. The previous
+     * snapshot is replaced only when the new one is complete
+     * 
+     * @return written snapshot. Should not be <code>null</code> value
+     */
+    Snapshot write();
+
+    /**
+     * Loads all Organizations and Users of the snapshot file into the empty
+     * database. Users of Organizations missing in the snapshot are skipped
+     * 
+     * @return restored snapshot. Should not be <code>null</code> value
+     * 
+     * @throws IllegalStateException
+     *             when the snapshot file not exists or the database already
+     *             contains Organizations
+     */
+    Snapshot restore();
+}
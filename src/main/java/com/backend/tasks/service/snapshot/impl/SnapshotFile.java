@@ -0,0 +1,294 @@
+package com.backend.tasks.service.snapshot.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Layout of the snapshot file: a header with the magic number, the version,
+ * the row counts and the last change sequence number (since version 2),
+ * followed by blocks of Organization rows and then blocks
+ * of User rows. A block starts with its kind, the count of rows and the
+ * length of the rows. Numbers are big-endian, a string is its UTF-8 length
+ * (-1 for <code>null</code>) and bytes. Blocks are never split, so the reader
+ * maps the file in windows ending on a block boundary and reads the rows
+ * straight from the mapped memory, files over 2 GB included. The file
+ * contains password hashes, so it's readable by the owner only where the file
+ * system supports POSIX permissions
+ */
+final class SnapshotFile {
+
+    static final long MAGIC = 0x534e415053484f54L; // SNAPSHOT
+
+    static final int VERSION = 2;
+
+    static final int HEADER_SIZE = 8 + 4 + 8 + 8 + 8;
+
+    static final int VERSION_1_HEADER_SIZE = 8 + 4 + 8 + 8;
+
+    static final int BLOCK_HEADER_SIZE = 1 + 4 + 4;
+
+    static final byte ORGANIZATIONS = 1;
+
+    static final byte USERS = 2;
+
+    static final int MAX_WINDOW = 1 << 30;
+
+    /**
+     * Receives the rows in the order they were written
+     */
+    interface Handler {
+
+        void organization(long id, boolean deleted, String name);
+
+        void user(long id, long organizationId, String username, String usernameKey, String password);
+    }
+
+    /**
+     * Writes the rows through a direct buffer of the block size
+     */
+    static final class Writer implements Closeable {
+
+        private final FileChannel channel;
+
+        private final ByteBuffer block;
+
+        private byte kind;
+
+        private int records;
+
+        private long organizations;
+
+        private long users;
+
+        private long changeSequence;
+
+        Writer(Path file, int blockSize) throws IOException {
+            final Set<OpenOption> options = new HashSet<>(Arrays.asList(StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+            this.channel = isPosix(file)
+                    ? FileChannel.open(file, options, PosixFilePermissions.asFileAttribute(
+                            PosixFilePermissions.fromString("rw-------")))
+                    : FileChannel.open(file, options);
+            this.block = ByteBuffer.allocateDirect(blockSize);
+            channel.position(HEADER_SIZE);
+            block.position(BLOCK_HEADER_SIZE);
+        }
+
+        void organization(long id, boolean deleted, String name) throws IOException {
+            final byte[] nameBytes = bytes(name);
+            start(ORGANIZATIONS, 8 + 1 + length(nameBytes));
+            block.putLong(id);
+            block.put(deleted ? (byte) 1 : (byte) 0);
+            put(nameBytes);
+            organizations++;
+        }
+
+        void user(long id, long organizationId, String username, String usernameKey, String password)
+                throws IOException {
+            final byte[] usernameBytes = bytes(username);
+            final byte[] usernameKeyBytes = bytes(usernameKey);
+            final byte[] passwordBytes = bytes(password);
+            start(USERS, 8 + 8 + length(usernameBytes) + length(usernameKeyBytes) + length(passwordBytes));
+            block.putLong(id);
+            block.putLong(organizationId);
+            put(usernameBytes);
+            put(usernameKeyBytes);
+            put(passwordBytes);
+            users++;
+        }
+
+        /**
+         * Sets the sequence number of the last change committed before the rows
+         * were read
+         */
+        void changeSequence(long sequence) {
+            this.changeSequence = sequence;
+        }
+
+        /**
+         * Writes the last block and the header and forces them to the disk
+         * 
+         * @return size of the file
+         */
+        long finish() throws IOException {
+            flush();
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putLong(MAGIC);
+            header.putInt(VERSION);
+            header.putLong(organizations);
+            header.putLong(users);
+            header.putLong(changeSequence);
+            header.flip();
+            final long size = channel.position();
+            while (header.hasRemaining())
+                channel.write(header, header.position());
+            channel.force(true);
+            return size;
+        }
+
+        long getOrganizations() {
+            return organizations;
+        }
+
+        long getUsers() {
+            return users;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private void start(byte recordKind, int length) throws IOException {
+            if (BLOCK_HEADER_SIZE + length > block.capacity())
+                throw new IllegalArgumentException("Row of " + length + " bytes doesn't fit into a block");
+            if (kind != recordKind || block.remaining() < length)
+                flush();
+            kind = recordKind;
+            records++;
+        }
+
+        private void flush() throws IOException {
+            if (records == 0)
+                return;
+            block.put(0, kind);
+            block.putInt(1, records);
+            block.putInt(5, block.position() - BLOCK_HEADER_SIZE);
+            block.flip();
+            while (block.hasRemaining())
+                channel.write(block);
+            block.clear();
+            block.position(BLOCK_HEADER_SIZE);
+            records = 0;
+        }
+
+        private void put(byte[] value) {
+            if (value == null) {
+                block.putInt(-1);
+            } else {
+                block.putInt(value.length);
+                block.put(value);
+            }
+        }
+
+        private static byte[] bytes(String value) {
+            return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static int length(byte[] value) {
+            return 4 + (value == null ? 0 : value.length);
+        }
+    }
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Attributes of a directory accessible by the owner only, none where the
+     * file system doesn't support POSIX permissions
+     */
+    static FileAttribute<?>[] ownerOnlyDirectory(Path directory) {
+        return isPosix(directory)
+                ? new FileAttribute<?>[] { PosixFilePermissions.asFileAttribute(
+                        PosixFilePermissions.fromString("rwx------")) }
+                : new FileAttribute<?>[0];
+    }
+
+    /**
+     * Passes the rows of the snapshot file to the handler
+     * 
+     * @return counts of Organizations and Users and the last change sequence
+     *         number from the header
+     */
+    static long[] read(Path file, Handler handler) throws IOException {
+        return read(file, handler, MAX_WINDOW);
+    }
+
+    static long[] read(Path file, Handler handler, int maxWindow) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < VERSION_1_HEADER_SIZE)
+                throw new IllegalStateException("Snapshot is truncated");
+
+            final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, VERSION_1_HEADER_SIZE);
+            final long magic = header.getLong();
+            final int version = header.getInt();
+            if (magic != MAGIC || version < 1 || version > VERSION)
+                throw new IllegalStateException("Not a snapshot of version " + VERSION);
+            final int headerSize = version == 1 ? VERSION_1_HEADER_SIZE : HEADER_SIZE;
+            if (size < headerSize)
+                throw new IllegalStateException("Snapshot is truncated");
+            final long organizations = header.getLong();
+            final long users = header.getLong();
+            // version 1 has no change sequence number
+            final long changeSequence = version == 1 ? 0L
+                    : channel.map(FileChannel.MapMode.READ_ONLY, VERSION_1_HEADER_SIZE, 8).getLong();
+            final long[] counts = { organizations, users, changeSequence };
+
+            long position = headerSize;
+            while (position < size) {
+                final MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(size - position, maxWindow));
+                final int read = readBlocks(window, handler);
+                if (read == 0)
+                    throw new IllegalStateException("Snapshot is truncated at " + position);
+                position += read;
+            }
+            return counts;
+        }
+    }
+
+    // PRIVATE
+
+    private static boolean isPosix(Path path) {
+        return path.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    /**
+     * Reads the blocks which are entirely in the window
+     * 
+     * @return bytes read
+     */
+    private static int readBlocks(ByteBuffer window, Handler handler) {
+        while (window.remaining() >= BLOCK_HEADER_SIZE) {
+            final int start = window.position();
+            final byte kind = window.get(start);
+            final int records = window.getInt(start + 1);
+            final int length = window.getInt(start + 5);
+            if (window.remaining() < BLOCK_HEADER_SIZE + length)
+                break;
+
+            window.position(start + BLOCK_HEADER_SIZE);
+            for (int i = 0; i < records; i++) {
+                if (kind == ORGANIZATIONS)
+                    handler.organization(window.getLong(), window.get() != 0, string(window));
+                else if (kind == USERS)
+                    handler.user(window.getLong(), window.getLong(), string(window), string(window), string(window));
+                else
+                    throw new IllegalStateException("Unknown block kind " + kind);
+            }
+        }
+        return window.position();
+    }
+
+    private static String string(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0)
+            return null;
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,283 @@
+package com.backend.tasks.service.snapshot.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.tasks.model.Snapshot;
+import com.backend.tasks.service.snapshot.SnapshotService;
+
+/**
+ * Keeps the in-memory database restartable: the snapshot is restored before
+ * the web server starts taking requests, then written periodically and once
+ * more on shutdown. Rows are streamed into the file without being collected
+ * and restored from the memory-mapped file by JDBC batches. The change log
+ * isn't part of the snapshot, only its last sequence number, so the sequence
+ * numbers continue after the restore and the feed readers don't get them
+ * reused
+ */
+@Service
+public class SnapshotServiceImpl implements SnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotServiceImpl.class);
+
+    private static final String SELECT_ORGANIZATIONS = "select id, deleted, name from organization order by id";
+
+    private static final String SELECT_USERS = "select id, org_id, username, username_key, password from user"
+            + " order by id";
+
+    private static final String COUNT_ORGANIZATIONS = "select count(*) from organization";
+
+    private static final String SELECT_CHANGE_SEQUENCE = "select coalesce(max(sequence), 0) from change_log";
+
+    private static final String INSERT_ORGANIZATION = "insert into organization (id, deleted, name)"
+            + " values (?, ?, ?)";
+
+    private static final String INSERT_USER = "insert into user (id, org_id, username, username_key, password)"
+            + " values (?, ?, ?, ?, ?)";
+
+    // the counters aren't part of the snapshot, they're derived from the restored rows once
+    private static final String COUNT_USERS = "update organization o"
+            + " set user_count = (select count(*) from user u where u.org_id = o.id)";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private final boolean enabled;
+
+    private final Path path;
+
+    private final long intervalMillis;
+
+    private final int blockSize;
+
+    private final int batchSize;
+
+    private final int fetchSize;
+
+    private final ScheduledExecutorService scheduler;
+
+    @Autowired
+    public SnapshotServiceImpl(@Value("${snapshot.enabled:false}") boolean enabled,
+            @Value("${snapshot.path:${user.home}/.backend-tasks/snapshot/data.snapshot}") String path,
+            @Value("${snapshot.interval-ms:300000}") long intervalMillis,
+            @Value("${snapshot.block-size:1048576}") int blockSize,
+            @Value("${snapshot.batch-size:10000}") int batchSize,
+            @Value("${snapshot.fetch-size:1000}") int fetchSize) {
+        this.enabled = enabled;
+        this.path = Paths.get(path);
+        this.intervalMillis = intervalMillis;
+        this.blockSize = blockSize;
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory());
+    }
+
+    @Override
+    public synchronized Snapshot write() {
+        final Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null)
+                Files.createDirectories(path.getParent(), SnapshotFile.ownerOnlyDirectory(path.getParent()));
+            Files.deleteIfExists(temporary);
+
+            final Snapshot result;
+            try (SnapshotFile.Writer writer = new SnapshotFile.Writer(temporary, blockSize)) {
+                final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+                transactionTemplate.setReadOnly(true);
+                transactionTemplate.execute(status -> {
+                    writer.changeSequence(jdbcTemplate.queryForObject(SELECT_CHANGE_SEQUENCE, Long.class));
+                    query(SELECT_ORGANIZATIONS, rs -> {
+                        try {
+                            writer.organization(rs.getLong(1), rs.getBoolean(2), rs.getString(3));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    query(SELECT_USERS, rs -> {
+                        try {
+                            writer.user(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4),
+                                    rs.getString(5));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    return null;
+                });
+                final long bytes = writer.finish();
+                result = Snapshot.of(path.toString(), writer.getOrganizations(), writer.getUsers(), bytes);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized Snapshot restore() {
+        if (!Files.exists(path))
+            throw new IllegalStateException("Snapshot not exists");
+        if (jdbcTemplate.queryForObject(COUNT_ORGANIZATIONS, Long.class) > 0)
+            throw new IllegalStateException("Database is not empty");
+
+        final Loader loader = new Loader();
+        try {
+            final long[] header = SnapshotFile.read(path, loader);
+            loader.flush();
+            jdbcTemplate.update(COUNT_USERS);
+            restartIdentity("organization", "id", loader.maxOrganizationId);
+            restartIdentity("user", "id", loader.maxUserId);
+            restartIdentity("change_log", "sequence",
+                    Math.max(header[2], jdbcTemplate.queryForObject(SELECT_CHANGE_SEQUENCE, Long.class)));
+            return Snapshot.of(path.toString(), loader.organizations.size(), loader.users, Files.size(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void start() {
+        if (!enabled)
+            return;
+
+        if (Files.exists(path)) {
+            final long started = System.nanoTime();
+            try {
+                final Snapshot snapshot = restore();
+                log.info("Restored {} organizations and {} users from {} in {} ms", snapshot.getOrganizations(),
+                        snapshot.getUsers(), path, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            } catch (RuntimeException e) {
+                log.error("Failed to restore the snapshot {}", path, e);
+            }
+        }
+        scheduler.scheduleWithFixedDelay(this::writeLogged, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (enabled)
+            writeLogged();
+    }
+
+    // PRIVATE
+
+    /**
+     * Inserts the rows by batches, each in its own transaction
+     */
+    private class Loader implements SnapshotFile.Handler {
+
+        private final Set<Long> organizations = new HashSet<>();
+
+        private final List<Object[]> organizationBatch = new ArrayList<>();
+
+        private final List<Object[]> userBatch = new ArrayList<>();
+
+        private long users;
+
+        private long maxOrganizationId;
+
+        private long maxUserId;
+
+        @Override
+        public void organization(long id, boolean deleted, String name) {
+            organizations.add(id);
+            maxOrganizationId = Math.max(maxOrganizationId, id);
+            organizationBatch.add(new Object[] { id, deleted, name });
+            if (organizationBatch.size() == batchSize)
+                flush();
+        }
+
+        @Override
+        public void user(long id, long organizationId, String username, String usernameKey, String password) {
+            if (!organizations.contains(organizationId))
+                return; // attached after the Organizations were written
+            if (!organizationBatch.isEmpty())
+                flush();
+            users++;
+            maxUserId = Math.max(maxUserId, id);
+            userBatch.add(new Object[] { id, organizationId, username, usernameKey, password });
+            if (userBatch.size() == batchSize)
+                flush();
+        }
+
+        void flush() {
+            final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.execute(status -> {
+                if (!organizationBatch.isEmpty())
+                    jdbcTemplate.batchUpdate(INSERT_ORGANIZATION, organizationBatch);
+                if (!userBatch.isEmpty())
+                    jdbcTemplate.batchUpdate(INSERT_USER, userBatch);
+                return null;
+            });
+            organizationBatch.clear();
+            userBatch.clear();
+        }
+    }
+
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("snapshot-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private void query(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, handler);
+    }
+
+    /**
+     * Rows were inserted with their IDs, so the identity continues after the
+     * highest one
+     */
+    private void restartIdentity(String table, String column, long maxId) {
+        jdbcTemplate.execute("alter table " + table + " alter column " + column + " restart with " + (maxId + 1));
+    }
+
+    private void writeLogged() {
+        final long started = System.nanoTime();
+        try {
+            final Snapshot snapshot = write();
+            log.info("Wrote {} organizations and {} users to {} in {} ms", snapshot.getOrganizations(),
+                    snapshot.getUsers(), path, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (RuntimeException e) {
+            log.error("Failed to write the snapshot {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.backend.tasks.service.user;
+
+import java.util.List;
+
+public interface PasswordHashingService {
+
+    /**
+     * Hashes the raw password on the bounded hashing executor, the caller waits
+     * for the hash. Callers shouldn't hold a transaction meanwhile
+     * 
+     * @param rawPassword
+     *            password to be hashed. Could be <code>null</code>
+     * 
+     * @return hash of the password or <code>null</code> when the password is
+     *         <code>null</code>
+     * 
+     * @throws com.backend.tasks.service.limit.ConcurrencyLimitExceededException
+     *             when the hashing executor is saturated
+     */
+    String hash(String rawPassword);
+
+    /**
+     * Hashes the raw passwords on the bounded hashing executor in parallel. Unlike
+     * {@link #hash(String)} it waits for room in the executor instead of failing
+     * when the executor is saturated, so it suits batch callers. The batches use
+     * only a part of the hashing threads, the rest is left to the single hashes
+     * and checks
+     * 
+     * @param rawPasswords
+     *            passwords to be hashed. Must nut be <code>null</code>, elements
+     *            could be <code>null</code>
+     * 
+     * @return hashes in the order of the passwords, <code>null</code> for
+     *         <code>null</code> passwords
+     * 
+     * @throws NullPointerException
+     *             when any of parameter is <code>null</code>
+     */
+    List<String> hashAll(List<String> rawPasswords);
+
+    /**
+     * Checks the raw password against the hash on the bounded hashing executor,
+     * the caller waits for the result
+     * 
+     * @param rawPassword
+     *            password to be checked. Must nut be <code>null</code>
+     * @param hash
+     *            hash returned by {@link #hash(String)}. Must nut be
+     *            <code>null</code>
+     * 
+     * @return <code>true</code> when the password matches the hash
+     * 
+     * @throws NullPointerException
+     *             when any of parameter is <code>null</code>
+     * @throws com.backend.tasks.service.limit.ConcurrencyLimitExceededException
+     *             when the hashing executor is saturated
+     */
+    boolean matches(String rawPassword, String hash);
+}
@@ -0,0 +1,48 @@
+package com.backend.tasks.service.user;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import com.backend.tasks.model.UserImport;
+
+public interface UserImportService {
+
+    enum Format {
+        /**
+         * Comma separated username and password columns. The header row is
+         * optional, when present columns could be given in any order
+         */
+        CSV,
+
+        /**
+         * One JSON object with username and password attributes per line
+         */
+        NDJSON
+    }
+
+    /**
+     * Stores Users read from the body and attaches them to the Organization with
+     * given ID. The body is parsed while it's read and the valid rows are stored
+     * in fixed-size chunks, each in its own transaction, so the chunks stored
+     * before a failure stay committed. Every stored User is recorded in the
+     * change log as created. A row longer than 64 KB is rejected without being
+     * buffered
+     * 
+     * @param organizationId
+     *            ID of the Organization. Must nut be <code>null</code>
+     * @param body
+     *            rows to be imported. Must nut be <code>null</code>
+     * @param format
+     *            format of the rows. Must nut be <code>null</code>
+     * 
+     * @return import report. Should not be <code>null</code> value
+     * 
+     * @throws NullPointerException
+     *             when any of parameter is <code>null</code>
+     * @throws IllegalArgumentException
+     *             when any of entites wasn't found with given IDs
+     * @throws IOException
+     *             when the body couldn't be read
+     */
+    UserImport importUsers(Long organizationId, Reader body, Format format) throws IOException;
+}
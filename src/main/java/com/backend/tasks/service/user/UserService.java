@@ -1,11 +1,18 @@
 package com.backend.tasks.service.user;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import com.backend.tasks.model.User;
+import com.backend.tasks.model.UserLookup;
 
 public interface UserService {
 
     /**
-     * Retreives all Users attached to the Organization with given ID
+     * Retreives all Users attached to the Organization with given ID. When the
+     * off-heap directory is loaded the Users are read from it instead of the
+     * database, so they carry only the ID and username
      * 
      * @param organizationId
      *            ID of the Organization. Must nut be <code>null</code>
@@ -20,6 +27,26 @@ public interface UserService {
      */
     Iterable<User> getAll(Long organizationId);
 
+    /**
+     * Retreives requested attributes of all Users attached to the Organization
+     * with given ID. Only the requested columns are selected.
+     * 
+     * @param organizationId
+     *            ID of the Organization. Must nut be <code>null</code>
+     * @param fields
+     *            names of the User attributes to be retreived. Must nut be
+     *            <code>null</code> and must be a subset of {@link User#FIELDS}
+     * 
+     * @return Iterable containing attribute maps keyed by the field name. Should
+     *         not be <code>null</code> value
+     * 
+     * @throws NullPointerException
+     *             when any of parameter is <code>null</code>
+     * @throws IllegalArgumentException
+     *             when any of entites wasn't found with given IDs
+     */
+    Iterable<Map<String, Object>> getAll(Long organizationId, Set<String> fields);
+
     /**
      * Retreives a single User with given ID attached to the Organization with given
      * ID
@@ -40,6 +67,73 @@ public interface UserService {
      */
     User getSingle(Long organizationId, Long userId);
 
+    /**
+     * Retreives requested attributes of a single User with given ID attached to
+     * the Organization with given ID. Only the requested columns are selected.
+     * 
+     * @param organizationId
+     *            ID of the Organization. Must nut be <code>null</code> value
+     * @param userId
+     *            ID of the User. Must nut be <code>null</code>
+     * @param fields
+     *            names of the User attributes to be retreived. Must nut be
+     *            <code>null</code> and must be a subset of {@link User#FIELDS}
+     * 
+     * @return attribute map keyed by the field name. Should not be
+     *         <code>null</code> value
+     * 
+     * @throws NullPointerException
+     *             when any of parameter is <code>null</code>
+     * @throws IllegalArgumentException
+     *             when any of entites wasn't found with given IDs or ID's doesn't
+     *             match
+     */
+    Map<String, Object> getSingle(Long organizationId, Long userId, Set<String> fields);
+
+    /**
+     * Retreives Users with given IDs attached to the Organization with given ID
+     * using a single query
+     * 
+     * @param organizationId
+     *            ID of the Organization. Must nut be <code>null</code>
+     * @param userIds
+     *            IDs of the Users. Must nut be <code>null</code>
+     * 
+     * @return lookup containing found User entities in the requested order and
+     *         IDs of the Users which weren't found in the Organization. Should
+     *         not be <code>null</code> value
+     * 
+     * @throws NullPointerException
+     *             when any of parameter is <code>null</code>
+     * @throws IllegalArgumentException
+     *             when Organization wasn't found with given ID
+     */
+    UserLookup getMultiple(Long organizationId, List<Long> userIds);
+
+    /**
+     * Retreives a page of Users attached to the Organization with given ID whose
+     * username starts with given prefix ignoring case. Users are ordered by the
+     * username.
+     * 
+     * @param organizationId
+     *            ID of the Organization. Must nut be <code>null</code>
+     * @param usernamePrefix
+     *            prefix of the username. Must nut be <code>null</code>
+     * @param page
+     *            zero-based page number. Must not be negative
+     * @param size
+     *            page size. Must be positive
+     * 
+     * @return List containing User entities of the page. Should not be
+     *         <code>null</code> value
+     * 
+     * @throws NullPointerException
+     *             when any of parameter is <code>null</code>
+     * @throws IllegalArgumentException
+     *             when Organization wasn't found with given ID
+     */
+    List<User> search(Long organizationId, String usernamePrefix, int page, int size);
+
     /**
      * Store new User data and attach it to the Organization with given ID
      * 
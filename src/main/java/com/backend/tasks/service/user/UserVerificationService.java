@@ -0,0 +1,26 @@
+package com.backend.tasks.service.user;
+
+public interface UserVerificationService {
+
+    /**
+     * Checks the password against the stored hash of the User with given ID of
+     * the Organization with given ID. Recent successful checks are cached for a
+     * short time, so repeated checks of the same password skip the hashing. The
+     * cached check of the User is dropped once the User is updated or deleted
+     * 
+     * @param organizationId
+     *            ID of the Organization. Must nut be <code>null</code>
+     * @param userId
+     *            ID of the User. Must nut be <code>null</code>
+     * @param password
+     *            raw password to be checked. Must nut be <code>null</code>
+     * 
+     * @return <code>true</code> when the password matches
+     * 
+     * @throws NullPointerException
+     *             when any of parameter is <code>null</code>
+     * @throws IllegalArgumentException
+     *             when any of entites wasn't found with given IDs
+     */
+    boolean verify(Long organizationId, Long userId, String password);
+}
@@ -0,0 +1,233 @@
+package com.backend.tasks.service.user.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.tasks.model.User;
+import com.backend.tasks.model.UserLookup;
+import com.backend.tasks.service.user.UserService;
+
+/**
+ * Opt-in write path which queues concurrent User creates and commits them
+ * together. A batch is flushed once it's full or the oldest create has waited
+ * for the configured delay, so a caller pays at most that delay for sharing the
+ * commit with others. Every caller gets its own result or error. Other
+ * operations are delegated as is
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "users.group-commit.enabled", havingValue = "true")
+public class GroupCommitUserService implements UserService {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitUserService.class);
+
+    @Autowired
+    UserServiceImpl delegate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private final BlockingQueue<PendingCreate> queue;
+
+    private final int batchSize;
+
+    private final long maxDelayNanos;
+
+    private Thread flusher;
+
+    public GroupCommitUserService(@Value("${users.group-commit.batch-size:64}") int batchSize,
+            @Value("${users.group-commit.max-delay-ms:2}") long maxDelayMillis,
+            @Value("${users.group-commit.queue-capacity:10000}") int queueCapacity) {
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("user-group-commit-");
+        threadFactory.setDaemon(true);
+        flusher = threadFactory.newThread(this::flushLoop);
+        flusher.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.interrupt();
+        final List<PendingCreate> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        rest.forEach(pending -> pending.result.completeExceptionally(new IllegalStateException("Shutting down")));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Iterable<User> getAll(Long organizationId) {
+        return delegate.getAll(organizationId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Iterable<Map<String, Object>> getAll(Long organizationId, Set<String> fields) {
+        return delegate.getAll(organizationId, fields);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public User getSingle(Long organizationId, Long userId) {
+        return delegate.getSingle(organizationId, userId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<String, Object> getSingle(Long organizationId, Long userId, Set<String> fields) {
+        return delegate.getSingle(organizationId, userId, fields);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public UserLookup getMultiple(Long organizationId, List<Long> userIds) {
+        return delegate.getMultiple(organizationId, userIds);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<User> search(Long organizationId, String usernamePrefix, int page, int size) {
+        return delegate.search(organizationId, usernamePrefix, page, size);
+    }
+
+    @Override
+    public User create(Long organizationId, User user) {
+        Objects.requireNonNull(organizationId, "organizationId");
+        Objects.requireNonNull(user, "user");
+
+        // a caller's own transaction couldn't be shared, as well as an overflow waits for nobody
+        final PendingCreate pending = new PendingCreate(organizationId, user);
+        if (TransactionSynchronizationManager.isActualTransactionActive() || !queue.offer(pending))
+            return delegate.create(organizationId, user);
+
+        try {
+            return pending.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while user is created", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public User update(Long organizationId, Long userId, User user) {
+        return delegate.update(organizationId, userId, user);
+    }
+
+    @Override
+    public void delete(Long organizationId, Long userId) {
+        delegate.delete(organizationId, userId);
+    }
+
+    // PRIVATE
+
+    private void flushLoop() {
+        final List<PendingCreate> batch = new ArrayList<>(batchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                final long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    final PendingCreate next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null)
+                        break;
+                    batch.add(next);
+                }
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            batch.forEach(pending -> pending.result.completeExceptionally(new IllegalStateException("Shutting down")));
+        }
+    }
+
+    private void flush(List<PendingCreate> batch) {
+        final List<User> results = new ArrayList<>(batch.size());
+        final List<RuntimeException> errors = new ArrayList<>(batch.size());
+        try {
+            new TransactionTemplate(transactionManager).execute(status -> {
+                delegate.deferUserCounts();
+                // rejected creates don't mark the shared transaction as rollback-only
+                for (PendingCreate pending : batch)
+                    try {
+                        results.add(delegate.create(pending.organizationId, pending.user));
+                        errors.add(null);
+                    } catch (IllegalArgumentException e) {
+                        results.add(null);
+                        errors.add(e);
+                    }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} users failed, creating them one by one", batch.size(), e);
+            batch.forEach(this::createAlone);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (errors.get(i) != null)
+                batch.get(i).result.completeExceptionally(errors.get(i));
+            else
+                batch.get(i).result.complete(results.get(i));
+        }
+    }
+
+    private void createAlone(PendingCreate pending) {
+        pending.user.setId(pending.userId); // drops ID generated by the rolled back batch
+        try {
+            pending.result.complete(delegate.create(pending.organizationId, pending.user));
+        } catch (RuntimeException e) {
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+    private static class PendingCreate {
+
+        private final Long organizationId;
+
+        private final User user;
+
+        private final Long userId;
+
+        private final CompletableFuture<User> result = new CompletableFuture<>();
+
+        PendingCreate(Long organizationId, User user) {
+            this.organizationId = organizationId;
+            this.user = user;
+            this.userId = user.getId();
+        }
+    }
+}
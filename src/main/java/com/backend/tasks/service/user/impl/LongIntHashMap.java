@@ -0,0 +1,148 @@
+package com.backend.tasks.service.user.impl;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map of primitive <code>long</code> keys to
+ * <code>int</code> values, so neither keys nor values are boxed. Collisions
+ * are resolved by linear probing and removal shifts the following entries
+ * back, so there are no tombstones. Not thread-safe
+ */
+final class LongIntHashMap {
+
+    static final int MISSING = -1;
+
+    private static final long EMPTY = 0L;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+
+    private int[] values;
+
+    private int size;
+
+    private int threshold;
+
+    // the empty marker can't be stored in the table
+    private boolean hasZeroKey;
+
+    private int zeroValue;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expectedSize)
+            capacity <<= 1;
+        allocate(capacity);
+    }
+
+    int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    /**
+     * @return value of the key or {@link #MISSING}
+     */
+    int get(long key) {
+        if (key == EMPTY)
+            return hasZeroKey ? zeroValue : MISSING;
+        final int mask = keys.length - 1;
+        for (int i = slot(key, mask);; i = (i + 1) & mask) {
+            if (keys[i] == key)
+                return values[i];
+            if (keys[i] == EMPTY)
+                return MISSING;
+        }
+    }
+
+    /**
+     * @return previous value of the key or {@link #MISSING}
+     */
+    int put(long key, int value) {
+        if (key == EMPTY) {
+            final int previous = hasZeroKey ? zeroValue : MISSING;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        final int mask = keys.length - 1;
+        int i = slot(key, mask);
+        for (; keys[i] != EMPTY; i = (i + 1) & mask)
+            if (keys[i] == key) {
+                final int previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > threshold)
+            rehash(keys.length << 1);
+        return MISSING;
+    }
+
+    /**
+     * @return removed value of the key or {@link #MISSING}
+     */
+    int remove(long key) {
+        if (key == EMPTY) {
+            final int previous = hasZeroKey ? zeroValue : MISSING;
+            hasZeroKey = false;
+            return previous;
+        }
+        final int mask = keys.length - 1;
+        int i = slot(key, mask);
+        for (; keys[i] != key; i = (i + 1) & mask)
+            if (keys[i] == EMPTY)
+                return MISSING;
+        final int previous = values[i];
+
+        // shift back the following entries which would not be found behind the gap
+        int gap = i;
+        for (int j = (gap + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            final int home = slot(keys[j], mask);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return previous;
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        hasZeroKey = false;
+    }
+
+    // PRIVATE
+
+    private static int slot(long key, int mask) {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+        allocate(capacity);
+        final int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == EMPTY)
+                continue;
+            int i = slot(oldKeys[j], mask);
+            while (keys[i] != EMPTY)
+                i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+}
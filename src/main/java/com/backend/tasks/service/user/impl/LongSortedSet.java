@@ -0,0 +1,61 @@
+package com.backend.tasks.service.user.impl;
+
+import java.util.Arrays;
+
+/**
+ * Set of primitive <code>long</code> values kept as a sorted array, 8 bytes
+ * per value and no boxing. Lookups are binary searches, IDs are generated
+ * in the increasing order, so additions are usually appends. Not
+ * thread-safe
+ */
+final class LongSortedSet {
+
+    private long[] values;
+
+    private int size;
+
+    LongSortedSet(int expectedSize) {
+        this.values = new long[Math.max(expectedSize, 4)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(long value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    /**
+     * @return <code>true</code> when the value wasn't in the set
+     */
+    boolean add(long value) {
+        final int index;
+        if (size == 0 || values[size - 1] < value) {
+            index = size;
+        } else {
+            final int found = Arrays.binarySearch(values, 0, size, value);
+            if (found >= 0)
+                return false;
+            index = -found - 1;
+        }
+        if (size == values.length)
+            values = Arrays.copyOf(values, size + (size >> 1));
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * @return <code>true</code> when the value was in the set
+     */
+    boolean remove(long value) {
+        final int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0)
+            return false;
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+}
@@ -0,0 +1,462 @@
+package com.backend.tasks.service.user.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.backend.tasks.model.Change;
+
+/**
+ * Opt-in copy of the ID, Organization ID and username of every User of the
+ * not deleted Organizations, kept outside of the Java heap, so millions of
+ * Users add neither objects nor GC work. A User is a fixed-layout record in
+ * direct buffer segments, the records of an Organization are linked in the ID
+ * order and the usernames are appended to separate segments as UTF-8. IDs are
+ * mapped to records by a primitive hash map. It serves the User lists and the
+ * ownership checks of {@link UserServiceImpl}. It's loaded before the web
+ * server starts, User writes of {@link UserServiceImpl} and
+ * {@link UserImportServiceImpl} are applied when their transaction commits and
+ * a deleted Organization drops its records. Other Organization changes don't
+ * touch the membership, so they're ignored
+ */
+@Component
+@ConditionalOnProperty(name = "users.directory.enabled", havingValue = "true")
+public class OffHeapUserDirectory {
+
+    /**
+     * Receives the Users of an Organization in the ID order
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long id, String username);
+    }
+
+    static final int RECORD_SIZE = 40;
+
+    // record layout
+    private static final int ID = 0;
+    private static final int ORGANIZATION_ID = 8;
+    private static final int PREVIOUS = 16;
+    private static final int NEXT = 20;
+    private static final int NAME_OFFSET = 24;
+    private static final int NAME_LENGTH = 32;
+
+    private static final int NIL = -1;
+
+    private static final int NULL_NAME = -1;
+
+    private static final int FREE = -2;
+
+    private static final String SELECT_USERS = "select u.id, u.org_id, u.username from user u"
+            + " join organization o on o.id = u.org_id where o.deleted = false order by u.id";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final int segmentRecords;
+
+    private final int nameSegmentBytes;
+
+    private final int fetchSize;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongIntHashMap recordsById = new LongIntHashMap(1024);
+
+    private final LongIntHashMap firstRecordsByOrganization = new LongIntHashMap(1024);
+
+    private List<ByteBuffer> records = new ArrayList<>();
+
+    private List<ByteBuffer> names = new ArrayList<>();
+
+    private int recordTop;
+
+    private int freeRecord = NIL;
+
+    private long nameTop;
+
+    private long garbageNameBytes;
+
+    private volatile boolean loaded;
+
+    public OffHeapUserDirectory(@Value("${users.directory.segment-records:65536}") int segmentRecords,
+            @Value("${users.directory.name-segment-bytes:4194304}") int nameSegmentBytes,
+            @Value("${users.directory.fetch-size:1000}") int fetchSize) {
+        this.segmentRecords = segmentRecords;
+        this.nameSegmentBytes = nameSegmentBytes;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Loads the Users after the snapshot, if any, was restored. The write lock
+     * is held while the rows are read, so the Users committed meanwhile are put
+     * after the load instead of being overwritten by it
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            query(SELECT_USERS, rs -> put(rs.getLong(1), rs.getLong(2), rs.getString(3)));
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onChange(Change change) {
+        if (change.getSubject() == Change.Subject.ORGANIZATION && change.getType() == Change.Type.DELETED && loaded)
+            removeOrganization(change.getOrganizationId());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+            clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return recordsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long organizationId, long userId) {
+        lock.readLock().lock();
+        try {
+            final int record = recordsById.get(userId);
+            return record != LongIntHashMap.MISSING && getLong(record, ORGANIZATION_ID) == organizationId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void forEach(long organizationId, boolean usernames, Visitor visitor) {
+        lock.readLock().lock();
+        try {
+            final int first = firstRecordsByOrganization.get(organizationId);
+            if (first == LongIntHashMap.MISSING)
+                return;
+            int record = first;
+            do {
+                visitor.visit(getLong(record, ID), usernames ? name(record) : null);
+                record = getInt(record, NEXT);
+            } while (record != first);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retreives requested attributes of the Users of the Organization ordered
+     * by ID, shaped like the projection queries of the repository
+     * 
+     * @param fields
+     *            subset of the <code>id</code> and <code>username</code>
+     */
+    public List<Map<String, Object>> getAll(long organizationId, Collection<String> fields) {
+        final boolean withId = fields.contains("id");
+        final boolean withUsername = fields.contains("username");
+        final List<Map<String, Object>> result = new ArrayList<>();
+        forEach(organizationId, withUsername, (id, username) -> {
+            final Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields)
+                if (withId && "id".equals(field))
+                    row.put(field, id);
+                else if (withUsername && "username".equals(field))
+                    row.put(field, username);
+            result.add(row);
+        });
+        return result;
+    }
+
+    public void put(long id, long organizationId, String username) {
+        lock.writeLock().lock();
+        try {
+            int record = recordsById.get(id);
+            if (record != LongIntHashMap.MISSING) {
+                if (getLong(record, ORGANIZATION_ID) == organizationId) {
+                    releaseName(record);
+                    putName(record, username);
+                    return;
+                }
+                unlink(record);
+                release(record);
+            }
+            record = allocate();
+            putLong(record, ID, id);
+            putLong(record, ORGANIZATION_ID, organizationId);
+            putName(record, username);
+            link(organizationId, record);
+            recordsById.put(id, record);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            final int record = recordsById.remove(id);
+            if (record == LongIntHashMap.MISSING)
+                return;
+            unlink(record);
+            release(record);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeOrganization(long organizationId) {
+        lock.writeLock().lock();
+        try {
+            final int first = firstRecordsByOrganization.remove(organizationId);
+            if (first == LongIntHashMap.MISSING)
+                return;
+            int record = first;
+            do {
+                final int next = getInt(record, NEXT);
+                recordsById.remove(getLong(record, ID));
+                release(record);
+                record = next;
+            } while (record != first);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Puts the User once the current transaction commits, right away without
+     * a transaction
+     */
+    public void putOnCommit(long id, long organizationId, String username) {
+        afterCommit(() -> put(id, organizationId, username));
+    }
+
+    /**
+     * Removes the User once the current transaction commits, right away
+     * without a transaction
+     */
+    public void removeOnCommit(long id) {
+        afterCommit(() -> remove(id));
+    }
+
+    // PRIVATE
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void query(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, handler);
+    }
+
+    private void clear() {
+        recordsById.clear();
+        firstRecordsByOrganization.clear();
+        records = new ArrayList<>();
+        names = new ArrayList<>();
+        recordTop = 0;
+        freeRecord = NIL;
+        nameTop = 0;
+        garbageNameBytes = 0;
+    }
+
+    private int allocate() {
+        if (freeRecord != NIL) {
+            final int record = freeRecord;
+            freeRecord = getInt(record, NEXT);
+            return record;
+        }
+        if (recordTop == records.size() * segmentRecords)
+            records.add(ByteBuffer.allocateDirect(segmentRecords * RECORD_SIZE));
+        return recordTop++;
+    }
+
+    private void release(int record) {
+        releaseName(record);
+        putInt(record, NAME_LENGTH, FREE);
+        putInt(record, NEXT, freeRecord);
+        freeRecord = record;
+    }
+
+    /**
+     * Links the record into the circular list of the Organization keeping the
+     * ID order, new Users usually go to the end
+     */
+    private void link(long organizationId, int record) {
+        final int first = firstRecordsByOrganization.get(organizationId);
+        if (first == LongIntHashMap.MISSING) {
+            putInt(record, PREVIOUS, record);
+            putInt(record, NEXT, record);
+            firstRecordsByOrganization.put(organizationId, record);
+            return;
+        }
+
+        final long id = getLong(record, ID);
+        int previous = getInt(first, PREVIOUS);
+        while (getLong(previous, ID) > id) {
+            if (previous == first) {
+                insertAfter(getInt(first, PREVIOUS), record);
+                firstRecordsByOrganization.put(organizationId, record);
+                return;
+            }
+            previous = getInt(previous, PREVIOUS);
+        }
+        insertAfter(previous, record);
+    }
+
+    private void insertAfter(int previous, int record) {
+        final int next = getInt(previous, NEXT);
+        putInt(previous, NEXT, record);
+        putInt(record, PREVIOUS, previous);
+        putInt(record, NEXT, next);
+        putInt(next, PREVIOUS, record);
+    }
+
+    private void unlink(int record) {
+        final long organizationId = getLong(record, ORGANIZATION_ID);
+        final int next = getInt(record, NEXT);
+        if (next == record) {
+            firstRecordsByOrganization.remove(organizationId);
+            return;
+        }
+        final int previous = getInt(record, PREVIOUS);
+        putInt(previous, NEXT, next);
+        putInt(next, PREVIOUS, previous);
+        if (firstRecordsByOrganization.get(organizationId) == record)
+            firstRecordsByOrganization.put(organizationId, next);
+    }
+
+    private void putName(int record, String name) {
+        if (name == null) {
+            putInt(record, NAME_LENGTH, NULL_NAME);
+            return;
+        }
+        final byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > nameSegmentBytes)
+            throw new IllegalArgumentException("Username doesn't fit into a segment");
+
+        long offset = nameTop;
+        final int room = nameSegmentBytes - (int) (offset % nameSegmentBytes);
+        if (offset == (long) names.size() * nameSegmentBytes || room < bytes.length) {
+            if (offset < (long) names.size() * nameSegmentBytes)
+                garbageNameBytes += room; // the rest of the segment is skipped
+            offset = (long) names.size() * nameSegmentBytes;
+            names.add(ByteBuffer.allocateDirect(nameSegmentBytes));
+        }
+        final ByteBuffer segment = names.get((int) (offset / nameSegmentBytes));
+        final int position = (int) (offset % nameSegmentBytes);
+        for (int i = 0; i < bytes.length; i++)
+            segment.put(position + i, bytes[i]);
+        nameTop = offset + bytes.length;
+
+        putLong(record, NAME_OFFSET, offset);
+        putInt(record, NAME_LENGTH, bytes.length);
+    }
+
+    private void releaseName(int record) {
+        final int length = getInt(record, NAME_LENGTH);
+        if (length > 0)
+            garbageNameBytes += length;
+        if (garbageNameBytes > nameSegmentBytes && garbageNameBytes > nameTop / 2)
+            compactNames(record);
+    }
+
+    /**
+     * Copies the names of the live records into new segments, the excluded
+     * record is about to get a new name
+     */
+    private void compactNames(int excluded) {
+        final List<ByteBuffer> oldNames = names;
+        names = new ArrayList<>();
+        nameTop = 0;
+        garbageNameBytes = 0;
+        for (int record = 0; record < recordTop; record++) {
+            final int length = getInt(record, NAME_LENGTH);
+            if (record == excluded || length < 0)
+                continue;
+            putName(record, name(oldNames, getLong(record, NAME_OFFSET), length));
+        }
+        if (getInt(excluded, NAME_LENGTH) > 0)
+            putInt(excluded, NAME_LENGTH, NULL_NAME);
+    }
+
+    private String name(int record) {
+        final int length = getInt(record, NAME_LENGTH);
+        return length < 0 ? null : name(names, getLong(record, NAME_OFFSET), length);
+    }
+
+    private String name(List<ByteBuffer> segments, long offset, int length) {
+        final ByteBuffer segment = segments.get((int) (offset / nameSegmentBytes));
+        final int position = (int) (offset % nameSegmentBytes);
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+            bytes[i] = segment.get(position + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long getLong(int record, int field) {
+        return records.get(record / segmentRecords).getLong(record % segmentRecords * RECORD_SIZE + field);
+    }
+
+    private int getInt(int record, int field) {
+        return records.get(record / segmentRecords).getInt(record % segmentRecords * RECORD_SIZE + field);
+    }
+
+    private void putLong(int record, int field, long value) {
+        records.get(record / segmentRecords).putLong(record % segmentRecords * RECORD_SIZE + field, value);
+    }
+
+    private void putInt(int record, int field, int value) {
+        records.get(record / segmentRecords).putInt(record % segmentRecords * RECORD_SIZE + field, value);
+    }
+}
@@ -0,0 +1,146 @@
+package com.backend.tasks.service.user.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.backend.tasks.service.limit.ConcurrencyLimitExceededException;
+import com.backend.tasks.service.user.PasswordHashingService;
+
+/**
+ * Hashes passwords with bcrypt on a core-sized executor, so the CPU-heavy
+ * hashing neither runs on request threads nor competes with them for more than
+ * the configured threads. The executor queue is bounded by permits, a caller
+ * over them is rejected right away. Batches take their own smaller pool of
+ * permits, so an import leaves threads and permits for the single hashes
+ */
+@Service
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+
+    private final PasswordEncoder encoder;
+
+    private final ExecutorService hashers;
+
+    // running and queued single hashes
+    private final Semaphore permits;
+
+    // running and queued hashes of batches
+    private final Semaphore bulkPermits;
+
+    @Autowired
+    public PasswordHashingServiceImpl(@Value("${users.password.strength:10}") int strength,
+            @Value("${users.password.threads:0}") int threads,
+            @Value("${users.password.queue-capacity:100}") int queueCapacity,
+            @Value("${users.password.bulk-threads:0}") int bulkThreads) {
+        this(new BCryptPasswordEncoder(strength), threads, queueCapacity, bulkThreads);
+    }
+
+    PasswordHashingServiceImpl(PasswordEncoder encoder, int threads, int queueCapacity, int bulkThreads) {
+        final int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.encoder = encoder;
+        this.hashers = Executors.newFixedThreadPool(poolSize, daemonThreadFactory());
+        this.permits = new Semaphore(poolSize + queueCapacity);
+        this.bulkPermits = new Semaphore(bulkThreads > 0 ? Math.min(bulkThreads, poolSize) : Math.max(1, poolSize / 2));
+    }
+
+    @Override
+    public String hash(String rawPassword) {
+        if (rawPassword == null)
+            return null;
+        if (!permits.tryAcquire())
+            throw new ConcurrencyLimitExceededException("password hashing");
+        return await(submit(() -> encoder.encode(rawPassword), permits));
+    }
+
+    @Override
+    public List<String> hashAll(List<String> rawPasswords) {
+        Objects.requireNonNull(rawPasswords, "rawPasswords");
+
+        final List<Future<String>> hashing = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            if (rawPassword == null) {
+                hashing.add(null);
+                continue;
+            }
+            try {
+                bulkPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while passwords are hashed", e);
+            }
+            hashing.add(submit(() -> encoder.encode(rawPassword), bulkPermits));
+        }
+
+        final List<String> result = new ArrayList<>(hashing.size());
+        for (Future<String> hash : hashing)
+            result.add(hash == null ? null : await(hash));
+        return result;
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String hash) {
+        Objects.requireNonNull(rawPassword, "rawPassword");
+        Objects.requireNonNull(hash, "hash");
+
+        if (!permits.tryAcquire())
+            throw new ConcurrencyLimitExceededException("password hashing");
+        return await(submit(() -> encoder.matches(rawPassword, hash), permits));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashers.shutdownNow();
+    }
+
+    // PRIVATE
+
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hashing-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private <T> Future<T> submit(Callable<T> task, Semaphore taken) {
+        try {
+            return hashers.submit(() -> {
+                try {
+                    return task.call();
+                } finally {
+                    taken.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            taken.release();
+            throw e;
+        }
+    }
+
+    private static <T> T await(Future<T> hashing) {
+        try {
+            return hashing.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while password is hashed", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.backend.tasks.service.user.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.tasks.model.Change;
+import com.backend.tasks.model.User;
+import com.backend.tasks.model.UserImport;
+import com.backend.tasks.repository.OrganizationRepository;
+import com.backend.tasks.service.change.ChangeLogService;
+import com.backend.tasks.service.user.PasswordHashingService;
+import com.backend.tasks.service.user.UserImportService;
+
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    static final int MAX_LENGTH = 255;
+
+    private static final String INSERT_USER = "insert into user (org_id, username, username_key, password)"
+            + " values (?, ?, ?, ?)";
+
+    @Autowired
+    OrganizationRepository organizationRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ChangeLogService changeLogService;
+
+    @Autowired
+    PasswordHashingService passwordHashingService;
+
+    @Autowired(required = false)
+    OffHeapUserDirectory directory;
+
+    private final ExecutorService writers;
+
+    private final int chunkSize;
+
+    public UserImportServiceImpl(@Value("${users.import.writer-threads:2}") int writerThreads,
+            @Value("${users.import.chunk-size:1000}") int chunkSize) {
+        this.writers = Executors.newFixedThreadPool(writerThreads, daemonThreadFactory());
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public UserImport importUsers(Long organizationId, Reader body, Format format) throws IOException {
+        Objects.requireNonNull(organizationId, "organizationId");
+        Objects.requireNonNull(body, "body");
+        Objects.requireNonNull(format, "format");
+
+        if (!organizationRepository.existsById(organizationId))
+            throw new IllegalArgumentException("Organization not exists");
+
+        long imported = 0;
+        long rejected = 0;
+        final List<UserImport.Rejection> rejections = new ArrayList<>();
+
+        // the next chunk is parsed while the previous one is written
+        Future<Integer> writing = null;
+        List<Object[]> chunk = new ArrayList<>(chunkSize);
+        try (UserRowReader reader = UserRowReader.of(format, body)) {
+            UserRowReader.Row row;
+            while ((row = reader.next()) != null) {
+                final String reason = row.error != null ? row.error : validate(row);
+                if (reason != null) {
+                    rejected++;
+                    if (rejections.size() < MAX_REPORTED_REJECTIONS)
+                        rejections.add(UserImport.Rejection.of(row.line, reason));
+                    continue;
+                }
+
+                chunk.add(new Object[] { organizationId, row.username, User.usernameKeyOf(row.username),
+                        row.password });
+                if (chunk.size() == chunkSize) {
+                    imported += await(writing);
+                    final List<Object[]> full = chunk;
+                    writing = writers.submit(() -> write(organizationId, full));
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            awaitQuietly(writing);
+            throw e;
+        }
+        imported += await(writing);
+        if (!chunk.isEmpty())
+            imported += write(organizationId, chunk);
+
+        return UserImport.of(imported, rejected, rejections);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+    }
+
+    // PRIVATE
+
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("user-import-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private static String validate(UserRowReader.Row row) {
+        if (row.username == null || row.username.trim().isEmpty())
+            return "username is required";
+        if (row.username.length() > MAX_LENGTH)
+            return "username is too long";
+        if (row.password != null && row.password.length() > MAX_LENGTH)
+            return "password is too long";
+        return null;
+    }
+
+    private int write(Long organizationId, List<Object[]> chunk) {
+        // hashed before the transaction is started, so no connection is held meanwhile
+        final List<String> passwords = new ArrayList<>(chunk.size());
+        for (Object[] row : chunk)
+            passwords.add((String) row[3]);
+        final List<String> hashes = passwordHashingService.hashAll(passwords);
+        for (int i = 0; i < chunk.size(); i++)
+            chunk.get(i)[3] = hashes.get(i);
+
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            final List<Long> ids = insert(chunk);
+            organizationRepository.addUserCount(organizationId, chunk.size());
+            for (int i = 0; i < ids.size(); i++) {
+                changeLogService.append(organizationId, Change.Subject.USER, ids.get(i), Change.Type.CREATED);
+                if (directory != null)
+                    directory.putOnCommit(ids.get(i), organizationId, (String) chunk.get(i)[1]);
+            }
+            return chunk.size();
+        });
+    }
+
+    private List<Long> insert(List<Object[]> chunk) {
+        return jdbcTemplate.execute(
+                (Connection connection) -> connection.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS),
+                (PreparedStatement statement) -> {
+                    for (Object[] row : chunk) {
+                        for (int i = 0; i < row.length; i++)
+                            statement.setObject(i + 1, row[i]);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+
+                    // IDs of the inserted Users, so their creation is logged as one change each
+                    final List<Long> ids = new ArrayList<>(chunk.size());
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        while (keys.next())
+                            ids.add(keys.getLong(1));
+                    }
+                    return ids;
+                });
+    }
+
+    private static int await(Future<Integer> writing) {
+        if (writing == null)
+            return 0;
+        try {
+            return writing.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while users are written", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void awaitQuietly(Future<Integer> writing) {
+        try {
+            await(writing);
+        } catch (RuntimeException e) {
+            // the original failure is reported
+        }
+    }
+}
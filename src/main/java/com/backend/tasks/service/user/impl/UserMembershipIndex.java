@@ -0,0 +1,191 @@
+package com.backend.tasks.service.user.impl;
+
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.backend.tasks.model.Change;
+
+/**
+ * IDs of the Users of the recently used Organizations as primitive sorted
+ * sets, so the ownership checks and the counts need neither User entities
+ * nor the Organization's collection of them. An Organization is loaded by a
+ * single ID query on the first use, then the User creates and deletes are
+ * applied from the change events, while an updated or deleted Organization is
+ * dropped and loaded again when needed. A load overlapping a change of its
+ * Organization isn't kept, as it may miss it. The index is bounded by the
+ * number of Organizations and of IDs in total, the least recently used
+ * Organizations are evicted first. An Organization with more Users than the
+ * per-Organization bound is only remembered as too large, its checks are
+ * left to the database. An Organization without Users isn't kept, so a missing
+ * or deleted Organization is never counted
+ */
+@Component
+public class UserMembershipIndex {
+
+    private static final String SELECT_IDS = "select u.id from user u join organization o on o.id = u.org_id"
+            + " where o.deleted = false and u.org_id = ? order by u.id";
+
+    // marks an Organization over the per-Organization bound
+    private static final LongSortedSet TOO_LARGE = new LongSortedSet(0);
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final int maxOrganizations;
+
+    private final int maxOrganizationUsers;
+
+    private final long maxUsers;
+
+    private final int fetchSize;
+
+    // guarded by this, access ordered, so the least recently used Organization is evicted first
+    private final Map<Long, LongSortedSet> members = new LinkedHashMap<>(16, 0.75f, true);
+
+    // guarded by this, IDs kept in all the sets
+    private long size;
+
+    // guarded by this
+    private final Map<Long, Load> loads = new HashMap<>();
+
+    public UserMembershipIndex(@Value("${users.membership.max-organizations:1000}") int maxOrganizations,
+            @Value("${users.membership.max-organization-users:100000}") int maxOrganizationUsers,
+            @Value("${users.membership.max-users:1000000}") long maxUsers,
+            @Value("${users.membership.fetch-size:1000}") int fetchSize) {
+        this.maxOrganizations = maxOrganizations;
+        this.maxOrganizationUsers = maxOrganizationUsers;
+        this.maxUsers = maxUsers;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Checks if the User with given ID could be attached to the not deleted
+     * Organization with given ID, loading the Organization when needed
+     *
+     * @return <code>false</code> when the User certainly isn't attached,
+     *         <code>true</code> when it's attached or the Organization is too
+     *         large to be kept
+     */
+    public boolean mayContain(long organizationId, long userId) {
+        final LongSortedSet set = members(organizationId);
+        synchronized (this) {
+            return set == TOO_LARGE || set.contains(userId);
+        }
+    }
+
+    /**
+     * Counts the Users attached to the not deleted Organization with given ID
+     * when it's loaded, it's never loaded for the count
+     *
+     * @return count or empty when the Organization isn't loaded or is too large
+     *         to be kept
+     */
+    public synchronized OptionalInt getCount(long organizationId) {
+        final LongSortedSet set = members.get(organizationId);
+        return set == null || set == TOO_LARGE ? OptionalInt.empty() : OptionalInt.of(set.size());
+    }
+
+    @EventListener
+    public synchronized void onChange(Change change) {
+        final Long organizationId = change.getOrganizationId();
+        final Load load = loads.get(organizationId);
+        if (load != null)
+            load.stale = true;
+
+        final LongSortedSet set = members.get(organizationId);
+        if (set == null)
+            return;
+        if (change.getSubject() == Change.Subject.ORGANIZATION) {
+            members.remove(organizationId);
+            size -= set.size();
+        } else if (set == TOO_LARGE)
+            return;
+        else if (change.getType() == Change.Type.CREATED && set.add(change.getSubjectId())) {
+            size++;
+            evict();
+        } else if (change.getType() == Change.Type.DELETED && set.remove(change.getSubjectId()))
+            size--;
+    }
+
+    synchronized int getLoadedCount() {
+        return members.size();
+    }
+
+    synchronized long getSize() {
+        return size;
+    }
+
+    // PRIVATE
+
+    private LongSortedSet members(long organizationId) {
+        final Load load;
+        synchronized (this) {
+            final LongSortedSet set = members.get(organizationId);
+            if (set != null)
+                return set;
+            load = loads.computeIfAbsent(organizationId, key -> new Load());
+            load.loaders++;
+        }
+
+        LongSortedSet result = null;
+        try {
+            result = query(organizationId);
+        } finally {
+            synchronized (this) {
+                if (--load.loaders == 0)
+                    loads.remove(organizationId);
+                if (result != null && (result == TOO_LARGE || result.size() > 0) && !load.stale
+                        && maxOrganizations > 0 && !members.containsKey(organizationId)) {
+                    members.put(organizationId, result);
+                    size += result.size();
+                    evict();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evicts the least recently used Organizations over the bounds, guarded by
+     * this
+     */
+    private void evict() {
+        final Iterator<LongSortedSet> eldest = members.values().iterator();
+        while (eldest.hasNext() && (members.size() > maxOrganizations || size > maxUsers)) {
+            size -= eldest.next().size();
+            eldest.remove();
+        }
+    }
+
+    private LongSortedSet query(long organizationId) {
+        final LongSortedSet result = new LongSortedSet(16);
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(SELECT_IDS);
+            statement.setFetchSize(fetchSize);
+            // one row over the bound tells the Organization is too large
+            statement.setMaxRows(maxOrganizationUsers + 1);
+            statement.setLong(1, organizationId);
+            return statement;
+        }, rs -> {
+            result.add(rs.getLong(1));
+        });
+        return result.size() > maxOrganizationUsers ? TOO_LARGE : result;
+    }
+
+    private static class Load {
+
+        int loaders;
+
+        boolean stale;
+    }
+}
@@ -0,0 +1,294 @@
+package com.backend.tasks.service.user.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import com.backend.tasks.service.user.UserImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Reads the imported User rows one by one, so the body is never buffered whole.
+ * A malformed row is returned with the error instead of failing the whole read
+ */
+abstract class UserRowReader implements Closeable {
+
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    static final class Row {
+
+        final long line;
+
+        final String username;
+
+        final String password;
+
+        final String error;
+
+        private Row(long line, String username, String password, String error) {
+            this.line = line;
+            this.username = username;
+            this.password = password;
+            this.error = error;
+        }
+
+        static Row of(long line, String username, String password) {
+            return new Row(line, username, password, null);
+        }
+
+        static Row malformed(long line, String error) {
+            return new Row(line, null, null, error);
+        }
+    }
+
+    private final Reader reader;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private int position;
+
+    private int limit;
+
+    private boolean skipLineFeed;
+
+    private final StringBuilder lineText = new StringBuilder();
+
+    /**
+     * Number of the last line read
+     */
+    long line;
+
+    /**
+     * Whether the last line read was longer than {@link #MAX_RECORD_LENGTH}
+     */
+    boolean lineTooLong;
+
+    UserRowReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    static UserRowReader of(UserImportService.Format format, Reader reader) {
+        switch (format) {
+        case CSV:
+            return new Csv(reader);
+        case NDJSON:
+            return new Ndjson(reader);
+        default:
+            throw new IllegalArgumentException("Unsupported format " + format);
+        }
+    }
+
+    /**
+     * @return next row or <code>null</code> when the body is over
+     */
+    abstract Row next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads the next line like {@link java.io.BufferedReader#readLine()}, but
+     * keeps at most {@link #MAX_RECORD_LENGTH} characters of it, so a body
+     * without line breaks can't exhaust the memory. The rest of a longer line is
+     * skipped and {@link #lineTooLong} is set
+     * 
+     * @return line without the line break or <code>null</code> when the body is
+     *         over
+     */
+    String readLine() throws IOException {
+        lineText.setLength(0);
+        lineTooLong = false;
+        boolean empty = true;
+        while (true) {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return empty ? null : lineText.toString();
+                }
+            }
+
+            final char c = buffer[position++];
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (c == '\n')
+                    continue;
+            }
+            if (c == '\n' || c == '\r') {
+                skipLineFeed = c == '\r';
+                return lineText.toString();
+            }
+            empty = false;
+            if (lineText.length() < MAX_RECORD_LENGTH)
+                lineText.append(c);
+            else
+                lineTooLong = true;
+        }
+    }
+
+    // PRIVATE
+
+    private static final class Ndjson extends UserRowReader {
+
+        private static final ObjectReader JSON = new ObjectMapper().readerFor(JsonNode.class);
+
+        Ndjson(Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        Row next() throws IOException {
+            String text;
+            do {
+                text = readLine();
+                if (text == null)
+                    return null;
+                line++;
+            } while (text.trim().isEmpty());
+
+            if (lineTooLong)
+                return Row.malformed(line, "record is too long");
+
+            final JsonNode node;
+            try {
+                node = JSON.readTree(text);
+            } catch (JsonProcessingException e) {
+                return Row.malformed(line, "malformed JSON");
+            }
+            if (node == null || !node.isObject())
+                return Row.malformed(line, "JSON object expected");
+            return Row.of(line, text(node, "username"), text(node, "password"));
+        }
+
+        private static String text(JsonNode node, String name) {
+            final JsonNode value = node.get(name);
+            return value == null || !value.isValueNode() || value.isNull() ? null : value.asText();
+        }
+    }
+
+    private static final class Csv extends UserRowReader {
+
+        private boolean headerChecked;
+
+        private int columns = 2;
+
+        private int usernameColumn = 0;
+
+        private int passwordColumn = 1;
+
+        private String recordError;
+
+        Csv(Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        Row next() throws IOException {
+            while (true) {
+                final long start = line + 1;
+                final List<String> fields = readRecord();
+                if (fields == null)
+                    return null;
+                if (recordError != null)
+                    return Row.malformed(start, recordError);
+                if (fields.size() == 1 && fields.get(0).isEmpty())
+                    continue; // blank line
+                if (!headerChecked) {
+                    headerChecked = true;
+                    if (readHeader(fields))
+                        continue;
+                }
+                if (fields.size() != columns)
+                    return Row.malformed(start, String.format("%d columns expected", columns));
+                return Row.of(start, fields.get(usernameColumn),
+                        passwordColumn < 0 ? null : fields.get(passwordColumn));
+            }
+        }
+
+        private boolean readHeader(List<String> fields) {
+            final List<String> names = new ArrayList<>(fields.size());
+            for (String field : fields)
+                names.add(field.trim().toLowerCase(Locale.ROOT));
+            if (!names.contains("username"))
+                return false;
+
+            columns = names.size();
+            usernameColumn = names.indexOf("username");
+            passwordColumn = names.indexOf("password");
+            return true;
+        }
+
+        /**
+         * Reads RFC 4180 record, quoted fields could contain commas, doubled quotes
+         * and line breaks
+         */
+        private List<String> readRecord() throws IOException {
+            String text = readLine();
+            if (text == null)
+                return null;
+            line++;
+            recordError = null;
+            if (lineTooLong) {
+                recordError = "record is too long";
+                return Collections.emptyList();
+            }
+
+            final List<String> fields = new ArrayList<>(columns);
+            final StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int length = text.length();
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted)
+                        break;
+                    text = readLine();
+                    if (text == null) {
+                        recordError = "unterminated quoted field";
+                        break;
+                    }
+                    line++;
+                    length += text.length() + 1;
+                    if (lineTooLong || length > MAX_RECORD_LENGTH) {
+                        recordError = "record is too long";
+                        break;
+                    }
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+
+                final char c = text.charAt(i++);
+                if (quoted) {
+                    if (c != '"')
+                        field.append(c);
+                    else if (i < text.length() && text.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else
+                        quoted = false;
+                } else if (c == '"')
+                    quoted = true;
+                else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else
+                    field.append(c);
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -1,33 +1,91 @@
 package com.backend.tasks.service.user.impl;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.backend.tasks.model.Change;
 import com.backend.tasks.model.Organization;
 import com.backend.tasks.model.User;
+import com.backend.tasks.model.UserLookup;
 import com.backend.tasks.repository.OrganizationRepository;
 import com.backend.tasks.repository.UserRepository;
+import com.backend.tasks.service.change.ChangeLogService;
 import com.backend.tasks.service.user.UserService;
 
 @Service
 public class UserServiceImpl implements UserService {
 
+    private final Object userCountsKey = new Object();
+
     @Autowired
     OrganizationRepository organizationRepository;
 
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    ChangeLogService changeLogService;
+
+    @Autowired(required = false)
+    OffHeapUserDirectory directory;
+
+    @Autowired
+    UserMembershipIndex membershipIndex;
+
     @Override
     @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Iterable<User> getAll(Long organizationId) {
         Objects.requireNonNull(organizationId, "organizationId");
-        final Organization organization = getAndCheckOrganization(organizationId);
-        return organization.getUsers();
+        if (!organizationRepository.existsById(organizationId))
+            throw new IllegalArgumentException("Organization not exists");
+        if (directory != null && directory.isLoaded()) {
+            final List<User> result = new ArrayList<>();
+            directory.forEach(organizationId, true, (id, username) -> result.add(User.of(id, username, null)));
+            return result;
+        }
+        return userRepository.findAllByOrganizationId(organizationId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Iterable<Map<String, Object>> getAll(Long organizationId, Set<String> fields) {
+        Objects.requireNonNull(organizationId, "organizationId");
+        Objects.requireNonNull(fields, "fields");
+
+        if (!organizationRepository.existsById(organizationId))
+            throw new IllegalArgumentException("Organization not exists");
+        if (directory != null && directory.isLoaded())
+            return directory.getAll(organizationId, fields);
+        return userRepository.findFieldsByOrganizationId(organizationId, fields);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<String, Object> getSingle(Long organizationId, Long userId, Set<String> fields) {
+        Objects.requireNonNull(organizationId, "organizationId");
+        Objects.requireNonNull(userId, "userId");
+        Objects.requireNonNull(fields, "fields");
+
+        final Map<String, Object> result = userRepository
+                .findFieldsByOrganizationIdAndId(organizationId, userId, fields)
+                .orElse(null);
+        if (result == null)
+            throw new IllegalArgumentException("User not exists or organization is differ");
+        return result;
     }
 
     @Override
@@ -36,16 +94,68 @@ public class UserServiceImpl implements UserService {
         Objects.requireNonNull(organizationId, "organizationId");
         Objects.requireNonNull(userId, "userId");
 
+        // ownership is checked without loading entities
+        final boolean member = directory != null && directory.isLoaded()
+                ? directory.contains(organizationId, userId)
+                : membershipIndex.mayContain(organizationId, userId);
+        if (!member)
+            throw new IllegalArgumentException("User not exists or organization is differ");
+
         final User result = userRepository.findById(userId).orElse(null);
         if (result == null
                 || result.getOrganization() == null
+                || result.getOrganization().isDeleted()
                 || !organizationId.equals(result.getOrganization().getId()))
             throw new IllegalArgumentException("User not exists or organization is differ");
         return result;
     }
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRED)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public UserLookup getMultiple(Long organizationId, List<Long> userIds) {
+        Objects.requireNonNull(organizationId, "organizationId");
+        Objects.requireNonNull(userIds, "userIds");
+
+        if (!organizationRepository.existsById(organizationId))
+            throw new IllegalArgumentException("Organization not exists");
+
+        final Set<Long> requested = new LinkedHashSet<>(userIds);
+        requested.remove(null);
+
+        final Map<Long, User> found = new HashMap<>();
+        if (!requested.isEmpty())
+            for (User user : userRepository.findAllByOrganizationIdAndIdIn(organizationId, requested))
+                found.put(user.getId(), user);
+
+        final List<User> users = new ArrayList<>(found.size());
+        final List<Long> missing = new ArrayList<>(requested.size() - found.size());
+        for (Long userId : requested) {
+            final User user = found.get(userId);
+            if (user == null)
+                missing.add(userId);
+            else
+                users.add(user);
+        }
+        return UserLookup.of(users, missing);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<User> search(Long organizationId, String usernamePrefix, int page, int size) {
+        Objects.requireNonNull(organizationId, "organizationId");
+        Objects.requireNonNull(usernamePrefix, "usernamePrefix");
+
+        if (!organizationRepository.existsById(organizationId))
+            throw new IllegalArgumentException("Organization not exists");
+
+        final String pattern = escapeLike(User.usernameKeyOf(usernamePrefix)) + "%";
+        return userRepository
+                .findByOrganizationIdAndUsernameKeyLike(organizationId, pattern, PageRequest.of(page, size))
+                .getContent();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED, noRollbackFor = IllegalArgumentException.class)
     public User create(Long organizationId, User user) {
         Objects.requireNonNull(organizationId, "organizationId");
         Objects.requireNonNull(user, "user");
@@ -58,7 +168,12 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("Organization not exists");
 
         user.setOrganization(organization);
-        return userRepository.save(user);
+        final User result = userRepository.save(user);
+        addUserCount(organizationId, 1);
+        changeLogService.append(organizationId, Change.Subject.USER, result.getId(), Change.Type.CREATED);
+        if (directory != null)
+            directory.putOnCommit(result.getId(), organizationId, result.getUsername());
+        return result;
     }
 
     @Override
@@ -76,7 +191,13 @@ public class UserServiceImpl implements UserService {
 
         user.setId(userId); // overrite or set id
         user.setOrganization(organization);
-        return userRepository.save(user);
+        if (user.getPassword() == null)
+            user.setPassword(originUser.getPassword());
+        final User result = userRepository.save(user);
+        changeLogService.append(organizationId, Change.Subject.USER, userId, Change.Type.UPDATED);
+        if (directory != null)
+            directory.putOnCommit(userId, organizationId, result.getUsername());
+        return result;
     }
 
     @Override
@@ -87,17 +208,42 @@ public class UserServiceImpl implements UserService {
 
         final User originUser = getAndCheckUser(organizationId, userId);
         userRepository.delete(originUser);
+        addUserCount(organizationId, -1);
+        changeLogService.append(organizationId, Change.Subject.USER, userId, Change.Type.DELETED);
+        if (directory != null)
+            directory.removeOnCommit(userId);
+    }
+
+    /**
+     * Makes the creates and deletes of the current transaction sum up the
+     * count changes per Organization and apply them right before the commit,
+     * so the row of an Organization is updated and locked once per transaction
+     * and only at its end. Should be called before the first change
+     */
+    public void deferUserCounts() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(userCountsKey))
+            return;
+        final PendingUserCounts pending = new PendingUserCounts();
+        TransactionSynchronizationManager.bindResource(userCountsKey, pending);
+        TransactionSynchronizationManager.registerSynchronization(pending);
     }
 
     // PRIVATE
 
-    private Organization getAndCheckOrganization(Long organizationId) {
-        assert organizationId != null;
+    private void addUserCount(Long organizationId, long delta) {
+        final PendingUserCounts pending =
+                (PendingUserCounts) TransactionSynchronizationManager.getResource(userCountsKey);
+        if (pending == null)
+            organizationRepository.addUserCount(organizationId, delta);
+        else
+            pending.deltas.merge(organizationId, delta, Long::sum);
+    }
 
-        final Organization organization = organizationRepository.findById(organizationId).orElse(null);
-        if (organization == null)
-            throw new IllegalArgumentException("Organization not exists");
-        return organization;
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
     }
 
     private User getAndCheckUser(Long organizationId, Long userId) {
@@ -110,7 +256,28 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("User doesn't exists with given ID");
         if (originUser.getOrganization() == null || !organizationId.equals(originUser.getOrganization().getId()))
             throw new IllegalArgumentException("Wrong organization ID provided");
+        if (originUser.getOrganization().isDeleted())
+            throw new IllegalArgumentException("Organization not exists");
 
         return originUser;
     }
+
+    private class PendingUserCounts extends TransactionSynchronizationAdapter {
+
+        // ordered, so the transactions lock the rows in the same order
+        private final Map<Long, Long> deltas = new TreeMap<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            deltas.forEach((organizationId, delta) -> {
+                if (delta != 0)
+                    organizationRepository.addUserCount(organizationId, delta);
+            });
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(userCountsKey);
+        }
+    }
 }
@@ -0,0 +1,139 @@
+package com.backend.tasks.service.user.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.backend.tasks.model.Change;
+import com.backend.tasks.model.User;
+import com.backend.tasks.service.user.PasswordHashingService;
+import com.backend.tasks.service.user.UserService;
+import com.backend.tasks.service.user.UserVerificationService;
+
+/**
+ * Caches the last successful check per User as an HMAC-SHA256 digest of the
+ * password under a key generated on startup, so neither the password nor an
+ * offline-crackable digest of it is kept. A cached check is used only while
+ * the stored hash it was made against is unchanged, the change events just
+ * release it early
+ */
+@Service
+public class UserVerificationServiceImpl implements UserVerificationService {
+
+    private static final String HMAC = "HmacSHA256";
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    PasswordHashingService passwordHashingService;
+
+    private final ConcurrentHashMap<Long, Verified> verified = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Mac> macs;
+
+    private final long ttlNanos;
+
+    private final int maxEntries;
+
+    private final LongSupplier clock;
+
+    @Autowired
+    public UserVerificationServiceImpl(@Value("${users.verification.cache-ttl-ms:60000}") long ttlMillis,
+            @Value("${users.verification.max-entries:10000}") int maxEntries) {
+        this(ttlMillis, maxEntries, System::nanoTime);
+    }
+
+    UserVerificationServiceImpl(long ttlMillis, int maxEntries, LongSupplier clock) {
+        final byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        final SecretKeySpec secretKey = new SecretKeySpec(key, HMAC);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                final Mac mac = Mac.getInstance(HMAC);
+                mac.init(secretKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean verify(Long organizationId, Long userId, String password) {
+        Objects.requireNonNull(organizationId, "organizationId");
+        Objects.requireNonNull(userId, "userId");
+        Objects.requireNonNull(password, "password");
+
+        final User user = userService.getSingle(organizationId, userId);
+        final String hash = user.getPassword();
+        if (hash == null)
+            return false;
+
+        final byte[] digest = digest(userId, password);
+        final long now = clock.getAsLong();
+        final Verified cached = verified.get(userId);
+        if (cached != null && cached.expiresAt - now > 0 && cached.hash.equals(hash)
+                && MessageDigest.isEqual(cached.digest, digest))
+            return true;
+
+        if (!passwordHashingService.matches(password, hash))
+            return false;
+
+        if (verified.size() >= maxEntries)
+            verified.values().removeIf(entry -> entry.expiresAt - now <= 0);
+        if (verified.size() < maxEntries || verified.containsKey(userId))
+            verified.put(userId, new Verified(digest, hash, now + ttlNanos));
+        return true;
+    }
+
+    @EventListener
+    public void onChange(Change change) {
+        if (change.getSubject() == Change.Subject.USER && change.getType() != Change.Type.CREATED)
+            verified.remove(change.getSubjectId());
+    }
+
+    int getCachedCount() {
+        return verified.size();
+    }
+
+    // PRIVATE
+
+    private byte[] digest(Long userId, String password) {
+        final Mac mac = macs.get();
+        mac.update(userId.toString().getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class Verified {
+
+        final byte[] digest;
+
+        final String hash;
+
+        final long expiresAt;
+
+        Verified(byte[] digest, String hash, long expiresAt) {
+            this.digest = digest;
+            this.hash = hash;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.backend.tasks.service.warmup;
+
+import com.backend.tasks.model.Readiness;
+
+public interface WarmUpService {
+
+    /**
+     * Retreives the readiness of the application, it's not ready while the
+     * warm-up runs
+     * 
+     * @return current readiness. Should not be <code>null</code> value
+     */
+    Readiness getReadiness();
+}
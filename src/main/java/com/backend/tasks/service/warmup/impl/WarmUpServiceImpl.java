@@ -0,0 +1,214 @@
+package com.backend.tasks.service.warmup.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.tasks.model.Organization;
+import com.backend.tasks.model.Readiness;
+import com.backend.tasks.model.User;
+import com.backend.tasks.repository.OrganizationRepository;
+import com.backend.tasks.service.org.OrganizationService;
+import com.backend.tasks.service.user.UserService;
+import com.backend.tasks.service.warmup.WarmUpService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs the read paths of <code>/orgs</code> and
+ * <code>/orgs/{orgId}/users</code> in rounds after the startup: synthetic
+ * Organizations and Users are serialized, then the Organizations and Users of
+ * the largest Organizations are loaded through the services and serialized
+ * the way the controllers do it. That compiles the hot code, the Hibernate
+ * queries and loads the hottest rows. The application is reported ready once
+ * the round times settle, or when the round or time limit is reached
+ */
+@Service
+public class WarmUpServiceImpl implements WarmUpService {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpServiceImpl.class);
+
+    private static final int SYNTHETIC_ENTITIES = 100;
+
+    @Autowired
+    OrganizationService organizationService;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    OrganizationRepository organizationRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private final boolean enabled;
+
+    private final int hottestOrganizations;
+
+    private final int minRounds;
+
+    private final int maxRounds;
+
+    private final int steadyRounds;
+
+    private final double tolerance;
+
+    private final long timeoutNanos;
+
+    private final LongSupplier clock;
+
+    private final ExecutorService executor;
+
+    private volatile Readiness readiness;
+
+    @Autowired
+    public WarmUpServiceImpl(@Value("${warm-up.enabled:false}") boolean enabled,
+            @Value("${warm-up.hottest-organizations:10}") int hottestOrganizations,
+            @Value("${warm-up.min-rounds:5}") int minRounds,
+            @Value("${warm-up.max-rounds:200}") int maxRounds,
+            @Value("${warm-up.steady-rounds:3}") int steadyRounds,
+            @Value("${warm-up.tolerance:0.1}") double tolerance,
+            @Value("${warm-up.timeout-ms:60000}") long timeoutMillis) {
+        this(enabled, hottestOrganizations, minRounds, maxRounds, steadyRounds, tolerance, timeoutMillis,
+                System::nanoTime);
+    }
+
+    WarmUpServiceImpl(boolean enabled, int hottestOrganizations, int minRounds, int maxRounds, int steadyRounds,
+            double tolerance, long timeoutMillis, LongSupplier clock) {
+        this.enabled = enabled;
+        this.hottestOrganizations = hottestOrganizations;
+        this.minRounds = minRounds;
+        this.maxRounds = maxRounds;
+        this.steadyRounds = steadyRounds;
+        this.tolerance = tolerance;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.clock = clock;
+        this.executor = Executors.newSingleThreadExecutor(daemonThreadFactory());
+        this.readiness = enabled ? Readiness.warmingUp() : Readiness.ready();
+    }
+
+    @Override
+    public Readiness getReadiness() {
+        return readiness;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled)
+            executor.execute(this::warmUp);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // PACKAGE
+
+    void warmUp() {
+        final long started = clock.getAsLong();
+        int round = 0;
+        long lastMicros = 0;
+        try {
+            final List<Long> hottest = organizationRepository
+                    .findLargestIds(PageRequest.of(0, hottestOrganizations));
+            final List<Organization> syntheticOrganizations = syntheticOrganizations();
+            final List<User> syntheticUsers = syntheticUsers();
+
+            int steady = 0;
+            while (round < maxRounds && !Thread.currentThread().isInterrupted()) {
+                final long roundStarted = clock.getAsLong();
+                serialize(syntheticOrganizations);
+                serialize(syntheticUsers);
+                exercise(hottest);
+                final long micros = TimeUnit.NANOSECONDS.toMicros(clock.getAsLong() - roundStarted);
+
+                steady = round > 0 && Math.abs(micros - lastMicros) <= lastMicros * tolerance ? steady + 1 : 0;
+                round++;
+                lastMicros = micros;
+                readiness = Readiness.of(Readiness.Status.WARMING_UP, round, lastMicros);
+                if (round >= minRounds && steady >= steadyRounds)
+                    break;
+                if (clock.getAsLong() - started >= timeoutNanos) {
+                    log.warn("Warm-up timed out after {} rounds, the last took {} us", round, lastMicros);
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Warm-up failed after {} rounds", round, e);
+        }
+        readiness = Readiness.of(Readiness.Status.READY, round, lastMicros);
+        log.info("Warm-up completed after {} rounds in {} ms, the last round took {} us", round,
+                TimeUnit.NANOSECONDS.toMillis(clock.getAsLong() - started), lastMicros);
+    }
+
+    // PRIVATE
+
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("warm-up-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private static List<Organization> syntheticOrganizations() {
+        final List<Organization> result = new ArrayList<>(SYNTHETIC_ENTITIES);
+        for (long i = 1; i <= SYNTHETIC_ENTITIES; i++)
+            result.add(Organization.of(-i, "warm-up-organization-" + i));
+        return result;
+    }
+
+    private static List<User> syntheticUsers() {
+        final List<User> result = new ArrayList<>(SYNTHETIC_ENTITIES);
+        for (long i = 1; i <= SYNTHETIC_ENTITIES; i++)
+            result.add(User.of(-i, "warm-up-user-" + i, null));
+        return result;
+    }
+
+    /**
+     * Reads and serializes in a read-only transaction like the requests do
+     * with the session kept open for the view
+     */
+    private void exercise(List<Long> organizationIds) {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.execute(status -> serialize(organizationService.getAll()));
+        for (Long organizationId : organizationIds)
+            transactionTemplate.execute(status -> {
+                try {
+                    serialize(organizationService.getSingle(organizationId));
+                    return serialize(userService.getAll(organizationId));
+                } catch (IllegalArgumentException e) {
+                    return null; // removed meanwhile
+                }
+            });
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
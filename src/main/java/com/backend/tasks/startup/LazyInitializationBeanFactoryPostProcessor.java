@@ -0,0 +1,33 @@
+package com.backend.tasks.startup;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes application beans lazy, so a bean is created when it's needed for the
+ * first time instead of during the startup. Infrastructure beans are left
+ * eager. Event listener methods of lazy beans still get the events, the bean
+ * is created for the first one
+ */
+@Component
+@ConditionalOnProperty(name = "fast-start.lazy-initialization", havingValue = "true")
+public class LazyInitializationBeanFactoryPostProcessor implements BeanFactoryPostProcessor, Ordered {
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            final BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (definition.getRole() == BeanDefinition.ROLE_APPLICATION)
+                definition.setLazyInit(true);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,87 @@
+package com.backend.tasks.startup;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.boot.context.event.SpringApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Logs how long each startup phase took when the application is ready: JVM
+ * start until the Spring application starts, preparing the environment,
+ * preparing the context, refreshing the context (bean creation, schema, web
+ * server) and running the runners. It's registered in
+ * <code>META-INF/spring.factories</code> to get the events sent before the
+ * context exists
+ */
+public class StartupTimingListener implements ApplicationListener<SpringApplicationEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StartupTimingListener.class);
+
+    private final LongSupplier nanoClock;
+
+    private final LongSupplier uptimeMillis;
+
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    private long last;
+
+    public StartupTimingListener() {
+        this(System::nanoTime, () -> ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    StartupTimingListener(LongSupplier nanoClock, LongSupplier uptimeMillis) {
+        this.nanoClock = nanoClock;
+        this.uptimeMillis = uptimeMillis;
+    }
+
+    @Override
+    public void onApplicationEvent(SpringApplicationEvent event) {
+        if (event instanceof ApplicationStartingEvent) {
+            phases.clear();
+            last = nanoClock.getAsLong();
+            phases.put("jvm", uptimeMillis.getAsLong());
+        } else if (event instanceof ApplicationEnvironmentPreparedEvent) {
+            phase("environment");
+        } else if (event instanceof ApplicationPreparedEvent) {
+            phase("context");
+        } else if (event instanceof ApplicationStartedEvent) {
+            phase("refresh");
+        } else if (event instanceof ApplicationReadyEvent) {
+            phase("runners");
+            LOG.info("Ready in {} ms since the JVM start, phases in ms: {}", getTotalMillis(), phases);
+        }
+    }
+
+    /**
+     * Retreives milliseconds taken by the phases passed so far, in order
+     */
+    public Map<String, Long> getPhases() {
+        return Collections.unmodifiableMap(phases);
+    }
+
+    public long getTotalMillis() {
+        return phases.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    // PRIVATE
+
+    private void phase(String name) {
+        if (phases.isEmpty())
+            return;
+        final long now = nanoClock.getAsLong();
+        phases.put(name, TimeUnit.NANOSECONDS.toMillis(now - last));
+        last = now;
+    }
+}
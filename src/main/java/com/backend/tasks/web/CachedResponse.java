@@ -0,0 +1,63 @@
+package com.backend.tasks.web;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Completed response which could be replayed for the retried request
+ */
+final class CachedResponse {
+
+    private final int status;
+
+    private final String contentType;
+
+    private final Map<String, List<String>> headers;
+
+    private final byte[] body;
+
+    private final byte[] requestHash;
+
+    private CachedResponse(int status, String contentType, Map<String, List<String>> headers, byte[] body,
+            byte[] requestHash) {
+        this.status = status;
+        this.contentType = contentType;
+        this.headers = headers;
+        this.body = body;
+        this.requestHash = requestHash;
+    }
+
+    /**
+     * Hash of the body of the request this is the response to
+     */
+    byte[] getRequestHash() {
+        return requestHash;
+    }
+
+    static CachedResponse of(ContentCachingResponseWrapper response, byte[] requestHash) {
+        final Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            final Collection<String> values = response.getHeaders(name);
+            headers.put(name, new ArrayList<>(values));
+        }
+        return new CachedResponse(response.getStatusCode(), response.getContentType(), headers,
+                response.getContentAsByteArray(), requestHash);
+    }
+
+    void writeTo(HttpServletResponse response) throws IOException {
+        response.setStatus(status);
+        headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        if (contentType != null)
+            response.setContentType(contentType);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
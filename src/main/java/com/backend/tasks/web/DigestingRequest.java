@@ -0,0 +1,106 @@
+package com.backend.tasks.web;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Request which hashes its body while it's read, so the body of any size could
+ * be compared with the body of another request without keeping it in memory
+ */
+class DigestingRequest extends HttpServletRequestWrapper {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final MessageDigest digest;
+
+    private ServletInputStream inputStream;
+
+    private BufferedReader reader;
+
+    DigestingRequest(HttpServletRequest request) {
+        super(request);
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null)
+            inputStream = new DigestingInputStream(super.getInputStream());
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            final String encoding = getCharacterEncoding();
+            final Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+            reader = new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+        return reader;
+    }
+
+    /**
+     * Reads the rest of the body and returns hash of the whole body
+     */
+    byte[] digest() throws IOException {
+        final ServletInputStream in = getInputStream();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        while (in.read(buffer) != -1)
+            ; // hashed while read
+        return digest.digest();
+    }
+
+    private class DigestingInputStream extends ServletInputStream {
+
+        private final ServletInputStream target;
+
+        DigestingInputStream(ServletInputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int result = target.read();
+            if (result != -1)
+                digest.update((byte) result);
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int result = target.read(b, off, len);
+            if (result > 0)
+                digest.update(b, off, result);
+            return result;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return target.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return target.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            target.setReadListener(readListener);
+        }
+    }
+}
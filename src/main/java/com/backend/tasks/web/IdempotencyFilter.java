@@ -0,0 +1,127 @@
+package com.backend.tasks.web;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Makes POST requests carrying Idempotency-Key header safe to retry. The
+ * response of the first request is stored per endpoint and key, so a retry gets
+ * the stored response replayed without reaching the controllers. A retry
+ * arriving while the first request is still in flight waits for its response.
+ * Only successful responses with small bodies are stored, so any other request
+ * is executed again on retry. The response is bound to the hash of the request
+ * body, a retry with another body gets 422. It runs after the rate limiting, so
+ * rejected requests never reach the store
+ */
+@Component
+@Order(IdempotencyFilter.ORDER)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final int ORDER = RateLimitFilter.ORDER + 10;
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    static final int MAX_STORED_BODY = 64 * 1024;
+
+    private final IdempotencyStore store;
+
+    private final long inFlightTimeoutMillis;
+
+    public IdempotencyFilter(@Value("${idempotency.max-entries:10000}") int maxEntries,
+            @Value("${idempotency.ttl-ms:86400000}") long ttlMillis,
+            @Value("${idempotency.in-flight-timeout-ms:30000}") long inFlightTimeoutMillis) {
+        this.store = new IdempotencyStore(maxEntries, TimeUnit.MILLISECONDS.toNanos(ttlMillis), System::nanoTime);
+        this.inFlightTimeoutMillis = inFlightTimeoutMillis;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        final String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY);
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+
+        // the same key sent to another endpoint is another request
+        final String key = request.getRequestURI() + ' ' + idempotencyKey;
+        while (true) {
+            final IdempotencyStore.Entry entry = store.newEntry(key);
+            final IdempotencyStore.Entry existing = store.putIfAbsent(entry);
+            if (existing == null) {
+                execute(request, response, chain, entry);
+                return;
+            }
+
+            final CachedResponse cached;
+            try {
+                cached = existing.response.get(inFlightTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                response.sendError(HttpStatus.CONFLICT.value());
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+                return;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+            if (cached != null) {
+                if (!Arrays.equals(cached.getRequestHash(), new DigestingRequest(request).digest())) {
+                    response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value());
+                    return;
+                }
+                response.setHeader(IDEMPOTENT_REPLAYED, "true");
+                cached.writeTo(response);
+                return;
+            }
+            // the first response wasn't stored, so this request is executed
+        }
+    }
+
+    // PRIVATE
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+            IdempotencyStore.Entry entry) throws ServletException, IOException {
+        final DigestingRequest digestingRequest = new DigestingRequest(request);
+        final ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        CachedResponse cached = null;
+        try {
+            chain.doFilter(digestingRequest, wrapper);
+            if (wrapper.getStatusCode() >= HttpStatus.OK.value()
+                    && wrapper.getStatusCode() < HttpStatus.MULTIPLE_CHOICES.value()
+                    && wrapper.getContentSize() <= MAX_STORED_BODY)
+                cached = CachedResponse.of(wrapper, digestingRequest.digest());
+        } finally {
+            if (cached == null)
+                store.remove(entry);
+            entry.response.complete(cached);
+            wrapper.copyBodyToResponse();
+        }
+    }
+}
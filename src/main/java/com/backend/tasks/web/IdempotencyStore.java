@@ -0,0 +1,101 @@
+package com.backend.tasks.web;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded store of the responses keyed by the idempotency key. An entry is
+ * stored as soon as the request starts, so a duplicate could wait for the
+ * response in flight. Entries expire after the TTL and the oldest entries are
+ * evicted first when the store is full
+ */
+class IdempotencyStore {
+
+    static final class Entry {
+
+        final String key;
+
+        final long createdAt;
+
+        /**
+         * Completed with <code>null</code> when the response isn't stored
+         */
+        final CompletableFuture<CachedResponse> response = new CompletableFuture<>();
+
+        private Entry(String key, long createdAt) {
+            this.key = key;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // insertion order is the expiry order as every entry lives for the same TTL
+    private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger ordered = new AtomicInteger();
+
+    private final int maxEntries;
+
+    private final long ttlNanos;
+
+    private final LongSupplier clock;
+
+    IdempotencyStore(int maxEntries, long ttlNanos, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+    }
+
+    Entry newEntry(String key) {
+        return new Entry(key, clock.getAsLong());
+    }
+
+    /**
+     * Stores given entry unless a live entry with the same key exists
+     * 
+     * @return the live entry or <code>null</code> when given entry is stored
+     */
+    Entry putIfAbsent(Entry entry) {
+        while (true) {
+            final Entry existing = entries.putIfAbsent(entry.key, entry);
+            if (existing == null) {
+                order.add(entry);
+                ordered.incrementAndGet();
+                evict(entry.createdAt);
+                return null;
+            }
+            if (!isExpired(existing, clock.getAsLong()))
+                return existing;
+            entries.remove(entry.key, existing);
+        }
+    }
+
+    void remove(Entry entry) {
+        entries.remove(entry.key, entry);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    // PRIVATE
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.createdAt > ttlNanos;
+    }
+
+    private void evict(long now) {
+        Entry oldest;
+        while (ordered.get() > maxEntries || ((oldest = order.peek()) != null && isExpired(oldest, now))) {
+            final Entry evicted = order.poll();
+            if (evicted == null)
+                return;
+            ordered.decrementAndGet();
+            entries.remove(evicted.key, evicted);
+        }
+    }
+}
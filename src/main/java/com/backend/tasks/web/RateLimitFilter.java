@@ -0,0 +1,156 @@
+package com.backend.tasks.web;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Limits the rate of requests to /orgs/{orgId}/users endpoints per
+ * Organization and in total, so one Organization couldn't saturate the
+ * service. Requests over the limit get 429 with Retry-After header. Buckets of
+ * the Organizations which have been idle long enough to refill are dropped.
+ * The global limit is checked first and a bucket is created only for a
+ * request which is let through, at most up to the configured number of
+ * Organizations, the requests of further Organizations are rejected until the
+ * idle buckets are dropped. It runs before the other filters of the
+ * application
+ */
+@Component
+@Order(RateLimitFilter.ORDER)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final int ORDER = 0;
+
+    private static final Pattern USERS_PATH = Pattern.compile("^/orgs/(\\d{1,18})/users(/.*)?$");
+
+    private final ConcurrentHashMap<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong lastEviction;
+
+    private final TokenBucket globalBucket;
+
+    private final boolean enabled;
+
+    private final double organizationRate;
+
+    private final int organizationBurst;
+
+    private final long idleNanos;
+
+    private final int maxOrganizations;
+
+    private final LongSupplier clock;
+
+    @Autowired
+    public RateLimitFilter(@Value("${rate-limit.enabled:false}") boolean enabled,
+            @Value("${rate-limit.organization.rate:100}") double organizationRate,
+            @Value("${rate-limit.organization.burst:200}") int organizationBurst,
+            @Value("${rate-limit.global.rate:1000}") double globalRate,
+            @Value("${rate-limit.global.burst:2000}") int globalBurst,
+            @Value("${rate-limit.idle-ms:60000}") long idleMillis,
+            @Value("${rate-limit.max-organizations:100000}") int maxOrganizations) {
+        this(enabled, organizationRate, organizationBurst, globalRate, globalBurst, idleMillis, maxOrganizations,
+                System::nanoTime);
+    }
+
+    RateLimitFilter(boolean enabled, double organizationRate, int organizationBurst, double globalRate,
+            int globalBurst, long idleMillis, int maxOrganizations, LongSupplier clock) {
+        this.enabled = enabled;
+        this.organizationRate = organizationRate;
+        this.organizationBurst = organizationBurst;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.maxOrganizations = maxOrganizations;
+        this.clock = clock;
+        this.globalBucket = new TokenBucket(globalRate, globalBurst, clock.getAsLong());
+        this.lastEviction = new AtomicLong(clock.getAsLong());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        final String path = request.getRequestURI().substring(request.getContextPath().length());
+        final Matcher matcher = USERS_PATH.matcher(path);
+        if (!matcher.matches()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        final long now = clock.getAsLong();
+        evictIdle(now);
+
+        final Long organizationId = Long.valueOf(matcher.group(1));
+        final long wait = acquire(organizationId, now);
+        if (wait > 0L) {
+            final long retryAfterSeconds = (wait + TimeUnit.SECONDS.toNanos(1L) - 1L) / TimeUnit.SECONDS.toNanos(1L);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    // PACKAGE
+
+    int getBucketCount() {
+        return buckets.size();
+    }
+
+    // PRIVATE
+
+    /**
+     * @return <code>0</code> when the request is let through, otherwise
+     *         nanoseconds to wait
+     */
+    private long acquire(Long organizationId, long now) {
+        // the Organization is checked without taking its token, so its excess
+        // requests don't use up the global limit
+        TokenBucket bucket = buckets.get(organizationId);
+        long wait = bucket == null ? 0L : bucket.peek(now);
+        if (wait > 0L)
+            return wait;
+
+        wait = globalBucket.tryAcquire(now);
+        if (wait > 0L)
+            return wait;
+
+        if (bucket == null) {
+            if (buckets.size() >= maxOrganizations)
+                return Math.max(1L, idleNanos - (now - lastEviction.get())); // till the next sweep
+            bucket = buckets.computeIfAbsent(organizationId,
+                    id -> new TokenBucket(organizationRate, organizationBurst, now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    private void evictIdle(long now) {
+        final long last = lastEviction.get();
+        if (now - last < idleNanos || !lastEviction.compareAndSet(last, now))
+            return; // a single request sweeps once per idle period
+        buckets.forEach((organizationId, bucket) -> {
+            if (bucket.isIdle(now, idleNanos))
+                buckets.remove(organizationId, bucket);
+        });
+    }
+}
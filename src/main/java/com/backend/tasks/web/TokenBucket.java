@@ -0,0 +1,66 @@
+package com.backend.tasks.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as the generic cell rate algorithm. The
+ * only state is the theoretical arrival time of the next request, so a bucket
+ * which is full again carries no state and could be dropped
+ */
+final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+
+    private final long burstNanos;
+
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param rate
+     *            requests per second refilled
+     * @param burst
+     *            requests which could be taken at once from the full bucket
+     */
+    TokenBucket(double rate, int burst, long now) {
+        this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / rate));
+        this.burstNanos = emissionIntervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token when available
+     * 
+     * @return <code>0</code> when the token is taken, otherwise nanoseconds to
+     *         wait for the next token
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            final long current = theoreticalArrival.get();
+            final long next = Math.max(current, now) + emissionIntervalNanos;
+            final long wait = next - now - burstNanos;
+            if (wait > 0)
+                return wait;
+            if (theoreticalArrival.compareAndSet(current, next))
+                return 0L;
+        }
+    }
+
+    /**
+     * Checks whether a token is available without taking it
+     * 
+     * @return <code>0</code> when a token is available, otherwise nanoseconds to
+     *         wait for the next token
+     */
+    long peek(long now) {
+        final long next = Math.max(theoreticalArrival.get(), now) + emissionIntervalNanos;
+        return Math.max(0L, next - now - burstNanos);
+    }
+
+    /**
+     * @return <code>true</code> when the bucket has been full for at least given
+     *         time
+     */
+    boolean isIdle(long now, long idleNanos) {
+        return now - theoreticalArrival.get() >= idleNanos;
+    }
+}
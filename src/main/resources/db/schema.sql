@@ -0,0 +1,36 @@
+-- Schema of the fast-start profile, it replaces the DDL Hibernate generates from the entities.
+-- Keep it in sync with the model, FastStartApplicationTest validates the entities against it.
+
+create table organization (
+    id bigint generated by default as identity,
+    deleted boolean not null,
+    name varchar(255),
+    user_count bigint default 0 not null,
+    primary key (id)
+);
+
+create index organization_user_count_idx on organization (user_count desc, id);
+
+create table user (
+    id bigint generated by default as identity,
+    password varchar(255),
+    username varchar(255),
+    username_key varchar(255),
+    org_id bigint,
+    primary key (id)
+);
+
+create index user_org_username_key_idx on user (org_id, username_key);
+
+alter table user add constraint fkhulr6qu116k1dd68w3itppg15 foreign key (org_id) references organization;
+
+create table change_log (
+    sequence bigint generated by default as identity,
+    org_id bigint not null,
+    subject varchar(255) not null,
+    subject_id bigint not null,
+    type varchar(255) not null,
+    primary key (sequence)
+);
+
+create index change_log_org_sequence_idx on change_log (org_id, sequence);
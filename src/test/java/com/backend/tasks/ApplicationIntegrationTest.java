@@ -2,29 +2,74 @@ package com.backend.tasks;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import javax.sql.DataSource;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.backend.tasks.jdbc.StatementCounter;
+import com.backend.tasks.model.Change;
+import com.backend.tasks.model.ChangeFeed;
+import com.backend.tasks.model.Export;
 import com.backend.tasks.model.Organization;
+import com.backend.tasks.model.OrganizationDeletion;
+import com.backend.tasks.model.QueryMetrics;
 import com.backend.tasks.model.User;
+import com.backend.tasks.model.UserImport;
+import com.backend.tasks.model.UserLookup;
+import com.backend.tasks.repository.UserRepository;
+import com.backend.tasks.web.IdempotencyFilter;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class ApplicationIntegrationTest {
 
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT =
+            new ParameterizedTypeReference<Map<String, Object>>() {
+            };
+
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> JSON_ARRAY =
+            new ParameterizedTypeReference<List<Map<String, Object>>>() {
+            };
+
     @Autowired
     TestRestTemplate restTemplate;
 
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    DataSource dataSource;
+
     @Test
-    public void overallProcess() {
+    public void overallProcess() throws Exception {
 
         // store org
 
@@ -104,6 +149,21 @@ public class ApplicationIntegrationTest {
                     .containsExactly(tuple(o.getId(), o.getName()));
         }
 
+        // get orgs sparse fieldset
+
+        {
+            final ResponseEntity<Organization[]> response = restTemplate.getForEntity("/orgs?fields=name",
+                    Organization[].class);
+
+            assertThat(response.getStatusCode())
+                    .isEqualTo(HttpStatus.OK);
+
+            assertThat(response.getBody())
+                    .isNotNull()
+                    .extracting("id", "name")
+                    .containsExactly(tuple(null, o.getName()));
+        }
+
         // get single org
 
         {
@@ -133,7 +193,12 @@ public class ApplicationIntegrationTest {
         {
             final User templ = User.of("usrname", "password");
 
-            final ResponseEntity<User> response = restTemplate.postForEntity("/orgs/{orgId}/users", templ,
+            // the password is write-only, so it's posted as is
+            final Map<String, String> body = new HashMap<>();
+            body.put("username", templ.getUsername());
+            body.put("password", templ.getPassword());
+
+            final ResponseEntity<User> response = restTemplate.postForEntity("/orgs/{orgId}/users", body,
                     User.class, o.getId());
 
             assertThat(response.getStatusCode())
@@ -152,12 +217,35 @@ public class ApplicationIntegrationTest {
                     .isEqualTo(templ.getUsername());
 
             assertThat(test.getPassword())
-                    .isNotNull()
-                    .isEqualTo(templ.getPassword());
+                    .isNull();
+
+            final String hash = userRepository.findById(test.getId()).get().getPassword();
+            assertThat(hash)
+                    .isNotEqualTo(templ.getPassword());
+            assertThat(BCrypt.checkpw(templ.getPassword(), hash))
+                    .isTrue();
 
             u = test;
         }
 
+        // verify user password
+
+        for (String password : new String[] { "password", "password", "wrong" }) {
+            final ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                    "/orgs/{orgId}/users/{userId}/verify",
+                    HttpMethod.POST,
+                    new HttpEntity<>(Collections.singletonMap("password", password)),
+                    JSON_OBJECT,
+                    o.getId(),
+                    u.getId());
+
+            assertThat(response.getStatusCode())
+                    .isEqualTo(HttpStatus.OK);
+
+            assertThat(response.getBody())
+                    .containsEntry("verified", "password".equals(password));
+        }
+
         // update user
 
         {
@@ -188,8 +276,11 @@ public class ApplicationIntegrationTest {
                     .isEqualTo(templ.getUsername());
 
             assertThat(test.getPassword())
-                    .isNotNull()
-                    .isEqualTo(templ.getPassword());
+                    .isNull();
+
+            // the password is kept when it's not passed
+            assertThat(BCrypt.checkpw("password", userRepository.findById(u.getId()).get().getPassword()))
+                    .isTrue();
 
             u = test;
         }
@@ -211,6 +302,21 @@ public class ApplicationIntegrationTest {
                     .containsExactly(tuple(u.getId(), u.getUsername(), u.getPassword()));
         }
 
+        // statement budgets of user requests
+
+        try (StatementCounter counter = StatementCounter.attach(dataSource)) {
+            restTemplate.getForEntity("/orgs/{orgId}/users", User[].class, o.getId());
+            counter.assertBudget(2, 0, 0, 0);
+
+            counter.reset();
+            restTemplate.getForEntity("/orgs/{orgId}/users/{userId}", User.class, o.getId(), u.getId());
+            counter.assertBudget(1, 0, 0, 0);
+
+            counter.reset();
+            restTemplate.getForEntity("/orgs/{orgId}/users?ids={ids}", UserLookup.class, o.getId(), u.getId());
+            counter.assertBudget(3, 0, 0, 0);
+        }
+
         // get single user
 
         {
@@ -234,8 +340,85 @@ public class ApplicationIntegrationTest {
                     .isEqualTo(u.getUsername());
 
             assertThat(test.getPassword())
+                    .isNull();
+        }
+
+        // get users sparse fieldset
+
+        {
+            final ResponseEntity<User[]> response = restTemplate.getForEntity("/orgs/{orgId}/users?fields=id",
+                    User[].class, o.getId());
+
+            assertThat(response.getStatusCode())
+                    .isEqualTo(HttpStatus.OK);
+
+            assertThat(response.getBody())
                     .isNotNull()
-                    .isEqualTo(u.getPassword());
+                    .extracting("id", "username", "password")
+                    .containsExactly(tuple(u.getId(), null, null));
+        }
+
+        {
+            final ResponseEntity<User> response = restTemplate.getForEntity(
+                    "/orgs/{orgId}/users/{userId}?fields=username", User.class, o.getId(), u.getId());
+
+            assertThat(response.getStatusCode())
+                    .isEqualTo(HttpStatus.OK);
+
+            assertThat(response.getBody())
+                    .isNotNull()
+                    .extracting("id", "username", "password")
+                    .containsExactly(null, u.getUsername(), null);
+        }
+
+        // search users by username prefix
+
+        {
+            final ResponseEntity<User[]> response = restTemplate.getForEntity(
+                    "/orgs/{orgId}/users?username_prefix={prefix}&size=1", User[].class, o.getId(),
+                    u.getUsername().substring(0, 3).toUpperCase());
+
+            assertThat(response.getStatusCode())
+                    .isEqualTo(HttpStatus.OK);
+
+            assertThat(response.getBody())
+                    .isNotNull()
+                    .extracting("id", "username")
+                    .containsExactly(tuple(u.getId(), u.getUsername()));
+        }
+
+        {
+            final ResponseEntity<User[]> response = restTemplate.getForEntity(
+                    "/orgs/{orgId}/users?username_prefix={prefix}", User[].class, o.getId(), "us%");
+
+            assertThat(response.getStatusCode())
+                    .isEqualTo(HttpStatus.OK);
+
+            assertThat(response.getBody())
+                    .isNotNull()
+                    .isEmpty();
+        }
+
+        // get multiple users
+
+        {
+            final ResponseEntity<UserLookup> response = restTemplate.getForEntity("/orgs/{orgId}/users?ids={ids}",
+                    UserLookup.class, o.getId(), Long.MAX_VALUE + "," + u.getId());
+
+            assertThat(response.getStatusCode())
+                    .isEqualTo(HttpStatus.OK);
+
+            final UserLookup test = response.getBody();
+
+            assertThat(test)
+                    .isNotNull();
+
+            assertThat(test.getUsers())
+                    .extracting("id", "username")
+                    .containsExactly(tuple(u.getId(), u.getUsername()));
+
+            assertThat(test.getMissing())
+                    .containsExactly(Long.MAX_VALUE);
         }
 
         // delete user
@@ -260,9 +443,222 @@ public class ApplicationIntegrationTest {
             u = null;
         }
 
+        // get changes
+
+        {
+            final ResponseEntity<ChangeFeed> response = restTemplate.getForEntity(
+                    "/orgs/{orgId}/users/changes?limit=4", ChangeFeed.class, o.getId());
+
+            assertThat(response.getStatusCode())
+                    .isEqualTo(HttpStatus.OK);
+
+            final ChangeFeed test = response.getBody();
+
+            assertThat(test)
+                    .isNotNull();
+
+            assertThat(test.getChanges())
+                    .extracting("subject", "type")
+                    .containsExactly(
+                            tuple(Change.Subject.ORGANIZATION, Change.Type.CREATED),
+                            tuple(Change.Subject.ORGANIZATION, Change.Type.UPDATED),
+                            tuple(Change.Subject.USER, Change.Type.CREATED),
+                            tuple(Change.Subject.USER, Change.Type.UPDATED));
+
+            final ResponseEntity<ChangeFeed> nextResponse = restTemplate.getForEntity(
+                    "/orgs/{orgId}/users/changes?since={since}", ChangeFeed.class, o.getId(), test.getNext());
+
+            assertThat(nextResponse.getBody().getChanges())
+                    .extracting("subject", "type")
+                    .containsExactly(tuple(Change.Subject.USER, Change.Type.DELETED));
+        }
+
+        // import users
+
+        {
+            final HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.valueOf("text/csv"));
+
+            final ResponseEntity<UserImport> response = restTemplate.postForEntity("/orgs/{orgId}/users/import",
+                    new HttpEntity<>("username,password\nImported1,secret\n,secret\n\"Imported,2\",secret\n",
+                            headers),
+                    UserImport.class,
+                    o.getId());
+
+            assertThat(response.getStatusCode())
+                    .isEqualTo(HttpStatus.OK);
+
+            final UserImport test = response.getBody();
+
+            assertThat(test)
+                    .isNotNull();
+
+            assertThat(test.getImported())
+                    .isEqualTo(2L);
+
+            assertThat(test.getRejections())
+                    .containsExactly(UserImport.Rejection.of(3L, "username is required"));
+
+            final User[] users = restTemplate.getForEntity("/orgs/{orgId}/users?username_prefix=imported",
+                    User[].class,
+                    o.getId()).getBody();
+
+            assertThat(users)
+                    .extracting("username")
+                    .containsExactly("Imported,2", "Imported1");
+
+            // each imported user is logged as created
+            final ChangeFeed changes = restTemplate.getForEntity("/orgs/{orgId}/users/changes",
+                    ChangeFeed.class,
+                    o.getId()).getBody();
+
+            assertThat(changes.getChanges())
+                    .filteredOn("subject", Change.Subject.USER)
+                    .filteredOn("type", Change.Type.CREATED)
+                    .extracting("subjectId")
+                    .contains(users[0].getId(), users[1].getId());
+        }
+
+        // get stats
+
+        {
+            final ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                    "/orgs/{orgId}/stats",
+                    HttpMethod.GET,
+                    null,
+                    JSON_OBJECT,
+                    o.getId());
+
+            assertThat(response.getStatusCode())
+                    .isEqualTo(HttpStatus.OK);
+
+            // the created user was deleted, the imported ones are counted per chunk
+            assertThat(response.getBody())
+                    .containsEntry("organization_id", o.getId().intValue())
+                    .containsEntry("user_count", 2);
+        }
+
+        // get largest orgs
+
+        {
+            // the count is read-only, so it's read as is
+            final ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
+                    "/orgs?sort=user_count&limit=1000",
+                    HttpMethod.GET,
+                    null,
+                    JSON_ARRAY);
+
+            assertThat(response.getStatusCode())
+                    .isEqualTo(HttpStatus.OK);
+
+            final List<Integer> counts = new ArrayList<>();
+            for (Map<String, Object> org : response.getBody())
+                counts.add((Integer) org.get("user_count"));
+
+            assertThat(counts)
+                    .isSortedAccordingTo(Collections.reverseOrder());
+
+            assertThat(response.getBody())
+                    .extracting(org -> org.get("id"), org -> org.get("user_count"))
+                    .contains(tuple(o.getId().intValue(), 2));
+        }
+
+        // export
+
+        {
+            @SuppressWarnings("unchecked")
+            final Map<String, Object> started = restTemplate.postForEntity("/exports", null, Map.class).getBody();
+
+            Map<String, Object> export = started;
+            for (int attempt = 0; attempt < 50
+                    && Export.Status.RUNNING.name().equals(export.get("status")); attempt++) {
+                Thread.sleep(100L);
+                @SuppressWarnings("unchecked")
+                final Map<String, Object> body = restTemplate.getForEntity("/exports/{exportId}",
+                        Map.class,
+                        started.get("id")).getBody();
+                export = body;
+            }
+
+            assertThat(export)
+                    .containsEntry("status", Export.Status.COMPLETED.name());
+
+            final List<String> lines = new ArrayList<>();
+            final List<Path> segments;
+            try (Stream<Path> files = Files.list(Paths.get((String) export.get("directory")))) {
+                segments = files.sorted().collect(Collectors.toList());
+            }
+            for (Path segment : segments)
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        new GZIPInputStream(Files.newInputStream(segment)), StandardCharsets.UTF_8))) {
+                    reader.lines().forEach(lines::add);
+                }
+
+            final String organizationLine = "{\"id\":" + o.getId() + ",";
+            assertThat(lines)
+                    .filteredOn(line -> line.startsWith(organizationLine))
+                    .hasSize(1)
+                    .allMatch(line -> line.contains("\"username\":\"Imported1\""));
+        }
+
+        // retry org creation
+
+        {
+            final HttpHeaders headers = new HttpHeaders();
+            headers.set(IdempotencyFilter.IDEMPOTENCY_KEY, "retried-organization");
+            final HttpEntity<Organization> request = new HttpEntity<>(Organization.of("retried"), headers);
+
+            final ResponseEntity<Organization> response = restTemplate.postForEntity("/orgs", request,
+                    Organization.class);
+            final ResponseEntity<Organization> retryResponse = restTemplate.postForEntity("/orgs", request,
+                    Organization.class);
+
+            assertThat(retryResponse.getStatusCode())
+                    .isEqualTo(HttpStatus.CREATED);
+
+            assertThat(retryResponse.getHeaders().getFirst(IdempotencyFilter.IDEMPOTENT_REPLAYED))
+                    .isEqualTo("true");
+
+            assertThat(retryResponse.getBody().getId())
+                    .isNotNull()
+                    .isEqualTo(response.getBody().getId());
+        }
+
+        // collect query metrics
+
+        {
+            restTemplate.put("/metrics/queries?enabled=true", null);
+            restTemplate.delete("/metrics/queries");
+
+            restTemplate.getForEntity("/orgs/{orgId}", Organization.class, o.getId());
+
+            final ResponseEntity<QueryMetrics> response = restTemplate.getForEntity("/metrics/queries",
+                    QueryMetrics.class);
+            restTemplate.put("/metrics/queries?enabled=false", null);
+
+            assertThat(response.getStatusCode())
+                    .isEqualTo(HttpStatus.OK);
+
+            assertThat(response.getBody().isEnabled())
+                    .isTrue();
+
+            assertThat(response.getBody().getStatements())
+                    .isPositive();
+
+            assertThat(response.getBody().getEntities())
+                    .filteredOn(entity -> entity.getName().equals(Organization.class.getName()))
+                    .extracting(QueryMetrics.Entity::getLoads)
+                    .containsExactly(1L);
+        }
+
         // delete org
 
         {
+            final User remaining = restTemplate.postForEntity("/orgs/{orgId}/users",
+                    User.of("remaining", "password"),
+                    User.class,
+                    o.getId()).getBody();
+
             final ResponseEntity<?> response = restTemplate.exchange("/orgs/{orgId}",
                     HttpMethod.DELETE,
                     null,
@@ -270,13 +666,39 @@ public class ApplicationIntegrationTest {
                     o.getId());
 
             assertThat(response.getStatusCode())
-                    .isEqualTo(HttpStatus.NO_CONTENT);
+                    .isEqualTo(HttpStatus.ACCEPTED);
+
+            assertThat(response.getHeaders().getLocation())
+                    .hasPath("/orgs/" + o.getId() + "/deletion");
 
             assertThat(restTemplate.getForEntity("/orgs/{orgId}",
                     Object.class,
                     o.getId()).getStatusCode())
                             .isEqualTo(HttpStatus.NOT_FOUND);
 
+            assertThat(restTemplate.getForEntity("/orgs/{orgId}/users/{userId}",
+                    Object.class,
+                    o.getId(),
+                    remaining.getId()).getStatusCode())
+                            .isEqualTo(HttpStatus.NOT_FOUND);
+
+            Map<String, Object> deletion = null;
+            for (int attempt = 0; attempt < 50; attempt++) {
+                @SuppressWarnings("unchecked")
+                final Map<String, Object> body = restTemplate.getForEntity("/orgs/{orgId}/deletion",
+                        Map.class,
+                        o.getId()).getBody();
+                deletion = body;
+                if (!OrganizationDeletion.Status.PENDING.name().equals(deletion.get("status"))
+                        && !OrganizationDeletion.Status.IN_PROGRESS.name().equals(deletion.get("status")))
+                    break;
+                Thread.sleep(100L);
+            }
+
+            assertThat(deletion)
+                    .containsEntry("status", OrganizationDeletion.Status.COMPLETED.name())
+                    .containsEntry("purged_users", 3);
+
             o = null;
         }
     }
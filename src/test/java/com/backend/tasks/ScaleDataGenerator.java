@@ -0,0 +1,193 @@
+package com.backend.tasks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Test support which fills the database with organizations and users of a
+ * skewed size distribution: a few large tenants share a fixed part of the
+ * users and the rest follow a Zipf distribution over the other organizations.
+ * The same settings always generate the same data. Rows are written by JDBC
+ * batches, bypassing the services, all users share one precomputed password
+ * hash
+ */
+public final class ScaleDataGenerator {
+
+    /**
+     * Generated organizations, largest first
+     */
+    public static final class Dataset {
+
+        private final List<Long> organizationIds;
+
+        private final List<Integer> userCounts;
+
+        Dataset(List<Long> organizationIds, List<Integer> userCounts) {
+            this.organizationIds = Collections.unmodifiableList(organizationIds);
+            this.userCounts = Collections.unmodifiableList(userCounts);
+        }
+
+        public List<Long> getOrganizationIds() {
+            return organizationIds;
+        }
+
+        public List<Integer> getUserCounts() {
+            return userCounts;
+        }
+
+        public long getUsers() {
+            return userCounts.stream().mapToLong(Integer::longValue).sum();
+        }
+
+        public Long getLargestOrganizationId() {
+            return organizationIds.get(0);
+        }
+
+        public Long getSmallestOrganizationId() {
+            return organizationIds.get(organizationIds.size() - 1);
+        }
+    }
+
+    public static final String PASSWORD = "password";
+
+    private static final String INSERT_ORGANIZATION = "insert into organization (name, deleted) values (?, false)";
+
+    private static final String SELECT_ORGANIZATION_IDS = "select id from organization where name like ?"
+            + " order by id";
+
+    private static final String INSERT_USER = "insert into user (org_id, username, username_key, password)"
+            + " values (?, ?, ?, ?)";
+
+    private static final String UPDATE_USER_COUNT = "update organization set user_count = ? where id = ?";
+
+    private static final int BATCH_SIZE = 5000;
+
+    private static final double ZIPF_EXPONENT = 1.1;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final int organizations;
+
+    private final int users;
+
+    private final int largeOrganizations;
+
+    private final double largeShare;
+
+    private final long seed;
+
+    public ScaleDataGenerator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            int organizations, int users, int largeOrganizations, double largeShare, long seed) {
+        if (organizations <= largeOrganizations)
+            throw new IllegalArgumentException("There should be more organizations than large ones");
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+        this.organizations = organizations;
+        this.users = users;
+        this.largeOrganizations = largeOrganizations;
+        this.largeShare = largeShare;
+        this.seed = seed;
+    }
+
+    /**
+     * Settings are read from <code>scale.organizations</code>,
+     * <code>scale.users</code>, <code>scale.large-organizations</code>,
+     * <code>scale.large-share</code> and <code>scale.seed</code> system
+     * properties
+     */
+    public static ScaleDataGenerator fromSystemProperties(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        return new ScaleDataGenerator(jdbcTemplate, transactionManager,
+                Integer.getInteger("scale.organizations", 200),
+                Integer.getInteger("scale.users", 20_000),
+                Integer.getInteger("scale.large-organizations", 3),
+                Double.parseDouble(System.getProperty("scale.large-share", "0.3")),
+                Long.getLong("scale.seed", 42L));
+    }
+
+    public Dataset generate() {
+        final List<Integer> userCounts = userCounts();
+        final String prefix = "scale-" + seed + "-";
+        final String hash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(4));
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        final List<Object[]> organizationRows = new ArrayList<>(organizations);
+        for (int i = 0; i < organizations; i++)
+            organizationRows.add(new Object[] { String.format("%s%06d", prefix, i) });
+        transaction.execute(status -> jdbcTemplate.batchUpdate(INSERT_ORGANIZATION, organizationRows));
+        final List<Long> organizationIds = jdbcTemplate.queryForList(SELECT_ORGANIZATION_IDS, Long.class,
+                prefix + "%");
+
+        final List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < organizations; i++) {
+            final Long organizationId = organizationIds.get(i);
+            for (int n = 0; n < userCounts.get(i); n++) {
+                final String username = "user-" + organizationId + "-" + n;
+                batch.add(new Object[] { organizationId, username, username, hash });
+                if (batch.size() == BATCH_SIZE) {
+                    insertUsers(transaction, batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty())
+            insertUsers(transaction, batch);
+
+        // the counters the services maintain are set directly, as the rows were
+        final List<Object[]> counts = new ArrayList<>(organizations);
+        for (int i = 0; i < organizations; i++)
+            counts.add(new Object[] { userCounts.get(i), organizationIds.get(i) });
+        transaction.execute(status -> jdbcTemplate.batchUpdate(UPDATE_USER_COUNT, counts));
+
+        return new Dataset(organizationIds, userCounts);
+    }
+
+    // PRIVATE
+
+    private void insertUsers(TransactionTemplate transaction, List<Object[]> batch) {
+        transaction.execute(status -> jdbcTemplate.batchUpdate(INSERT_USER, batch));
+    }
+
+    /**
+     * User counts per organization, largest first
+     */
+    private List<Integer> userCounts() {
+        final int largeUsers = (int) (users * largeShare);
+        final int otherUsers = users - largeUsers;
+        final int otherOrganizations = organizations - largeOrganizations;
+
+        final List<Integer> result = new ArrayList<>(organizations);
+        for (int i = 0; i < largeOrganizations; i++)
+            result.add(largeUsers / largeOrganizations + (i < largeUsers % largeOrganizations ? 1 : 0));
+
+        final double[] weights = new double[otherOrganizations];
+        double total = 0;
+        for (int i = 0; i < otherOrganizations; i++)
+            total += weights[i] = 1 / Math.pow(i + 1, ZIPF_EXPONENT);
+
+        final int[] counts = new int[otherOrganizations];
+        int assigned = 0;
+        for (int i = 0; i < otherOrganizations; i++)
+            assigned += counts[i] = (int) (otherUsers * weights[i] / total);
+
+        // the rounding remainder goes to randomly picked organizations
+        final Random random = new Random(seed);
+        for (; assigned < otherUsers; assigned++)
+            counts[random.nextInt(otherOrganizations)]++;
+
+        for (int count : counts)
+            result.add(count);
+        // the head of the long tail may outgrow the large organizations
+        result.sort(Collections.reverseOrder());
+        return result;
+    }
+}
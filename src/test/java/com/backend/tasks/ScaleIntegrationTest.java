@@ -0,0 +1,206 @@
+package com.backend.tasks;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Runs every organization and user endpoint against the data generated by
+ * {@link ScaleDataGenerator} and checks that each request stays within the
+ * latency and allocation budgets and that the heap retained after the run
+ * stays within the heap budget. Budgets are configured by
+ * <code>scale.latency-budget-ms</code>,
+ * <code>scale.allocation-budget-mb</code> and
+ * <code>scale.heap-budget-mb</code> system properties. Requests are executed by
+ * MockMvc on the test thread so the bytes allocated by the thread are the
+ * bytes allocated by the request
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "rate-limit.enabled=false", "concurrency-limit.enabled=false",
+        "users.password.strength=4" })
+@AutoConfigureMockMvc
+public class ScaleIntegrationTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ScaleIntegrationTest.class);
+
+    private static final long MB = 1024 * 1024;
+
+    private static final int ITERATIONS = 5;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private final long latencyBudgetMillis = Long.getLong("scale.latency-budget-ms", 1000L);
+
+    private final long allocationBudgetBytes = Long.getLong("scale.allocation-budget-mb", 64L) * MB;
+
+    private final long heapBudgetBytes = Long.getLong("scale.heap-budget-mb", 512L) * MB;
+
+    private final List<String> report = new ArrayList<>();
+
+    @Test
+    public void endpointsWithinBudgetsAtScale() throws Exception {
+        final long started = System.nanoTime();
+        final ScaleDataGenerator.Dataset dataset = ScaleDataGenerator
+                .fromSystemProperties(jdbcTemplate, transactionManager)
+                .generate();
+        LOG.info("Generated {} organizations and {} users in {} ms, largest organization has {} users",
+                dataset.getOrganizationIds().size(), dataset.getUsers(), (System.nanoTime() - started) / 1_000_000,
+                dataset.getUserCounts().get(0));
+
+        final Long largeId = dataset.getLargestOrganizationId();
+        final Long smallId = dataset.getSmallestOrganizationId();
+        final List<Long> userIds = jdbcTemplate.queryForList("select id from user where org_id = ? order by id",
+                Long.class, largeId);
+        final String someIds = userIds.stream()
+                .limit(100)
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        // organizations
+
+        measure("GET /orgs", n -> get("/orgs"), status().isOk());
+        measure("GET /orgs?fields", n -> get("/orgs?fields=name"), status().isOk());
+        measure("GET /orgs/{orgId}", n -> get("/orgs/{orgId}", largeId), status().isOk());
+        measure("GET /orgs/{orgId}?fields", n -> get("/orgs/{orgId}?fields=name", largeId), status().isOk());
+        measure("GET /orgs?sort=user_count", n -> get("/orgs?sort=user_count&limit=10"),
+                jsonPath("$[0].id").value(largeId.intValue()));
+        measure("GET /orgs/{orgId}/stats", n -> get("/orgs/{orgId}/stats", largeId), status().isOk());
+        measure("POST /orgs", n -> post("/orgs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"scale-created-" + n + "\"}"), status().isCreated());
+        measure("PUT /orgs/{orgId}", n -> put("/orgs/{orgId}", smallId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"scale-updated-" + n + "\"}"), status().isOk());
+
+        // users of the largest organization
+
+        measure("GET /orgs/{orgId}/users", n -> get("/orgs/{orgId}/users", largeId), status().isOk());
+        measure("GET /orgs/{orgId}/users?fields", n -> get("/orgs/{orgId}/users?fields=username", largeId),
+                status().isOk());
+        measure("GET /orgs/{orgId}/users?username_prefix",
+                n -> get("/orgs/{orgId}/users?username_prefix=user-&size=100", largeId), status().isOk());
+        measure("GET /orgs/{orgId}/users?ids", n -> get("/orgs/{orgId}/users?ids=" + someIds, largeId),
+                status().isOk());
+        measure("GET /orgs/{orgId}/users/{userId}",
+                n -> get("/orgs/{orgId}/users/{userId}", largeId, userIds.get(n)), status().isOk());
+        measure("POST /orgs/{orgId}/users", n -> post("/orgs/{orgId}/users", largeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"scale-created-" + n + "\",\"password\":\"secret\"}"),
+                status().isCreated());
+        measure("PUT /orgs/{orgId}/users/{userId}", n -> put("/orgs/{orgId}/users/{userId}", largeId, userIds.get(n))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"scale-updated-" + n + "\"}"), status().isOk());
+        measure("POST /orgs/{orgId}/users/{userId}/verify",
+                n -> post("/orgs/{orgId}/users/{userId}/verify", largeId, userIds.get(ITERATIONS + n))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"password\":\"" + ScaleDataGenerator.PASSWORD + "\"}"),
+                status().isOk());
+        measure("POST /orgs/{orgId}/users/import", n -> post("/orgs/{orgId}/users/import", largeId)
+                .contentType("text/csv")
+                .content(csv("scale-imported-" + n + "-", 200)), status().isOk());
+        measure("GET /orgs/{orgId}/users/changes", n -> get("/orgs/{orgId}/users/changes?limit=1000", largeId),
+                status().isOk());
+        measure("DELETE /orgs/{orgId}/users/{userId}",
+                n -> delete("/orgs/{orgId}/users/{userId}", largeId, userIds.get(2 * ITERATIONS + n)),
+                status().isNoContent());
+
+        // deletion of organizations goes last, the purge runs in the background
+
+        final List<Long> deletedIds = dataset.getOrganizationIds()
+                .subList(dataset.getOrganizationIds().size() - ITERATIONS - 2,
+                        dataset.getOrganizationIds().size() - 1);
+        measure("DELETE /orgs/{orgId}", n -> delete("/orgs/{orgId}", deletedIds.get(n)), status().isAccepted());
+        measure("GET /orgs/{orgId}/deletion", n -> get("/orgs/{orgId}/deletion", deletedIds.get(n)),
+                status().isOk());
+
+        report.forEach(LOG::info);
+
+        System.gc();
+        final MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        LOG.info("Heap used after the run: {} MB", heap.getUsed() / MB);
+        assertThat(heap.getUsed())
+                .as("heap used after the run")
+                .isLessThanOrEqualTo(heapBudgetBytes);
+    }
+
+    // PRIVATE
+
+    /**
+     * Performs the request {@link #ITERATIONS} times after a warm-up and checks
+     * the slowest and the most allocating of them against the budgets. The
+     * factory gets the iteration number so requests which change data don't
+     * repeat, the warm-up gets the last one
+     */
+    private void measure(String endpoint, IntFunction<RequestBuilder> requests, ResultMatcher expected)
+            throws Exception {
+        mockMvc.perform(requests.apply(ITERATIONS))
+                .andExpect(expected);
+
+        long maxNanos = 0;
+        long maxBytes = 0;
+        for (int n = 0; n < ITERATIONS; n++) {
+            final RequestBuilder request = requests.apply(n);
+            final long bytes = allocatedBytes();
+            final long started = System.nanoTime();
+            mockMvc.perform(request)
+                    .andExpect(expected);
+            maxNanos = Math.max(maxNanos, System.nanoTime() - started);
+            maxBytes = Math.max(maxBytes, allocatedBytes() - bytes);
+        }
+        report.add(String.format("%-45s %8.1f ms %10.1f KB", endpoint, maxNanos / 1e6, maxBytes / 1024.0));
+
+        assertThat(maxNanos / 1_000_000)
+                .as("latency of %s in ms", endpoint)
+                .isLessThanOrEqualTo(latencyBudgetMillis);
+        assertThat(maxBytes)
+                .as("bytes allocated by %s", endpoint)
+                .isLessThanOrEqualTo(allocationBudgetBytes);
+    }
+
+    private static long allocatedBytes() {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+            if (sunThreads.isThreadAllocatedMemorySupported() && sunThreads.isThreadAllocatedMemoryEnabled())
+                return sunThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static String csv(String prefix, int rows) {
+        final StringBuilder result = new StringBuilder("username,password\n");
+        for (int i = 0; i < rows; i++)
+            result.append(prefix).append(i).append(",secret\n");
+        return result.toString();
+    }
+}
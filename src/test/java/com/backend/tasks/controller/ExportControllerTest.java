@@ -0,0 +1,108 @@
+package com.backend.tasks.controller;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.BDDMockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.backend.tasks.model.Export;
+import com.backend.tasks.service.export.ExportService;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(ExportController.class)
+public class ExportControllerTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    ExportService exportService;
+
+    // create export
+
+    @Test
+    public void whenCreate_thenReturnAcceptedAndLocation() throws Exception {
+
+        // given
+        final Export export = Export.of("abc", Export.Status.RUNNING, "/tmp/exports/abc", 4, 0, 0L, 0L);
+
+        given(exportService.start())
+                .willReturn(export);
+
+        // when
+        final ResultActions thenResult = mvc.perform(post("/exports"));
+
+        // then
+        thenResult.andExpect(status().isAccepted())
+                .andExpect(header().string("Location", org.hamcrest.Matchers.endsWith("/exports/abc")))
+                .andExpect(jsonPath("$.id", is("abc")))
+                .andExpect(jsonPath("$.status", is("RUNNING")))
+                .andExpect(jsonPath("$.partitions", is(4)))
+                .andDo(print());
+    }
+
+    @Test
+    public void givenRunningExport_whenCreate_thenReturnConflict() throws Exception {
+
+        // given
+        given(exportService.start())
+                .willThrow(new IllegalStateException("Too many running exports"));
+
+        // when
+        final ResultActions thenResult = mvc.perform(post("/exports"));
+
+        // then
+        thenResult.andExpect(status().isConflict())
+                .andDo(print());
+    }
+
+    // get export
+
+    @Test
+    public void givenCorrectParameters_whenGet_thenReturnOkAndJsonStructure() throws Exception {
+
+        // given
+        final Export export = Export.of("abc", Export.Status.COMPLETED, "/tmp/exports/abc", 4, 4, 10L, 100L);
+
+        given(exportService.getStatus("abc"))
+                .willReturn(export);
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/exports/{exportId}", "abc"));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$.status", is("COMPLETED")))
+                .andExpect(jsonPath("$.completed_partitions", is(4)))
+                .andExpect(jsonPath("$.organizations", is(10)))
+                .andExpect(jsonPath("$.users", is(100)))
+                .andDo(print());
+    }
+
+    @Test
+    public void givenWrongParameters_whenGet_thenReturnNotFound() throws Exception {
+
+        // given
+        given(exportService.getStatus("abc"))
+                .willThrow(IllegalArgumentException.class);
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/exports/{exportId}", "abc"));
+
+        // then
+        thenResult.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+}
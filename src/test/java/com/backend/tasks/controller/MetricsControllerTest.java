@@ -0,0 +1,113 @@
+package com.backend.tasks.controller;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.BDDMockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.backend.tasks.model.QueryMetrics;
+import com.backend.tasks.service.metrics.QueryMetricsService;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(MetricsController.class)
+public class MetricsControllerTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    QueryMetricsService queryMetricsService;
+
+    // get query metrics
+
+    @Test
+    public void whenGetQueries_thenReturnOkAndJsonStructure() throws Exception {
+
+        // given
+        final QueryMetrics metrics = QueryMetrics.of(true, 100L, 12L, 7L, 3L,
+                Arrays.asList(QueryMetrics.Query.of("select u from User u", 5L, 5L, 2L, 4L)),
+                Arrays.asList(QueryMetrics.Entity.of("com.backend.tasks.model.User", 7L, 3L)));
+
+        given(queryMetricsService.getMetrics())
+                .willReturn(metrics);
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/metrics/queries"));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$.enabled", is(true)))
+                .andExpect(jsonPath("$.slow_query_threshold_millis", is(100)))
+                .andExpect(jsonPath("$.statements", is(12)))
+                .andExpect(jsonPath("$.entity_loads", is(7)))
+                .andExpect(jsonPath("$.entity_fetches", is(3)))
+                .andExpect(jsonPath("$.queries[0].query", is("select u from User u")))
+                .andExpect(jsonPath("$.queries[0].executions", is(5)))
+                .andExpect(jsonPath("$.queries[0].max_millis", is(4)))
+                .andExpect(jsonPath("$.entities[0].loads", is(7)))
+                .andDo(print());
+    }
+
+    // switch query metrics
+
+    @Test
+    public void givenEnabled_whenSwitchQueries_thenEnableAndReturnOk() throws Exception {
+
+        // given
+        given(queryMetricsService.setEnabled(true))
+                .willReturn(QueryMetrics.of(true, 100L, 0L, 0L, 0L, Collections.emptyList(),
+                        Collections.emptyList()));
+
+        // when
+        final ResultActions thenResult = mvc.perform(put("/metrics/queries")
+                .param("enabled", "true"));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled", is(true)))
+                .andDo(print());
+
+        verify(queryMetricsService).setEnabled(true);
+    }
+
+    @Test
+    public void givenNoEnabled_whenSwitchQueries_thenReturnBadRequest() throws Exception {
+
+        // when
+        final ResultActions thenResult = mvc.perform(put("/metrics/queries"));
+
+        // then
+        thenResult.andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    // reset query metrics
+
+    @Test
+    public void whenResetQueries_thenReturnNoContent() throws Exception {
+
+        // when
+        final ResultActions thenResult = mvc.perform(delete("/metrics/queries"));
+
+        // then
+        thenResult.andExpect(status().isNoContent())
+                .andDo(print());
+
+        verify(queryMetricsService).reset();
+    }
+}
@@ -7,6 +7,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -19,6 +21,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
 import com.backend.tasks.model.Organization;
+import com.backend.tasks.model.OrganizationDeletion;
+import com.backend.tasks.model.OrganizationStats;
+import com.backend.tasks.service.org.OrganizationPurgeService;
 import com.backend.tasks.service.org.OrganizationService;
 
 @RunWith(SpringRunner.class)
@@ -31,6 +36,9 @@ public class OrganizationControllerTest {
     @MockBean
     OrganizationService organizationService;
 
+    @MockBean
+    OrganizationPurgeService organizationPurgeService;
+
     // get orgs
 
     @Test
@@ -58,6 +66,94 @@ public class OrganizationControllerTest {
 
     }
 
+    @Test
+    public void givenFields_whenGetAll_thenReturnOnlyRequestedFields() throws Exception {
+
+        // given
+        given(organizationService.getAll(new LinkedHashSet<>(Arrays.asList("name"))))
+                .willReturn(Arrays.asList(
+                        Collections.singletonMap("name", "Organization 1"),
+                        Collections.singletonMap("name", "Organization 2")));
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs")
+                .param("fields", "name"));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").doesNotExist())
+                .andExpect(jsonPath("$[0].name", is("Organization 1")))
+                .andExpect(jsonPath("$[1].id").doesNotExist())
+                .andExpect(jsonPath("$[1].name", is("Organization 2")))
+                .andDo(print());
+    }
+
+    @Test
+    public void givenUnknownFields_whenGetAll_thenReturnBadRequest() throws Exception {
+
+        // given
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs")
+                .param("fields", "id,users"));
+
+        // then
+        thenResult.andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    @Test
+    public void givenUserCountSort_whenGetAll_thenReturnLargest() throws Exception {
+
+        // given
+        final Organization org1 = Organization.of(200L, "Organization 1");
+        org1.setUserCount(5L);
+        final Organization org2 = Organization.of(300L, "Organization 2");
+        org2.setUserCount(3L);
+
+        given(organizationService.getLargest(2))
+                .willReturn(Arrays.asList(org1, org2));
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs")
+                .param("sort", "user_count")
+                .param("limit", "2"));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(org1.getId().intValue())))
+                .andExpect(jsonPath("$[0].user_count", is(5)))
+                .andExpect(jsonPath("$[1].id", is(org2.getId().intValue())))
+                .andExpect(jsonPath("$[1].user_count", is(3)))
+                .andDo(print());
+    }
+
+    @Test
+    public void givenUnknownSortOrLimitOutOfRange_whenGetAll_thenReturnBadRequest() throws Exception {
+
+        // when
+        final ResultActions unknownSort = mvc.perform(get("/orgs")
+                .param("sort", "name"));
+        final ResultActions zeroLimit = mvc.perform(get("/orgs")
+                .param("sort", "user_count")
+                .param("limit", "0"));
+        final ResultActions tooLargeLimit = mvc.perform(get("/orgs")
+                .param("sort", "user_count")
+                .param("limit", String.valueOf(OrganizationController.MAX_LIMIT + 1)));
+
+        // then
+        unknownSort.andExpect(status().isBadRequest());
+        zeroLimit.andExpect(status().isBadRequest());
+        tooLargeLimit.andExpect(status().isBadRequest());
+
+        then(organizationService)
+                .shouldHaveZeroInteractions();
+    }
+
     // get single org
 
     @Test
@@ -81,6 +177,42 @@ public class OrganizationControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    public void givenFields_whenGetSingle_thenReturnOnlyRequestedFields() throws Exception {
+
+        // given
+        final Long orgId = 200L;
+
+        given(organizationService.getSingle(orgId, new LinkedHashSet<>(Arrays.asList("id"))))
+                .willReturn(Collections.singletonMap("id", orgId));
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}", orgId)
+                .param("fields", "id"));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$.id", is(orgId.intValue())))
+                .andExpect(jsonPath("$.name").doesNotExist())
+                .andDo(print());
+    }
+
+    @Test
+    public void givenUnknownFields_whenGetSingle_thenReturnBadRequest() throws Exception {
+
+        // given
+        final Long orgId = 200L;
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}", orgId)
+                .param("fields", ""));
+
+        // then
+        thenResult.andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
     @Test
     public void givenWrongParameters_whenGetSingle_thenReturnNotFound() throws Exception {
 
@@ -253,7 +385,7 @@ public class OrganizationControllerTest {
     // delete org
 
     @Test
-    public void givenCorrectParameters_whenDelete_thenReturnNoContent() throws Exception {
+    public void givenCorrectParameters_whenDelete_thenReturnAccepted() throws Exception {
 
         // given
         final Long orgId = 200L;
@@ -270,7 +402,8 @@ public class OrganizationControllerTest {
                 .should()
                 .delete(orgId);
 
-        thenResult.andExpect(status().isNoContent())
+        thenResult.andExpect(status().isAccepted())
+                .andExpect(header().string("Location", org.hamcrest.Matchers.endsWith("/orgs/200/deletion")))
                 .andDo(print());
 
     }
@@ -306,4 +439,85 @@ public class OrganizationControllerTest {
         thenResult.andExpect(status().isBadRequest())
                 .andDo(print());
     }
-}
\ No newline at end of file
+
+    // get deletion
+
+    @Test
+    public void givenCorrectParameters_whenGetDeletion_thenReturnOkAndJsonStructure() throws Exception {
+
+        // given
+        final Long orgId = 200L;
+        final OrganizationDeletion deletion = OrganizationDeletion.of(orgId,
+                OrganizationDeletion.Status.IN_PROGRESS, 1000L);
+
+        given(organizationPurgeService.getStatus(orgId))
+                .willReturn(deletion);
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/deletion", orgId));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$.organization_id", is(orgId.intValue())))
+                .andExpect(jsonPath("$.status", is("IN_PROGRESS")))
+                .andExpect(jsonPath("$.purged_users", is(1000)))
+                .andDo(print());
+    }
+
+    @Test
+    public void givenWrongParameters_whenGetDeletion_thenReturnNotFound() throws Exception {
+
+        // given
+        final Long orgId = 200L;
+
+        given(organizationPurgeService.getStatus(orgId))
+                .willThrow(IllegalArgumentException.class);
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/deletion", orgId));
+
+        // then
+        thenResult.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    // get stats
+
+    @Test
+    public void givenCorrectParameters_whenGetStats_thenReturnOkAndJsonStructure() throws Exception {
+
+        // given
+        final Long orgId = 200L;
+
+        given(organizationService.getStats(orgId))
+                .willReturn(OrganizationStats.of(orgId, 3L));
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/stats", orgId));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$.organization_id", is(orgId.intValue())))
+                .andExpect(jsonPath("$.user_count", is(3)))
+                .andDo(print());
+    }
+
+    @Test
+    public void givenWrongParameters_whenGetStats_thenReturnNotFound() throws Exception {
+
+        // given
+        final Long orgId = 200L;
+
+        given(organizationService.getStats(orgId))
+                .willThrow(IllegalArgumentException.class);
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/stats", orgId));
+
+        // then
+        thenResult.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+}
@@ -0,0 +1,65 @@
+package com.backend.tasks.controller;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.BDDMockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.backend.tasks.model.Readiness;
+import com.backend.tasks.service.warmup.WarmUpService;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(ReadinessController.class)
+public class ReadinessControllerTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    WarmUpService warmUpService;
+
+    @Test
+    public void givenReady_whenGetReady_thenReturnOkAndJsonStructure() throws Exception {
+
+        // given
+        given(warmUpService.getReadiness())
+                .willReturn(Readiness.of(Readiness.Status.READY, 12, 850L));
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/ready"));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$.status", is("READY")))
+                .andExpect(jsonPath("$.ready", is(true)))
+                .andExpect(jsonPath("$.warm_up_rounds", is(12)))
+                .andExpect(jsonPath("$.last_round_micros", is(850)));
+    }
+
+    @Test
+    public void givenWarmingUp_whenGetReady_thenReturnServiceUnavailable() throws Exception {
+
+        // given
+        given(warmUpService.getReadiness())
+                .willReturn(Readiness.of(Readiness.Status.WARMING_UP, 2, 4000L));
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/ready"));
+
+        // then
+        thenResult.andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status", is("WARMING_UP")))
+                .andExpect(jsonPath("$.ready", is(false)));
+    }
+}
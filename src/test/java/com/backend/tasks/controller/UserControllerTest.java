@@ -6,10 +6,16 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.io.Reader;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -17,10 +23,21 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.backend.tasks.model.Change;
+import com.backend.tasks.model.ChangeFeed;
 import com.backend.tasks.model.Organization;
 import com.backend.tasks.model.User;
+import com.backend.tasks.model.UserImport;
+import com.backend.tasks.model.UserLookup;
+import com.backend.tasks.service.change.ChangeLogService;
+import com.backend.tasks.service.change.ChangeStreamService;
+import com.backend.tasks.service.limit.ConcurrencyLimitExceededException;
+import com.backend.tasks.service.user.PasswordHashingService;
+import com.backend.tasks.service.user.UserImportService;
 import com.backend.tasks.service.user.UserService;
+import com.backend.tasks.service.user.UserVerificationService;
 
 @RunWith(SpringRunner.class)
 @WebMvcTest(UserController.class)
@@ -32,6 +49,21 @@ public class UserControllerTest {
     @MockBean
     UserService userService;
 
+    @MockBean
+    ChangeLogService changeLogService;
+
+    @MockBean
+    ChangeStreamService changeStreamService;
+
+    @MockBean
+    UserImportService userImportService;
+
+    @MockBean
+    PasswordHashingService passwordHashingService;
+
+    @MockBean
+    UserVerificationService userVerificationService;
+
     // get org users
 
     @Test
@@ -56,14 +88,56 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(user1.getId().intValue())))
                 .andExpect(jsonPath("$[0].username", is(user1.getUsername())))
-                .andExpect(jsonPath("$[0].password", is(user1.getPassword())))
+                .andExpect(jsonPath("$[0].password").doesNotExist())
                 .andExpect(jsonPath("$[1].id", is(user2.getId().intValue())))
                 .andExpect(jsonPath("$[1].username", is(user2.getUsername())))
-                .andExpect(jsonPath("$[1].password", is(user2.getPassword())))
+                .andExpect(jsonPath("$[1].password").doesNotExist())
                 .andDo(print());
 
     }
 
+    @Test
+    public void givenFields_whenGetAllUsers_thenReturnOnlyRequestedFields() throws Exception {
+
+        // given
+        final Long orgId = 4L;
+
+        final Map<String, Object> user1 = new LinkedHashMap<>();
+        user1.put("id", 200L);
+        user1.put("username", "user1");
+
+        given(userService.getAll(orgId, new LinkedHashSet<>(Arrays.asList("id", "username"))))
+                .willReturn(Arrays.asList(user1));
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users", orgId)
+                .param("fields", "username,id"));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(200)))
+                .andExpect(jsonPath("$[0].username", is("user1")))
+                .andExpect(jsonPath("$[0].password").doesNotExist())
+                .andDo(print());
+    }
+
+    @Test
+    public void givenUnknownFields_whenGetAllUsers_thenReturnBadRequest() throws Exception {
+
+        // given
+        final Long orgId = 4L;
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users", orgId)
+                .param("fields", "id,organization"));
+
+        // then
+        thenResult.andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
     @Test
     public void givenWrongParameters_whenGetAllUsers_thenReturnNotFound() throws Exception {
 
@@ -97,6 +171,191 @@ public class UserControllerTest {
 
     }
 
+    // search org users
+
+    @Test
+    public void givenCorrectParameters_whenSearchUsers_thenReturnOkAndJsonStructure() throws Exception {
+
+        // given
+        final Long orgId = 4L;
+
+        final Organization organization1 = Organization.of(orgId, "Organization 1");
+        final User user1 = User.of(200L, "John", "+++", organization1);
+        final User user2 = User.of(300L, "johnny", "---", organization1);
+
+        given(userService.search(orgId, "jo", 1, 2))
+                .willReturn(Arrays.asList(user1, user2));
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users", orgId)
+                .param("username_prefix", "jo")
+                .param("page", "1")
+                .param("size", "2"));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(user1.getId().intValue())))
+                .andExpect(jsonPath("$[0].username", is(user1.getUsername())))
+                .andExpect(jsonPath("$[1].id", is(user2.getId().intValue())))
+                .andExpect(jsonPath("$[1].username", is(user2.getUsername())))
+                .andDo(print());
+    }
+
+    @Test
+    public void givenWrongParameters_whenSearchUsers_thenReturnNotFound() throws Exception {
+
+        // given
+        final Long orgId = 4L;
+
+        given(userService.search(orgId, "jo", 0, 20))
+                .willThrow(IllegalArgumentException.class);
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users", orgId)
+                .param("username_prefix", "jo"));
+
+        // then
+        thenResult.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    @Test
+    public void givenInvalidParameters_whenSearchUsers_thenReturnBadRequest() throws Exception {
+
+        {
+            // given
+            final String page = "-1";
+
+            // when
+            final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users", 4L)
+                    .param("username_prefix", "jo")
+                    .param("page", page));
+
+            // then
+            thenResult.andExpect(status().isBadRequest())
+                    .andDo(print());
+        }
+
+        {
+            // given
+            final String size = String.valueOf(UserController.MAX_PAGE_SIZE + 1);
+
+            // when
+            final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users", 4L)
+                    .param("username_prefix", "jo")
+                    .param("size", size));
+
+            // then
+            thenResult.andExpect(status().isBadRequest())
+                    .andDo(print());
+        }
+    }
+
+    // get org multiple users
+
+    @Test
+    public void givenCorrectParameters_whenGetMultipleUsers_thenReturnOkAndJsonStructure() throws Exception {
+
+        // given
+        final Long orgId = 4L;
+
+        final Organization organization1 = Organization.of(orgId, "Organization 1");
+        final User user1 = User.of(200L, "user1", "+++", organization1);
+        final User user2 = User.of(300L, "user2", "---", organization1);
+
+        given(userService.getMultiple(orgId, Arrays.asList(300L, 400L, 200L)))
+                .willReturn(UserLookup.of(Arrays.asList(user2, user1), Arrays.asList(400L)));
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users", orgId)
+                .param("ids", "300,400,200"));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$.users", hasSize(2)))
+                .andExpect(jsonPath("$.users[0].id", is(user2.getId().intValue())))
+                .andExpect(jsonPath("$.users[0].username", is(user2.getUsername())))
+                .andExpect(jsonPath("$.users[1].id", is(user1.getId().intValue())))
+                .andExpect(jsonPath("$.users[1].username", is(user1.getUsername())))
+                .andExpect(jsonPath("$.missing", hasSize(1)))
+                .andExpect(jsonPath("$.missing[0]", is(400)))
+                .andDo(print());
+    }
+
+    @Test
+    public void givenWrongParameters_whenGetMultipleUsers_thenReturnNotFound() throws Exception {
+
+        // given
+        final Long orgId = 4L;
+
+        given(userService.getMultiple(orgId, Arrays.asList(200L)))
+                .willThrow(IllegalArgumentException.class);
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users", orgId)
+                .param("ids", "200"));
+
+        // then
+        thenResult.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    @Test
+    public void givenInvalidParameters_whenGetMultipleUsers_thenReturnBadRequest() throws Exception {
+
+        {
+            // given
+            final String orgId = "4";
+            final String ids = "200,notANumber";
+
+            // when
+            final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users", orgId)
+                    .param("ids", ids));
+
+            // then
+            thenResult.andExpect(status().isBadRequest())
+                    .andDo(print());
+        }
+
+        {
+            // given
+            final String orgId = "4";
+            final StringBuilder ids = new StringBuilder("1");
+            for (int i = 2; i <= UserController.MAX_IDS + 1; i++)
+                ids.append(',').append(i);
+
+            // when
+            final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users", orgId)
+                    .param("ids", ids.toString()));
+
+            // then
+            thenResult.andExpect(status().isBadRequest())
+                    .andDo(print());
+        }
+    }
+
+    @Test
+    public void givenIdsAndUsernamePrefix_whenGetUsers_thenReturnBadRequest() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users", orgId)
+                .param("ids", "200")
+                .param("username_prefix", "user"));
+
+        // then
+        thenResult.andExpect(status().isBadRequest())
+                .andDo(print());
+
+        then(userService)
+                .shouldHaveZeroInteractions();
+    }
+
     // get org single user
 
     @Test
@@ -124,6 +383,50 @@ public class UserControllerTest {
 
     }
 
+    @Test
+    public void givenFields_whenGetSingleUser_thenReturnOnlyRequestedFields() throws Exception {
+
+        // given
+        final Long orgId = 4L;
+        final Long userId = 5L;
+
+        final Map<String, Object> user1 = new LinkedHashMap<>();
+        user1.put("username", "user1");
+
+        given(userService.getSingle(orgId, userId, new LinkedHashSet<>(Arrays.asList("username"))))
+                .willReturn(user1);
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users/{userId}", orgId, userId)
+                .param("fields", "username"));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$.id").doesNotExist())
+                .andExpect(jsonPath("$.username", is("user1")))
+                .andDo(print());
+    }
+
+    @Test
+    public void givenWrongParametersAndFields_whenGetSingleUser_thenReturnNotFound() throws Exception {
+
+        // given
+        final Long orgId = 4L;
+        final Long userId = 5L;
+
+        given(userService.getSingle(orgId, userId, new LinkedHashSet<>(Arrays.asList("id"))))
+                .willThrow(IllegalArgumentException.class);
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users/{userId}", orgId, userId)
+                .param("fields", "id"));
+
+        // then
+        thenResult.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
     @Test
     public void givenWrongParameters_whenGetSingleUser_thenReturnNotFound() throws Exception {
 
@@ -190,6 +493,8 @@ public class UserControllerTest {
 
         final User createdUser = User.copyOf(1L, creatingUser);
 
+        given(passwordHashingService.hash(creatingUser.getPassword()))
+                .willReturn("hash");
         given(userService.create(orgId, creatingUser))
                 .willReturn(createdUser);
 
@@ -203,8 +508,35 @@ public class UserControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
                 .andExpect(jsonPath("$.id", is(createdUser.getId().intValue())))
                 .andExpect(jsonPath("$.username", is(createdUser.getUsername())))
-                .andExpect(jsonPath("$.password", is(createdUser.getPassword())))
+                .andExpect(jsonPath("$.password").doesNotExist())
+                .andDo(print());
+
+        verify(userService).create(eq(orgId), ArgumentMatchers.argThat(user -> "hash".equals(user.getPassword())));
+    }
+
+    @Test
+    public void givenHashingSaturated_whenCreateUser_thenReturnServiceUnavailable() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+        final String creatingUserJson = "{"
+                + "\"username\": \"username\", "
+                + "\"password\": \"password\" "
+                + "}";
+
+        given(passwordHashingService.hash("password"))
+                .willThrow(new ConcurrencyLimitExceededException("password hashing"));
+
+        // when
+        final ResultActions thenResult = mvc.perform(post("/orgs/{orgId}/users", orgId)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(creatingUserJson));
+
+        // then
+        thenResult.andExpect(status().isServiceUnavailable())
                 .andDo(print());
+
+        verify(userService, never()).create(ArgumentMatchers.any(), ArgumentMatchers.any());
     }
 
     @Test
@@ -295,6 +627,66 @@ public class UserControllerTest {
         }
     }
 
+    // verify user
+
+    @Test
+    public void givenPassword_whenVerifyUser_thenReturnOkAndVerified() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+        final Long userId = 200L;
+
+        given(userVerificationService.verify(orgId, userId, "secret"))
+                .willReturn(true);
+
+        // when
+        final ResultActions thenResult = mvc.perform(post("/orgs/{orgId}/users/{userId}/verify", orgId, userId)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"password\": \"secret\"}"));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$.verified", is(true)))
+                .andDo(print());
+    }
+
+    @Test
+    public void givenNoPassword_whenVerifyUser_thenReturnBadRequest() throws Exception {
+
+        // when
+        final ResultActions thenResult = mvc.perform(post("/orgs/{orgId}/users/{userId}/verify", 100L, 200L)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{}"));
+
+        // then
+        thenResult.andExpect(status().isBadRequest())
+                .andDo(print());
+
+        verify(userVerificationService, never())
+                .verify(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void givenWrongParameters_whenVerifyUser_thenReturnNotFound() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+        final Long userId = 200L;
+
+        given(userVerificationService.verify(orgId, userId, "secret"))
+                .willThrow(IllegalArgumentException.class);
+
+        // when
+        final ResultActions thenResult = mvc.perform(post("/orgs/{orgId}/users/{userId}/verify", orgId, userId)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"password\": \"secret\"}"));
+
+        // then
+        thenResult.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
     // update org
 
     @Test
@@ -337,6 +729,8 @@ public class UserControllerTest {
 
         final User updatedUser = User.copyOf(userId, updatingUser);
 
+        given(passwordHashingService.hash(updatingUser.getPassword()))
+                .willReturn("hash");
         given(userService.update(orgId, userId, updatingUser))
                 .willReturn(updatedUser);
 
@@ -350,8 +744,11 @@ public class UserControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
                 .andExpect(jsonPath("$.id", is(updatedUser.getId().intValue())))
                 .andExpect(jsonPath("$.username", is(updatedUser.getUsername())))
-                .andExpect(jsonPath("$.password", is(updatedUser.getPassword())))
+                .andExpect(jsonPath("$.password").doesNotExist())
                 .andDo(print());
+
+        verify(userService).update(eq(orgId), eq(userId),
+                ArgumentMatchers.argThat(user -> "hash".equals(user.getPassword())));
     }
 
     @Test
@@ -505,4 +902,237 @@ public class UserControllerTest {
                     .andDo(print());
         }
     }
-}
\ No newline at end of file
+
+    // changes
+
+    @Test
+    public void givenCorrectParameters_whenGetChanges_thenReturnOkAndJsonStructure() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+        final Change change1 = Change.of(11L, orgId, Change.Subject.USER, 200L, Change.Type.CREATED);
+        final Change change2 = Change.of(12L, orgId, Change.Subject.USER, 200L, Change.Type.DELETED);
+
+        given(changeLogService.getSince(orgId, 10L, 2))
+                .willReturn(ChangeFeed.of(Arrays.asList(change1, change2), 10L));
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users/changes", orgId)
+                .param("since", "10")
+                .param("limit", "2"));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$.changes", hasSize(2)))
+                .andExpect(jsonPath("$.changes[0].sequence", is(11)))
+                .andExpect(jsonPath("$.changes[0].subject", is("USER")))
+                .andExpect(jsonPath("$.changes[0].subject_id", is(200)))
+                .andExpect(jsonPath("$.changes[0].type", is("CREATED")))
+                .andExpect(jsonPath("$.changes[1].sequence", is(12)))
+                .andExpect(jsonPath("$.changes[1].type", is("DELETED")))
+                .andExpect(jsonPath("$.next", is("12")))
+                .andDo(print());
+    }
+
+    @Test
+    public void givenInvalidParameters_whenGetChanges_thenReturnBadRequest() throws Exception {
+
+        {
+            // given
+            final String since = "notANumber";
+
+            // when
+            final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users/changes", 100L)
+                    .param("since", since));
+
+            // then
+            thenResult.andExpect(status().isBadRequest())
+                    .andDo(print());
+        }
+
+        {
+            // given
+            final String since = "-1";
+
+            // when
+            final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users/changes", 100L)
+                    .param("since", since));
+
+            // then
+            thenResult.andExpect(status().isBadRequest())
+                    .andDo(print());
+        }
+
+        {
+            // given
+            final String limit = String.valueOf(UserController.MAX_CHANGES + 1);
+
+            // when
+            final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users/changes", 100L)
+                    .param("limit", limit));
+
+            // then
+            thenResult.andExpect(status().isBadRequest())
+                    .andDo(print());
+        }
+    }
+
+    @Test
+    public void givenNotExistingOrganization_whenGetChanges_thenReturnNotFound() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+
+        given(changeLogService.getSince(orgId, 0L, 100))
+                .willThrow(new IllegalArgumentException("Organization not exists"));
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users/changes", orgId));
+
+        // then
+        thenResult.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    // stream
+
+    @Test
+    public void givenCorrectParameters_whenStream_thenStartEventStream() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+
+        given(changeStreamService.subscribe(orgId))
+                .willReturn(new SseEmitter());
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users/stream", orgId)
+                .accept(MediaType.TEXT_EVENT_STREAM));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(request().asyncStarted())
+                .andDo(print());
+    }
+
+    @Test
+    public void givenNotExistingOrganization_whenStream_thenReturnNotFound() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+
+        given(changeStreamService.subscribe(orgId))
+                .willThrow(new IllegalArgumentException("Organization not exists"));
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users/stream", orgId)
+                .accept(MediaType.TEXT_EVENT_STREAM));
+
+        // then
+        thenResult.andExpect(status().isNotFound())
+                .andExpect(request().asyncNotStarted())
+                .andDo(print());
+    }
+
+    @Test
+    public void givenInvalidParameters_whenStream_thenReturnBadRequest() throws Exception {
+
+        // given
+        final String orgId = "notANumber";
+
+        // when
+        final ResultActions thenResult = mvc.perform(get("/orgs/{orgId}/users/stream", orgId)
+                .accept(MediaType.TEXT_EVENT_STREAM));
+
+        // then
+        thenResult.andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    // import
+
+    @Test
+    public void givenCsvBody_whenImport_thenReturnOkAndReport() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+        final UserImport report = UserImport.of(1L, 1L,
+                Arrays.asList(UserImport.Rejection.of(3L, "username is required")));
+
+        given(userImportService.importUsers(eq(orgId), ArgumentMatchers.any(Reader.class),
+                eq(UserImportService.Format.CSV)))
+                .willReturn(report);
+
+        // when
+        final ResultActions thenResult = mvc.perform(post("/orgs/{orgId}/users/import", orgId)
+                .contentType("text/csv")
+                .content("username,password\njohn,secret\n,secret\n"));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.rejections[0].line", is(3)))
+                .andExpect(jsonPath("$.rejections[0].reason", is("username is required")))
+                .andDo(print());
+    }
+
+    @Test
+    public void givenNdjsonBody_whenImport_thenReadNdjson() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+
+        given(userImportService.importUsers(eq(orgId), ArgumentMatchers.any(Reader.class),
+                eq(UserImportService.Format.NDJSON)))
+                .willReturn(UserImport.of(1L, 0L, Collections.emptyList()));
+
+        // when
+        final ResultActions thenResult = mvc.perform(post("/orgs/{orgId}/users/import", orgId)
+                .contentType("application/x-ndjson")
+                .content("{\"username\":\"john\",\"password\":\"secret\"}\n"));
+
+        // then
+        thenResult.andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andDo(print());
+    }
+
+    @Test
+    public void givenWrongParameters_whenImport_thenReturnNotFound() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+
+        given(userImportService.importUsers(eq(orgId), ArgumentMatchers.any(Reader.class),
+                ArgumentMatchers.any(UserImportService.Format.class)))
+                .willThrow(IllegalArgumentException.class);
+
+        // when
+        final ResultActions thenResult = mvc.perform(post("/orgs/{orgId}/users/import", orgId)
+                .contentType("text/csv")
+                .content("john,secret\n"));
+
+        // then
+        thenResult.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    @Test
+    public void givenUnsupportedBody_whenImport_thenReturnUnsupportedMediaType() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+
+        // when
+        final ResultActions thenResult = mvc.perform(post("/orgs/{orgId}/users/import", orgId)
+                .contentType(MediaType.APPLICATION_XML)
+                .content("<users/>"));
+
+        // then
+        thenResult.andExpect(status().isUnsupportedMediaType())
+                .andDo(print());
+    }
+}
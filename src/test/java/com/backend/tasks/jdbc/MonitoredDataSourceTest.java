@@ -0,0 +1,161 @@
+package com.backend.tasks.jdbc;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+public class MonitoredDataSourceTest {
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    private EmbeddedDatabase database;
+
+    @Before
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .build();
+        appender.start();
+        logger().addAppender(appender);
+    }
+
+    @After
+    public void tearDown() {
+        logger().detachAppender(appender);
+        database.shutdown();
+    }
+
+    @Test
+    public void givenDisabled_whenGetConnection_thenReturnTargetConnection() throws Exception {
+
+        // given
+        final MonitoredDataSource dataSource = new MonitoredDataSource(database, false, 0);
+
+        // when
+        try (Connection connection = dataSource.getConnection()) {
+
+            // then
+            assertThat(Proxy.isProxyClass(connection.getClass()))
+                    .isFalse();
+        }
+    }
+
+    @Test
+    public void givenQueryOverThreshold_whenExecute_thenLogWithBindParameterTypes() throws Exception {
+
+        // given
+        final MonitoredDataSource dataSource = new MonitoredDataSource(database, true, 0);
+
+        // when
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("select ? + ?, ?")) {
+            statement.setInt(1, 1);
+            statement.setLong(2, 2L);
+            statement.setString(3, "secret");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertThat(resultSet.next())
+                        .isTrue();
+            }
+        }
+
+        // then
+        assertThat(appender.list)
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .hasSize(1)
+                .allSatisfy(message -> assertThat(message)
+                        .contains("select ? + ?, ?")
+                        .doesNotContain("secret")
+                        .endsWith("[1=Integer, 2=Long, 3=String]"));
+    }
+
+    @Test
+    public void givenParameterValuesLogged_whenExecuteOverThreshold_thenLogWithBindParameters() throws Exception {
+
+        // given
+        final MonitoredDataSource dataSource = new MonitoredDataSource(database, true, 0, true);
+
+        // when
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("select ? + ?, ?")) {
+            statement.setInt(1, 1);
+            statement.setLong(2, 2L);
+            statement.setString(3, "text");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertThat(resultSet.next())
+                        .isTrue();
+            }
+        }
+
+        // then
+        assertThat(appender.list)
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .hasSize(1)
+                .allSatisfy(message -> assertThat(message)
+                        .contains("select ? + ?, ?")
+                        .endsWith("[1=1, 2=2, 3='text']"));
+    }
+
+    @Test
+    public void givenQueryUnderThreshold_whenExecute_thenNotLog() throws Exception {
+
+        // given
+        final MonitoredDataSource dataSource = new MonitoredDataSource(database, true, 60_000);
+
+        // when
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("select 1")) {
+            statement.executeQuery().close();
+        }
+
+        // then
+        assertThat(appender.list)
+                .isEmpty();
+    }
+
+    @Test
+    public void givenDisabledWithListener_whenExecute_thenNotifyWithoutLog() throws Exception {
+
+        // given
+        final MonitoredDataSource dataSource = new MonitoredDataSource(database, false, 0);
+        final List<String> executed = new ArrayList<>();
+        dataSource.addListener((sql, elapsedNanos) -> executed.add(sql));
+
+        // when
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("select 1");
+        }
+
+        // then
+        assertThat(executed)
+                .containsExactly("select 1");
+
+        assertThat(appender.list)
+                .isEmpty();
+    }
+
+    // PRIVATE
+
+    private static Logger logger() {
+        return (Logger) LoggerFactory.getLogger(MonitoredDataSource.class);
+    }
+}
@@ -0,0 +1,148 @@
+package com.backend.tasks.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import javax.sql.DataSource;
+
+/**
+ * Test support which counts SELECT, INSERT, UPDATE and DELETE statements
+ * executed over the {@link MonitoredDataSource} of the application, so tests
+ * could assert exact statement budgets of a request or a transaction. Every
+ * execution counts once, a JDBC batch is a single statement. A counter attached
+ * to all threads suits requests served by other threads, then the counted code
+ * shouldn't run concurrently with other database work
+ * 
+ * <pre>
+ * try (StatementCounter counter = StatementCounter.attachToCurrentThread(dataSource)) {
+ *     service.create(orgId, user);
+ *     counter.assertBudget(1, 2, 0, 0);
+ * }
+ * </pre>
+ */
+public final class StatementCounter implements StatementListener, AutoCloseable {
+
+    public enum Kind {
+        SELECT, INSERT, UPDATE, DELETE, OTHER
+    }
+
+    private final MonitoredDataSource dataSource;
+
+    // null when statements of all threads are counted
+    private final Thread thread;
+
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    private StatementCounter(MonitoredDataSource dataSource, Thread thread) {
+        this.dataSource = dataSource;
+        this.thread = thread;
+    }
+
+    /**
+     * Starts counting statements of all threads over the connections obtained
+     * from now on
+     */
+    public static StatementCounter attach(DataSource dataSource) {
+        return attach(dataSource, null);
+    }
+
+    /**
+     * Starts counting statements of the current thread over the connections
+     * obtained from now on
+     */
+    public static StatementCounter attachToCurrentThread(DataSource dataSource) {
+        return attach(dataSource, Thread.currentThread());
+    }
+
+    @Override
+    public void executed(String sql, long elapsedNanos) {
+        if (thread == null || thread == Thread.currentThread())
+            statements.add(sql);
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    public long count(Kind kind) {
+        synchronized (statements) {
+            return statements.stream()
+                    .filter(sql -> kindOf(sql) == kind)
+                    .count();
+        }
+    }
+
+    public long getSelects() {
+        return count(Kind.SELECT);
+    }
+
+    public long getInserts() {
+        return count(Kind.INSERT);
+    }
+
+    public long getUpdates() {
+        return count(Kind.UPDATE);
+    }
+
+    public long getDeletes() {
+        return count(Kind.DELETE);
+    }
+
+    public List<String> getStatements() {
+        synchronized (statements) {
+            return new ArrayList<>(statements);
+        }
+    }
+
+    /**
+     * Asserts exact counts of the statements executed since the counter was
+     * attached or reset
+     * 
+     * @throws AssertionError
+     *             listing the executed statements when any count differs
+     */
+    public void assertBudget(long selects, long inserts, long updates, long deletes) {
+        final long[] expected = { selects, inserts, updates, deletes };
+        final long[] actual = { getSelects(), getInserts(), getUpdates(), getDeletes() };
+        for (int i = 0; i < expected.length; i++)
+            if (expected[i] != actual[i])
+                throw new AssertionError(String.format(
+                        "Expected %d selects, %d inserts, %d updates and %d deletes"
+                                + " but were %d, %d, %d and %d:%n%s",
+                        selects, inserts, updates, deletes, actual[0], actual[1], actual[2], actual[3],
+                        String.join(System.lineSeparator(), getStatements())));
+    }
+
+    /**
+     * Stops counting
+     */
+    @Override
+    public void close() {
+        dataSource.removeListener(this);
+    }
+
+    // PRIVATE
+
+    private static StatementCounter attach(DataSource dataSource, Thread thread) {
+        if (!(dataSource instanceof MonitoredDataSource))
+            throw new IllegalArgumentException("Statements could be counted by MonitoredDataSource only");
+        final StatementCounter counter = new StatementCounter((MonitoredDataSource) dataSource, thread);
+        counter.dataSource.addListener(counter);
+        return counter;
+    }
+
+    static Kind kindOf(String sql) {
+        final String statement = sql.trim().toLowerCase(Locale.ROOT);
+        if (statement.startsWith("select") || statement.startsWith("with"))
+            return Kind.SELECT;
+        if (statement.startsWith("insert"))
+            return Kind.INSERT;
+        if (statement.startsWith("update"))
+            return Kind.UPDATE;
+        if (statement.startsWith("delete"))
+            return Kind.DELETE;
+        return Kind.OTHER;
+    }
+}
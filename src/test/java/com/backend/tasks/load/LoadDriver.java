@@ -0,0 +1,333 @@
+package com.backend.tasks.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Open-loop HTTP load driver. Requests are started at a fixed arrival rate
+ * whatever the response times are, a request which can't get one of the
+ * connections waits for it and the wait is part of its latency, because
+ * latency is measured from the moment the request was due to start. So a
+ * stalled server shows up in the percentiles instead of lowering the rate of
+ * requests, i.e. there is no coordinated omission
+ */
+public final class LoadDriver {
+
+    public enum Operation {
+        CREATE_ORGANIZATION, GET_ORGANIZATION, LIST_ORGANIZATIONS, UPDATE_ORGANIZATION,
+        CREATE_USER, GET_USER, LIST_USERS, UPDATE_USER, DELETE_USER
+    }
+
+    public static final String DEFAULT_MIX = "get_organization:20,list_organizations:2,create_organization:2,"
+            + "update_organization:4,get_user:40,list_users:6,create_user:6,update_user:12,delete_user:8";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final long SHUTDOWN_GRACE_SECONDS = 60;
+
+    private final String baseUrl;
+
+    private final double rate;
+
+    private final long durationNanos;
+
+    private final long warmupNanos;
+
+    private final int connections;
+
+    private final Operation[] schedule;
+
+    private final long seed;
+
+    private final List<Long> organizations = new ArrayList<>();
+
+    private final List<long[]> users = new ArrayList<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * @param rate
+     *            requests started per second
+     * @param mix
+     *            relative weights of the operations
+     */
+    public LoadDriver(String baseUrl, double rate, long durationSeconds, long warmupSeconds, int connections,
+            Map<Operation, Integer> mix, long seed) {
+        if (rate <= 0 || durationSeconds <= 0 || connections <= 0)
+            throw new IllegalArgumentException("Rate, duration and connections should be positive");
+        this.baseUrl = baseUrl;
+        this.rate = rate;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        this.connections = connections;
+        this.schedule = mix.entrySet().stream()
+                .flatMap(e -> Collections.nCopies(e.getValue(), e.getKey()).stream())
+                .toArray(Operation[]::new);
+        if (schedule.length == 0)
+            throw new IllegalArgumentException("The mix should have at least one operation");
+        this.seed = seed;
+    }
+
+    /**
+     * Parses a mix like <code>get_user:10,create_user:1</code>
+     */
+    public static Map<Operation, Integer> parseMix(String mix) {
+        final Map<Operation, Integer> result = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            final String[] parts = entry.trim().split(":");
+            if (parts.length != 2)
+                throw new IllegalArgumentException("Mix entry should be operation:weight, got " + entry);
+            result.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.valueOf(parts[1].trim()));
+        }
+        return result;
+    }
+
+    /**
+     * Creates organizations with users the operations work on
+     */
+    public void seed(int organizationCount, int usersPerOrganization) throws IOException {
+        for (int i = 0; i < organizationCount; i++) {
+            final Long organizationId = createOrganization();
+            if (organizationId == null)
+                throw new IllegalStateException("Can't create an organization at " + baseUrl);
+            for (int n = 0; n < usersPerOrganization; n++)
+                if (!createUser(organizationId))
+                    throw new IllegalStateException("Can't create a user at " + baseUrl);
+        }
+    }
+
+    public LoadReport run() throws InterruptedException {
+        final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values())
+            recorders.put(operation, new Recorder());
+        final AtomicLong lastCompleted = new AtomicLong();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(connections,
+                new CustomizableThreadFactory("load-"));
+        final Random random = new Random(seed);
+        final long start = System.nanoTime();
+        final long measureFrom = start + warmupNanos;
+        final long end = measureFrom + durationNanos;
+        try {
+            for (long i = 0;; i++) {
+                final long intended = start + (long) (i * 1e9 / rate);
+                if (intended - end >= 0)
+                    break;
+                final long wait = intended - System.nanoTime();
+                if (wait > 0)
+                    LockSupport.parkNanos(wait);
+
+                final Operation operation = schedule[random.nextInt(schedule.length)];
+                final boolean measured = intended - measureFrom >= 0;
+                executor.execute(() -> {
+                    final boolean succeeded = execute(operation);
+                    final long completed = System.nanoTime();
+                    if (measured) {
+                        recorders.get(operation).record(completed - intended, succeeded);
+                        lastCompleted.accumulateAndGet(completed, Math::max);
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            if (!executor.awaitTermination(TimeUnit.NANOSECONDS.toSeconds(durationNanos) + SHUTDOWN_GRACE_SECONDS,
+                    TimeUnit.SECONDS))
+                executor.shutdownNow();
+        }
+
+        final double seconds = Math.max(durationNanos, lastCompleted.get() - measureFrom) / 1e9;
+        final Map<String, LoadReport.Operation> operations = new LinkedHashMap<>();
+        final List<long[]> all = new ArrayList<>();
+        long errors = 0;
+        for (Map.Entry<Operation, Recorder> e : recorders.entrySet()) {
+            final long[] latencies = e.getValue().getLatencies();
+            if (latencies.length == 0)
+                continue;
+            operations.put(e.getKey().name().toLowerCase(),
+                    LoadReport.operation(latencies, e.getValue().getErrors(), seconds));
+            all.add(latencies);
+            errors += e.getValue().getErrors();
+        }
+        final long[] total = all.stream().flatMapToLong(Arrays::stream).toArray();
+        return new LoadReport(rate, connections, seconds, LoadReport.operation(total, errors, seconds), operations);
+    }
+
+    // PRIVATE
+
+    private static final class Response {
+
+        final int status;
+
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    /**
+     * Latencies of one operation
+     */
+    private static final class Recorder {
+
+        private long[] latencies = new long[1024];
+
+        private int size;
+
+        private long errors;
+
+        synchronized void record(long latencyNanos, boolean succeeded) {
+            if (size == latencies.length)
+                latencies = Arrays.copyOf(latencies, size * 2);
+            latencies[size++] = latencyNanos;
+            if (!succeeded)
+                errors++;
+        }
+
+        synchronized long[] getLatencies() {
+            return Arrays.copyOf(latencies, size);
+        }
+
+        synchronized long getErrors() {
+            return errors;
+        }
+    }
+
+    private boolean execute(Operation operation) {
+        try {
+            switch (operation) {
+            case CREATE_ORGANIZATION:
+                return createOrganization() != null;
+            case GET_ORGANIZATION:
+                return request("GET", "/orgs/" + anyOrganization(), null).isSuccessful();
+            case LIST_ORGANIZATIONS:
+                return request("GET", "/orgs?fields=name", null).isSuccessful();
+            case UPDATE_ORGANIZATION:
+                return request("PUT", "/orgs/" + anyOrganization(), "{\"name\":\"load-" + next() + "\"}")
+                        .isSuccessful();
+            case CREATE_USER:
+                return createUser(anyOrganization());
+            case LIST_USERS:
+                return request("GET", "/orgs/" + anyOrganization() + "/users", null).isSuccessful();
+            default:
+                final long[] user = anyUser(operation == Operation.DELETE_USER);
+                if (user == null)
+                    return createUser(anyOrganization());
+                final String path = "/orgs/" + user[0] + "/users/" + user[1];
+                if (operation == Operation.GET_USER)
+                    return request("GET", path, null).isSuccessful();
+                if (operation == Operation.UPDATE_USER)
+                    return request("PUT", path, "{\"username\":\"load-user-" + next() + "\"}").isSuccessful();
+                return request("DELETE", path, null).isSuccessful();
+            }
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private Long createOrganization() throws IOException {
+        final Response response = request("POST", "/orgs", "{\"name\":\"load-" + next() + "\"}");
+        if (!response.isSuccessful())
+            return null;
+        final Long organizationId = JSON.readTree(response.body).get("id").asLong();
+        synchronized (organizations) {
+            organizations.add(organizationId);
+        }
+        return organizationId;
+    }
+
+    private boolean createUser(Long organizationId) throws IOException {
+        final Response response = request("POST", "/orgs/" + organizationId + "/users",
+                "{\"username\":\"load-user-" + next() + "\",\"password\":\"secret\"}");
+        if (!response.isSuccessful())
+            return false;
+        final JsonNode user = JSON.readTree(response.body);
+        synchronized (users) {
+            users.add(new long[] { organizationId, user.get("id").asLong() });
+        }
+        return true;
+    }
+
+    private Long anyOrganization() {
+        synchronized (organizations) {
+            return organizations.get(ThreadLocalRandom.current().nextInt(organizations.size()));
+        }
+    }
+
+    /**
+     * Returns organization and user ids of a random user or null when there are
+     * no users, a removed user is swapped with the last one
+     */
+    private long[] anyUser(boolean remove) {
+        synchronized (users) {
+            if (users.isEmpty())
+                return null;
+            final int index = ThreadLocalRandom.current().nextInt(users.size());
+            final long[] user = users.get(index);
+            if (remove) {
+                final long[] last = users.remove(users.size() - 1);
+                if (index < users.size())
+                    users.set(index, last);
+            }
+            return user;
+        }
+    }
+
+    private long next() {
+        return sequence.incrementAndGet();
+    }
+
+    private Response request(String method, String path, String body) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Accept", "application/json");
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        final int status = connection.getResponseCode();
+        // the body is read to the end so the connection is kept alive
+        final InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (in == null)
+            return new Response(status, "");
+        try (InputStream input = in) {
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            for (int read; (read = input.read(buffer)) != -1;)
+                content.write(buffer, 0, read);
+            return new Response(status, new String(content.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+}
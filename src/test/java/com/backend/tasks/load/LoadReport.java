@@ -0,0 +1,130 @@
+package com.backend.tasks.load;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Outcome of a {@link LoadDriver} run. Latencies are measured from the
+ * intended start of a request, so the time a request waited for a free
+ * connection is included
+ */
+public final class LoadReport {
+
+    /**
+     * Outcome of one operation
+     */
+    public static final class Operation {
+
+        private final long requests;
+
+        private final long errors;
+
+        private final double throughput;
+
+        private final double p50Millis;
+
+        private final double p90Millis;
+
+        private final double p99Millis;
+
+        private final double p999Millis;
+
+        private final double maxMillis;
+
+        Operation(long[] sortedLatencyNanos, long errors, double seconds) {
+            this.requests = sortedLatencyNanos.length;
+            this.errors = errors;
+            this.throughput = requests / seconds;
+            this.p50Millis = percentile(sortedLatencyNanos, 0.5);
+            this.p90Millis = percentile(sortedLatencyNanos, 0.9);
+            this.p99Millis = percentile(sortedLatencyNanos, 0.99);
+            this.p999Millis = percentile(sortedLatencyNanos, 0.999);
+            this.maxMillis = percentile(sortedLatencyNanos, 1);
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getThroughput() {
+            return throughput;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP90Millis() {
+            return p90Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getP999Millis() {
+            return p999Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0)
+                return 0;
+            final int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+
+    private final double targetRate;
+
+    private final int connections;
+
+    private final double durationSeconds;
+
+    private final Operation total;
+
+    private final Map<String, Operation> operations;
+
+    LoadReport(double targetRate, int connections, double durationSeconds, Operation total,
+            Map<String, Operation> operations) {
+        this.targetRate = targetRate;
+        this.connections = connections;
+        this.durationSeconds = durationSeconds;
+        this.total = total;
+        this.operations = Collections.unmodifiableMap(operations);
+    }
+
+    static Operation operation(long[] latencyNanos, long errors, double seconds) {
+        final long[] sorted = latencyNanos.clone();
+        Arrays.sort(sorted);
+        return new Operation(sorted, errors, seconds);
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public double getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public Operation getTotal() {
+        return total;
+    }
+
+    public Map<String, Operation> getOperations() {
+        return operations;
+    }
+}
@@ -0,0 +1,71 @@
+package com.backend.tasks.load;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.junit.Assume.*;
+
+import java.io.File;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Starts the application on a random port and runs {@link LoadDriver} against
+ * it. The JSON report is written to <code>load.report</code> file. It's
+ * skipped unless run with -Dload=true, e.g. <code>./gradlew loadTest
+ * -Dload.rate=500 -Dload.duration-seconds=60</code>. Other settings are
+ * <code>load.warmup-seconds</code>, <code>load.connections</code>,
+ * <code>load.mix</code>, <code>load.organizations</code>,
+ * <code>load.users-per-organization</code> and <code>load.seed</code>. The rate
+ * limit is disabled, so the application is loaded and not just throttled
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "rate-limit.enabled=false")
+public class LoadTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadTest.class);
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @BeforeClass
+    public static void enabled() {
+        assumeTrue(Boolean.getBoolean("load"));
+    }
+
+    @Test
+    public void load() throws Exception {
+        final LoadDriver driver = new LoadDriver("http://localhost:" + port,
+                Double.parseDouble(System.getProperty("load.rate", "50")),
+                Long.getLong("load.duration-seconds", 30L),
+                Long.getLong("load.warmup-seconds", 10L),
+                Integer.getInteger("load.connections", 32),
+                LoadDriver.parseMix(System.getProperty("load.mix", LoadDriver.DEFAULT_MIX)),
+                Long.getLong("load.seed", 42L));
+        driver.seed(Integer.getInteger("load.organizations", 20),
+                Integer.getInteger("load.users-per-organization", 10));
+
+        final LoadReport report = driver.run();
+
+        final File file = new File(System.getProperty("load.report", "build/load-test/report.json"));
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, report);
+        LOG.info("Load report written to {}:\n{}", file.getAbsolutePath(),
+                objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+
+        assertThat(report.getTotal().getRequests())
+                .isPositive();
+    }
+}
@@ -0,0 +1,51 @@
+package com.backend.tasks.model;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+public class ChangeFeedTest {
+
+    @Test
+    public void hashCodeEqualsContractTest() {
+        EqualsVerifier.forClass(ChangeFeed.class)
+                .verify();
+    }
+
+    @Test
+    public void givenChanges_whenOf_thenNextIsLastSequence() {
+
+        // given
+        final Change change1 = Change.of(5L, 1L, Change.Subject.USER, 2L, Change.Type.CREATED);
+        final Change change2 = Change.of(9L, 1L, Change.Subject.USER, 2L, Change.Type.DELETED);
+
+        // when
+        final ChangeFeed result = ChangeFeed.of(Arrays.asList(change1, change2), 3L);
+
+        // then
+        assertThat(result.getChanges())
+                .containsExactly(change1, change2);
+
+        assertThat(result.getNext())
+                .isEqualTo("9");
+    }
+
+    @Test
+    public void givenNoChanges_whenOf_thenNextIsSince() {
+
+        // when
+        final ChangeFeed result = ChangeFeed.of(Collections.emptyList(), 3L);
+
+        // then
+        assertThat(result.getChanges())
+                .isEmpty();
+
+        assertThat(result.getNext())
+                .isEqualTo("3");
+    }
+}
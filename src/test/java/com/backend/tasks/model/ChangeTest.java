@@ -0,0 +1,14 @@
+package com.backend.tasks.model;
+
+import org.junit.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+public class ChangeTest {
+
+    @Test
+    public void hashCodeEqualsContractTest() {
+        EqualsVerifier.forClass(Change.class)
+                .verify();
+    }
+}
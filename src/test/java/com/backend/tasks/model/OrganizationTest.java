@@ -9,8 +9,7 @@ public class OrganizationTest {
     @Test
     public void hashCodeEqualsContractTest() {
         EqualsVerifier.forClass(Organization.class)
-                .withPrefabValues(User.class, User.of(1L, "1", "1"), User.of(2L, "2", "2"))
-                .withIgnoredFields("users")
+                .withIgnoredFields("deleted", "userCount")
                 .verify();
     }
 }
@@ -0,0 +1,26 @@
+package com.backend.tasks.model;
+
+import org.junit.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+public class QueryMetricsTest {
+
+    @Test
+    public void hashCodeEqualsContractTest() {
+        EqualsVerifier.forClass(QueryMetrics.class)
+                .verify();
+    }
+
+    @Test
+    public void queryHashCodeEqualsContractTest() {
+        EqualsVerifier.forClass(QueryMetrics.Query.class)
+                .verify();
+    }
+
+    @Test
+    public void entityHashCodeEqualsContractTest() {
+        EqualsVerifier.forClass(QueryMetrics.Entity.class)
+                .verify();
+    }
+}
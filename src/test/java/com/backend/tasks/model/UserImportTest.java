@@ -0,0 +1,20 @@
+package com.backend.tasks.model;
+
+import org.junit.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+public class UserImportTest {
+
+    @Test
+    public void hashCodeEqualsContractTest() {
+        EqualsVerifier.forClass(UserImport.class)
+                .verify();
+    }
+
+    @Test
+    public void rejectionHashCodeEqualsContractTest() {
+        EqualsVerifier.forClass(UserImport.Rejection.class)
+                .verify();
+    }
+}
@@ -0,0 +1,15 @@
+package com.backend.tasks.model;
+
+import org.junit.Test;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+public class UserLookupTest {
+
+    @Test
+    public void hashCodeEqualsContractTest() {
+        EqualsVerifier.forClass(UserLookup.class)
+                .withPrefabValues(Organization.class, Organization.of(1L, "1"), Organization.of(2L, "2"))
+                .verify();
+    }
+}
@@ -0,0 +1,277 @@
+package com.backend.tasks.service.change.impl;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.backend.tasks.model.Change;
+import com.backend.tasks.model.ChangeFeed;
+import com.backend.tasks.repository.ChangeRepository;
+import com.backend.tasks.repository.OrganizationRepository;
+import com.backend.tasks.service.change.ChangeLogService;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { ChangeLogServiceImpl.class, ChangeLogServiceImplTest.ChangeRecorder.class })
+public class ChangeLogServiceImplTest {
+
+    @Autowired
+    ChangeLogService service;
+
+    @Autowired
+    ChangeRecorder changeRecorder;
+
+    @MockBean
+    ChangeRepository changeRepositoryMock;
+
+    @MockBean
+    OrganizationRepository organizationRepositoryMock;
+
+    @Before
+    public void clearRecordedChanges() {
+        changeRecorder.changes.clear();
+    }
+
+    // append
+
+    @Test
+    public void givenNoTransaction_whenAppend_thenSaveImmediately() {
+
+        // given
+        final Change saved = Change.of(1L, 100L, Change.Subject.USER, 200L, Change.Type.CREATED);
+
+        given(changeRepositoryMock.save(Change.of(100L, Change.Subject.USER, 200L, Change.Type.CREATED)))
+                .willReturn(saved);
+
+        // when
+        service.append(100L, Change.Subject.USER, 200L, Change.Type.CREATED);
+
+        // then
+        assertThat(changeRecorder.changes)
+                .containsExactly(saved);
+    }
+
+    @Test
+    public void givenTransaction_whenAppend_thenSaveBeforeCommit() {
+
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+
+            // when
+            service.append(100L, Change.Subject.USER, 200L, Change.Type.CREATED);
+            service.append(100L, Change.Subject.USER, 300L, Change.Type.DELETED);
+
+            // then
+            then(changeRepositoryMock)
+                    .shouldHaveZeroInteractions();
+
+            final List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager
+                    .getSynchronizations();
+
+            assertThat(synchronizations)
+                    .hasSize(1);
+
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+            assertThat(changeRecorder.changes)
+                    .isEmpty();
+
+            TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations,
+                    TransactionSynchronization.STATUS_COMMITTED);
+
+            then(changeRepositoryMock)
+                    .should()
+                    .saveAll(Arrays.asList(
+                            Change.of(100L, Change.Subject.USER, 200L, Change.Type.CREATED),
+                            Change.of(100L, Change.Subject.USER, 300L, Change.Type.DELETED)));
+
+            assertThat(changeRecorder.changes)
+                    .hasSize(2);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void givenRolledBackTransaction_whenAppend_thenNothingSaved() {
+
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+
+            // when
+            service.append(100L, Change.Subject.USER, 200L, Change.Type.CREATED);
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            // then
+            then(changeRepositoryMock)
+                    .shouldHaveZeroInteractions();
+
+            assertThat(changeRecorder.changes)
+                    .isEmpty();
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void givenCommittingTransaction_whenOtherOrganizationsCommit_thenWaitForSameStripeOnly()
+            throws Exception {
+
+        // given
+        final long orgId = 100L;
+        final long otherStripeOrgId = orgId + 1;
+        final long sameStripeOrgId = orgId + ChangeLogServiceImpl.COMMIT_ORDER_STRIPES;
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            service.append(orgId, Change.Subject.USER, 200L, Change.Type.CREATED);
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+            // when
+            final CompletableFuture<Void> otherStripe = CompletableFuture.runAsync(() -> commit(otherStripeOrgId));
+            final CompletableFuture<Void> sameStripe = CompletableFuture.runAsync(() -> commit(sameStripeOrgId));
+
+            // then
+            otherStripe.get(5, TimeUnit.SECONDS);
+
+            assertThat(catchThrowable(() -> sameStripe.get(200, TimeUnit.MILLISECONDS)))
+                    .isInstanceOf(TimeoutException.class);
+
+            // the change is published before the same stripe is released
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+
+            assertThat(changeRecorder.changes)
+                    .extracting(Change::getOrganizationId)
+                    .containsExactly(otherStripeOrgId, orgId);
+
+            assertThat(catchThrowable(() -> sameStripe.get(200, TimeUnit.MILLISECONDS)))
+                    .isInstanceOf(TimeoutException.class);
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_COMMITTED);
+
+            sameStripe.get(5, TimeUnit.SECONDS);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void givenNullParameter_whenAppend_thenThrowException() {
+
+        // when
+        final Throwable result = catchThrowable(
+                () -> service.append(null, Change.Subject.USER, 200L, Change.Type.CREATED));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    // getSince
+
+    @Test
+    public void givenChanges_whenGetSince_thenReturnFeed() {
+
+        // given
+        final Long orgId = 100L;
+        final Change change = Change.of(7L, orgId, Change.Subject.USER, 200L, Change.Type.UPDATED);
+
+        given(organizationRepositoryMock.existsById(orgId))
+                .willReturn(true);
+        given(changeRepositoryMock.findByOrganizationIdAndSequenceGreaterThanOrderBySequence(orgId, 5L,
+                PageRequest.of(0, 10)))
+                .willReturn(Arrays.asList(change));
+
+        // when
+        final ChangeFeed result = service.getSince(orgId, 5L, 10);
+
+        // then
+        assertThat(result)
+                .isEqualTo(ChangeFeed.of(Arrays.asList(change), 5L));
+    }
+
+    @Test
+    public void givenNotExistingOrganization_whenGetSince_thenThrowException() {
+
+        // given
+        final Long orgId = 100L;
+
+        given(organizationRepositoryMock.existsById(orgId))
+                .willReturn(false);
+
+        // when
+        final Throwable result = catchThrowable(() -> service.getSince(orgId, 0L, 10));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(IllegalArgumentException.class);
+
+        then(changeRepositoryMock)
+                .shouldHaveZeroInteractions();
+    }
+
+    // PRIVATE
+
+    private void commit(long organizationId) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            service.append(organizationId, Change.Subject.USER, 200L, Change.Type.CREATED);
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Component
+    static class ChangeRecorder {
+
+        final List<Change> changes = Collections.synchronizedList(new ArrayList<>());
+
+        @EventListener
+        public void onChange(Change change) {
+            changes.add(change);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.backend.tasks.service.change.impl;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.backend.tasks.model.Change;
+import com.backend.tasks.repository.OrganizationRepository;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { ChangeStreamServiceImpl.class }, properties = "changes.stream.buffer-size=2")
+public class ChangeStreamServiceImplTest {
+
+    @Autowired
+    ChangeStreamServiceImpl service;
+
+    @MockBean
+    OrganizationRepository organizationRepositoryMock;
+
+    @Test
+    public void givenSubscriber_whenUserChange_thenSendEvent() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+        final RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(0));
+        service.subscribe(orgId, emitter);
+
+        // when
+        service.onChange(Change.of(1L, orgId, Change.Subject.USER, 200L, Change.Type.CREATED));
+        service.onChange(Change.of(2L, 300L, Change.Subject.USER, 400L, Change.Type.CREATED));
+
+        // then
+        assertThat(emitter.sent.await(5, TimeUnit.SECONDS))
+                .isTrue();
+
+        assertThat(emitter.events)
+                .hasSize(1);
+
+        service.getSubscribers(orgId).clear();
+    }
+
+    @Test
+    public void givenSlowSubscriber_whenBufferOverflows_thenDisconnect() throws Exception {
+
+        // given
+        final Long orgId = 101L;
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingEmitter emitter = new RecordingEmitter(release);
+        service.subscribe(orgId, emitter);
+
+        service.onChange(Change.of(1L, orgId, Change.Subject.USER, 200L, Change.Type.CREATED));
+        assertThat(emitter.sending.await(5, TimeUnit.SECONDS))
+                .isTrue();
+
+        // when
+        service.onChange(Change.of(2L, orgId, Change.Subject.USER, 200L, Change.Type.UPDATED));
+        service.onChange(Change.of(3L, orgId, Change.Subject.USER, 200L, Change.Type.UPDATED));
+
+        assertThat(service.getSubscribers(orgId))
+                .hasSize(1);
+
+        service.onChange(Change.of(4L, orgId, Change.Subject.USER, 200L, Change.Type.DELETED));
+
+        // then
+        assertThat(service.getSubscribers(orgId))
+                .isEmpty();
+
+        release.countDown();
+    }
+
+    @Test
+    public void givenSubscriber_whenOrganizationDeleted_thenDisconnect() {
+
+        // given
+        final Long orgId = 102L;
+        service.subscribe(orgId, new RecordingEmitter(new CountDownLatch(0)));
+
+        // when
+        service.onChange(Change.of(1L, orgId, Change.Subject.ORGANIZATION, orgId, Change.Type.DELETED));
+
+        // then
+        assertThat(service.getSubscribers(orgId))
+                .isEmpty();
+    }
+
+    @Test
+    public void givenDisconnectedClient_whenSendFails_thenCompleteWithError() throws Exception {
+
+        // given
+        final Long orgId = 103L;
+        final FailingEmitter emitter = new FailingEmitter();
+        service.subscribe(orgId, emitter);
+
+        // when
+        service.onChange(Change.of(1L, orgId, Change.Subject.USER, 200L, Change.Type.CREATED));
+
+        // then
+        assertThat(emitter.failed.await(5, TimeUnit.SECONDS))
+                .isTrue();
+
+        assertThat(service.getSubscribers(orgId))
+                .isEmpty();
+    }
+
+    @Test
+    public void givenNotExistingOrganization_whenSubscribe_thenThrowException() {
+
+        // given
+        final Long orgId = 104L;
+
+        given(organizationRepositoryMock.existsById(orgId))
+                .willReturn(false);
+
+        // when
+        final Throwable result = catchThrowable(() -> service.subscribe(orgId));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(service.getSubscribers(orgId))
+                .isEmpty();
+    }
+
+    @Test
+    public void givenNullParameter_whenSubscribe_thenThrowException() {
+
+        // when
+        final Throwable result = catchThrowable(() -> service.subscribe(null));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        final List<SseEventBuilder> events = new CopyOnWriteArrayList<>();
+
+        final CountDownLatch sending = new CountDownLatch(1);
+
+        final CountDownLatch sent = new CountDownLatch(1);
+
+        final CountDownLatch release;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(builder);
+            sent.countDown();
+        }
+    }
+
+    private static class FailingEmitter extends SseEmitter {
+
+        final CountDownLatch failed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            throw new IOException("Broken pipe");
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failed.countDown();
+        }
+    }
+}
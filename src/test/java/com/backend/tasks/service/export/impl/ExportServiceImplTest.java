@@ -0,0 +1,273 @@
+package com.backend.tasks.service.export.impl;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.backend.tasks.model.Export;
+
+/**
+ * Lifecycle of the exports against the database
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class ExportServiceImplTest {
+
+    private static final long TTL_MILLIS = 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private ExportServiceImpl service;
+
+    @Before
+    public void setUp() {
+        service = new ExportServiceImpl(2, 3, 10, folder.getRoot().toString(), TTL_MILLIS, 1, now::get);
+        service.jdbcTemplate = jdbcTemplate;
+    }
+
+    @After
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    // start
+
+    @Test
+    public void givenOrganizationWithUsers_whenStart_thenCompleteWithSegments() throws Exception {
+
+        // given
+        final String name = "export-" + UUID.randomUUID();
+        jdbcTemplate.update("insert into organization (name, deleted) values (?, false)", name);
+        final Long orgId = jdbcTemplate.queryForObject("select id from organization where name = ?", Long.class,
+                name);
+        for (int i = 0; i < 3; i++)
+            jdbcTemplate.update("insert into user (org_id, username, username_key, password) values (?, ?, ?, ?)",
+                    orgId, "User-" + i, "user-" + i, "hash-" + i);
+
+        // when
+        final Export started = service.start();
+        final Export result = await(started.getId());
+
+        // then
+        assertThat(started.getStatus())
+                .isIn(Export.Status.RUNNING, Export.Status.COMPLETED);
+
+        assertThat(result.getStatus())
+                .isEqualTo(Export.Status.COMPLETED);
+
+        assertThat(result.getCompletedPartitions())
+                .isEqualTo(result.getPartitions());
+
+        assertThat(readLines(result))
+                .contains("{\"id\":" + orgId + ",\"name\":\"" + name + "\",\"users\":["
+                        + "{\"id\":" + userId(orgId, 0) + ",\"username\":\"User-0\"},"
+                        + "{\"id\":" + userId(orgId, 1) + ",\"username\":\"User-1\"},"
+                        + "{\"id\":" + userId(orgId, 2) + ",\"username\":\"User-2\"}]}");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenFailingQuery_whenStart_thenReportFailure() throws Exception {
+
+        // given
+        final JdbcTemplate jdbcTemplateMock = mock(JdbcTemplate.class);
+        service.jdbcTemplate = jdbcTemplateMock;
+
+        given(jdbcTemplateMock.queryForObject(anyString(), any(RowMapper.class)))
+                .willReturn(new long[] { 1L, 10L });
+        willThrow(IllegalStateException.class)
+                .given(jdbcTemplateMock)
+                .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // when
+        final Export result = await(service.start().getId());
+
+        // then
+        assertThat(result.getStatus())
+                .isEqualTo(Export.Status.FAILED);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenRunningExport_whenStart_thenThrowExceptionUntilFinished() throws Exception {
+
+        // given
+        final JdbcTemplate jdbcTemplateMock = mock(JdbcTemplate.class);
+        service.jdbcTemplate = jdbcTemplateMock;
+        final CountDownLatch release = new CountDownLatch(1);
+
+        given(jdbcTemplateMock.queryForObject(anyString(), any(RowMapper.class)))
+                .willReturn(new long[] { 1L, 10L });
+        willAnswer(invocation -> release.await(5, TimeUnit.SECONDS))
+                .given(jdbcTemplateMock)
+                .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        final Export running = service.start();
+
+        // when
+        final Throwable result = catchThrowable(() -> service.start());
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(IllegalStateException.class);
+
+        release.countDown();
+        assertThat(await(running.getId()).getStatus())
+                .isEqualTo(Export.Status.COMPLETED);
+
+        assertThat(await(service.start().getId()).getStatus())
+                .isEqualTo(Export.Status.COMPLETED);
+    }
+
+    // getStatus
+
+    @Test
+    public void givenExpiredExport_whenGetStatus_thenThrowExceptionAndRemoveSegments() throws Exception {
+
+        // given
+        final Export export = await(service.start().getId());
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS));
+
+        // when
+        final Throwable result = catchThrowable(() -> service.getStatus(export.getId()));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(folder.getRoot().toPath().resolve(export.getId()))
+                .doesNotExist();
+    }
+
+    @Test
+    public void givenNotExpiredExport_whenGetStatus_thenReturnExport() throws Exception {
+
+        // given
+        final Export export = await(service.start().getId());
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MILLIS) - 1);
+
+        // when
+        final Export result = service.getStatus(export.getId());
+
+        // then
+        assertThat(result)
+                .isEqualTo(export);
+
+        assertThat(folder.getRoot().toPath().resolve(export.getId()))
+                .isDirectory();
+    }
+
+    // removeLeftovers
+
+    @Test
+    public void givenLeftExports_whenRemoveLeftovers_thenRemoveExportDirectoriesOnly() throws Exception {
+
+        // given
+        final Path left = folder.newFolder(UUID.randomUUID().toString()).toPath();
+        Files.write(left.resolve("part-00000.ndjson.gz"), new byte[] { 1 });
+        final Path other = folder.newFolder("other").toPath();
+
+        // when
+        service.removeLeftovers();
+
+        // then
+        assertThat(left)
+                .doesNotExist();
+
+        assertThat(other)
+                .isDirectory();
+    }
+
+    // partition
+
+    @Test
+    public void givenRange_whenPartition_thenSplitIntoContiguousRanges() {
+
+        // when
+        final List<long[]> result = ExportServiceImpl.partition(1L, 10L, 3);
+
+        // then
+        assertThat(result)
+                .containsExactly(new long[] { 1L, 3L }, new long[] { 4L, 6L }, new long[] { 7L, 10L });
+    }
+
+    @Test
+    public void givenRangeShorterThanCount_whenPartition_thenSplitIntoSingleIds() {
+
+        // when
+        final List<long[]> result = ExportServiceImpl.partition(5L, 6L, 4);
+
+        // then
+        assertThat(result)
+                .containsExactly(new long[] { 5L, 5L }, new long[] { 6L, 6L });
+    }
+
+    // PRIVATE
+
+    private Export await(String exportId) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10000;
+        Export result = service.getStatus(exportId);
+        while (result.getStatus() == Export.Status.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            result = service.getStatus(exportId);
+        }
+        return result;
+    }
+
+    private Long userId(Long orgId, int index) {
+        return jdbcTemplate.queryForObject("select id from user where org_id = ? and username_key = ?", Long.class,
+                orgId, "user-" + index);
+    }
+
+    private static List<String> readLines(Export export) throws IOException {
+        final List<String> result = new ArrayList<>();
+        final List<Path> segments;
+        try (Stream<Path> paths = Files.list(Paths.get(export.getDirectory()))) {
+            segments = paths.sorted().collect(Collectors.toList());
+        }
+        for (Path segment : segments)
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(segment)), StandardCharsets.UTF_8))) {
+                reader.lines().forEach(result::add);
+            }
+        return result;
+    }
+}
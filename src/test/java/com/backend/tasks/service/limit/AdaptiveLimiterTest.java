@@ -0,0 +1,123 @@
+package com.backend.tasks.service.limit;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class AdaptiveLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    public void givenLimitInUse_whenTryAcquire_thenReject() {
+
+        // given
+        final AdaptiveLimiter limiter = new AdaptiveLimiter("test", 2, 1, 10, 100, 0.5);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        // when
+        final boolean admitted = limiter.tryAcquire();
+
+        // then
+        assertThat(admitted)
+                .isFalse();
+
+        assertThat(limiter.getInFlight())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void givenSlowCalls_whenRelease_thenDecreaseDownToMin() {
+
+        // given
+        final AdaptiveLimiter limiter = new AdaptiveLimiter("test", 8, 2, 10, 100, 0.5);
+
+        // when
+        limiter.tryAcquire();
+        limiter.release(SLOW);
+        final int once = limiter.getLimit();
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW);
+        }
+
+        // then
+        assertThat(once)
+                .isEqualTo(4);
+
+        assertThat(limiter.getLimit())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void givenFastCallsUsingLimit_whenRelease_thenIncreaseUpToMax() {
+
+        // given
+        final AdaptiveLimiter limiter = new AdaptiveLimiter("test", 2, 1, 4, 100, 0.5);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            int admitted = 0;
+            while (limiter.tryAcquire())
+                admitted++;
+            while (admitted-- > 0)
+                limiter.release(FAST);
+        }
+
+        // then
+        assertThat(limiter.getLimit())
+                .isEqualTo(4);
+
+        assertThat(limiter.getInFlight())
+                .isZero();
+    }
+
+    @Test
+    public void givenFastCallsNotUsingLimit_whenRelease_thenKeepLimit() {
+
+        // given
+        final AdaptiveLimiter limiter = new AdaptiveLimiter("test", 8, 1, 100, 100, 0.5);
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST);
+        }
+
+        // then
+        assertThat(limiter.getLimit())
+                .isEqualTo(8);
+    }
+
+    @Test
+    public void givenConcurrentCalls_whenRelease_thenKeepLimitWithinBounds() throws Exception {
+
+        // given
+        final AdaptiveLimiter limiter = new AdaptiveLimiter("test", 8, 2, 16, 100, 0.5);
+        final CompletableFuture<?>[] callers = new CompletableFuture<?>[8];
+
+        // when
+        for (int i = 0; i < callers.length; i++) {
+            final long latency = i % 4 == 0 ? SLOW : FAST;
+            callers[i] = CompletableFuture.runAsync(() -> {
+                for (int j = 0; j < 10000; j++)
+                    if (limiter.tryAcquire())
+                        limiter.release(latency);
+            });
+        }
+        CompletableFuture.allOf(callers).get(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(limiter.getInFlight())
+                .isZero();
+
+        assertThat(limiter.getLimit())
+                .isBetween(2, 16);
+    }
+}
@@ -0,0 +1,171 @@
+package com.backend.tasks.service.limit;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.backend.tasks.model.Organization;
+import com.backend.tasks.model.OrganizationStats;
+import com.backend.tasks.service.org.OrganizationService;
+
+public class ConcurrencyLimitAspectTest {
+
+    private final CountDownLatch blocked = new CountDownLatch(1);
+
+    private ConcurrencyLimitAspect aspect;
+
+    private OrganizationService service;
+
+    @Before
+    public void setUp() {
+        aspect = new ConcurrencyLimitAspect(1, 1, 1, 1, 1, 1, 10_000, 0.5);
+        final AspectJProxyFactory factory = new AspectJProxyFactory(new BlockingOrganizationService());
+        factory.addAspect(aspect);
+        service = factory.getProxy();
+    }
+
+    @After
+    public void tearDown() {
+        blocked.countDown();
+    }
+
+    @Test
+    public void givenWriteLimitInUse_whenWrite_thenReject() throws Exception {
+
+        // given
+        final CompletableFuture<Organization> first = CompletableFuture.supplyAsync(() -> service.create(null));
+        awaitInFlight(aspect.getWriteLimiter());
+
+        // when
+        final Throwable thrown = catchThrowable(() -> service.create(null));
+
+        // then
+        assertThat(thrown)
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+
+        blocked.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS))
+                .isNotNull();
+    }
+
+    @Test
+    public void givenWriteLimitInUse_whenRead_thenAdmit() throws Exception {
+
+        // given
+        CompletableFuture.runAsync(() -> service.create(null));
+        awaitInFlight(aspect.getWriteLimiter());
+
+        // when
+        final Organization organization = service.getSingle(1L);
+
+        // then
+        assertThat(organization)
+                .isNotNull();
+
+        assertThat(aspect.getReadLimiter().getInFlight())
+                .isZero();
+    }
+
+    @Test
+    public void givenReadLimitInUse_whenRead_thenReject() throws Exception {
+
+        // given
+        CompletableFuture.runAsync(() -> service.getAll());
+        awaitInFlight(aspect.getReadLimiter());
+
+        // when
+        final Throwable thrown = catchThrowable(() -> service.getSingle(1L));
+
+        // then
+        assertThat(thrown)
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+    }
+
+    // PRIVATE
+
+    private static void awaitInFlight(AdaptiveLimiter limiter) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getInFlight() == 0 && System.nanoTime() < deadline)
+            Thread.sleep(1);
+        assertThat(limiter.getInFlight())
+                .isEqualTo(1);
+    }
+
+    private class BlockingOrganizationService implements OrganizationService {
+
+        @Override
+        @Transactional(readOnly = true)
+        public Iterable<Organization> getAll() {
+            await();
+            return Collections.emptyList();
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public Iterable<Map<String, Object>> getAll(Set<String> fields) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public List<Organization> getLargest(int limit) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public Organization getSingle(Long organizationId) {
+            return Organization.of(1L, "org");
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public Map<String, Object> getSingle(Long organizationId, Set<String> fields) {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        @Transactional(readOnly = true)
+        public OrganizationStats getStats(Long organizationId) {
+            return OrganizationStats.of(organizationId, 0L);
+        }
+
+        @Override
+        @Transactional
+        public Organization create(Organization organization) {
+            await();
+            return Organization.of(1L, "org");
+        }
+
+        @Override
+        @Transactional
+        public Organization update(Long orgaizationId, Organization organization) {
+            return Organization.of(1L, "org");
+        }
+
+        @Override
+        @Transactional
+        public void delete(Long orgaizationId) {
+        }
+
+        private void await() {
+            try {
+                blocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.backend.tasks.service.metrics.impl;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.util.Arrays;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.backend.tasks.jdbc.MonitoredDataSource;
+import com.backend.tasks.model.QueryMetrics;
+
+public class QueryMetricsServiceImplTest {
+
+    private QueryMetricsServiceImpl service;
+
+    private Statistics statisticsMock;
+
+    private MonitoredDataSource dataSourceMock;
+
+    @Before
+    public void setUp() {
+        final EntityManagerFactory entityManagerFactoryMock = mock(EntityManagerFactory.class);
+        final SessionFactory sessionFactoryMock = mock(SessionFactory.class);
+        statisticsMock = mock(Statistics.class);
+        dataSourceMock = mock(MonitoredDataSource.class);
+
+        given(entityManagerFactoryMock.unwrap(SessionFactory.class))
+                .willReturn(sessionFactoryMock);
+        given(sessionFactoryMock.getStatistics())
+                .willReturn(statisticsMock);
+
+        service = new QueryMetricsServiceImpl();
+        service.entityManagerFactory = entityManagerFactoryMock;
+        service.dataSource = dataSourceMock;
+    }
+
+    @Test
+    public void givenCollectedStatistics_whenGetMetrics_thenReturnQueriesByExecutionsAndEntities() {
+
+        // given
+        final QueryStatistics rareQuery = mock(QueryStatistics.class);
+        given(rareQuery.getExecutionCount()).willReturn(1L);
+        given(rareQuery.getExecutionRowCount()).willReturn(10L);
+        given(rareQuery.getExecutionAvgTime()).willReturn(30L);
+        given(rareQuery.getExecutionMaxTime()).willReturn(30L);
+
+        final QueryStatistics frequentQuery = mock(QueryStatistics.class);
+        given(frequentQuery.getExecutionCount()).willReturn(5L);
+        given(frequentQuery.getExecutionRowCount()).willReturn(5L);
+        given(frequentQuery.getExecutionAvgTime()).willReturn(2L);
+        given(frequentQuery.getExecutionMaxTime()).willReturn(4L);
+
+        final EntityStatistics userStatistics = mock(EntityStatistics.class);
+        given(userStatistics.getLoadCount()).willReturn(7L);
+        given(userStatistics.getFetchCount()).willReturn(3L);
+
+        given(statisticsMock.isStatisticsEnabled()).willReturn(true);
+        given(statisticsMock.getPrepareStatementCount()).willReturn(12L);
+        given(statisticsMock.getEntityLoadCount()).willReturn(7L);
+        given(statisticsMock.getEntityFetchCount()).willReturn(3L);
+        given(statisticsMock.getQueries()).willReturn(new String[] { "rare", "frequent" });
+        given(statisticsMock.getQueryStatistics("rare")).willReturn(rareQuery);
+        given(statisticsMock.getQueryStatistics("frequent")).willReturn(frequentQuery);
+        given(statisticsMock.getEntityNames()).willReturn(new String[] { "User" });
+        given(statisticsMock.getEntityStatistics("User")).willReturn(userStatistics);
+        given(dataSourceMock.getSlowQueryThresholdMillis()).willReturn(100L);
+
+        // when
+        final QueryMetrics result = service.getMetrics();
+
+        // then
+        assertThat(result)
+                .isEqualTo(QueryMetrics.of(true, 100L, 12L, 7L, 3L,
+                        Arrays.asList(
+                                QueryMetrics.Query.of("frequent", 5L, 5L, 2L, 4L),
+                                QueryMetrics.Query.of("rare", 1L, 10L, 30L, 30L)),
+                        Arrays.asList(QueryMetrics.Entity.of("User", 7L, 3L))));
+    }
+
+    @Test
+    public void givenDisabled_whenSetEnabled_thenSwitchStatisticsAndSlowQueryLog() {
+
+        // given
+        given(statisticsMock.getQueries()).willReturn(new String[0]);
+        given(statisticsMock.getEntityNames()).willReturn(new String[0]);
+
+        // when
+        service.setEnabled(true);
+
+        // then
+        then(statisticsMock)
+                .should()
+                .setStatisticsEnabled(true);
+
+        then(dataSourceMock)
+                .should()
+                .setEnabled(true);
+    }
+
+    @Test
+    public void givenCollectedStatistics_whenReset_thenClear() {
+
+        // when
+        service.reset();
+
+        // then
+        then(statisticsMock)
+                .should()
+                .clear();
+    }
+}
@@ -0,0 +1,216 @@
+package com.backend.tasks.service.org.impl;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.backend.tasks.model.OrganizationDeletion;
+import com.backend.tasks.repository.OrganizationRepository;
+import com.backend.tasks.repository.UserRepository;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { OrganizationPurgeServiceImpl.class }, properties = "organizations.purge.chunk-size=2")
+public class OrganizationPurgeServiceImplTest {
+
+    @Autowired
+    OrganizationPurgeServiceImpl service;
+
+    @MockBean
+    OrganizationRepository organizationRepositoryMock;
+
+    @MockBean
+    UserRepository userRepositoryMock;
+
+    @MockBean
+    PlatformTransactionManager transactionManagerMock;
+
+    // purge
+
+    @Test
+    public void givenDeletedOrganization_whenPurge_thenDeleteUsersInChunks() {
+
+        // given
+        final Long orgId = 200L;
+
+        given(userRepositoryMock.deleteChunkByOrganizationId(orgId, 2))
+                .willReturn(2, 2, 1);
+        given(organizationRepositoryMock.purgeDeleted(orgId))
+                .willReturn(1);
+
+        // when
+        service.purge(orgId);
+
+        // then
+        then(userRepositoryMock)
+                .should(times(3))
+                .deleteChunkByOrganizationId(orgId, 2);
+
+        then(organizationRepositoryMock)
+                .should()
+                .purgeDeleted(orgId);
+
+        assertThat(service.getStatus(orgId))
+                .isEqualTo(OrganizationDeletion.of(orgId, OrganizationDeletion.Status.COMPLETED, 5L));
+    }
+
+    @Test
+    public void givenConcurrentlyAttachedUser_whenPurge_thenDeleteNextChunk() {
+
+        // given
+        final Long orgId = 201L;
+
+        given(userRepositoryMock.deleteChunkByOrganizationId(orgId, 2))
+                .willReturn(1, 1);
+        given(organizationRepositoryMock.purgeDeleted(orgId))
+                .willReturn(0, 1);
+        given(organizationRepositoryMock.countRowsById(orgId))
+                .willReturn(1L);
+
+        // when
+        service.purge(orgId);
+
+        // then
+        then(organizationRepositoryMock)
+                .should(times(2))
+                .purgeDeleted(orgId);
+
+        assertThat(service.getStatus(orgId))
+                .isEqualTo(OrganizationDeletion.of(orgId, OrganizationDeletion.Status.COMPLETED, 2L));
+    }
+
+    @Test
+    public void givenAlreadyRemovedOrganization_whenPurge_thenReportCompleted() {
+
+        // given
+        final Long orgId = 203L;
+
+        given(userRepositoryMock.deleteChunkByOrganizationId(orgId, 2))
+                .willReturn(0);
+        given(organizationRepositoryMock.purgeDeleted(orgId))
+                .willReturn(0);
+        given(organizationRepositoryMock.countRowsById(orgId))
+                .willReturn(0L);
+
+        // when
+        service.purge(orgId);
+
+        // then
+        assertThat(service.getStatus(orgId))
+                .isEqualTo(OrganizationDeletion.of(orgId, OrganizationDeletion.Status.COMPLETED, 0L));
+    }
+
+    @Test
+    public void givenRemainingOrganization_whenPurge_thenRetryAndReportFailure() {
+
+        // given
+        final Long orgId = 204L;
+
+        given(userRepositoryMock.deleteChunkByOrganizationId(orgId, 2))
+                .willReturn(0);
+        given(organizationRepositoryMock.purgeDeleted(orgId))
+                .willReturn(0);
+        given(organizationRepositoryMock.countRowsById(orgId))
+                .willReturn(1L);
+
+        // when
+        service.purge(orgId);
+
+        // then
+        then(organizationRepositoryMock)
+                .should(times(OrganizationPurgeServiceImpl.MAX_REMOVE_ATTEMPTS))
+                .purgeDeleted(orgId);
+
+        assertThat(service.getStatus(orgId))
+                .isEqualTo(OrganizationDeletion.of(orgId, OrganizationDeletion.Status.FAILED, 0L));
+    }
+
+    @Test
+    public void givenFailingRepository_whenPurge_thenReportFailure() {
+
+        // given
+        final Long orgId = 202L;
+
+        given(userRepositoryMock.deleteChunkByOrganizationId(orgId, 2))
+                .willReturn(2)
+                .willThrow(IllegalStateException.class);
+
+        // when
+        service.purge(orgId);
+
+        // then
+        assertThat(service.getStatus(orgId))
+                .isEqualTo(OrganizationDeletion.of(orgId, OrganizationDeletion.Status.FAILED, 2L));
+    }
+
+    // getStatus
+
+    @Test
+    public void givenUnknownDeletion_whenGetStatus_thenThrowException() {
+
+        // given
+        final Long orgId = 300L;
+
+        // when
+        final Throwable result = catchThrowable(() -> service.getStatus(orgId));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void givenExpiredDeletion_whenGetStatus_thenThrowException() {
+
+        // given
+        final Long orgId = 205L;
+        final AtomicLong now = new AtomicLong();
+        final OrganizationPurgeServiceImpl expiringService = new OrganizationPurgeServiceImpl(2, 1000, now::get);
+        expiringService.organizationRepository = organizationRepositoryMock;
+        expiringService.userRepository = userRepositoryMock;
+        expiringService.transactionManager = transactionManagerMock;
+
+        given(userRepositoryMock.deleteChunkByOrganizationId(orgId, 2))
+                .willReturn(1);
+        given(organizationRepositoryMock.purgeDeleted(orgId))
+                .willReturn(1);
+
+        expiringService.purge(orgId);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        expiringService.getStatus(orgId);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+
+        // when
+        final Throwable result = catchThrowable(() -> expiringService.getStatus(orgId));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void givenNullParameter_whenGetStatus_thenThrowException() {
+
+        // given
+        final Long orgId = null;
+
+        // when
+        final Throwable result = catchThrowable(() -> service.getStatus(orgId));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(NullPointerException.class);
+    }
+}
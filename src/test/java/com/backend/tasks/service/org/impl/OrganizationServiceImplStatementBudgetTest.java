@@ -0,0 +1,105 @@
+package com.backend.tasks.service.org.impl;
+
+import static org.assertj.core.api.Assertions.*;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.backend.tasks.jdbc.StatementCounter;
+import com.backend.tasks.model.Organization;
+import com.backend.tasks.service.org.OrganizationService;
+
+/**
+ * Statement budgets of {@link OrganizationServiceImpl} against the database
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class OrganizationServiceImplStatementBudgetTest {
+
+    @Autowired
+    OrganizationService service;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private Organization organization;
+
+    private StatementCounter counter;
+
+    @Before
+    public void setUp() {
+        organization = service.create(Organization.of("budget"));
+        counter = StatementCounter.attachToCurrentThread(dataSource);
+    }
+
+    @After
+    public void tearDown() {
+        counter.close();
+    }
+
+    @Test
+    public void whenCreate_thenInsertOrganizationAndChange() {
+
+        // when
+        service.create(Organization.of("created"));
+
+        // then
+        counter.assertBudget(0, 2, 0, 0);
+    }
+
+    @Test
+    public void givenOrganization_whenGetSingle_thenSelectOnce() {
+
+        // when
+        service.getSingle(organization.getId());
+
+        // then
+        counter.assertBudget(1, 0, 0, 0);
+    }
+
+    @Test
+    public void givenOrganizations_whenGetLargest_thenSelectOnceFromSortedIndex() {
+
+        // when
+        service.getLargest(5);
+
+        // then
+        counter.assertBudget(1, 0, 0, 0);
+
+        final String plan = jdbcTemplate.queryForObject("explain " + counter.getStatements().get(0), String.class, 5);
+        assertThat(plan)
+                .contains("ORGANIZATION_USER_COUNT_IDX")
+                .contains("/* index sorted */");
+    }
+
+    @Test
+    public void givenOrganization_whenUpdate_thenSelectOnceAndUpdateOnce() {
+
+        // when
+        service.update(organization.getId(), Organization.of("renamed"));
+
+        // then
+        counter.assertBudget(1, 1, 1, 0);
+    }
+
+    @Test
+    public void givenOrganization_whenDelete_thenMarkDeleted() {
+
+        // when
+        service.delete(organization.getId());
+
+        // then
+        counter.assertBudget(1, 1, 1, 0);
+    }
+}
@@ -4,18 +4,27 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.BDDMockito.*;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.backend.tasks.model.Change;
 import com.backend.tasks.model.Organization;
+import com.backend.tasks.model.OrganizationStats;
 import com.backend.tasks.repository.OrganizationRepository;
+import com.backend.tasks.service.change.ChangeLogService;
 import com.backend.tasks.service.org.OrganizationService;
+import com.backend.tasks.service.user.impl.UserMembershipIndex;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(classes = { OrganizationServiceImpl.class })
@@ -27,6 +36,12 @@ public class OrganizationServiceImplTest {
     @MockBean
     OrganizationRepository organizationRepositoryMock;
 
+    @MockBean
+    ChangeLogService changeLogServiceMock;
+
+    @MockBean
+    UserMembershipIndex membershipIndexMock;
+
     // getAll
 
     @Test
@@ -48,8 +63,90 @@ public class OrganizationServiceImplTest {
                 .containsExactlyInAnyOrder(org1, org2);
     }
 
+    @Test
+    public void givenFields_whenGetAll_thenReturnProjection() {
+
+        // given
+        final Map<String, Object> row = Collections.singletonMap("name", "Organization 1");
+
+        given(organizationRepositoryMock.findAllFields(Collections.singleton("name")))
+                .willReturn(Arrays.asList(row));
+
+        // when
+        final Iterable<Map<String, Object>> result = service.getAll(Collections.singleton("name"));
+
+        // then
+        assertThat(result)
+                .containsExactly(row);
+    }
+
+    @Test
+    public void givenLimit_whenGetLargest_thenReturnFirstPageByUserCount() {
+
+        // given
+        final Organization org = Organization.of(200L, "Organization 1");
+
+        given(organizationRepositoryMock.findLargest(PageRequest.of(0, 5)))
+                .willReturn(Collections.singletonList(org));
+
+        // when
+        final List<Organization> result = service.getLargest(5);
+
+        // then
+        assertThat(result)
+                .containsExactly(org);
+    }
+
+    @Test
+    public void givenNonPositiveLimit_whenGetLargest_thenThrowException() {
+
+        // when
+        final Throwable result = catchThrowable(() -> service.getLargest(0));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     // getSingle
 
+    @Test
+    public void givenExistingOrganization_whenGetSingleWithFields_thenReturnProjection() {
+
+        // given
+        final Long orgId = 200L;
+        final Map<String, Object> row = Collections.singletonMap("id", orgId);
+
+        given(organizationRepositoryMock.findFieldsById(orgId, Collections.singleton("id")))
+                .willReturn(Optional.of(row));
+
+        // when
+        final Map<String, Object> result = service.getSingle(orgId, Collections.singleton("id"));
+
+        // then
+        assertThat(result)
+                .isEqualTo(row);
+    }
+
+    @Test
+    public void givenNonExistingOrganization_whenGetSingleWithFields_thenThrowsException() {
+
+        // given
+        final Long orgId = 200L;
+
+        given(organizationRepositoryMock.findFieldsById(orgId, Collections.singleton("id")))
+                .willReturn(Optional.empty());
+
+        // when
+        final Throwable result = catchThrowable(() -> service.getSingle(orgId, Collections.singleton("id")));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     public void givenExistingOrganization_whenGetSingle_thenReturnOrganization() {
 
@@ -100,6 +197,63 @@ public class OrganizationServiceImplTest {
 
     }
 
+    // getStats
+
+    @Test
+    public void givenExistingOrganization_whenGetStats_thenReturnCounters() {
+
+        // given
+        final Long orgId = 200L;
+
+        given(organizationRepositoryMock.findUserCountById(orgId))
+                .willReturn(Optional.of(3L));
+
+        // when
+        final OrganizationStats result = service.getStats(orgId);
+
+        // then
+        assertThat(result)
+                .isEqualTo(OrganizationStats.of(orgId, 3L));
+    }
+
+    @Test
+    public void givenIndexedOrganization_whenGetStats_thenCountFromIndexWithoutQuery() {
+
+        // given
+        final Long orgId = 200L;
+
+        given(membershipIndexMock.getCount(orgId))
+                .willReturn(OptionalInt.of(4));
+
+        // when
+        final OrganizationStats result = service.getStats(orgId);
+
+        // then
+        assertThat(result)
+                .isEqualTo(OrganizationStats.of(orgId, 4L));
+
+        then(organizationRepositoryMock)
+                .shouldHaveZeroInteractions();
+    }
+
+    @Test
+    public void givenNonExistingOrganization_whenGetStats_thenThrowException() {
+
+        // given
+        final Long orgId = 200L;
+
+        given(organizationRepositoryMock.findUserCountById(orgId))
+                .willReturn(Optional.empty());
+
+        // when
+        final Throwable result = catchThrowable(() -> service.getStats(orgId));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     // create
 
     @Test
@@ -139,6 +293,10 @@ public class OrganizationServiceImplTest {
         assertThat(result)
                 .isNotNull()
                 .isEqualTo(createdOrganization);
+
+        then(changeLogServiceMock)
+                .should()
+                .append(orgId, Change.Subject.ORGANIZATION, orgId, Change.Type.CREATED);
     }
 
     @Test
@@ -181,6 +339,10 @@ public class OrganizationServiceImplTest {
         assertThat(result)
                 .isNotNull()
                 .isEqualTo(updatedOrg);
+
+        then(changeLogServiceMock)
+                .should()
+                .append(orgId, Change.Subject.ORGANIZATION, orgId, Change.Type.UPDATED);
     }
 
     @Test
@@ -248,7 +410,15 @@ public class OrganizationServiceImplTest {
         // then
         then(organizationRepositoryMock)
                 .should()
+                .markDeleted(orgId);
+
+        then(organizationRepositoryMock)
+                .should(never())
                 .delete(origin);
+
+        then(changeLogServiceMock)
+                .should()
+                .append(orgId, Change.Subject.ORGANIZATION, orgId, Change.Type.DELETED);
     }
 
     @Test
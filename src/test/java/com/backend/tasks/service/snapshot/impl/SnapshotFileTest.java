@@ -0,0 +1,173 @@
+package com.backend.tasks.service.snapshot.impl;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SnapshotFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void givenRowsOverManyBlocks_whenReadInSmallWindows_thenReturnAllRowsInOrder() throws IOException {
+
+        // given
+        final Path file = folder.getRoot().toPath().resolve("data.snapshot");
+        final List<String> expected = new ArrayList<>();
+        try (SnapshotFile.Writer writer = new SnapshotFile.Writer(file, 256)) {
+            for (long id = 1; id <= 50; id++) {
+                writer.organization(id, id % 10 == 0, id == 7 ? null : "organization-" + id);
+                expected.add("o" + id + (id % 10 == 0) + (id == 7 ? null : "organization-" + id));
+            }
+            for (long id = 1; id <= 500; id++) {
+                final String password = id == 3 ? null : "hash-" + id;
+                writer.user(id, id % 50 + 1, "\u00DCser-" + id, "\u00FCser-" + id, password);
+                expected.add("u" + id + (id % 50 + 1) + "\u00DCser-" + id + "\u00FCser-" + id + password);
+            }
+            writer.changeSequence(77L);
+            writer.finish();
+        }
+
+        // when
+        final List<String> rows = new ArrayList<>();
+        final long[] result = SnapshotFile.read(file, handler(rows), 1000);
+
+        // then
+        assertThat(result)
+                .containsExactly(50L, 500L, 77L);
+        assertThat(rows)
+                .isEqualTo(expected);
+    }
+
+    @Test
+    public void givenNoRows_whenRead_thenReturnZeroCounts() throws IOException {
+
+        // given
+        final Path file = folder.getRoot().toPath().resolve("empty.snapshot");
+        try (SnapshotFile.Writer writer = new SnapshotFile.Writer(file, 256)) {
+            writer.finish();
+        }
+
+        // when
+        final List<String> rows = new ArrayList<>();
+        final long[] result = SnapshotFile.read(file, handler(rows));
+
+        // then
+        assertThat(result)
+                .containsExactly(0L, 0L, 0L);
+        assertThat(rows)
+                .isEmpty();
+    }
+
+    @Test
+    public void givenVersion1File_whenRead_thenReturnRowsWithoutChangeSequence() throws IOException {
+
+        // given
+        final Path file = folder.getRoot().toPath().resolve("version1.snapshot");
+        try (SnapshotFile.Writer writer = new SnapshotFile.Writer(file, 256)) {
+            writer.organization(1L, false, "organization");
+            writer.changeSequence(5L);
+            writer.finish();
+        }
+        // the version 1 header is the current one without the change sequence number
+        final byte[] content = Files.readAllBytes(file);
+        final ByteBuffer version1 = ByteBuffer.allocate(content.length - 8);
+        version1.put(content, 0, 8);
+        version1.putInt(1);
+        version1.put(content, 12, SnapshotFile.VERSION_1_HEADER_SIZE - 12);
+        version1.put(content, SnapshotFile.HEADER_SIZE, content.length - SnapshotFile.HEADER_SIZE);
+        Files.write(file, version1.array());
+
+        // when
+        final List<String> rows = new ArrayList<>();
+        final long[] result = SnapshotFile.read(file, handler(rows));
+
+        // then
+        assertThat(result)
+                .containsExactly(1L, 0L, 0L);
+        assertThat(rows)
+                .containsExactly("o1falseorganization");
+    }
+
+    @Test
+    public void givenPosixFileSystem_whenWrite_thenFileIsReadableByOwnerOnly() throws IOException {
+
+        // given
+        final Path file = folder.getRoot().toPath().resolve("private.snapshot");
+        Assume.assumeTrue(file.getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+        // when
+        try (SnapshotFile.Writer writer = new SnapshotFile.Writer(file, 256)) {
+            writer.finish();
+        }
+
+        // then
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file)))
+                .isEqualTo("rw-------");
+    }
+
+    @Test
+    public void givenOtherFile_whenRead_thenFail() throws IOException {
+
+        // given
+        final Path file = folder.newFile("other.snapshot").toPath();
+        Files.write(file, new byte[64]);
+
+        // when
+        final Throwable thrown = catchThrowable(() -> SnapshotFile.read(file, handler(new ArrayList<>())));
+
+        // then
+        assertThat(thrown)
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void givenTruncatedFile_whenRead_thenFail() throws IOException {
+
+        // given
+        final Path file = folder.getRoot().toPath().resolve("truncated.snapshot");
+        try (SnapshotFile.Writer writer = new SnapshotFile.Writer(file, 256)) {
+            writer.organization(1L, false, "organization");
+            writer.finish();
+        }
+        final byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 1));
+
+        // when
+        final Throwable thrown = catchThrowable(() -> SnapshotFile.read(file, handler(new ArrayList<>())));
+
+        // then
+        assertThat(thrown)
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    // PRIVATE
+
+    private static SnapshotFile.Handler handler(List<String> rows) {
+        return new SnapshotFile.Handler() {
+
+            @Override
+            public void organization(long id, boolean deleted, String name) {
+                rows.add("o" + id + deleted + name);
+            }
+
+            @Override
+            public void user(long id, long organizationId, String username, String usernameKey, String password) {
+                rows.add("u" + id + organizationId + username + usernameKey + password);
+            }
+        };
+    }
+}
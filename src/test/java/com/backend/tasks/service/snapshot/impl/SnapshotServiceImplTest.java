@@ -0,0 +1,148 @@
+package com.backend.tasks.service.snapshot.impl;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.backend.tasks.model.Snapshot;
+
+/**
+ * Round trip of the rows through the snapshot file against the database
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class SnapshotServiceImplTest {
+
+    private static final String SELECT_ORGANIZATIONS = "select id, deleted, name from organization order by id";
+
+    private static final String INSERT_CHANGE = "insert into change_log (org_id, subject, subject_id, type)"
+            + " values (1, 'USER', 1, 'CREATED')";
+
+    private static final String SELECT_USERS = "select id, org_id, username, username_key, password from user"
+            + " order by id";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private SnapshotServiceImpl service;
+
+    private String path;
+
+    @Before
+    public void setUp() {
+        clear();
+        path = folder.getRoot().toPath().resolve("data.snapshot").toString();
+        // small blocks and batches, so the rows span many of them
+        service = new SnapshotServiceImpl(false, path, 60000, 512, 7, 10);
+        service.jdbcTemplate = jdbcTemplate;
+        service.transactionManager = transactionManager;
+    }
+
+    @Test
+    public void givenRows_whenWriteAndRestore_thenRestoreSameRows() {
+
+        // given
+        for (int i = 0; i < 5; i++)
+            jdbcTemplate.update("insert into organization (name, deleted) values (?, ?)", "organization-" + i,
+                    i == 4);
+        final List<Long> organizationIds = jdbcTemplate.queryForList("select id from organization order by id",
+                Long.class);
+        for (int i = 0; i < 40; i++)
+            jdbcTemplate.update("insert into user (org_id, username, username_key, password) values (?, ?, ?, ?)",
+                    organizationIds.get(i % 3), "User-" + i, "user-" + i, "hash-" + i);
+        final List<Map<String, Object>> organizations = jdbcTemplate.queryForList(SELECT_ORGANIZATIONS);
+        final List<Map<String, Object>> users = jdbcTemplate.queryForList(SELECT_USERS);
+
+        final Snapshot written = service.write();
+        clear();
+
+        // when
+        final Snapshot restored = service.restore();
+
+        // then
+        assertThat(restored)
+                .isEqualTo(written);
+        assertThat(restored)
+                .extracting("organizations", "users")
+                .containsExactly(5L, 40L);
+        assertThat(jdbcTemplate.queryForList(SELECT_ORGANIZATIONS))
+                .isEqualTo(organizations);
+        assertThat(jdbcTemplate.queryForList(SELECT_USERS))
+                .isEqualTo(users);
+
+        jdbcTemplate.update("insert into organization (name, deleted) values ('next', false)");
+        assertThat(jdbcTemplate.queryForObject("select max(id) from organization", Long.class))
+                .isGreaterThan(organizationIds.get(4));
+    }
+
+    @Test
+    public void givenChanges_whenWriteAndRestore_thenContinueChangeSequence() {
+
+        // given
+        jdbcTemplate.update(INSERT_CHANGE);
+        final Long lastSequence = jdbcTemplate.queryForObject("select max(sequence) from change_log", Long.class);
+        service.write();
+        clear();
+        jdbcTemplate.update("delete from change_log");
+        jdbcTemplate.execute("alter table change_log alter column sequence restart with 1");
+
+        // when
+        service.restore();
+
+        // then
+        jdbcTemplate.update(INSERT_CHANGE);
+        assertThat(jdbcTemplate.queryForObject("select max(sequence) from change_log", Long.class))
+                .isGreaterThan(lastSequence);
+    }
+
+    @Test
+    public void givenRows_whenRestore_thenFail() {
+
+        // given
+        service.write();
+        jdbcTemplate.update("insert into organization (name, deleted) values ('organization', false)");
+
+        // when
+        final Throwable thrown = catchThrowable(() -> service.restore());
+
+        // then
+        assertThat(thrown)
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void givenNoSnapshot_whenRestore_thenFail() {
+
+        // when
+        final Throwable thrown = catchThrowable(() -> service.restore());
+
+        // then
+        assertThat(thrown)
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    // PRIVATE
+
+    private void clear() {
+        jdbcTemplate.update("delete from user");
+        jdbcTemplate.update("delete from organization");
+    }
+}
@@ -0,0 +1,168 @@
+package com.backend.tasks.service.user.impl;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+
+import com.backend.tasks.model.User;
+import com.backend.tasks.service.user.UserService;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { GroupCommitUserService.class }, properties = {
+        "users.group-commit.enabled=true",
+        "users.group-commit.batch-size=3",
+        "users.group-commit.max-delay-ms=5000" })
+public class GroupCommitUserServiceTest {
+
+    @Autowired
+    UserService service;
+
+    @MockBean
+    UserServiceImpl delegateMock;
+
+    @MockBean
+    PlatformTransactionManager transactionManagerMock;
+
+    // create
+
+    @Test
+    public void givenConcurrentCreates_whenCreate_thenCommitTogether() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+        given(delegateMock.create(eq(orgId), any(User.class)))
+                .willAnswer(invocation -> User.copyOf(200L, invocation.getArgument(1)));
+
+        // when
+        final List<CompletableFuture<User>> results = createConcurrently(orgId, "user1", "user2", "user3");
+
+        // then
+        for (int i = 0; i < results.size(); i++)
+            assertThat(results.get(i).get(5, TimeUnit.SECONDS).getUsername())
+                    .isEqualTo("user" + (i + 1));
+
+        then(transactionManagerMock)
+                .should(times(1))
+                .getTransaction(any());
+
+        then(delegateMock)
+                .should(times(1))
+                .deferUserCounts();
+    }
+
+    @Test
+    public void givenRejectedCreate_whenCreate_thenFailOnlyRejectedCaller() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+        given(delegateMock.create(eq(orgId), any(User.class)))
+                .willAnswer(invocation -> {
+                    final User user = invocation.getArgument(1);
+                    if ("rejected".equals(user.getUsername()))
+                        throw new IllegalArgumentException("Organization not exists");
+                    return User.copyOf(200L, user);
+                });
+
+        // when
+        final List<CompletableFuture<User>> results = createConcurrently(orgId, "user1", "rejected", "user3");
+
+        // then
+        assertThat(results.get(0).get(5, TimeUnit.SECONDS).getUsername())
+                .isEqualTo("user1");
+
+        assertThat(catchThrowable(() -> results.get(1).join()))
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+
+        assertThat(results.get(2).get(5, TimeUnit.SECONDS).getUsername())
+                .isEqualTo("user3");
+
+        then(transactionManagerMock)
+                .should(times(1))
+                .commit(any());
+    }
+
+    @Test
+    public void givenFailingCommit_whenCreate_thenCreateOneByOne() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+        given(delegateMock.create(eq(orgId), any(User.class)))
+                .willAnswer(invocation -> User.copyOf(200L, invocation.getArgument(1)));
+        willThrow(new TransactionSystemException("commit failed"))
+                .given(transactionManagerMock)
+                .commit(any());
+
+        // when
+        final List<CompletableFuture<User>> results = createConcurrently(orgId, "user1", "user2", "user3");
+
+        // then
+        for (CompletableFuture<User> result : results)
+            assertThat(result.get(5, TimeUnit.SECONDS))
+                    .isNotNull();
+
+        then(delegateMock)
+                .should(times(6))
+                .create(eq(orgId), any(User.class));
+    }
+
+    @Test
+    public void givenNullParameter_whenCreate_thenThrowException() {
+
+        // when
+        final Throwable result1 = catchThrowable(() -> service.create(null, User.of("user", "password")));
+        final Throwable result2 = catchThrowable(() -> service.create(100L, null));
+
+        // then
+        assertThat(result1)
+                .isNotNull()
+                .isInstanceOf(NullPointerException.class);
+
+        assertThat(result2)
+                .isNotNull()
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    // delegated
+
+    @Test
+    public void givenExistingUser_whenGetSingle_thenDelegate() {
+
+        // given
+        final User user = User.of(200L, "user", "password");
+        given(delegateMock.getSingle(100L, 200L))
+                .willReturn(user);
+
+        // when
+        final User result = service.getSingle(100L, 200L);
+
+        // then
+        assertThat(result)
+                .isSameAs(user);
+    }
+
+    private List<CompletableFuture<User>> createConcurrently(Long orgId, String... usernames) {
+        // a thread per caller, as every caller waits for the shared commit
+        final ExecutorService callers = Executors.newFixedThreadPool(usernames.length);
+        final List<CompletableFuture<User>> results = new ArrayList<>();
+        for (String username : usernames)
+            results.add(CompletableFuture.supplyAsync(() -> service.create(orgId, User.of(username, "password")),
+                    callers));
+        callers.shutdown();
+        return results;
+    }
+}
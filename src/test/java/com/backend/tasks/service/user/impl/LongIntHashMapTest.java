@@ -0,0 +1,84 @@
+package com.backend.tasks.service.user.impl;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LongIntHashMapTest {
+
+    @Test
+    public void givenEntries_whenGet_thenReturnValues() {
+
+        // given
+        final LongIntHashMap map = new LongIntHashMap(4);
+        map.put(1L, 10);
+        map.put(0L, 20);
+        map.put(-5L, 30);
+
+        // when
+        final int first = map.get(1L);
+        final int zero = map.get(0L);
+        final int negative = map.get(-5L);
+        final int missing = map.get(2L);
+
+        // then
+        assertThat(new int[] { first, zero, negative, missing })
+                .containsExactly(10, 20, 30, LongIntHashMap.MISSING);
+        assertThat(map.size())
+                .isEqualTo(3);
+    }
+
+    @Test
+    public void givenEntry_whenPutAgain_thenReplaceValue() {
+
+        // given
+        final LongIntHashMap map = new LongIntHashMap(4);
+        map.put(7L, 1);
+
+        // when
+        final int previous = map.put(7L, 2);
+
+        // then
+        assertThat(previous)
+                .isEqualTo(1);
+        assertThat(map.get(7L))
+                .isEqualTo(2);
+        assertThat(map.size())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void givenRandomOperations_whenCompareWithHashMap_thenSameContent() {
+
+        // given
+        final LongIntHashMap map = new LongIntHashMap(4);
+        final Map<Long, Integer> expected = new HashMap<>();
+        final Random random = new Random(42);
+
+        // when
+        for (int i = 0; i < 100_000; i++) {
+            final long key = random.nextInt(5000) - 10; // includes the zero key and forces collisions
+            final int previous = expected.getOrDefault(key, LongIntHashMap.MISSING);
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key))
+                        .isEqualTo(previous);
+                expected.remove(key);
+            } else {
+                assertThat(map.put(key, i))
+                        .isEqualTo(previous);
+                expected.put(key, i);
+            }
+        }
+
+        // then
+        for (long key = -10; key < 4990; key++)
+            assertThat(map.get(key))
+                    .isEqualTo(expected.getOrDefault(key, LongIntHashMap.MISSING));
+        assertThat(map.size())
+                .isEqualTo(expected.size());
+    }
+}
@@ -0,0 +1,59 @@
+package com.backend.tasks.service.user.impl;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class LongSortedSetTest {
+
+    @Test
+    public void givenValues_whenAdd_thenContainOnce() {
+
+        // given
+        final LongSortedSet set = new LongSortedSet(0);
+
+        // when
+        final boolean first = set.add(5L);
+        final boolean second = set.add(5L);
+        set.add(1L);
+        set.add(9L);
+
+        // then
+        assertThat(new boolean[] { first, second })
+                .containsExactly(true, false);
+        assertThat(set.size())
+                .isEqualTo(3);
+        assertThat(set.contains(1L) && set.contains(5L) && set.contains(9L) && !set.contains(2L))
+                .isTrue();
+    }
+
+    @Test
+    public void givenRandomOperations_whenCompareWithTreeSet_thenSameContent() {
+
+        // given
+        final LongSortedSet set = new LongSortedSet(4);
+        final TreeSet<Long> expected = new TreeSet<>();
+        final Random random = new Random(42);
+
+        // when
+        for (int i = 0; i < 20_000; i++) {
+            final long value = random.nextInt(2000);
+            if (random.nextInt(3) == 0)
+                assertThat(set.remove(value))
+                        .isEqualTo(expected.remove(value));
+            else
+                assertThat(set.add(value))
+                        .isEqualTo(expected.add(value));
+        }
+
+        // then
+        for (long value = 0; value < 2000; value++)
+            assertThat(set.contains(value))
+                    .isEqualTo(expected.contains(value));
+        assertThat(set.size())
+                .isEqualTo(expected.size());
+    }
+}
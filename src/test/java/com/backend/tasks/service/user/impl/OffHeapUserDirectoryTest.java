@@ -0,0 +1,222 @@
+package com.backend.tasks.service.user.impl;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.backend.tasks.model.Change;
+
+public class OffHeapUserDirectoryTest {
+
+    private static final long ORG_ID = 100L;
+
+    private static final long OTHER_ORG_ID = 101L;
+
+    private OffHeapUserDirectory directory;
+
+    @Before
+    public void setUp() {
+        // tiny segments, so the records and names span several of them
+        directory = new OffHeapUserDirectory(4, 16, 10);
+    }
+
+    @Test
+    public void givenUsersPutOutOfOrder_whenForEach_thenVisitInIdOrder() {
+
+        // given
+        directory.put(5L, ORG_ID, "user5");
+        directory.put(1L, ORG_ID, "user1");
+        directory.put(9L, ORG_ID, "user9");
+        directory.put(3L, ORG_ID, null);
+        directory.put(2L, OTHER_ORG_ID, "other");
+
+        // when
+        final List<String> result = visit(ORG_ID);
+
+        // then
+        assertThat(result)
+                .containsExactly("1:user1", "3:null", "5:user5", "9:user9");
+        assertThat(directory.size())
+                .isEqualTo(5);
+    }
+
+    @Test
+    public void givenUser_whenContains_thenCheckOrganization() {
+
+        // given
+        directory.put(1L, ORG_ID, "user1");
+
+        // when
+        final boolean own = directory.contains(ORG_ID, 1L);
+        final boolean other = directory.contains(OTHER_ORG_ID, 1L);
+        final boolean missing = directory.contains(ORG_ID, 2L);
+
+        // then
+        assertThat(new boolean[] { own, other, missing })
+                .containsExactly(true, false, false);
+    }
+
+    @Test
+    public void givenUser_whenPutToOtherOrganization_thenMoveIt() {
+
+        // given
+        directory.put(1L, ORG_ID, "user1");
+        directory.put(2L, ORG_ID, "user2");
+
+        // when
+        directory.put(1L, OTHER_ORG_ID, "moved");
+
+        // then
+        assertThat(visit(ORG_ID))
+                .containsExactly("2:user2");
+        assertThat(visit(OTHER_ORG_ID))
+                .containsExactly("1:moved");
+    }
+
+    @Test
+    public void givenUsers_whenRemove_thenReuseRecords() {
+
+        // given
+        for (long id = 1; id <= 8; id++)
+            directory.put(id, ORG_ID, "user" + id);
+
+        // when
+        for (long id = 1; id <= 8; id += 2)
+            directory.remove(id);
+        directory.put(20L, ORG_ID, "user20");
+
+        // then
+        assertThat(visit(ORG_ID))
+                .containsExactly("2:user2", "4:user4", "6:user6", "8:user8", "20:user20");
+        assertThat(directory.contains(ORG_ID, 1L))
+                .isFalse();
+    }
+
+    @Test
+    public void givenManyRenames_whenForEach_thenCompactedNamesAreKept() {
+
+        // given
+        directory.put(1L, ORG_ID, "first");
+        directory.put(2L, ORG_ID, "second");
+
+        // when
+        for (int i = 0; i < 100; i++)
+            directory.put(2L, ORG_ID, "name" + i);
+
+        // then
+        assertThat(visit(ORG_ID))
+                .containsExactly("1:first", "2:name99");
+    }
+
+    @Test
+    public void givenOrganizations_whenRemoveOrganization_thenKeepOthers() {
+
+        // given
+        directory.put(1L, ORG_ID, "user1");
+        directory.put(2L, ORG_ID, "user2");
+        directory.put(3L, OTHER_ORG_ID, "user3");
+
+        // when
+        directory.removeOrganization(ORG_ID);
+
+        // then
+        assertThat(visit(ORG_ID))
+                .isEmpty();
+        assertThat(visit(OTHER_ORG_ID))
+                .containsExactly("3:user3");
+        assertThat(directory.size())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void givenLoadedDirectory_whenOrganizationChanged_thenRemoveDeletedOnly() {
+
+        // given
+        directory.jdbcTemplate = mock(JdbcTemplate.class);
+        directory.load();
+        directory.put(1L, ORG_ID, "user1");
+        directory.put(2L, OTHER_ORG_ID, "user2");
+
+        // when
+        directory.onChange(Change.of(ORG_ID, Change.Subject.ORGANIZATION, ORG_ID, Change.Type.UPDATED));
+        directory.onChange(Change.of(OTHER_ORG_ID, Change.Subject.ORGANIZATION, OTHER_ORG_ID, Change.Type.DELETED));
+
+        // then
+        assertThat(visit(ORG_ID))
+                .containsExactly("1:user1");
+        assertThat(visit(OTHER_ORG_ID))
+                .isEmpty();
+    }
+
+    @Test
+    public void givenUserCreatedDuringLoad_whenLoad_thenKeepUser() throws Exception {
+
+        // given
+        final JdbcTemplate jdbcTemplateMock = mock(JdbcTemplate.class);
+        final ResultSet rowMock = mock(ResultSet.class);
+        final Thread[] creator = new Thread[1];
+        directory.jdbcTemplate = jdbcTemplateMock;
+
+        given(rowMock.getLong(1))
+                .willReturn(1L);
+        given(rowMock.getLong(2))
+                .willReturn(ORG_ID);
+        given(rowMock.getString(3))
+                .willReturn("user1");
+        willAnswer(invocation -> {
+            // the User is committed after the rows were read, before the load completes
+            creator[0] = new Thread(() -> directory.put(2L, ORG_ID, "user2"));
+            creator[0].start();
+            while (creator[0].getState() != Thread.State.WAITING)
+                Thread.sleep(1L);
+            ((RowCallbackHandler) invocation.getArgument(1)).processRow(rowMock);
+            return null;
+        }).given(jdbcTemplateMock).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // when
+        directory.load();
+        creator[0].join(5000L);
+
+        // then
+        assertThat(visit(ORG_ID))
+                .containsExactly("1:user1", "2:user2");
+    }
+
+    @Test
+    public void givenUsers_whenGetAllWithFields_thenReturnProjection() {
+
+        // given
+        directory.put(1L, ORG_ID, "user1");
+        directory.put(2L, ORG_ID, "user2");
+
+        // when
+        final List<Map<String, Object>> result = directory.getAll(ORG_ID, Arrays.asList("username", "id"));
+
+        // then
+        assertThat(result)
+                .hasSize(2);
+        assertThat(result.get(0))
+                .containsExactly(entry("username", "user1"), entry("id", 1L));
+        assertThat(result.get(1))
+                .containsExactly(entry("username", "user2"), entry("id", 2L));
+    }
+
+    // PRIVATE
+
+    private List<String> visit(long organizationId) {
+        final List<String> result = new ArrayList<>();
+        directory.forEach(organizationId, true, (id, username) -> result.add(id + ":" + username));
+        return result;
+    }
+}
@@ -0,0 +1,55 @@
+package com.backend.tasks.service.user.impl;
+
+import static org.junit.Assume.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Hashing throughput at different bcrypt cost factors with a core-sized
+ * executor whose all threads are given to the batches. It's skipped unless run with -Dbenchmark=true, e.g.
+ * <code>./gradlew test --tests '*PasswordHashingServiceImplBenchmark' -Dbenchmark=true</code>
+ */
+public class PasswordHashingServiceImplBenchmark {
+
+    private static final int MIN_STRENGTH = 8;
+
+    private static final int MAX_STRENGTH = 12;
+
+    private static final long MEASURE_NANOS = TimeUnit.SECONDS.toNanos(3);
+
+    @Test
+    public void hashingThroughput() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+
+        final int threads = Runtime.getRuntime().availableProcessors();
+        for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+            final PasswordHashingServiceImpl service = new PasswordHashingServiceImpl(strength, threads, threads,
+                    threads);
+            try {
+                final List<String> batch = new ArrayList<>(threads * 2);
+                for (int i = 0; i < threads * 2; i++)
+                    batch.add("password-" + i);
+
+                service.hashAll(batch); // warm up
+
+                long hashes = 0;
+                final long start = System.nanoTime();
+                long elapsed;
+                do {
+                    hashes += service.hashAll(batch).size();
+                    elapsed = System.nanoTime() - start;
+                } while (elapsed < MEASURE_NANOS);
+
+                final double perSecond = hashes * 1e9 / elapsed;
+                System.out.printf("strength=%d threads=%d hashes/s=%.1f ms/hash/thread=%.1f%n",
+                        strength, threads, perSecond, threads * 1000 / perSecond);
+            } finally {
+                service.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.backend.tasks.service.user.impl;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.backend.tasks.service.limit.ConcurrencyLimitExceededException;
+
+public class PasswordHashingServiceImplTest {
+
+    private PasswordHashingServiceImpl service;
+
+    @After
+    public void tearDown() {
+        if (service != null)
+            service.shutdown();
+    }
+
+    @Test
+    public void givenPassword_whenHash_thenReturnBcryptHash() {
+
+        // given
+        service = new PasswordHashingServiceImpl(4, 1, 0, 0);
+
+        // when
+        final String result = service.hash("secret");
+
+        // then
+        assertThat(result)
+                .startsWith("$2a$04$");
+
+        assertThat(BCrypt.checkpw("secret", result))
+                .isTrue();
+    }
+
+    @Test
+    public void givenHash_whenMatches_thenCheckPassword() {
+
+        // given
+        service = new PasswordHashingServiceImpl(4, 1, 0, 0);
+        final String hash = service.hash("secret");
+
+        // when
+        final boolean result1 = service.matches("secret", hash);
+        final boolean result2 = service.matches("wrong", hash);
+
+        // then
+        assertThat(result1)
+                .isTrue();
+
+        assertThat(result2)
+                .isFalse();
+    }
+
+    @Test
+    public void givenNullPassword_whenHash_thenReturnNull() {
+
+        // given
+        service = new PasswordHashingServiceImpl(4, 1, 0, 0);
+
+        // when
+        final String result1 = service.hash(null);
+        final List<String> result2 = service.hashAll(Arrays.asList("secret", null));
+
+        // then
+        assertThat(result1)
+                .isNull();
+
+        assertThat(result2)
+                .hasSize(2);
+
+        assertThat(result2.get(1))
+                .isNull();
+    }
+
+    @Test
+    public void givenMorePasswordsThanPermits_whenHashAll_thenHashAllInOrder() {
+
+        // given
+        service = new PasswordHashingServiceImpl(4, 2, 1, 0);
+
+        // when
+        final List<String> result = service.hashAll(Arrays.asList("a", "b", "c", "d", "e", "f"));
+
+        // then
+        assertThat(result)
+                .hasSize(6);
+
+        assertThat(BCrypt.checkpw("a", result.get(0)))
+                .isTrue();
+
+        assertThat(BCrypt.checkpw("f", result.get(5)))
+                .isTrue();
+    }
+
+    @Test
+    public void givenSaturatedExecutor_whenHash_thenReject() throws Exception {
+
+        // given
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        service = new PasswordHashingServiceImpl(new BlockingEncoder(started, blocked, ""), 1, 0, 0);
+
+        final CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> service.hash("first"));
+        assertThat(started.await(5, TimeUnit.SECONDS))
+                .isTrue();
+
+        // when
+        final Throwable thrown = catchThrowable(() -> service.hash("second"));
+
+        // then
+        assertThat(thrown)
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+
+        blocked.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS))
+                .isEqualTo("hash:first");
+
+        assertThat(service.hash("third"))
+                .isEqualTo("hash:third");
+    }
+
+    @Test
+    public void givenRunningBatch_whenHash_thenHashOnReservedThread() throws Exception {
+
+        // given
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        service = new PasswordHashingServiceImpl(new BlockingEncoder(started, blocked, "bulk"), 2, 0, 0);
+
+        final CompletableFuture<List<String>> batch = CompletableFuture.supplyAsync(
+                () -> service.hashAll(Arrays.asList("bulk1", "bulk2", "bulk3")));
+        assertThat(started.await(5, TimeUnit.SECONDS))
+                .isTrue();
+
+        // when
+        final String result = service.hash("single");
+
+        // then
+        assertThat(result)
+                .isEqualTo("hash:single");
+
+        blocked.countDown();
+        assertThat(batch.get(5, TimeUnit.SECONDS))
+                .containsExactly("hash:bulk1", "hash:bulk2", "hash:bulk3");
+    }
+
+    // PRIVATE
+
+    private static class BlockingEncoder implements PasswordEncoder {
+
+        private final CountDownLatch started;
+
+        private final CountDownLatch blocked;
+
+        private final String blockedPrefix;
+
+        BlockingEncoder(CountDownLatch started, CountDownLatch blocked, String blockedPrefix) {
+            this.started = started;
+            this.blocked = blocked;
+            this.blockedPrefix = blockedPrefix;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (!rawPassword.toString().startsWith(blockedPrefix))
+                return "hash:" + rawPassword;
+            started.countDown();
+            try {
+                blocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    }
+}
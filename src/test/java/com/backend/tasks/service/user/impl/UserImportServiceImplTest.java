@@ -0,0 +1,170 @@
+package com.backend.tasks.service.user.impl;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.backend.tasks.model.Change;
+import com.backend.tasks.model.UserImport;
+import com.backend.tasks.repository.OrganizationRepository;
+import com.backend.tasks.service.change.ChangeLogService;
+import com.backend.tasks.service.user.PasswordHashingService;
+import com.backend.tasks.service.user.UserImportService;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = { UserImportServiceImpl.class }, properties = "users.import.chunk-size=2")
+public class UserImportServiceImplTest {
+
+    @Autowired
+    UserImportService service;
+
+    @MockBean
+    OrganizationRepository organizationRepositoryMock;
+
+    @MockBean
+    JdbcTemplate jdbcTemplateMock;
+
+    @MockBean
+    PlatformTransactionManager transactionManagerMock;
+
+    @MockBean
+    ChangeLogService changeLogServiceMock;
+
+    @MockBean
+    PasswordHashingService passwordHashingServiceMock;
+
+    // importUsers
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenValidAndInvalidRows_whenImportUsers_thenWriteChunksAndReportRejections() throws Exception {
+
+        // given
+        final Long orgId = 100L;
+        final String body = "username,password\n"
+                + "John,1\n"
+                + ",2\n"
+                + "jack,3\n"
+                + "jane,4\n";
+
+        final PreparedStatement statementMock = mock(PreparedStatement.class);
+        final ResultSet keysMock = mock(ResultSet.class);
+
+        given(organizationRepositoryMock.existsById(orgId))
+                .willReturn(true);
+        given(passwordHashingServiceMock.hashAll(anyList()))
+                .willAnswer(invocation -> ((List<String>) invocation.getArgument(0)).stream()
+                        .map(password -> "hash:" + password)
+                        .collect(Collectors.toList()));
+        given(jdbcTemplateMock.execute(any(PreparedStatementCreator.class), any(PreparedStatementCallback.class)))
+                .willAnswer(invocation -> ((PreparedStatementCallback<?>) invocation.getArgument(1))
+                        .doInPreparedStatement(statementMock));
+        given(statementMock.getGeneratedKeys())
+                .willReturn(keysMock);
+        given(keysMock.next())
+                .willReturn(true, true, false, true, false);
+        given(keysMock.getLong(1))
+                .willReturn(1L, 2L, 3L);
+
+        // when
+        final UserImport result = service.importUsers(orgId, new StringReader(body), UserImportService.Format.CSV);
+
+        // then
+        assertThat(result)
+                .isEqualTo(UserImport.of(3L, 1L, Arrays.asList(
+                        UserImport.Rejection.of(3L, "username is required"))));
+
+        then(statementMock)
+                .should(times(2))
+                .executeBatch();
+
+        then(statementMock)
+                .should(times(3))
+                .addBatch();
+
+        final ArgumentCaptor<Object> values = ArgumentCaptor.forClass(Object.class);
+        then(statementMock)
+                .should(times(12))
+                .setObject(anyInt(), values.capture());
+
+        assertThat(values.getAllValues().subList(0, 4))
+                .containsExactly(orgId, "John", "john", "hash:1");
+
+        then(changeLogServiceMock)
+                .should()
+                .append(orgId, Change.Subject.USER, 1L, Change.Type.CREATED);
+        then(changeLogServiceMock)
+                .should()
+                .append(orgId, Change.Subject.USER, 2L, Change.Type.CREATED);
+        then(changeLogServiceMock)
+                .should()
+                .append(orgId, Change.Subject.USER, 3L, Change.Type.CREATED);
+        then(changeLogServiceMock)
+                .shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    public void givenNonExistingOrganization_whenImportUsers_thenThrowException() {
+
+        // given
+        final Long orgId = 100L;
+
+        given(organizationRepositoryMock.existsById(orgId))
+                .willReturn(false);
+
+        // when
+        final Throwable result = catchThrowable(
+                () -> service.importUsers(orgId, new StringReader(""), UserImportService.Format.CSV));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(IllegalArgumentException.class);
+
+        then(jdbcTemplateMock)
+                .shouldHaveZeroInteractions();
+    }
+
+    @Test
+    public void givenNullParameter_whenImportUsers_thenThrowException() {
+
+        // when
+        final Throwable result1 = catchThrowable(
+                () -> service.importUsers(null, new StringReader(""), UserImportService.Format.CSV));
+        final Throwable result2 = catchThrowable(
+                () -> service.importUsers(100L, null, UserImportService.Format.CSV));
+        final Throwable result3 = catchThrowable(
+                () -> service.importUsers(100L, new StringReader(""), null));
+
+        // then
+        assertThat(result1)
+                .isNotNull()
+                .isInstanceOf(NullPointerException.class);
+
+        assertThat(result2)
+                .isNotNull()
+                .isInstanceOf(NullPointerException.class);
+
+        assertThat(result3)
+                .isNotNull()
+                .isInstanceOf(NullPointerException.class);
+    }
+}
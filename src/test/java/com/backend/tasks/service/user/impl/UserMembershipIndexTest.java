@@ -0,0 +1,208 @@
+package com.backend.tasks.service.user.impl;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalInt;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.backend.tasks.model.Change;
+
+public class UserMembershipIndexTest {
+
+    private static final long ORG_ID = 100L;
+
+    private UserMembershipIndex index;
+
+    private JdbcTemplate jdbcTemplateMock;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    private Runnable duringQuery = () -> {
+    };
+
+    @Before
+    public void setUp() {
+        index = new UserMembershipIndex(2, 3, 5, 10);
+        jdbcTemplateMock = mock(JdbcTemplate.class);
+        index.jdbcTemplate = jdbcTemplateMock;
+
+        willAnswer(invocation -> {
+            final RowCallbackHandler handler = invocation.getArgument(1);
+            final ResultSet rs = mock(ResultSet.class);
+            for (Long id : ids) {
+                given(rs.getLong(1))
+                        .willReturn(id);
+                handler.processRow(rs);
+            }
+            duringQuery.run();
+            return null;
+        }).given(jdbcTemplateMock).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    public void givenUsers_whenMayContainAndGetCount_thenQueryOnce() {
+
+        // given
+        ids.addAll(Arrays.asList(1L, 2L, 3L));
+
+        // when
+        final boolean member = index.mayContain(ORG_ID, 2L);
+        final boolean nonMember = index.mayContain(ORG_ID, 4L);
+        final OptionalInt count = index.getCount(ORG_ID);
+
+        // then
+        assertThat(new boolean[] { member, nonMember })
+                .containsExactly(true, false);
+        assertThat(count)
+                .hasValue(3);
+        then(jdbcTemplateMock)
+                .should(times(1))
+                .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    public void givenLoadedOrganization_whenUsersCreatedAndDeleted_thenApplyWithoutQuery() {
+
+        // given
+        ids.addAll(Arrays.asList(1L, 2L));
+        index.mayContain(ORG_ID, 1L);
+
+        // when
+        index.onChange(Change.of(ORG_ID, Change.Subject.USER, 3L, Change.Type.CREATED));
+        index.onChange(Change.of(ORG_ID, Change.Subject.USER, 1L, Change.Type.DELETED));
+
+        // then
+        assertThat(index.mayContain(ORG_ID, 3L) && !index.mayContain(ORG_ID, 1L))
+                .isTrue();
+        then(jdbcTemplateMock)
+                .should(times(1))
+                .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    public void givenLoadedOrganization_whenOrganizationUpdated_thenLoadAgain() {
+
+        // given
+        ids.add(1L);
+        index.mayContain(ORG_ID, 1L);
+        ids.add(2L); // imported
+
+        // when
+        index.onChange(Change.of(ORG_ID, Change.Subject.ORGANIZATION, ORG_ID, Change.Type.UPDATED));
+        final boolean result = index.mayContain(ORG_ID, 2L);
+
+        // then
+        assertThat(result)
+                .isTrue();
+    }
+
+    @Test
+    public void givenChangeDuringLoad_whenMayContain_thenDontKeepLoad() {
+
+        // given
+        ids.add(1L);
+        duringQuery = () -> index.onChange(Change.of(ORG_ID, Change.Subject.USER, 2L, Change.Type.CREATED));
+
+        // when
+        index.mayContain(ORG_ID, 1L);
+
+        // then
+        assertThat(index.getLoadedCount())
+                .isZero();
+    }
+
+    @Test
+    public void givenOrganizationNotLoaded_whenGetCount_thenReturnNullWithoutQuery() {
+
+        // when
+        final OptionalInt result = index.getCount(ORG_ID);
+
+        // then
+        assertThat(result)
+                .isEmpty();
+        then(jdbcTemplateMock)
+                .shouldHaveZeroInteractions();
+    }
+
+    @Test
+    public void givenMaxOrganizationsLoaded_whenLoadAnother_thenEvictLeastRecentlyUsed() {
+
+        // given
+        ids.add(1L);
+        index.mayContain(1L, 1L);
+        index.mayContain(2L, 1L);
+        index.getCount(1L);
+
+        // when
+        index.mayContain(3L, 1L);
+
+        // then
+        assertThat(index.getLoadedCount())
+                .isEqualTo(2);
+        assertThat(new OptionalInt[] { index.getCount(1L), index.getCount(2L), index.getCount(3L) })
+                .containsExactly(OptionalInt.of(1), OptionalInt.empty(), OptionalInt.of(1));
+    }
+
+    @Test
+    public void givenOrganizationWithoutUsers_whenMayContain_thenDontKeepLoad() {
+
+        // when
+        final boolean result = index.mayContain(ORG_ID, 1L);
+
+        // then
+        assertThat(result)
+                .isFalse();
+        assertThat(index.getCount(ORG_ID))
+                .isEmpty();
+    }
+
+    @Test
+    public void givenMaxUsersLoaded_whenUserCreated_thenEvictLeastRecentlyUsed() {
+
+        // given
+        ids.addAll(Arrays.asList(1L, 2L));
+        index.mayContain(1L, 1L);
+        ids.add(3L);
+        index.mayContain(2L, 1L);
+
+        // when
+        index.onChange(Change.of(2L, Change.Subject.USER, 4L, Change.Type.CREATED));
+
+        // then
+        assertThat(new OptionalInt[] { index.getCount(1L), index.getCount(2L) })
+                .containsExactly(OptionalInt.empty(), OptionalInt.of(4));
+        assertThat(index.getSize())
+                .isEqualTo(4);
+    }
+
+    @Test
+    public void givenOrganizationOverMaxUsers_whenMayContain_thenLeaveCheckToDatabase() {
+
+        // given
+        ids.addAll(Arrays.asList(1L, 2L, 3L, 4L));
+
+        // when
+        final boolean result = index.mayContain(ORG_ID, 5L);
+
+        // then
+        assertThat(result)
+                .isTrue();
+        assertThat(index.getCount(ORG_ID))
+                .isEmpty();
+        assertThat(index.getSize())
+                .isZero();
+        then(jdbcTemplateMock)
+                .should(times(1))
+                .query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+}
@@ -0,0 +1,123 @@
+package com.backend.tasks.service.user.impl;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.backend.tasks.service.user.UserImportService;
+
+public class UserRowReaderTest {
+
+    @Test
+    public void givenCsvWithHeader_whenNext_thenReadColumnsByHeader() throws IOException {
+
+        // given
+        final String body = "password,username\r\n"
+                + "secret,john\r\n"
+                + "\r\n"
+                + "\"se,cr\"\"et\",\"multi\nline\"\r\n";
+
+        // when
+        final List<UserRowReader.Row> result = readAll(UserImportService.Format.CSV, body);
+
+        // then
+        assertThat(result)
+                .extracting("line", "username", "password", "error")
+                .containsExactly(
+                        tuple(2L, "john", "secret", null),
+                        tuple(4L, "multi\nline", "se,cr\"et", null));
+    }
+
+    @Test
+    public void givenCsvWithoutHeader_whenNext_thenReadUsernameAndPassword() throws IOException {
+
+        // given
+        final String body = "john,secret\n"
+                + "jack\n"
+                + "\"jane,unterminated\n";
+
+        // when
+        final List<UserRowReader.Row> result = readAll(UserImportService.Format.CSV, body);
+
+        // then
+        assertThat(result)
+                .extracting("line", "username", "password", "error")
+                .containsExactly(
+                        tuple(1L, "john", "secret", null),
+                        tuple(2L, null, null, "2 columns expected"),
+                        tuple(3L, null, null, "unterminated quoted field"));
+    }
+
+    @Test
+    public void givenNdjson_whenNext_thenReadObjects() throws IOException {
+
+        // given
+        final String body = "{\"username\":\"john\",\"password\":\"secret\"}\n"
+                + "\n"
+                + "{\"username\":\"jack\"\n"
+                + "[1,2]\n"
+                + "{\"username\":\"jane\",\"extra\":1}\n";
+
+        // when
+        final List<UserRowReader.Row> result = readAll(UserImportService.Format.NDJSON, body);
+
+        // then
+        assertThat(result)
+                .extracting("line", "username", "password", "error")
+                .containsExactly(
+                        tuple(1L, "john", "secret", null),
+                        tuple(3L, null, null, "malformed JSON"),
+                        tuple(4L, null, null, "JSON object expected"),
+                        tuple(5L, "jane", null, null));
+    }
+
+    @Test
+    public void givenLineOverMaxRecordLength_whenNext_thenRejectRowAndContinue() throws IOException {
+
+        // given
+        final String longLine = String.join("", Collections.nCopies(UserRowReader.MAX_RECORD_LENGTH + 1, "x"));
+
+        {
+            // when
+            final List<UserRowReader.Row> result = readAll(UserImportService.Format.CSV,
+                    longLine + "\r\njohn,secret\r\n");
+
+            // then
+            assertThat(result)
+                    .extracting("line", "username", "password", "error")
+                    .containsExactly(
+                            tuple(1L, null, null, "record is too long"),
+                            tuple(2L, "john", "secret", null));
+        }
+
+        {
+            // when
+            final List<UserRowReader.Row> result = readAll(UserImportService.Format.NDJSON,
+                    longLine + "\n{\"username\":\"john\"}");
+
+            // then
+            assertThat(result)
+                    .extracting("line", "username", "password", "error")
+                    .containsExactly(
+                            tuple(1L, null, null, "record is too long"),
+                            tuple(2L, "john", null, null));
+        }
+    }
+
+    private static List<UserRowReader.Row> readAll(UserImportService.Format format, String body)
+            throws IOException {
+        final List<UserRowReader.Row> result = new ArrayList<>();
+        try (UserRowReader reader = UserRowReader.of(format, new StringReader(body))) {
+            UserRowReader.Row row;
+            while ((row = reader.next()) != null)
+                result.add(row);
+        }
+        return result;
+    }
+}
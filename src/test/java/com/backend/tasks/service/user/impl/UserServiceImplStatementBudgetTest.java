@@ -0,0 +1,188 @@
+package com.backend.tasks.service.user.impl;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.tasks.jdbc.StatementCounter;
+import com.backend.tasks.model.Organization;
+import com.backend.tasks.model.User;
+import com.backend.tasks.service.org.OrganizationService;
+import com.backend.tasks.service.user.UserService;
+
+/**
+ * Statement budgets of {@link UserServiceImpl} against the database, so N+1
+ * selects and redundant lookups fail the build
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class UserServiceImplStatementBudgetTest {
+
+    @Autowired
+    UserService service;
+
+    @Autowired
+    UserServiceImpl serviceImpl;
+
+    @Autowired
+    OrganizationService organizationService;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private Organization organization;
+
+    private List<User> users;
+
+    private StatementCounter counter;
+
+    @Before
+    public void setUp() {
+        organization = organizationService.create(Organization.of("budget"));
+        users = Arrays.asList(
+                service.create(organization.getId(), User.of("user1", "hash")),
+                service.create(organization.getId(), User.of("user2", "hash")),
+                service.create(organization.getId(), User.of("user3", "hash")));
+        counter = StatementCounter.attachToCurrentThread(dataSource);
+    }
+
+    @After
+    public void tearDown() {
+        counter.close();
+    }
+
+    @Test
+    public void givenUsers_whenGetAllAndRead_thenSelectOrganizationAndUsersOnce() {
+
+        // when
+        final List<String> usernames = new TransactionTemplate(transactionManager).execute(status -> {
+            final List<String> result = new ArrayList<>();
+            for (User user : service.getAll(organization.getId()))
+                result.add(user.getUsername());
+            return result;
+        });
+
+        // then
+        assertThat(usernames)
+                .containsExactlyInAnyOrder("user1", "user2", "user3");
+
+        counter.assertBudget(2, 0, 0, 0);
+    }
+
+    @Test
+    public void givenOrganization_whenCreate_thenSelectOrganizationOnce() {
+
+        // when
+        service.create(organization.getId(), User.of("user4", "hash"));
+
+        // then
+        // the user count of the organization is adjusted by a bulk update
+        counter.assertBudget(1, 2, 1, 0);
+    }
+
+    @Test
+    public void givenDeferredUserCounts_whenCreateInOneTransaction_thenUpdateCountOnce() {
+
+        // when
+        new TransactionTemplate(transactionManager).execute(status -> {
+            serviceImpl.deferUserCounts();
+            for (int i = 4; i <= 6; i++)
+                serviceImpl.create(organization.getId(), User.of("user" + i, "hash"));
+            return null;
+        });
+
+        // then
+        assertThat(organizationService.getSingle(organization.getId()).getUserCount())
+                .isEqualTo(6);
+
+        counter.assertBudget(2, 6, 1, 0);
+    }
+
+    @Test
+    public void givenUserWithId_whenCreate_thenLookUpIdTwice() {
+
+        // when
+        service.create(organization.getId(), User.of(Long.MAX_VALUE, "user5", "hash"));
+
+        // then
+        // existsById and then the merge of the detached user look the id up again
+        counter.assertBudget(3, 2, 1, 0);
+    }
+
+    @Test
+    public void givenUsers_whenGetSingle_thenLoadIndexOnceAndSelectEach() {
+
+        // when
+        service.getSingle(organization.getId(), users.get(0).getId());
+        service.getSingle(organization.getId(), users.get(1).getId());
+
+        // then
+        // the membership of the organization is loaded by the first check only
+        counter.assertBudget(3, 0, 0, 0);
+    }
+
+    @Test
+    public void givenIndexedOrganization_whenGetSingleOfOtherUser_thenDontSelect() {
+
+        // given
+        service.getSingle(organization.getId(), users.get(0).getId());
+        counter.reset();
+
+        // when
+        final Throwable result = catchThrowable(() -> service.getSingle(organization.getId(), Long.MAX_VALUE));
+
+        // then
+        assertThat(result)
+                .isInstanceOf(IllegalArgumentException.class);
+
+        counter.assertBudget(0, 0, 0, 0);
+    }
+
+    @Test
+    public void givenUser_whenUpdate_thenSelectOnceAndUpdateOnce() {
+
+        // when
+        service.update(organization.getId(), users.get(0).getId(), User.of("renamed", null));
+
+        // then
+        counter.assertBudget(1, 1, 1, 0);
+    }
+
+    @Test
+    public void givenUser_whenDelete_thenSelectOnceAndDeleteOnce() {
+
+        // when
+        service.delete(organization.getId(), users.get(0).getId());
+
+        // then
+        counter.assertBudget(1, 1, 1, 1);
+    }
+
+    @Test
+    public void givenUsers_whenGetMultiple_thenCheckOrganizationAndSelectUsersOnce() {
+
+        // when
+        service.getMultiple(organization.getId(), Arrays.asList(users.get(0).getId(), users.get(1).getId()));
+
+        // then
+        // existence check, users and their eagerly fetched organization
+        counter.assertBudget(3, 0, 0, 0);
+    }
+}
@@ -3,19 +3,31 @@ package com.backend.tasks.service.user.impl;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.BDDMockito.*;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
 
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.backend.tasks.model.Change;
 import com.backend.tasks.model.Organization;
 import com.backend.tasks.model.User;
+import com.backend.tasks.model.UserLookup;
 import com.backend.tasks.repository.OrganizationRepository;
 import com.backend.tasks.repository.UserRepository;
+import com.backend.tasks.service.change.ChangeLogService;
 import com.backend.tasks.service.user.UserService;
 
 @RunWith(SpringRunner.class)
@@ -31,6 +43,21 @@ public class UserServiceImplTest {
     @MockBean
     OrganizationRepository organizationRepositoryMock;
 
+    @MockBean
+    ChangeLogService changeLogServiceMock;
+
+    @MockBean
+    OffHeapUserDirectory directoryMock;
+
+    @MockBean
+    UserMembershipIndex membershipIndexMock;
+
+    @Before
+    public void setUp() {
+        given(membershipIndexMock.mayContain(anyLong(), anyLong()))
+                .willReturn(true);
+    }
+
     @Test
     public void givenNonExistingAll_whenGetAll_thenThrowException() {
 
@@ -56,16 +83,46 @@ public class UserServiceImplTest {
         final User user1 = User.of(200L, "user1", "+++", org);
         final User user2 = User.of(300L, "user2", "---", org);
 
-        given(organizationRepositoryMock.findById(orgId))
-                .willReturn(Optional.of(org));
+        given(organizationRepositoryMock.existsById(orgId))
+                .willReturn(true);
+        given(userRepositoryMock.findAllByOrganizationId(orgId))
+                .willReturn(Arrays.asList(user1, user2));
+
+        // when
+        final Iterable<User> result = service.getAll(orgId);
+
+        // then
+        assertThat(result)
+                .containsExactly(user1, user2);
+    }
+
+    @Test
+    public void givenLoadedDirectory_whenGetAll_thenReturnUsersFromDirectory() {
+
+        // given
+        final Long orgId = 100L;
+
+        given(organizationRepositoryMock.existsById(orgId))
+                .willReturn(true);
+        given(directoryMock.isLoaded())
+                .willReturn(true);
+        willAnswer(invocation -> {
+            final OffHeapUserDirectory.Visitor visitor = invocation.getArgument(2);
+            visitor.visit(200L, "user1");
+            visitor.visit(300L, "user2");
+            return null;
+        }).given(directoryMock).forEach(eq(orgId), eq(true), any(OffHeapUserDirectory.Visitor.class));
 
         // when
         final Iterable<User> result = service.getAll(orgId);
 
         // then
         assertThat(result)
-                .contains(user1, user2)
-                .isNotNull();
+                .extracting(User::getId, User::getUsername)
+                .containsExactly(tuple(200L, "user1"), tuple(300L, "user2"));
+
+        then(userRepositoryMock)
+                .shouldHaveZeroInteractions();
     }
 
     @Test
@@ -83,6 +140,45 @@ public class UserServiceImplTest {
                 .isInstanceOf(NullPointerException.class);
     }
 
+    // getAll with fields
+
+    @Test
+    public void givenExistingAll_whenGetAllWithFields_thenReturnProjection() {
+
+        // given
+        final Long orgId = 100L;
+        final Set<String> fields = new LinkedHashSet<>(Arrays.asList("id", "username"));
+        final Map<String, Object> row = Collections.singletonMap("id", 200L);
+
+        given(organizationRepositoryMock.existsById(orgId))
+                .willReturn(true);
+
+        given(userRepositoryMock.findFieldsByOrganizationId(orgId, fields))
+                .willReturn(Arrays.asList(row));
+
+        // when
+        final Iterable<Map<String, Object>> result = service.getAll(orgId, fields);
+
+        // then
+        assertThat(result)
+                .containsExactly(row);
+    }
+
+    @Test
+    public void givenNonExistingAll_whenGetAllWithFields_thenThrowException() {
+
+        // given
+        final Long orgId = 100L;
+
+        // when
+        final Throwable result = catchThrowable(() -> service.getAll(orgId, Collections.singleton("id")));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     // create
 
     @Test
@@ -109,6 +205,14 @@ public class UserServiceImplTest {
         assertThat(result)
                 .isNotNull()
                 .isEqualTo(createdUser);
+
+        then(organizationRepositoryMock)
+                .should()
+                .addUserCount(orgId, 1);
+
+        then(changeLogServiceMock)
+                .should()
+                .append(orgId, Change.Subject.USER, userId, Change.Type.CREATED);
     }
 
     @Test
@@ -216,6 +320,36 @@ public class UserServiceImplTest {
         assertThat(result)
                 .isNotNull()
                 .isEqualTo(updatedUser);
+
+        then(changeLogServiceMock)
+                .should()
+                .append(orgId, Change.Subject.USER, userId, Change.Type.UPDATED);
+    }
+
+    @Test
+    public void givenNoPassword_whenUpdate_thenKeepPassword() {
+
+        // given
+        final Long orgId = 100L;
+        final Organization org = Organization.of(orgId, "Organization 1");
+        final Long userId = 100L;
+
+        final User originUser = User.of(userId, "user.name.1", "hash", org);
+
+        given(userRepositoryMock.findById(userId))
+                .willReturn(Optional.of(originUser));
+
+        final User updatingUser = User.of("user.name.2", null);
+
+        given(userRepositoryMock.save(updatingUser))
+                .willReturn(updatingUser);
+
+        // when
+        final User result = service.update(orgId, userId, updatingUser);
+
+        // then
+        assertThat(result.getPassword())
+                .isEqualTo("hash");
     }
 
     @Test
@@ -305,6 +439,14 @@ public class UserServiceImplTest {
         then(userRepositoryMock)
                 .should()
                 .delete(originUser);
+
+        then(organizationRepositoryMock)
+                .should()
+                .addUserCount(orgId, -1);
+
+        then(changeLogServiceMock)
+                .should()
+                .append(orgId, Change.Subject.USER, userId, Change.Type.DELETED);
     }
 
     @Test
@@ -321,6 +463,9 @@ public class UserServiceImplTest {
         assertThat(result)
                 .isNotNull()
                 .isInstanceOf(IllegalArgumentException.class);
+
+        then(changeLogServiceMock)
+                .shouldHaveZeroInteractions();
     }
 
     // getSingle
@@ -346,6 +491,46 @@ public class UserServiceImplTest {
                 .isEqualTo(user);
     }
 
+    @Test
+    public void givenExistingAll_whenGetSingleWithFields_thenReturnProjection() {
+
+        // given
+        final Long orgId = 100L;
+        final Long userId = 200L;
+        final Set<String> fields = Collections.singleton("username");
+        final Map<String, Object> row = Collections.singletonMap("username", "user1");
+
+        given(userRepositoryMock.findFieldsByOrganizationIdAndId(orgId, userId, fields))
+                .willReturn(Optional.of(row));
+
+        // when
+        final Map<String, Object> result = service.getSingle(orgId, userId, fields);
+
+        // then
+        assertThat(result)
+                .isEqualTo(row);
+    }
+
+    @Test
+    public void givenNonExistingAll_whenGetSingleWithFields_thenThrowException() {
+
+        // given
+        final Long orgId = 100L;
+        final Long userId = 200L;
+
+        given(userRepositoryMock.findFieldsByOrganizationIdAndId(eq(orgId), eq(userId), anyCollection()))
+                .willReturn(Optional.empty());
+
+        // when
+        final Throwable result = catchThrowable(
+                () -> service.getSingle(orgId, userId, Collections.singleton("username")));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     public void givenNonExistingAll_whenGetSingle_thenThrowException() {
 
@@ -362,6 +547,52 @@ public class UserServiceImplTest {
                 .isInstanceOf(IllegalArgumentException.class);
     }
 
+    @Test
+    public void givenIndexWithoutUser_whenGetSingle_thenThrowExceptionWithoutQuery() {
+
+        // given
+        final Long orgId = 100L;
+        final Long userId = 200L;
+
+        given(membershipIndexMock.mayContain(orgId, userId))
+                .willReturn(false);
+
+        // when
+        final Throwable result = catchThrowable(() -> service.getSingle(orgId, userId));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(IllegalArgumentException.class);
+
+        then(userRepositoryMock)
+                .shouldHaveZeroInteractions();
+    }
+
+    @Test
+    public void givenLoadedDirectoryWithoutUser_whenGetSingle_thenThrowExceptionWithoutQuery() {
+
+        // given
+        final Long orgId = 100L;
+        final Long userId = 200L;
+
+        given(directoryMock.isLoaded())
+                .willReturn(true);
+        given(directoryMock.contains(orgId, userId))
+                .willReturn(false);
+
+        // when
+        final Throwable result = catchThrowable(() -> service.getSingle(orgId, userId));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(IllegalArgumentException.class);
+
+        then(userRepositoryMock)
+                .shouldHaveZeroInteractions();
+    }
+
     @Test
     public void givenNullParameter_whenGetSingle_thenThrowException() {
 
@@ -395,4 +626,159 @@ public class UserServiceImplTest {
 
     }
 
-}
\ No newline at end of file
+    // search
+
+    @Test
+    public void givenExistingAll_whenSearch_thenReturnPageByEscapedLowerCasePattern() {
+
+        // given
+        final Long orgId = 100L;
+        final Organization org = Organization.of(orgId, "Organization 1");
+        final User user1 = User.of(200L, "John_Doe%", "+++", org);
+
+        given(organizationRepositoryMock.existsById(orgId))
+                .willReturn(true);
+
+        given(userRepositoryMock.findByOrganizationIdAndUsernameKeyLike(orgId, "john\\_doe\\%%",
+                PageRequest.of(2, 10)))
+                .willReturn(new SliceImpl<>(Arrays.asList(user1)));
+
+        // when
+        final List<User> result = service.search(orgId, "JOHN_Doe%", 2, 10);
+
+        // then
+        assertThat(result)
+                .containsExactly(user1);
+    }
+
+    @Test
+    public void givenNonExistingAll_whenSearch_thenThrowException() {
+
+        // given
+        final Long orgId = 100L;
+
+        // when
+        final Throwable result = catchThrowable(() -> service.search(orgId, "jo", 0, 10));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void givenNullParameter_whenSearch_thenThrowException() {
+
+        // given
+        final Long orgId = 100L;
+
+        // when
+        final Throwable result = catchThrowable(() -> service.search(orgId, null, 0, 10));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    // getMultiple
+
+    @Test
+    public void givenExistingAll_whenGetMultiple_thenReturnFoundInRequestedOrderAndMissing() {
+
+        // given
+        final Long orgId = 100L;
+        final Organization org = Organization.of(orgId, "Organization 1");
+
+        final User user1 = User.of(200L, "user1", "+++", org);
+        final User user2 = User.of(300L, "user2", "---", org);
+
+        given(organizationRepositoryMock.existsById(orgId))
+                .willReturn(true);
+
+        given(userRepositoryMock.findAllByOrganizationIdAndIdIn(eq(orgId), anyCollection()))
+                .willReturn(Arrays.asList(user1, user2));
+
+        // when
+        final UserLookup result = service.getMultiple(orgId, Arrays.asList(300L, 400L, 200L, 300L));
+
+        // then
+        assertThat(result.getUsers())
+                .containsExactly(user2, user1);
+
+        assertThat(result.getMissing())
+                .containsExactly(400L);
+
+        then(userRepositoryMock)
+                .should(times(1))
+                .findAllByOrganizationIdAndIdIn(orgId, new LinkedHashSet<>(Arrays.asList(300L, 400L, 200L)));
+    }
+
+    @Test
+    public void givenEmptyIds_whenGetMultiple_thenReturnEmptyWithoutQuery() {
+
+        // given
+        final Long orgId = 100L;
+
+        given(organizationRepositoryMock.existsById(orgId))
+                .willReturn(true);
+
+        // when
+        final UserLookup result = service.getMultiple(orgId, Collections.emptyList());
+
+        // then
+        assertThat(result.getUsers())
+                .isEmpty();
+
+        assertThat(result.getMissing())
+                .isEmpty();
+
+        then(userRepositoryMock)
+                .shouldHaveZeroInteractions();
+    }
+
+    @Test
+    public void givenNonExistingOrganization_whenGetMultiple_thenThrowException() {
+
+        // given
+        final Long orgId = 100L;
+
+        // when
+        final Throwable result = catchThrowable(() -> service.getMultiple(orgId, Arrays.asList(200L)));
+
+        // then
+        assertThat(result)
+                .isNotNull()
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void givenNullParameter_whenGetMultiple_thenThrowException() {
+
+        {
+            // given
+            final Long orgId = null;
+
+            // when
+            final Throwable result = catchThrowable(() -> service.getMultiple(orgId, Arrays.asList(200L)));
+
+            // then
+            assertThat(result)
+                    .isNotNull()
+                    .isInstanceOf(NullPointerException.class);
+        }
+
+        {
+            // given
+            final Long orgId = 100L;
+
+            // when
+            final Throwable result = catchThrowable(() -> service.getMultiple(orgId, null));
+
+            // then
+            assertThat(result)
+                    .isNotNull()
+                    .isInstanceOf(NullPointerException.class);
+        }
+    }
+}
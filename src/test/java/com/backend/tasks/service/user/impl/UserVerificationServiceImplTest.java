@@ -0,0 +1,178 @@
+package com.backend.tasks.service.user.impl;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.backend.tasks.model.Change;
+import com.backend.tasks.model.User;
+import com.backend.tasks.service.user.PasswordHashingService;
+import com.backend.tasks.service.user.UserService;
+
+public class UserVerificationServiceImplTest {
+
+    private static final Long ORG_ID = 100L;
+
+    private static final Long USER_ID = 200L;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private UserVerificationServiceImpl service;
+
+    private UserService userServiceMock;
+
+    private PasswordHashingService passwordHashingServiceMock;
+
+    @Before
+    public void setUp() {
+        service = new UserVerificationServiceImpl(1000, 10, now::get);
+        userServiceMock = mock(UserService.class);
+        passwordHashingServiceMock = mock(PasswordHashingService.class);
+        service.userService = userServiceMock;
+        service.passwordHashingService = passwordHashingServiceMock;
+
+        given(userServiceMock.getSingle(ORG_ID, USER_ID))
+                .willReturn(User.of(USER_ID, "user", "hash"));
+        given(passwordHashingServiceMock.matches("secret", "hash"))
+                .willReturn(true);
+    }
+
+    @Test
+    public void givenVerifiedPassword_whenVerifyAgain_thenSkipHashing() {
+
+        // given
+        service.verify(ORG_ID, USER_ID, "secret");
+
+        // when
+        final boolean result = service.verify(ORG_ID, USER_ID, "secret");
+
+        // then
+        assertThat(result)
+                .isTrue();
+
+        then(passwordHashingServiceMock)
+                .should(times(1))
+                .matches("secret", "hash");
+    }
+
+    @Test
+    public void givenVerifiedPassword_whenVerifyOtherPassword_thenCheckAndReject() {
+
+        // given
+        service.verify(ORG_ID, USER_ID, "secret");
+
+        // when
+        final boolean result = service.verify(ORG_ID, USER_ID, "wrong");
+
+        // then
+        assertThat(result)
+                .isFalse();
+
+        then(passwordHashingServiceMock)
+                .should()
+                .matches("wrong", "hash");
+    }
+
+    @Test
+    public void givenWrongPassword_whenVerify_thenNotCache() {
+
+        // when
+        final boolean result = service.verify(ORG_ID, USER_ID, "wrong");
+
+        // then
+        assertThat(result)
+                .isFalse();
+
+        assertThat(service.getCachedCount())
+                .isZero();
+    }
+
+    @Test
+    public void givenVerifiedPassword_whenUserUpdated_thenCheckAgain() {
+
+        // given
+        service.verify(ORG_ID, USER_ID, "secret");
+
+        // when
+        service.onChange(Change.of(1L, ORG_ID, Change.Subject.USER, USER_ID, Change.Type.UPDATED));
+        service.verify(ORG_ID, USER_ID, "secret");
+
+        // then
+        then(passwordHashingServiceMock)
+                .should(times(2))
+                .matches("secret", "hash");
+    }
+
+    @Test
+    public void givenVerifiedPassword_whenHashChanged_thenCheckAgainstNewHash() {
+
+        // given
+        service.verify(ORG_ID, USER_ID, "secret");
+
+        given(userServiceMock.getSingle(ORG_ID, USER_ID))
+                .willReturn(User.of(USER_ID, "user", "new-hash"));
+
+        // when
+        final boolean result = service.verify(ORG_ID, USER_ID, "secret");
+
+        // then
+        assertThat(result)
+                .isFalse();
+
+        then(passwordHashingServiceMock)
+                .should()
+                .matches("secret", "new-hash");
+    }
+
+    @Test
+    public void givenExpiredVerification_whenVerify_thenCheckAgain() {
+
+        // given
+        service.verify(ORG_ID, USER_ID, "secret");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // when
+        service.verify(ORG_ID, USER_ID, "secret");
+
+        // then
+        then(passwordHashingServiceMock)
+                .should(times(2))
+                .matches("secret", "hash");
+    }
+
+    @Test
+    public void givenUserWithoutPassword_whenVerify_thenReject() {
+
+        // given
+        given(userServiceMock.getSingle(ORG_ID, USER_ID))
+                .willReturn(User.of(USER_ID, "user", null));
+
+        // when
+        final boolean result = service.verify(ORG_ID, USER_ID, "secret");
+
+        // then
+        assertThat(result)
+                .isFalse();
+
+        then(passwordHashingServiceMock)
+                .shouldHaveZeroInteractions();
+    }
+
+    @Test
+    public void givenNullParameter_whenVerify_thenThrowException() {
+
+        // when
+        final Throwable result1 = catchThrowable(() -> service.verify(null, USER_ID, "secret"));
+        final Throwable result2 = catchThrowable(() -> service.verify(ORG_ID, null, "secret"));
+        final Throwable result3 = catchThrowable(() -> service.verify(ORG_ID, USER_ID, null));
+
+        // then
+        assertThat(new Throwable[] { result1, result2, result3 })
+                .allSatisfy(thrown -> assertThat(thrown).isInstanceOf(NullPointerException.class));
+    }
+}
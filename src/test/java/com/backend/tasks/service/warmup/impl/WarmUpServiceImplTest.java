@@ -0,0 +1,141 @@
+package com.backend.tasks.service.warmup.impl;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.backend.tasks.model.Organization;
+import com.backend.tasks.model.Readiness;
+import com.backend.tasks.model.User;
+import com.backend.tasks.repository.OrganizationRepository;
+import com.backend.tasks.service.org.OrganizationService;
+import com.backend.tasks.service.user.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class WarmUpServiceImplTest {
+
+    private static final Long ORG_ID = 100L;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private OrganizationService organizationServiceMock;
+
+    private UserService userServiceMock;
+
+    @Before
+    public void setUp() {
+        organizationServiceMock = mock(OrganizationService.class);
+        userServiceMock = mock(UserService.class);
+
+        given(organizationServiceMock.getAll())
+                .willReturn(Arrays.asList(Organization.of(ORG_ID, "organization")));
+        given(organizationServiceMock.getSingle(ORG_ID))
+                .willReturn(Organization.of(ORG_ID, "organization"));
+        given(userServiceMock.getAll(ORG_ID))
+                .willAnswer(invocation -> {
+                    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(10)); // every round takes 10 ms
+                    return Arrays.asList(User.of(200L, "user", null));
+                });
+    }
+
+    @Test
+    public void givenDisabled_whenGetReadiness_thenReady() {
+
+        // given
+        final WarmUpServiceImpl service = service(false, 1000);
+
+        // when
+        final Readiness result = service.getReadiness();
+
+        // then
+        assertThat(result)
+                .isEqualTo(Readiness.ready());
+    }
+
+    @Test
+    public void givenEnabled_whenGetReadinessBeforeWarmUp_thenWarmingUp() {
+
+        // given
+        final WarmUpServiceImpl service = service(true, 1000);
+
+        // when
+        final Readiness result = service.getReadiness();
+
+        // then
+        assertThat(result)
+                .isEqualTo(Readiness.warmingUp());
+    }
+
+    @Test
+    public void givenSteadyRounds_whenWarmUp_thenReadyAfterMinRounds() {
+
+        // given
+        final WarmUpServiceImpl service = service(true, 1000);
+
+        // when
+        service.warmUp();
+
+        // then
+        assertThat(service.getReadiness())
+                .isEqualTo(Readiness.of(Readiness.Status.READY, 5, 10_000L));
+
+        then(userServiceMock)
+                .should(times(5))
+                .getAll(ORG_ID);
+    }
+
+    @Test
+    public void givenTimeout_whenWarmUp_thenReadyAfterTimeout() {
+
+        // given
+        final WarmUpServiceImpl service = service(true, 25);
+
+        // when
+        service.warmUp();
+
+        // then
+        assertThat(service.getReadiness())
+                .isEqualTo(Readiness.of(Readiness.Status.READY, 3, 10_000L));
+    }
+
+    @Test
+    public void givenFailure_whenWarmUp_thenReady() {
+
+        // given
+        final WarmUpServiceImpl service = service(true, 1000);
+        given(organizationServiceMock.getAll())
+                .willThrow(new IllegalStateException("failure"));
+
+        // when
+        service.warmUp();
+
+        // then
+        assertThat(service.getReadiness())
+                .isEqualTo(Readiness.of(Readiness.Status.READY, 0, 0L));
+    }
+
+    // PRIVATE
+
+    private WarmUpServiceImpl service(boolean enabled, long timeoutMillis) {
+        final WarmUpServiceImpl result = new WarmUpServiceImpl(enabled, 10, 5, 200, 3, 0.1, timeoutMillis, now::get);
+        result.organizationService = organizationServiceMock;
+        result.userService = userServiceMock;
+        result.organizationRepository = mock(OrganizationRepository.class);
+        result.transactionManager = mock(PlatformTransactionManager.class);
+        result.objectMapper = new ObjectMapper();
+
+        given(result.organizationRepository.findLargestIds(any(Pageable.class)))
+                .willReturn(Collections.singletonList(ORG_ID));
+        return result;
+    }
+}
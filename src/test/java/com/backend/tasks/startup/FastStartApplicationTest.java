@@ -0,0 +1,68 @@
+package com.backend.tasks.startup;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.backend.tasks.model.Organization;
+import com.backend.tasks.model.User;
+
+/**
+ * Boots the fast-start profile with Hibernate validating the entities against
+ * the prepared schema script
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.hibernate.ddl-auto=validate")
+@ActiveProfiles("fast-start")
+public class FastStartApplicationTest {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    ConfigurableApplicationContext context;
+
+    @Test
+    public void givenFastStartProfile_whenRequests_thenServicesAreCreatedOnDemand() {
+
+        // given
+        assertThat(context.getBeanFactory().containsSingleton("exportServiceImpl"))
+                .isFalse();
+
+        // when
+        final ResponseEntity<Organization> organization = restTemplate.postForEntity("/orgs",
+                Organization.of("organization"), Organization.class);
+        final Map<String, String> user = new HashMap<>();
+        user.put("username", "user");
+        user.put("password", "secret");
+        final ResponseEntity<User> created = restTemplate.postForEntity("/orgs/{orgId}/users", user, User.class,
+                organization.getBody().getId());
+        final ResponseEntity<User> found = restTemplate.getForEntity("/orgs/{orgId}/users/{userId}", User.class,
+                organization.getBody().getId(), created.getBody().getId());
+
+        // then
+        assertThat(organization.getStatusCode())
+                .isEqualTo(HttpStatus.CREATED);
+        assertThat(found.getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+        assertThat(found.getBody().getUsername())
+                .isEqualTo("user");
+        assertThat(context.getBeanFactory().containsSingleton("exportServiceImpl"))
+                .isFalse();
+        assertThat(context.getBeanFactory().containsSingleton("userController"))
+                .isTrue();
+    }
+}
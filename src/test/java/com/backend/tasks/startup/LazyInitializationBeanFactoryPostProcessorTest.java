@@ -0,0 +1,31 @@
+package com.backend.tasks.startup;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+public class LazyInitializationBeanFactoryPostProcessorTest {
+
+    @Test
+    public void givenBeanDefinitions_whenPostProcess_thenApplicationBeansAreLazy() {
+
+        // given
+        final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("application", new RootBeanDefinition(Object.class));
+        final RootBeanDefinition infrastructure = new RootBeanDefinition(Object.class);
+        infrastructure.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+        beanFactory.registerBeanDefinition("infrastructure", infrastructure);
+
+        // when
+        new LazyInitializationBeanFactoryPostProcessor().postProcessBeanFactory(beanFactory);
+
+        // then
+        assertThat(beanFactory.getBeanDefinition("application").isLazyInit())
+                .isTrue();
+        assertThat(beanFactory.getBeanDefinition("infrastructure").isLazyInit())
+                .isFalse();
+    }
+}
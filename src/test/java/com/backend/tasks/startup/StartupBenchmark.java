@@ -0,0 +1,86 @@
+package com.backend.tasks.startup;
+
+import static org.junit.Assume.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.backend.tasks.Application;
+
+/**
+ * Time from launching the application in a new JVM until it answers the first
+ * request, with the default and the fast-start profiles. It's skipped unless
+ * run with -Dbenchmark=true, e.g.
+ * <code>./gradlew test --tests '*StartupBenchmark' -Dbenchmark=true</code>
+ */
+public class StartupBenchmark {
+
+    private static final int RUNS = 5;
+
+    private static final long TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    @Test
+    public void startupToFirstRequest() throws Exception {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+
+        for (String profile : new String[] { "default", "fast-start" }) {
+            final long[] millis = new long[RUNS];
+            for (int run = 0; run < RUNS; run++)
+                millis[run] = startupToFirstRequestMillis(profile);
+            Arrays.sort(millis);
+            System.out.printf("profile=%s runs=%d min=%d ms median=%d ms max=%d ms%n",
+                    profile, RUNS, millis[0], millis[RUNS / 2], millis[RUNS - 1]);
+        }
+    }
+
+    // PRIVATE
+
+    private static long startupToFirstRequestMillis(String profile) throws Exception {
+        final int port = freePort();
+        final String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        final Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                Application.class.getName(), "--server.port=" + port, "--spring.profiles.active=" + profile)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(new File(System.getProperty("java.io.tmpdir"),
+                        "startup-benchmark.log")))
+                .start();
+        final long start = System.nanoTime();
+        try {
+            final URL url = new URL("http://localhost:" + port + "/orgs");
+            while (System.nanoTime() - start < TIMEOUT_NANOS) {
+                if (answers(url))
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                if (!process.isAlive())
+                    throw new IllegalStateException("The application exited with " + process.exitValue());
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("The application didn't answer in time");
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static boolean answers(URL url) {
+        try {
+            final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(100);
+            return connection.getResponseCode() == HttpURLConnection.HTTP_OK;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.backend.tasks.startup;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.StandardEnvironment;
+
+public class StartupTimingListenerTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final StartupTimingListener listener = new StartupTimingListener(nanos::get, () -> 300L);
+
+    private final SpringApplication application = new SpringApplication();
+
+    private final String[] args = new String[0];
+
+    private final GenericApplicationContext context = new GenericApplicationContext();
+
+    @Test
+    public void givenStartupEvents_whenReady_thenPhasesAreTimed() {
+
+        // given
+        listener.onApplicationEvent(new ApplicationStartingEvent(application, args));
+        elapse(10);
+        listener.onApplicationEvent(new ApplicationEnvironmentPreparedEvent(application, args,
+                new StandardEnvironment()));
+        elapse(20);
+        listener.onApplicationEvent(new ApplicationPreparedEvent(application, args, context));
+        elapse(1000);
+        listener.onApplicationEvent(new ApplicationStartedEvent(application, args, context));
+        elapse(5);
+
+        // when
+        listener.onApplicationEvent(new ApplicationReadyEvent(application, args, context));
+
+        // then
+        assertThat(listener.getPhases())
+                .containsExactly(entry("jvm", 300L), entry("environment", 10L), entry("context", 20L),
+                        entry("refresh", 1000L), entry("runners", 5L));
+        assertThat(listener.getTotalMillis())
+                .isEqualTo(1335L);
+    }
+
+    @Test
+    public void givenNoStartingEvent_whenReady_thenNothingIsTimed() {
+
+        // when
+        listener.onApplicationEvent(new ApplicationReadyEvent(application, args, context));
+
+        // then
+        assertThat(listener.getPhases())
+                .isEmpty();
+    }
+
+    // PRIVATE
+
+    private void elapse(long millis) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
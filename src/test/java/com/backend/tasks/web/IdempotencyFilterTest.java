@@ -0,0 +1,253 @@
+package com.backend.tasks.web;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+public class IdempotencyFilterTest {
+
+    private final IdempotencyFilter filter = new IdempotencyFilter(100, 60000L, 5000L);
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    public void givenRepeatedKey_whenFilter_thenReplayStoredResponse() throws Exception {
+
+        // given
+        final FilterChain chain = created(new CountDownLatch(0));
+        final MockHttpServletResponse first = filter(post("/orgs", "key"), chain);
+
+        // when
+        final MockHttpServletResponse result = filter(post("/orgs", "key"), chain);
+
+        // then
+        assertThat(executions.get())
+                .isEqualTo(1);
+
+        assertThat(result.getStatus())
+                .isEqualTo(HttpStatus.CREATED.value());
+
+        assertThat(result.getHeader("Location"))
+                .isEqualTo("/orgs/1");
+
+        assertThat(result.getContentAsString())
+                .isEqualTo(first.getContentAsString())
+                .isEqualTo("{\"id\":1}");
+
+        assertThat(result.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED))
+                .isEqualTo("true");
+    }
+
+    @Test
+    public void givenSameKeyOnAnotherEndpoint_whenFilter_thenExecute() throws Exception {
+
+        // given
+        final FilterChain chain = created(new CountDownLatch(0));
+        filter(post("/orgs", "key"), chain);
+
+        // when
+        filter(post("/orgs/1/users", "key"), chain);
+
+        // then
+        assertThat(executions.get())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void givenServerError_whenFilter_thenExecuteRetry() throws Exception {
+
+        // given
+        final FilterChain chain = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+        };
+        filter(post("/orgs", "key"), chain);
+
+        // when
+        filter(post("/orgs", "key"), chain);
+
+        // then
+        assertThat(executions.get())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void givenTooManyRequests_whenFilter_thenExecuteRetry() throws Exception {
+
+        // given
+        final FilterChain created = created(new CountDownLatch(0));
+        final FilterChain chain = (request, response) -> {
+            if (executions.get() == 0) {
+                executions.incrementAndGet();
+                ((HttpServletResponse) response).sendError(HttpStatus.TOO_MANY_REQUESTS.value());
+                return;
+            }
+            created.doFilter(request, response);
+        };
+        filter(post("/orgs", "key"), chain);
+
+        // when
+        final MockHttpServletResponse result = filter(post("/orgs", "key"), chain);
+
+        // then
+        assertThat(executions.get())
+                .isEqualTo(2);
+
+        assertThat(result.getStatus())
+                .isEqualTo(HttpStatus.CREATED.value());
+    }
+
+    @Test
+    public void givenRepeatedKeyWithAnotherBody_whenFilter_thenReturnUnprocessableEntity() throws Exception {
+
+        // given
+        final FilterChain chain = created(new CountDownLatch(0));
+        filter(post("/orgs", "key", "{\"name\":\"first\"}"), chain);
+
+        // when
+        final MockHttpServletResponse result = filter(post("/orgs", "key", "{\"name\":\"second\"}"), chain);
+
+        // then
+        assertThat(executions.get())
+                .isEqualTo(1);
+
+        assertThat(result.getStatus())
+                .isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY.value());
+    }
+
+    @Test
+    public void givenRepeatedKeyWithSameBody_whenFilter_thenReplayStoredResponse() throws Exception {
+
+        // given
+        final FilterChain chain = (request, response) -> {
+            // the body is read by the controller
+            StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8);
+            created(new CountDownLatch(0)).doFilter(request, response);
+        };
+        filter(post("/orgs", "key", "{\"name\":\"first\"}"), chain);
+
+        // when
+        final MockHttpServletResponse result = filter(post("/orgs", "key", "{\"name\":\"first\"}"), chain);
+
+        // then
+        assertThat(executions.get())
+                .isEqualTo(1);
+
+        assertThat(result.getStatus())
+                .isEqualTo(HttpStatus.CREATED.value());
+    }
+
+    @Test
+    public void givenNoKey_whenFilter_thenExecuteEveryRequest() throws Exception {
+
+        // given
+        final FilterChain chain = created(new CountDownLatch(0));
+        filter(post("/orgs", null), chain);
+
+        // when
+        filter(post("/orgs", null), chain);
+
+        // then
+        assertThat(executions.get())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void givenRequestInFlight_whenFilter_thenWaitForItsResponse() throws Exception {
+
+        // given
+        final CountDownLatch release = new CountDownLatch(1);
+        final FilterChain chain = created(release);
+        final CompletableFuture<MockHttpServletResponse> first = CompletableFuture
+                .supplyAsync(() -> filterUnchecked(post("/orgs", "key"), chain));
+        while (executions.get() == 0)
+            Thread.sleep(1L);
+
+        // when
+        final CompletableFuture<MockHttpServletResponse> retry = CompletableFuture
+                .supplyAsync(() -> filterUnchecked(post("/orgs", "key"), chain));
+        Thread.sleep(50L);
+        release.countDown();
+
+        // then
+        assertThat(retry.get(5, TimeUnit.SECONDS).getContentAsString())
+                .isEqualTo(first.get(5, TimeUnit.SECONDS).getContentAsString());
+
+        assertThat(executions.get())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void givenTooLongKey_whenFilter_thenReturnBadRequest() throws Exception {
+
+        // given
+        final StringBuilder key = new StringBuilder();
+        while (key.length() <= IdempotencyFilter.MAX_KEY_LENGTH)
+            key.append("key");
+
+        // when
+        final MockHttpServletResponse result = filter(post("/orgs", key.toString()), created(new CountDownLatch(0)));
+
+        // then
+        assertThat(result.getStatus())
+                .isEqualTo(HttpStatus.BAD_REQUEST.value());
+
+        assertThat(executions.get())
+                .isZero();
+    }
+
+    private FilterChain created(CountDownLatch release) {
+        return (request, response) -> {
+            executions.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(HttpStatus.CREATED.value());
+            httpResponse.setHeader("Location", "/orgs/1");
+            httpResponse.setContentType("application/json");
+            httpResponse.getWriter().write("{\"id\":1}");
+        };
+    }
+
+    private static MockHttpServletRequest post(String uri, String key) {
+        return post(uri, key, "");
+    }
+
+    private static MockHttpServletRequest post(String uri, String key, String body) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        if (key != null)
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, key);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private MockHttpServletResponse filterUnchecked(MockHttpServletRequest request, FilterChain chain) {
+        try {
+            return filter(request, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
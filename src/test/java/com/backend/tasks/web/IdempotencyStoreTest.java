@@ -0,0 +1,82 @@
+package com.backend.tasks.web;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class IdempotencyStoreTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final IdempotencyStore store = new IdempotencyStore(2, 100L, clock::get);
+
+    @Test
+    public void givenStoredEntry_whenPutIfAbsent_thenReturnStoredEntry() {
+
+        // given
+        final IdempotencyStore.Entry first = store.newEntry("key");
+        store.putIfAbsent(first);
+
+        // when
+        final IdempotencyStore.Entry result = store.putIfAbsent(store.newEntry("key"));
+
+        // then
+        assertThat(result)
+                .isSameAs(first);
+    }
+
+    @Test
+    public void givenExpiredEntry_whenPutIfAbsent_thenReplaceEntry() {
+
+        // given
+        store.putIfAbsent(store.newEntry("key"));
+        clock.addAndGet(101L);
+
+        // when
+        final IdempotencyStore.Entry result = store.putIfAbsent(store.newEntry("key"));
+
+        // then
+        assertThat(result)
+                .isNull();
+
+        assertThat(store.size())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void givenFullStore_whenPutIfAbsent_thenEvictOldestEntry() {
+
+        // given
+        final IdempotencyStore.Entry oldest = store.newEntry("key1");
+        store.putIfAbsent(oldest);
+        store.putIfAbsent(store.newEntry("key2"));
+
+        // when
+        store.putIfAbsent(store.newEntry("key3"));
+
+        // then
+        assertThat(store.size())
+                .isEqualTo(2);
+
+        assertThat(store.putIfAbsent(store.newEntry("key1")))
+                .isNull();
+    }
+
+    @Test
+    public void givenRemovedEntry_whenPutIfAbsent_thenStoreEntry() {
+
+        // given
+        final IdempotencyStore.Entry first = store.newEntry("key");
+        store.putIfAbsent(first);
+        store.remove(first);
+
+        // when
+        final IdempotencyStore.Entry result = store.putIfAbsent(store.newEntry("key"));
+
+        // then
+        assertThat(result)
+                .isNull();
+    }
+}
@@ -0,0 +1,177 @@
+package com.backend.tasks.web;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.FilterChain;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class RateLimitFilterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final FilterChain chain = (request, response) -> executions.incrementAndGet();
+
+    @Test
+    public void givenOrganizationOverLimit_whenFilter_thenReturnTooManyRequests() throws Exception {
+
+        // given
+        final RateLimitFilter filter = new RateLimitFilter(true, 1, 2, 100, 100, 60000L, 100, clock::get);
+        filter(filter, "/orgs/1/users");
+        filter(filter, "/orgs/1/users/2");
+
+        // when
+        final MockHttpServletResponse result = filter(filter, "/orgs/1/users");
+        final MockHttpServletResponse other = filter(filter, "/orgs/2/users");
+
+        // then
+        assertThat(result.getStatus())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+
+        assertThat(result.getHeader(HttpHeaders.RETRY_AFTER))
+                .isEqualTo("1");
+
+        assertThat(other.getStatus())
+                .isEqualTo(HttpStatus.OK.value());
+
+        assertThat(executions.get())
+                .isEqualTo(3);
+    }
+
+    @Test
+    public void givenGlobalOverLimit_whenFilter_thenReturnTooManyRequests() throws Exception {
+
+        // given
+        final RateLimitFilter filter = new RateLimitFilter(true, 100, 100, 1, 1, 60000L, 100, clock::get);
+        filter(filter, "/orgs/1/users");
+
+        // when
+        final MockHttpServletResponse result = filter(filter, "/orgs/2/users");
+
+        // then
+        assertThat(result.getStatus())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    public void givenGlobalOverLimit_whenFilter_thenNotCreateOrganizationBucket() throws Exception {
+
+        // given
+        final RateLimitFilter filter = new RateLimitFilter(true, 100, 100, 1, 1, 60000L, 100, clock::get);
+        filter(filter, "/orgs/1/users");
+
+        // when
+        filter(filter, "/orgs/2/users");
+
+        // then
+        assertThat(filter.getBucketCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void givenOrganizationOverLimit_whenFilter_thenNotTakeGlobalToken() throws Exception {
+
+        // given
+        final RateLimitFilter filter = new RateLimitFilter(true, 1, 1, 1, 2, 60000L, 100, clock::get);
+        filter(filter, "/orgs/1/users");
+
+        // when
+        filter(filter, "/orgs/1/users");
+        final MockHttpServletResponse result = filter(filter, "/orgs/2/users");
+
+        // then
+        assertThat(result.getStatus())
+                .isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    public void givenMaxOrganizations_whenFilterOtherOrganization_thenReturnTooManyRequests() throws Exception {
+
+        // given
+        final RateLimitFilter filter = new RateLimitFilter(true, 10, 10, 100, 100, 1000L, 1, clock::get);
+        filter(filter, "/orgs/1/users");
+
+        // when
+        final MockHttpServletResponse result = filter(filter, "/orgs/2/users");
+        final MockHttpServletResponse tracked = filter(filter, "/orgs/1/users");
+
+        // then
+        assertThat(result.getStatus())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+
+        assertThat(result.getHeader(HttpHeaders.RETRY_AFTER))
+                .isEqualTo("1");
+
+        assertThat(tracked.getStatus())
+                .isEqualTo(HttpStatus.OK.value());
+
+        assertThat(filter.getBucketCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void givenOtherEndpoint_whenFilter_thenNotLimit() throws Exception {
+
+        // given
+        final RateLimitFilter filter = new RateLimitFilter(true, 1, 1, 1, 1, 60000L, 100, clock::get);
+        filter(filter, "/orgs");
+
+        // when
+        final MockHttpServletResponse result = filter(filter, "/orgs");
+
+        // then
+        assertThat(result.getStatus())
+                .isEqualTo(HttpStatus.OK.value());
+
+        assertThat(filter.getBucketCount())
+                .isZero();
+    }
+
+    @Test
+    public void givenIdleOrganization_whenFilter_thenEvictBucket() throws Exception {
+
+        // given
+        final RateLimitFilter filter = new RateLimitFilter(true, 10, 10, 100, 100, 1000L, 100, clock::get);
+        filter(filter, "/orgs/1/users");
+        clock.addAndGet(2 * SECOND);
+
+        // when
+        filter(filter, "/orgs/2/users");
+
+        // then
+        assertThat(filter.getBucketCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void givenDisabledFilter_whenFilter_thenNotLimit() throws Exception {
+
+        // given
+        final RateLimitFilter filter = new RateLimitFilter(false, 1, 1, 1, 1, 60000L, 100, clock::get);
+        filter(filter, "/orgs/1/users");
+
+        // when
+        final MockHttpServletResponse result = filter(filter, "/orgs/1/users");
+
+        // then
+        assertThat(result.getStatus())
+                .isEqualTo(HttpStatus.OK.value());
+    }
+
+    private MockHttpServletResponse filter(RateLimitFilter filter, String uri) throws Exception {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", uri), response, chain);
+        return response;
+    }
+}
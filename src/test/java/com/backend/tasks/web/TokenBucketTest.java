@@ -0,0 +1,86 @@
+package com.backend.tasks.web;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void givenFullBucket_whenTryAcquire_thenAllowBurstOnly() {
+
+        // given
+        final TokenBucket bucket = new TokenBucket(10, 3, 0L);
+
+        // when
+        final long first = bucket.tryAcquire(0L);
+        final long second = bucket.tryAcquire(0L);
+        final long third = bucket.tryAcquire(0L);
+        final long fourth = bucket.tryAcquire(0L);
+
+        // then
+        assertThat(new long[] { first, second, third })
+                .containsOnly(0L);
+
+        assertThat(fourth)
+                .isEqualTo(SECOND / 10);
+    }
+
+    @Test
+    public void givenEmptyBucket_whenTryAcquireLater_thenRefill() {
+
+        // given
+        final TokenBucket bucket = new TokenBucket(10, 1, 0L);
+        bucket.tryAcquire(0L);
+
+        // when
+        final long early = bucket.tryAcquire(SECOND / 20);
+        final long late = bucket.tryAcquire(SECOND / 10);
+
+        // then
+        assertThat(early)
+                .isPositive();
+
+        assertThat(late)
+                .isZero();
+    }
+
+    @Test
+    public void givenBucket_whenPeek_thenNotTakeToken() {
+
+        // given
+        final TokenBucket bucket = new TokenBucket(10, 1, 0L);
+
+        // when
+        final long available = bucket.peek(0L);
+        final long taken = bucket.tryAcquire(0L);
+        final long empty = bucket.peek(0L);
+
+        // then
+        assertThat(available)
+                .isZero();
+
+        assertThat(taken)
+                .isZero();
+
+        assertThat(empty)
+                .isPositive();
+    }
+
+    @Test
+    public void givenRefilledBucket_whenIsIdle_thenReturnTrue() {
+
+        // given
+        final TokenBucket bucket = new TokenBucket(10, 1, 0L);
+        bucket.tryAcquire(0L);
+
+        // then
+        assertThat(bucket.isIdle(SECOND / 10, SECOND))
+                .isFalse();
+
+        assertThat(bucket.isIdle(SECOND + SECOND / 10, SECOND))
+                .isTrue();
+    }
+}